@@ -19,13 +19,60 @@
 package org.wso2.identity.event.common.publisher;
 
 import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.EventEnvelope;
 import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 /**
  * The EventPublisher interface.
  */
 public interface EventPublisher {
 
+    /**
+     * Returns the name of the event publisher.
+     * The name is used to resolve the publisher specific configurations, hence it should be stable.
+     *
+     * @return Name of the event publisher.
+     */
+    default String getName() {
+
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * Returns the event URIs handled by the event publisher. Events with other event URIs are not dispatched to the
+     * event publisher. An event URI ending with '*' matches every event URI starting with the preceding characters.
+     * The event URIs are resolved once, when the event publisher is bound.
+     *
+     * @return Handled event URIs, or an empty collection to handle every event.
+     */
+    default Collection<String> getSupportedEventUris() {
+
+        return Collections.emptyList();
+    }
+
+    /**
+     * Returns whether the event publisher publishes without blocking the calling thread, for example by handing the
+     * event over to an asynchronous client which reports the outcome through a callback. When the inline dispatch is
+     * enabled, the events of a non-blocking event publisher are published inline on the publishing thread while its
+     * lane is idle, instead of being handed over to a dispatch thread first. Publishers which block on I/O must not
+     * override this method, so that they do not hold up the publishing threads. A non-blocking event publisher must
+     * not block in {@link #publish(SecurityEventTokenPayload, EventContext)},
+     * {@link #publishAsync(SecurityEventTokenPayload, EventContext)} or {@link #publishBatchAsync(List)}, while
+     * {@link #publishBatch(List)} may wait for the batch to complete.
+     *
+     * @return True if the event publisher does not block while publishing.
+     */
+    default boolean isNonBlocking() {
+
+        return false;
+    }
+
     /**
      * Publish a given event to the intermediate hub.
      *
@@ -34,4 +81,76 @@ public interface EventPublisher {
      * @throws Exception
      */
     void publish(SecurityEventTokenPayload payload, EventContext eventContext) throws Exception;
+
+    /**
+     * Publish a given event to the intermediate hub and return a stage which completes once the hub has accepted
+     * the event.
+     * By default, the event is published with {@link #publish(SecurityEventTokenPayload, EventContext)} and the
+     * returned stage is already complete. Publishers which deliver asynchronously should override this method to
+     * expose the actual delivery.
+     *
+     * @param payload      Event payload.
+     * @param eventContext Event Context.
+     * @return Stage which completes exceptionally if publishing the event failed.
+     */
+    default CompletionStage<Void> publishAsync(SecurityEventTokenPayload payload, EventContext eventContext) {
+
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        try {
+            publish(payload, eventContext);
+            result.complete(null);
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * Publish a batch of events to the intermediate hub.
+     * By default, every event is published individually. Publishers which can amortize the cost of a batch
+     * should override this method.
+     *
+     * @param events Events to be published.
+     * @throws Exception If publishing any of the events failed. The remaining events are still published.
+     */
+    default void publishBatch(List<EventEnvelope> events) throws Exception {
+
+        Exception failure = null;
+        for (EventEnvelope event : events) {
+            try {
+                publish(event.getPayload(), event.getEventContext());
+            } catch (Exception e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Publish a batch of events to the intermediate hub and return a stage which completes once the hub has accepted
+     * every event of the batch.
+     * By default, the batch is published with {@link #publishBatch(List)} and the returned stage is already complete.
+     * Publishers which deliver asynchronously should override this method, so that publishing a batch does not block
+     * the calling thread.
+     *
+     * @param events Events to be published.
+     * @return Stage which completes exceptionally if publishing any of the events failed.
+     */
+    default CompletionStage<Void> publishBatchAsync(List<EventEnvelope> events) {
+
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        try {
+            publishBatch(events);
+            result.complete(null);
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
 }
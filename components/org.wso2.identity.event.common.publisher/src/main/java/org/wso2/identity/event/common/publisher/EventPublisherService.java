@@ -20,14 +20,37 @@ package org.wso2.identity.event.common.publisher;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.identity.event.common.publisher.config.EventPriority;
+import org.wso2.identity.event.common.publisher.config.EventPublisherConfiguration;
+import org.wso2.identity.event.common.publisher.config.RateLimitPolicy;
+import org.wso2.identity.event.common.publisher.internal.DispatchExecutor;
+import org.wso2.identity.event.common.publisher.internal.DuplicateEventFilter;
 import org.wso2.identity.event.common.publisher.internal.EventPublisherDataHolder;
+import org.wso2.identity.event.common.publisher.internal.EventRateLimiter;
+import org.wso2.identity.event.common.publisher.internal.PublishOutcomeCollector;
+import org.wso2.identity.event.common.publisher.internal.PublisherBulkhead;
+import org.wso2.identity.event.common.publisher.internal.SpillOverDispatchExecutor;
+import org.wso2.identity.event.common.publisher.internal.TenantDispatchTask;
+import org.wso2.identity.event.common.publisher.internal.WriteAheadLog;
+import org.wso2.identity.event.common.publisher.metrics.PublishFlightRecorder;
+import org.wso2.identity.event.common.publisher.metrics.PublishMetrics;
 import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.EventEnvelope;
+import org.wso2.identity.event.common.publisher.model.PublishResult;
 import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Event Publisher Service.
@@ -35,34 +58,687 @@ import java.util.concurrent.Executors;
 public class EventPublisherService {
 
     private static final Log log = LogFactory.getLog(EventPublisherService.class);
-    private static final int THREAD_POOL_SIZE = 10;
-    private static final ExecutorService executorService = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+    // Caps the exponential backoff of the redeliveries, so that the delay cannot overflow.
+    private static final int MAX_REDELIVERY_BACKOFF_SHIFT = 16;
+    private final EventPublisherConfiguration configuration;
+    private final int maxBatchSize;
+    private final DuplicateEventFilter duplicateEventFilter;
+    private final EventRateLimiter rateLimiter;
+    private final int maxDeliveryAttempts;
+    private final long redeliveryDelay;
 
+    public EventPublisherService() {
+
+        this(EventPublisherConfiguration.getDefault());
+    }
+
+    public EventPublisherService(EventPublisherConfiguration configuration) {
+
+        this.configuration = configuration;
+        maxBatchSize = configuration.getMaxBatchSize();
+        duplicateEventFilter = configuration.isDedupEnabled() ?
+                new DuplicateEventFilter(configuration.getDedupWindow(), configuration.getDedupCapacity()) : null;
+        rateLimiter = configuration.isRateLimitEnabled() ? new EventRateLimiter(configuration) : null;
+        maxDeliveryAttempts = configuration.getJournalMaxDeliveryAttempts();
+        redeliveryDelay = configuration.getJournalRedeliveryDelay();
+    }
 
     /**
-     * Publish the event to the event publishers.
+     * Publish the event to the event publishers which handle the event URI.
+     * Each event publisher is invoked through its own bulkhead, on the lane of the priority class of the event URI.
+     * Event publishers which declare themselves non-blocking are invoked inline on the publishing thread instead.
+     * When the event journal is enabled, the event is journaled before it is dispatched, and is completed once every
+     * event publisher has acknowledged it through
+     * {@link EventPublisher#publishAsync(SecurityEventTokenPayload, EventContext)}. An event publisher which fails to
+     * publish the journaled event is retried up to the maximum delivery attempts, after which the event is given up
+     * and completed, as is an event dropped by the overflow policy of the bulkhead. Otherwise, when the disk spill-over
+     * is enabled, the event is spilled to the disk while the queue of the bulkhead is above the high-water mark.
+     * When the duplicate suppression is enabled, an event whose jti has already been published within the
+     * deduplication window is not published again. An event above the rate limit of its tenant or event URI is
+     * delayed, dropped or spilled to the disk, as per the rate limit policy. The jti of a dropped event is not
+     * remembered, so that a retry of the event is not suppressed as a duplicate.
      *
      * @param eventPayload  Security Event Token Payload.
      * @param eventContext  Event Context.
      */
     public void publish(SecurityEventTokenPayload eventPayload, EventContext eventContext) {
 
-        List<EventPublisher> eventPublishers =
-                EventPublisherDataHolder.getInstance().getEventPublishers();
+        if (isDuplicate(eventPayload) || !acquirePermit(eventPayload, eventContext, true)) {
+            return;
+        }
+        PublishFlightRecorder.eventAccepted(eventPayload, eventContext);
 
-        for (EventPublisher eventPublisher : eventPublishers) {
+        String eventUri = eventContext != null ? eventContext.getEventUri() : null;
+        PublisherBulkhead[] bulkheads = EventPublisherDataHolder.getInstance().getPublisherBulkheads(eventUri);
+        WriteAheadLog.Entry journalEntry = journal(bulkheads, eventPayload, eventContext);
+        if (journalEntry != null) {
+            dispatchAsync(bulkheads, eventPayload, eventContext, null, journalEntry);
+            return;
+        }
+
+        for (PublisherBulkhead bulkhead : bulkheads) {
+            EventPublisher eventPublisher = bulkhead.getEventPublisher();
             log.debug("Invoking registered event publisher: " + eventPublisher.getClass().getName());
-            CompletableFuture.runAsync(() -> {
-                try {
-                    eventPublisher.publish(eventPayload, eventContext);
-                } catch (Exception e) {
-                    log.error("Error while publishing event with publisher: " +
-                            eventPublisher.getClass().getName(), e);
+            try {
+                bulkhead.getPublishExecutor(eventUri).dispatch(eventPublisher, eventPayload, eventContext);
+            } catch (RejectedExecutionException e) {
+                log.error("Error occurred in async event publishing: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static WriteAheadLog.Entry journal(PublisherBulkhead[] bulkheads, SecurityEventTokenPayload eventPayload,
+                                               EventContext eventContext) {
+
+        WriteAheadLog writeAheadLog = EventPublisherDataHolder.getInstance().getWriteAheadLog();
+        if (writeAheadLog == null || bulkheads.length == 0) {
+            return null;
+        }
+        return writeAheadLog.append(eventPayload, eventContext, bulkheads.length);
+    }
+
+    private static void acknowledge(WriteAheadLog.Entry journalEntry, Throwable error) {
+
+        if (journalEntry != null) {
+            journalEntry.acknowledge(error);
+        }
+    }
+
+    /**
+     * Publish the event to the event publishers which handle the event URI, and return a stage which completes when
+     * all those event publishers have completed or the deadline has expired, whichever happens first.
+     * Each event publisher is invoked through its own bulkhead with
+     * {@link EventPublisher#publishAsync(SecurityEventTokenPayload, EventContext)}. The result reports the outcome
+     * and latency of every event publisher. Publishers which have not completed when the deadline expires, including
+     * the dispatches dropped by the overflow policy of the bulkhead, are reported as timed out. When the event journal
+     * is enabled, the event is journaled before it is dispatched, as with
+     * {@link #publish(SecurityEventTokenPayload, EventContext)}. A suppressed duplicate event completes immediately
+     * with a result without any publisher outcome. An event above the rate limit is delayed as in
+     * {@link #publish(SecurityEventTokenPayload, EventContext)}, but is never spilled. The delayed event is handed over
+     * to the event publishers once the delay elapses, without holding up the publishing thread. It is reported as
+     * failed for every event publisher when it cannot be delayed.
+     *
+     * @param eventPayload Security Event Token Payload.
+     * @param eventContext Event Context.
+     * @param timeout      Time to wait for the event publishers.
+     * @param unit         Time unit of the timeout.
+     * @return Stage of the publish result.
+     */
+    public CompletionStage<PublishResult> publishAsync(SecurityEventTokenPayload eventPayload,
+                                                       EventContext eventContext, long timeout, TimeUnit unit) {
+
+        if (isDuplicate(eventPayload)) {
+            return CompletableFuture.completedFuture(new PublishResult(Collections.emptyList()));
+        }
+
+        String eventUri = eventContext != null ? eventContext.getEventUri() : null;
+        PublisherBulkhead[] bulkheads = EventPublisherDataHolder.getInstance().getPublisherBulkheads(eventUri);
+        String[] publisherNames = new String[bulkheads.length];
+        for (int i = 0; i < bulkheads.length; i++) {
+            publisherNames[i] = bulkheads[i].getPublisherName();
+        }
+        PublishOutcomeCollector collector = new PublishOutcomeCollector(publisherNames);
+        long delay = reservePermit(eventPayload, eventContext, false);
+        if (delay < 0) {
+            for (int i = 0; i < bulkheads.length; i++) {
+                collector.complete(i, new RejectedExecutionException("Rate limit exceeded for the event."));
+            }
+            return collector.awaitWithin(timeout, unit);
+        }
+        PublishFlightRecorder.eventAccepted(eventPayload, eventContext);
+        WriteAheadLog.Entry journalEntry = journal(bulkheads, eventPayload, eventContext);
+        if (delay > 0) {
+            // The event is handed over once the delay elapses, instead of holding up the publishing thread.
+            EventPublisherDataHolder.getInstance().getDelayedDispatchTimer().schedule(() -> dispatchAsync(bulkheads,
+                    eventPayload, eventContext, collector, journalEntry), delay, TimeUnit.NANOSECONDS);
+        } else {
+            dispatchAsync(bulkheads, eventPayload, eventContext, collector, journalEntry);
+        }
+        return collector.awaitWithin(timeout, unit);
+    }
+
+    /**
+     * Dispatch the event to the event publishers with
+     * {@link EventPublisher#publishAsync(SecurityEventTokenPayload, EventContext)}, recording the outcome of each
+     * event publisher once it completes.
+     *
+     * @param bulkheads    Bulkheads of the event publishers which handle the event.
+     * @param eventPayload Security Event Token Payload.
+     * @param eventContext Event Context.
+     * @param collector    Collector of the publisher outcomes, or null if the outcomes are not reported.
+     * @param journalEntry Journal entry of the event, or null if the event is not journaled.
+     */
+    private void dispatchAsync(PublisherBulkhead[] bulkheads, SecurityEventTokenPayload eventPayload,
+                               EventContext eventContext, PublishOutcomeCollector collector,
+                               WriteAheadLog.Entry journalEntry) {
+
+        for (int i = 0; i < bulkheads.length; i++) {
+            dispatchAsync(bulkheads[i], i, eventPayload, eventContext, collector, journalEntry, 1);
+        }
+    }
+
+    /**
+     * Dispatch the event to the event publisher of the bulkhead. A journaled event which the event publisher fails
+     * to publish is redelivered, until the maximum delivery attempts are reached. Only the outcome of the first
+     * attempt is reported to the collector.
+     *
+     * @param bulkhead     Bulkhead of the event publisher.
+     * @param index        Index of the event publisher in the collector.
+     * @param eventPayload Security Event Token Payload.
+     * @param eventContext Event Context.
+     * @param collector    Collector of the publisher outcomes, or null if the outcomes are not reported.
+     * @param journalEntry Journal entry of the event, or null if the event is not journaled.
+     * @param attempt      Delivery attempt, starting from 1.
+     */
+    private void dispatchAsync(PublisherBulkhead bulkhead, int index, SecurityEventTokenPayload eventPayload,
+                               EventContext eventContext, PublishOutcomeCollector collector,
+                               WriteAheadLog.Entry journalEntry, int attempt) {
+
+        String eventUri = eventContext != null ? eventContext.getEventUri() : null;
+        EventPublisher eventPublisher = bulkhead.getEventPublisher();
+        DispatchExecutor executor = bulkhead.getPublishExecutor(eventUri);
+        log.debug("Invoking registered event publisher: " + eventPublisher.getClass().getName());
+        try {
+            executor.execute(new TenantDispatchTask(eventPublisher, eventPayload, eventContext, error -> {
+                if (collector != null && attempt == 1) {
+                    collector.complete(index, error);
+                }
+                if (!redeliver(journalEntry != null, error, attempt, () -> dispatchAsync(bulkhead, index,
+                        eventPayload, eventContext, collector, journalEntry, attempt + 1))) {
+                    acknowledge(journalEntry, error);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            log.error("Event dispatch rejected for publisher: " + eventPublisher.getClass().getName(), e);
+            if (collector != null && attempt == 1) {
+                collector.complete(index, e);
+            }
+            acknowledge(journalEntry, e);
+        }
+    }
+
+    /**
+     * Schedule the redelivery of a journaled event, or batch of journaled events, which an event publisher failed to
+     * publish. The redelivery delay is doubled on every attempt. Dispatches discarded by the overflow policy of the
+     * bulkhead are not redelivered, and neither are the events which have reached the maximum delivery attempts.
+     *
+     * @param journaled  Whether the events are journaled.
+     * @param error      Failure of the event publisher, or null if the events were published.
+     * @param attempt    Delivery attempt which failed, starting from 1.
+     * @param redelivery Redelivery of the events.
+     * @return True if the redelivery is scheduled, false if the events should be acknowledged.
+     */
+    private boolean redeliver(boolean journaled, Throwable error, int attempt, Runnable redelivery) {
+
+        if (!journaled || error == null || error instanceof RejectedExecutionException ||
+                attempt >= maxDeliveryAttempts) {
+            return false;
+        }
+        long delay = redeliveryDelay << Math.min(attempt - 1, MAX_REDELIVERY_BACKOFF_SHIFT);
+        try {
+            EventPublisherDataHolder.getInstance().getDelayedDispatchTimer().schedule(redelivery, delay,
+                    TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.error("Error while scheduling the redelivery of a journaled event.", e);
+            return false;
+        }
+        PublishMetrics.getInstance().recordRetry();
+        return true;
+    }
+
+    /**
+     * Replay the events recovered from the event journal to the event publishers which handle their event URIs.
+     * The events were accepted before they were journaled, hence they bypass the duplicate suppression and the rate
+     * limits. Each event is journaled again before it is dispatched, as with
+     * {@link #publish(SecurityEventTokenPayload, EventContext)}. An event which cannot be journaled again is
+     * dispatched without journaling, and is awaited until every event publisher has completed it.
+     *
+     * @param events Recovered events.
+     * @return Stage which completes with true once every event has been journaled again or completed by the event
+     * publishers, or with false if an event is not handled by any bound event publisher.
+     */
+    public CompletionStage<Boolean> replay(List<EventEnvelope> events) {
+
+        boolean handled = true;
+        List<CompletableFuture<PublishResult>> unjournaledEvents = new ArrayList<>();
+        for (EventEnvelope event : events) {
+            SecurityEventTokenPayload eventPayload = event.getPayload();
+            EventContext eventContext = event.getEventContext();
+            String eventUri = eventContext != null ? eventContext.getEventUri() : null;
+            PublisherBulkhead[] bulkheads = EventPublisherDataHolder.getInstance().getPublisherBulkheads(eventUri);
+            if (bulkheads.length == 0) {
+                handled = false;
+                continue;
+            }
+            PublishMetrics.getInstance().recordRetry();
+            WriteAheadLog.Entry journalEntry = journal(bulkheads, eventPayload, eventContext);
+            if (journalEntry != null) {
+                dispatchAsync(bulkheads, eventPayload, eventContext, null, journalEntry);
+                continue;
+            }
+            String[] publisherNames = new String[bulkheads.length];
+            for (int i = 0; i < bulkheads.length; i++) {
+                publisherNames[i] = bulkheads[i].getPublisherName();
+            }
+            PublishOutcomeCollector collector = new PublishOutcomeCollector(publisherNames);
+            dispatchAsync(bulkheads, eventPayload, eventContext, collector, null);
+            unjournaledEvents.add(collector.await().toCompletableFuture());
+        }
+        boolean replayed = handled;
+        return CompletableFuture.allOf(unjournaledEvents.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> replayed);
+    }
+
+    /**
+     * Publish a set of events to the event publishers.
+     * Each event publisher receives the events whose event URIs it handles.
+     * The events are handed over to each publisher in batches, so that bulk operations pay the dispatch cost once
+     * per batch instead of once per event. Duplicate events are suppressed, and the rate limits are applied, as in
+     * {@link #publish(SecurityEventTokenPayload, EventContext)}. When some of the events are delayed by the rate
+     * limiter, the events are handed over once the longest delay elapses, without holding up the publishing thread.
+     * When the event journal is enabled, each event is journaled before it is handed over, and is completed once every
+     * event publisher which handles it has published the batch carrying it. A batch which an event publisher fails to
+     * publish is redelivered as a whole, as with {@link #publish(SecurityEventTokenPayload, EventContext)}.
+     *
+     * @param events Events to be published.
+     */
+    public void publishAll(List<EventEnvelope> events) {
+
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+        // Take a copy, since the batches are consumed asynchronously.
+        List<EventEnvelope> pendingEvents = new ArrayList<>(events.size());
+        long maxDelay = 0;
+        for (EventEnvelope event : events) {
+            if (isDuplicate(event.getPayload())) {
+                continue;
+            }
+            long delay = reservePermit(event.getPayload(), event.getEventContext(), true);
+            if (delay >= 0) {
+                PublishFlightRecorder.eventAccepted(event.getPayload(), event.getEventContext());
+                pendingEvents.add(event);
+                maxDelay = Math.max(maxDelay, delay);
+            }
+        }
+        if (pendingEvents.isEmpty()) {
+            return;
+        }
+        PublisherBulkhead[] bulkheads = EventPublisherDataHolder.getInstance().getPublisherBulkheadSnapshot();
+        Map<EventEnvelope, WriteAheadLog.Entry> journalEntries = journal(bulkheads, pendingEvents);
+        if (maxDelay > 0) {
+            // The batches are handed over once the longest delay elapses, instead of holding up the publishing thread.
+            EventPublisherDataHolder.getInstance().getDelayedDispatchTimer().schedule(() -> dispatchAll(bulkheads,
+                    pendingEvents, journalEntries), maxDelay, TimeUnit.NANOSECONDS);
+        } else {
+            dispatchAll(bulkheads, pendingEvents, journalEntries);
+        }
+    }
+
+    /**
+     * Journal each event for the event publishers which handle it.
+     *
+     * @param bulkheads Event publisher bulkheads.
+     * @param events    Events to be published.
+     * @return Journal entry of each journaled event.
+     */
+    private static Map<EventEnvelope, WriteAheadLog.Entry> journal(PublisherBulkhead[] bulkheads,
+                                                                   List<EventEnvelope> events) {
+
+        WriteAheadLog writeAheadLog = EventPublisherDataHolder.getInstance().getWriteAheadLog();
+        if (writeAheadLog == null) {
+            return Collections.emptyMap();
+        }
+        Map<EventEnvelope, WriteAheadLog.Entry> journalEntries = new IdentityHashMap<>(events.size());
+        for (EventEnvelope event : events) {
+            EventContext eventContext = event.getEventContext();
+            int acknowledgements = 0;
+            for (PublisherBulkhead bulkhead : bulkheads) {
+                if (bulkhead.handles(eventContext != null ? eventContext.getEventUri() : null)) {
+                    acknowledgements++;
+                }
+            }
+            if (acknowledgements > 0) {
+                WriteAheadLog.Entry journalEntry =
+                        writeAheadLog.append(event.getPayload(), eventContext, acknowledgements);
+                if (journalEntry != null) {
+                    journalEntries.put(event, journalEntry);
+                }
+            }
+        }
+        return journalEntries;
+    }
+
+    private static void acknowledge(Map<EventEnvelope, WriteAheadLog.Entry> journalEntries,
+                                    List<EventEnvelope> batch, Throwable error) {
+
+        if (journalEntries.isEmpty()) {
+            return;
+        }
+        for (EventEnvelope event : batch) {
+            acknowledge(journalEntries.get(event), error);
+        }
+    }
+
+    private void dispatchAll(PublisherBulkhead[] bulkheads, List<EventEnvelope> pendingEvents,
+                             Map<EventEnvelope, WriteAheadLog.Entry> journalEntries) {
+
+        for (PublisherBulkhead bulkhead : bulkheads) {
+            List<EventEnvelope> handledEvents = getHandledEvents(bulkhead, pendingEvents);
+            if (handledEvents.isEmpty()) {
+                continue;
+            }
+            log.debug("Invoking registered event publisher for a batch of " + handledEvents.size() + " events: " +
+                    bulkhead.getEventPublisher().getClass().getName());
+            if (!configuration.isPriorityEnabled()) {
+                publishBatches(bulkhead, EventPriority.NORMAL, handledEvents, journalEntries);
+                continue;
+            }
+            Map<EventPriority, List<EventEnvelope>> laneEvents = new EnumMap<>(EventPriority.class);
+            for (EventEnvelope event : handledEvents) {
+                EventContext eventContext = event.getEventContext();
+                laneEvents.computeIfAbsent(configuration.getEventPriority(
+                        eventContext != null ? eventContext.getEventUri() : null), priority -> new ArrayList<>())
+                        .add(event);
+            }
+            for (Map.Entry<EventPriority, List<EventEnvelope>> lane : laneEvents.entrySet()) {
+                publishBatches(bulkhead, lane.getKey(), lane.getValue(), journalEntries);
+            }
+        }
+    }
+
+    /**
+     * Hand over the events to the event publisher of the bulkhead in batches, through the lane of the priority
+     * class. The events are grouped by tenant before they are batched, so that each batch is scheduled under the
+     * tenant which published it.
+     *
+     * @param bulkhead       Event publisher bulkhead.
+     * @param priority       Priority class of the events.
+     * @param events         Events to be published.
+     * @param journalEntries Journal entries of the events, acknowledged once their batch has been published.
+     */
+    private void publishBatches(PublisherBulkhead bulkhead, EventPriority priority, List<EventEnvelope> events,
+                                Map<EventEnvelope, WriteAheadLog.Entry> journalEntries) {
+
+        for (Map.Entry<String, List<EventEnvelope>> tenantEvents : groupByTenant(events).entrySet()) {
+            publishBatches(bulkhead, priority, tenantEvents.getKey(), tenantEvents.getValue(), journalEntries);
+        }
+    }
+
+    private void publishBatches(PublisherBulkhead bulkhead, EventPriority priority, String tenantDomain,
+                                List<EventEnvelope> events, Map<EventEnvelope, WriteAheadLog.Entry> journalEntries) {
+
+        for (int from = 0; from < events.size(); from += maxBatchSize) {
+            List<EventEnvelope> batch = events.subList(from, Math.min(from + maxBatchSize, events.size()));
+            publishBatch(bulkhead, priority, tenantDomain, batch, journalEntries, 1);
+        }
+    }
+
+    private void publishBatch(PublisherBulkhead bulkhead, EventPriority priority, String tenantDomain,
+                              List<EventEnvelope> batch, Map<EventEnvelope, WriteAheadLog.Entry> journalEntries,
+                              int attempt) {
+
+        EventPublisher eventPublisher = bulkhead.getEventPublisher();
+        try {
+            bulkhead.getPublishExecutor(priority).execute(new TenantDispatchTask(tenantDomain, () -> {
+                PublishFlightRecorder.eventsDispatched(eventPublisher, batch);
+                publishBatchAsync(eventPublisher, batch).whenComplete((ignored, error) -> {
+                    if (error == null) {
+                        acknowledge(journalEntries, batch, null);
+                        return;
+                    }
+                    Throwable failure = error instanceof CompletionException && error.getCause() != null ?
+                            error.getCause() : error;
+                    log.error("Error while publishing a batch of events with publisher: " +
+                            eventPublisher.getClass().getName(), failure);
+                    if (!redeliver(!journalEntries.isEmpty(), failure, attempt, () -> publishBatch(bulkhead,
+                            priority, tenantDomain, batch, journalEntries, attempt + 1))) {
+                        acknowledge(journalEntries, batch, failure);
+                    }
+                });
+            }, error -> acknowledge(journalEntries, batch, error)));
+        } catch (RejectedExecutionException e) {
+            log.error("Error occurred in async batch event publishing: " + e.getMessage(), e);
+            acknowledge(journalEntries, batch, e);
+        }
+    }
+
+    /**
+     * Publish the batch with {@link EventPublisher#publishBatchAsync(List)}, so that a non-blocking event publisher
+     * does not hold up the dispatch thread until the hub has accepted the batch.
+     *
+     * @param eventPublisher Event publisher.
+     * @param batch          Batch of events.
+     * @return Completion of the batch.
+     */
+    private static CompletionStage<Void> publishBatchAsync(EventPublisher eventPublisher, List<EventEnvelope> batch) {
+
+        try {
+            return eventPublisher.publishBatchAsync(batch);
+        } catch (RuntimeException e) {
+            CompletableFuture<Void> failedFuture = new CompletableFuture<>();
+            failedFuture.completeExceptionally(e);
+            return failedFuture;
+        }
+    }
+
+    /**
+     * Returns whether the event is a duplicate of an event published within the deduplication window.
+     *
+     * @param eventPayload Security Event Token Payload.
+     * @return True if the event should be suppressed.
+     */
+    private boolean isDuplicate(SecurityEventTokenPayload eventPayload) {
+
+        if (duplicateEventFilter == null || eventPayload == null ||
+                !duplicateEventFilter.isDuplicate(eventPayload.getJti())) {
+            return false;
+        }
+        log.debug("Suppressed the duplicate event with jti: " + eventPayload.getJti());
+        return true;
+    }
+
+    /**
+     * Acquire a permit to publish the event from the rate limiter. The publishing thread is delayed if the
+     * permit is reserved ahead of time.
+     *
+     * @param eventPayload Security Event Token Payload.
+     * @param eventContext Event Context.
+     * @param spill        Whether the event is spilled to the disk with the {@link RateLimitPolicy#SPILL} policy.
+     * @return True if the event should be published.
+     */
+    private boolean acquirePermit(SecurityEventTokenPayload eventPayload, EventContext eventContext,
+                                  boolean spill) {
+
+        long delay = reservePermit(eventPayload, eventContext, spill);
+        if (delay > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return delay >= 0;
+    }
+
+    /**
+     * Reserve a permit to publish the event from the rate limiter, without delaying the publishing thread.
+     *
+     * @param eventPayload Security Event Token Payload.
+     * @param eventContext Event Context.
+     * @param spill        Whether the event is spilled to the disk with the {@link RateLimitPolicy#SPILL} policy.
+     * @return Time in nanoseconds the event has to be delayed, or -1 if the event should not be published.
+     */
+    private long reservePermit(SecurityEventTokenPayload eventPayload, EventContext eventContext, boolean spill) {
+
+        if (rateLimiter == null) {
+            return 0;
+        }
+        String tenantDomain = eventContext != null ? eventContext.getTenantDomain() : null;
+        String eventUri = eventContext != null ? eventContext.getEventUri() : null;
+        long delay = rateLimiter.acquire(tenantDomain, eventUri);
+        if (delay >= 0) {
+            return delay;
+        }
+        if (spill && rateLimiter.getPolicy() == RateLimitPolicy.SPILL) {
+            spill(eventPayload, eventContext);
+        } else {
+            log.debug("Dropped an event above the rate limit of the tenant: " + tenantDomain + " or the event URI: " +
+                    eventUri);
+            // The dropped event has not been published, hence a retry of it must not be suppressed as a duplicate.
+            forget(eventPayload);
+        }
+        return -1;
+    }
+
+    private void forget(SecurityEventTokenPayload eventPayload) {
+
+        if (duplicateEventFilter != null && eventPayload != null) {
+            duplicateEventFilter.forget(eventPayload.getJti());
+        }
+    }
+
+    /**
+     * Spill the event to the disk for each event publisher which handles the event URI, to be published once drained
+     * back. The event is dropped for the event publishers whose bulkhead does not spill to the disk.
+     *
+     * @param eventPayload Security Event Token Payload.
+     * @param eventContext Event Context.
+     */
+    private static void spill(SecurityEventTokenPayload eventPayload, EventContext eventContext) {
+
+        String eventUri = eventContext != null ? eventContext.getEventUri() : null;
+        for (PublisherBulkhead bulkhead : EventPublisherDataHolder.getInstance().getPublisherBulkheads(eventUri)) {
+            DispatchExecutor executor = bulkhead.getDispatchExecutor(eventUri);
+            if (!(executor instanceof SpillOverDispatchExecutor) ||
+                    !((SpillOverDispatchExecutor) executor).spill(eventPayload, eventContext)) {
+                log.debug("Dropped an event above the rate limit for the publisher: " + bulkhead.getPublisherName());
+            }
+        }
+    }
+
+    /**
+     * Returns the events whose event URIs are handled by the event publisher of the bulkhead.
+     *
+     * @param bulkhead Event publisher bulkhead.
+     * @param events   Events to be published.
+     * @return Handled events.
+     */
+    private static List<EventEnvelope> getHandledEvents(PublisherBulkhead bulkhead, List<EventEnvelope> events) {
+
+        List<EventEnvelope> handledEvents = new ArrayList<>(events.size());
+        for (EventEnvelope event : events) {
+            EventContext eventContext = event.getEventContext();
+            if (bulkhead.handles(eventContext != null ? eventContext.getEventUri() : null)) {
+                handledEvents.add(event);
+            }
+        }
+        return handledEvents.size() == events.size() ? events : handledEvents;
+    }
+
+    /**
+     * Groups the events by their tenant domain, keeping the order of the events of each tenant.
+     *
+     * @param events Events.
+     * @return Events of each tenant domain.
+     */
+    private static Map<String, List<EventEnvelope>> groupByTenant(List<EventEnvelope> events) {
+
+        Map<String, List<EventEnvelope>> tenantEvents = new LinkedHashMap<>();
+        for (EventEnvelope event : events) {
+            EventContext eventContext = event.getEventContext();
+            tenantEvents.computeIfAbsent(eventContext != null ? eventContext.getTenantDomain() : null,
+                    tenantDomain -> new ArrayList<>()).add(event);
+        }
+        return tenantEvents;
+    }
+
+    /**
+     * Returns the number of dispatches rejected because the bulkhead of the publisher was full, across the
+     * currently bound event publishers.
+     *
+     * @return Rejected dispatch count.
+     */
+    public long getRejectedEventCount() {
+
+        long rejectedCount = 0;
+        for (PublisherBulkhead bulkhead : EventPublisherDataHolder.getInstance().getPublisherBulkheadSnapshot()) {
+            for (DispatchExecutor executor : bulkhead.getStartedDispatchExecutors()) {
+                rejectedCount += executor.getRejectedCount();
+            }
+        }
+        return rejectedCount;
+    }
+
+    /**
+     * Returns the number of dispatches dropped due to the configured overflow policy, across the currently bound
+     * event publishers.
+     *
+     * @return Dropped dispatch count.
+     */
+    public long getDroppedEventCount() {
+
+        long droppedCount = 0;
+        for (PublisherBulkhead bulkhead : EventPublisherDataHolder.getInstance().getPublisherBulkheadSnapshot()) {
+            for (DispatchExecutor executor : bulkhead.getStartedDispatchExecutors()) {
+                droppedCount += executor.getDroppedCount();
+            }
+        }
+        return droppedCount;
+    }
+
+    /**
+     * Returns the number of dispatches waiting in the bulkheads of the currently bound event publishers.
+     *
+     * @return Dispatch queue depth.
+     */
+    public int getQueueDepth() {
+
+        int queueDepth = 0;
+        for (PublisherBulkhead bulkhead : EventPublisherDataHolder.getInstance().getPublisherBulkheadSnapshot()) {
+            for (DispatchExecutor executor : bulkhead.getStartedDispatchExecutors()) {
+                queueDepth += executor.getQueueDepth();
+            }
+        }
+        return queueDepth;
+    }
+
+    /**
+     * Returns the number of events suppressed as duplicates of events published within the deduplication window.
+     *
+     * @return Suppressed duplicate event count.
+     */
+    public long getSuppressedDuplicateCount() {
+
+        return duplicateEventFilter != null ? duplicateEventFilter.getSuppressedCount() : 0;
+    }
+
+    /**
+     * Returns the number of events which were above the rate limit of their tenant or event URI, and were dropped or
+     * spilled to the disk.
+     *
+     * @return Rate limited event count.
+     */
+    public long getRateLimitedEventCount() {
+
+        return rateLimiter != null ? rateLimiter.getLimitedCount() : 0;
+    }
+
+    /**
+     * Returns the number of events waiting in the spill files of the currently bound event publishers.
+     *
+     * @return Spilled event count.
+     */
+    public long getSpilledEventCount() {
+
+        long spilledCount = 0;
+        for (PublisherBulkhead bulkhead : EventPublisherDataHolder.getInstance().getPublisherBulkheadSnapshot()) {
+            for (DispatchExecutor executor : bulkhead.getStartedDispatchExecutors()) {
+                if (executor instanceof SpillOverDispatchExecutor) {
+                    spilledCount += ((SpillOverDispatchExecutor) executor).getSpilledCount();
                 }
-            }, executorService).exceptionally(ex -> {
-                log.error("Error occurred in async event publishing: " + ex.getMessage(), ex);
-                return null;
-            });
+            }
         }
+        return spilledCount;
     }
 }
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.config;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Configuration of the bulkhead isolating the dispatches of a single event publisher.
+ */
+public class BulkheadConfiguration {
+
+    private final int threadPoolSize;
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeout;
+    private final DispatchMode dispatchMode;
+    private final int virtualThreadMaxConcurrency;
+    private final WaitStrategy waitStrategy;
+    private final SchedulingPolicy schedulingPolicy;
+    private final int tenantQueueCapacity;
+    private final ToIntFunction<String> tenantWeights;
+    private final long orderedDeliveryTimeout;
+
+    BulkheadConfiguration(int threadPoolSize, int queueCapacity, OverflowPolicy overflowPolicy, long blockTimeout,
+                          DispatchMode dispatchMode, int virtualThreadMaxConcurrency, WaitStrategy waitStrategy,
+                          SchedulingPolicy schedulingPolicy, int tenantQueueCapacity,
+                          ToIntFunction<String> tenantWeights, long orderedDeliveryTimeout) {
+
+        this.threadPoolSize = threadPoolSize;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeout = blockTimeout;
+        this.dispatchMode = dispatchMode;
+        this.virtualThreadMaxConcurrency = virtualThreadMaxConcurrency;
+        this.waitStrategy = waitStrategy;
+        this.schedulingPolicy = schedulingPolicy;
+        this.tenantQueueCapacity = tenantQueueCapacity;
+        this.tenantWeights = tenantWeights;
+        this.orderedDeliveryTimeout = orderedDeliveryTimeout;
+    }
+
+    /**
+     * Returns a copy of the configuration with the given thread pool size and queue capacity.
+     *
+     * @param threadPoolSize Thread pool size.
+     * @param queueCapacity  Queue capacity.
+     * @return Bulkhead configuration.
+     */
+    BulkheadConfiguration withCapacity(int threadPoolSize, int queueCapacity) {
+
+        return new BulkheadConfiguration(threadPoolSize, queueCapacity, overflowPolicy, blockTimeout, dispatchMode,
+                virtualThreadMaxConcurrency, waitStrategy, schedulingPolicy,
+                Math.min(tenantQueueCapacity, queueCapacity), tenantWeights, orderedDeliveryTimeout);
+    }
+
+    /**
+     * Returns the number of threads dedicated to the publisher.
+     *
+     * @return Thread pool size.
+     */
+    public int getThreadPoolSize() {
+
+        return threadPoolSize;
+    }
+
+    /**
+     * Returns the maximum number of dispatches that can wait for the publisher.
+     *
+     * @return Queue capacity.
+     */
+    public int getQueueCapacity() {
+
+        return queueCapacity;
+    }
+
+    /**
+     * Returns the policy applied when the bulkhead is full.
+     *
+     * @return Overflow policy.
+     */
+    public OverflowPolicy getOverflowPolicy() {
+
+        return overflowPolicy;
+    }
+
+    /**
+     * Returns the time in milliseconds a publishing thread waits for the bulkhead with the
+     * {@link OverflowPolicy#BLOCK} policy.
+     *
+     * @return Block timeout in milliseconds.
+     */
+    public long getBlockTimeout() {
+
+        return blockTimeout;
+    }
+
+    /**
+     * Returns the threading mode of the bulkhead.
+     *
+     * @return Dispatch mode.
+     */
+    public DispatchMode getDispatchMode() {
+
+        return dispatchMode;
+    }
+
+    /**
+     * Returns the maximum number of concurrent dispatches with the {@link DispatchMode#VIRTUAL} mode.
+     *
+     * @return Maximum number of concurrent virtual thread dispatches.
+     */
+    public int getVirtualThreadMaxConcurrency() {
+
+        return virtualThreadMaxConcurrency;
+    }
+
+    /**
+     * Returns the strategy used by the idle consumers with the {@link DispatchMode#RING_BUFFER} mode.
+     *
+     * @return Wait strategy.
+     */
+    public WaitStrategy getWaitStrategy() {
+
+        return waitStrategy;
+    }
+
+    /**
+     * Returns the policy used to order the queued dispatches of the publisher.
+     *
+     * @return Scheduling policy.
+     */
+    public SchedulingPolicy getSchedulingPolicy() {
+
+        return schedulingPolicy;
+    }
+
+    /**
+     * Returns the maximum number of dispatches of a single tenant that can wait for the publisher with the
+     * {@link SchedulingPolicy#TENANT_FAIR} policy.
+     *
+     * @return Tenant queue capacity.
+     */
+    public int getTenantQueueCapacity() {
+
+        return tenantQueueCapacity;
+    }
+
+    /**
+     * Returns the scheduling weight of a tenant with the {@link SchedulingPolicy#TENANT_FAIR} policy.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return Scheduling weight of the tenant.
+     */
+    public int getTenantWeight(String tenantDomain) {
+
+        return tenantWeights.applyAsInt(tenantDomain);
+    }
+
+    /**
+     * Returns the time in milliseconds a lane of the {@link DispatchMode#PARTITIONED} mode waits for the delivery of
+     * an event before delivering the next event of the lane.
+     *
+     * @return Ordered delivery timeout in milliseconds.
+     */
+    public long getOrderedDeliveryTimeout() {
+
+        return orderedDeliveryTimeout;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.config;
+
+/**
+ * Threading modes used to dispatch events to the event publishers.
+ */
+public enum DispatchMode {
+
+    /**
+     * Dispatch on a fixed size pool of platform threads.
+     */
+    PLATFORM,
+
+    /**
+     * Dispatch every event on its own virtual thread. Requires JDK 21 or later.
+     */
+    VIRTUAL,
+
+    /**
+     * Dispatch through a preallocated ring buffer consumed by a fixed number of platform threads.
+     * Events are stored in reusable slots, hence publishing an event does not allocate a task per publisher.
+     */
+    RING_BUFFER,
+
+    /**
+     * Dispatch through single threaded lanes. Events are assigned to the lanes by the tenant domain and the ordering
+     * key of the event, so that the events with the same key are delivered one after the other, in order, while the
+     * events with different keys are delivered in parallel.
+     */
+    PARTITIONED;
+
+    /**
+     * Resolve the dispatch mode from the configured value.
+     *
+     * @param value        Configured value.
+     * @param defaultValue Mode to be used when the value is not set or is not a valid mode.
+     * @return Dispatch mode.
+     */
+    public static DispatchMode fromValue(String value, DispatchMode defaultValue) {
+
+        if (value == null) {
+            return defaultValue;
+        }
+        for (DispatchMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value.trim())) {
+                return mode;
+            }
+        }
+        return defaultValue;
+    }
+}
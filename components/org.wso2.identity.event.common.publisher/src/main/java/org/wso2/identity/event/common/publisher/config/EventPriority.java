@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.config;
+
+import java.util.Locale;
+
+/**
+ * Priority classes of the events. Each event publisher dispatches the events of a priority class through a lane
+ * with its own queue and threads, so that a backlog of one class does not delay the events of the others.
+ */
+public enum EventPriority {
+
+    /**
+     * Security critical events, such as session revocation and credential compromise.
+     */
+    CRITICAL,
+
+    /**
+     * Events which are not mapped to another priority class.
+     */
+    NORMAL,
+
+    /**
+     * High volume events which can tolerate a delay, such as profile updates.
+     */
+    BULK;
+
+    /**
+     * Returns the name of the priority class used in the configuration properties.
+     *
+     * @return Configuration name of the priority class.
+     */
+    public String getConfigName() {
+
+        return name().toLowerCase(Locale.ENGLISH);
+    }
+}
@@ -0,0 +1,839 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.config;
+
+import org.wso2.identity.event.common.publisher.constant.EventPublisherConstants;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Event Publisher Configuration.
+ */
+public class EventPublisherConfiguration {
+
+    private static final String DISPATCH_THREAD_POOL_SIZE = "event.publisher.dispatch.threadPoolSize";
+    private static final String DISPATCH_QUEUE_CAPACITY = "event.publisher.dispatch.queueCapacity";
+    private static final String DISPATCH_OVERFLOW_POLICY = "event.publisher.dispatch.overflowPolicy";
+    private static final String DISPATCH_BLOCK_TIMEOUT = "event.publisher.dispatch.blockTimeout";
+    private static final String DISPATCH_MODE = "event.publisher.dispatch.mode";
+    private static final String DISPATCH_VIRTUAL_THREAD_MAX_CONCURRENCY =
+            "event.publisher.dispatch.virtualThreadMaxConcurrency";
+    private static final String DISPATCH_WAIT_STRATEGY = "event.publisher.dispatch.waitStrategy";
+    private static final String DISPATCH_SCHEDULING_POLICY = "event.publisher.dispatch.schedulingPolicy";
+    private static final String DISPATCH_TENANT_QUEUE_CAPACITY = "event.publisher.dispatch.tenantQueueCapacity";
+    private static final String DISPATCH_ORDERED_DELIVERY_TIMEOUT = "event.publisher.dispatch.orderedDeliveryTimeout";
+    private static final String FAIRNESS_DEFAULT_WEIGHT = "event.publisher.fairness.defaultWeight";
+    private static final String FAIRNESS_WEIGHT_PREFIX = "event.publisher.fairness.weight.";
+    private static final String DISPATCH_MAX_BATCH_SIZE = "event.publisher.dispatch.maxBatchSize";
+    private static final String DISPATCH_DRAIN_TIMEOUT = "event.publisher.dispatch.drainTimeout";
+    private static final String DISPATCH_INLINE_ENABLED = "event.publisher.dispatch.inline.enabled";
+    private static final String DEDUP_ENABLED = "event.publisher.dedup.enabled";
+    private static final String DEDUP_WINDOW = "event.publisher.dedup.window";
+    private static final String DEDUP_CAPACITY = "event.publisher.dedup.capacity";
+    private static final String RATE_LIMIT_TENANT_RATE = "event.publisher.rateLimit.tenant.rate";
+    private static final String RATE_LIMIT_TENANT_RATE_PREFIX = "event.publisher.rateLimit.tenant.rate.";
+    private static final String RATE_LIMIT_TENANT_BURST = "event.publisher.rateLimit.tenant.burst";
+    private static final String RATE_LIMIT_EVENT_URI_RATE = "event.publisher.rateLimit.eventUri.rate";
+    private static final String RATE_LIMIT_EVENT_URI_RATE_PREFIX = "event.publisher.rateLimit.eventUri.rate.";
+    private static final String RATE_LIMIT_EVENT_URI_BURST = "event.publisher.rateLimit.eventUri.burst";
+    private static final String RATE_LIMIT_POLICY = "event.publisher.rateLimit.policy";
+    private static final String RATE_LIMIT_MAX_DELAY = "event.publisher.rateLimit.maxDelay";
+    private static final String PRIORITY_CONFIG_PREFIX = "event.publisher.priority.";
+    private static final String PRIORITY_EVENT_URIS = ".eventUris";
+    private static final String PRIORITY_THREAD_POOL_SIZE = ".threadPoolSize";
+    private static final String PRIORITY_QUEUE_CAPACITY = ".queueCapacity";
+    private static final String EVENT_URI_SEPARATOR = ",";
+    private static final String EVENT_URI_PREFIX_WILDCARD = "*";
+    private static final String CARBON_HOME = "carbon.home";
+    private static final String JOURNAL_ENABLED = "event.publisher.journal.enabled";
+    private static final String JOURNAL_DIRECTORY = "event.publisher.journal.directory";
+    private static final String JOURNAL_SEGMENT_SIZE = "event.publisher.journal.segmentSize";
+    private static final String JOURNAL_SYNC_INTERVAL = "event.publisher.journal.syncInterval";
+    private static final String JOURNAL_MAX_DELIVERY_ATTEMPTS = "event.publisher.journal.maxDeliveryAttempts";
+    private static final String JOURNAL_REDELIVERY_DELAY = "event.publisher.journal.redeliveryDelay";
+    private static final String JOURNAL_REPLAY_PUBLISHERS = "event.publisher.journal.replayPublishers";
+    private static final String JOURNAL_REPLAY_TIMEOUT = "event.publisher.journal.replayTimeout";
+    private static final String PUBLISHER_NAME_SEPARATOR = ",";
+    private static final String SPILL_ENABLED = "event.publisher.spill.enabled";
+    private static final String SPILL_DIRECTORY = "event.publisher.spill.directory";
+    private static final String SPILL_HIGH_WATER_MARK = "event.publisher.spill.highWaterMark";
+    private static final String SPILL_DRAIN_RATE = "event.publisher.spill.drainRate";
+    private static final String SPILL_SEGMENT_SIZE = "event.publisher.spill.segmentSize";
+    private static final String SPILL_MAX_SIZE = "event.publisher.spill.maxSize";
+    private static final int MAX_HIGH_WATER_MARK = 100;
+    private static final String BULKHEAD_CONFIG_PREFIX = "event.publisher.bulkhead.";
+    private static final String BULKHEAD_THREAD_POOL_SIZE = ".threadPoolSize";
+    private static final String BULKHEAD_QUEUE_CAPACITY = ".queueCapacity";
+    private static final String BULKHEAD_OVERFLOW_POLICY = ".overflowPolicy";
+    private static final String BULKHEAD_BLOCK_TIMEOUT = ".blockTimeout";
+    private static final String BULKHEAD_DISPATCH_MODE = ".mode";
+    private static final String BULKHEAD_VIRTUAL_THREAD_MAX_CONCURRENCY = ".virtualThreadMaxConcurrency";
+    private static final String BULKHEAD_WAIT_STRATEGY = ".waitStrategy";
+    private static final String BULKHEAD_SCHEDULING_POLICY = ".schedulingPolicy";
+    private static final String BULKHEAD_TENANT_QUEUE_CAPACITY = ".tenantQueueCapacity";
+    private static final String BULKHEAD_ORDERED_DELIVERY_TIMEOUT = ".orderedDeliveryTimeout";
+    private final EventPublisherConfigurationProvider configurationProvider;
+    private final int threadPoolSize;
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeout;
+    private final DispatchMode dispatchMode;
+    private final int virtualThreadMaxConcurrency;
+    private final WaitStrategy waitStrategy;
+    private final SchedulingPolicy schedulingPolicy;
+    private final int tenantQueueCapacity;
+    private final long orderedDeliveryTimeout;
+    private final int defaultTenantWeight;
+    private final Map<String, Integer> tenantWeights;
+    private final int maxBatchSize;
+    private final long drainTimeout;
+    private final boolean inlineDispatchEnabled;
+    private final boolean dedupEnabled;
+    private final long dedupWindow;
+    private final int dedupCapacity;
+    private final int defaultTenantRateLimit;
+    private final Map<String, Integer> tenantRateLimits;
+    private final int tenantRateLimitBurst;
+    private final int defaultEventUriRateLimit;
+    private final Map<String, Integer> eventUriRateLimits;
+    private final int eventUriRateLimitBurst;
+    private final RateLimitPolicy rateLimitPolicy;
+    private final long rateLimitMaxDelay;
+    private final Map<String, EventPriority> eventUriPriorities;
+    private final Map<String, EventPriority> eventUriPrefixPriorities;
+    private final boolean journalEnabled;
+    private final Path journalDirectory;
+    private final int journalSegmentSize;
+    private final long journalSyncInterval;
+    private final int journalMaxDeliveryAttempts;
+    private final long journalRedeliveryDelay;
+    private final Set<String> journalReplayPublishers;
+    private final long journalReplayTimeout;
+    private final boolean spillEnabled;
+    private final Path spillDirectory;
+    private final int spillHighWaterMark;
+    private final int spillDrainRate;
+    private final int spillSegmentSize;
+    private final long spillMaxSize;
+
+    /**
+     * Initialize the {@link EventPublisherConfiguration}.
+     *
+     * @param configurationProvider Event publisher configuration provider.
+     */
+    public EventPublisherConfiguration(EventPublisherConfigurationProvider configurationProvider) {
+
+        this.configurationProvider = configurationProvider;
+        this.threadPoolSize = parsePositiveIntOrDefault(
+                configurationProvider.getProperty(DISPATCH_THREAD_POOL_SIZE),
+                EventPublisherConstants.Dispatch.DEFAULT_THREAD_POOL_SIZE);
+        this.queueCapacity = parsePositiveIntOrDefault(
+                configurationProvider.getProperty(DISPATCH_QUEUE_CAPACITY),
+                EventPublisherConstants.Dispatch.DEFAULT_QUEUE_CAPACITY);
+        this.overflowPolicy = OverflowPolicy.fromValue(
+                configurationProvider.getProperty(DISPATCH_OVERFLOW_POLICY), OverflowPolicy.BLOCK);
+        this.blockTimeout = parsePositiveLongOrDefault(
+                configurationProvider.getProperty(DISPATCH_BLOCK_TIMEOUT),
+                EventPublisherConstants.Dispatch.DEFAULT_BLOCK_TIMEOUT);
+        this.dispatchMode = DispatchMode.fromValue(
+                configurationProvider.getProperty(DISPATCH_MODE), DispatchMode.PLATFORM);
+        this.virtualThreadMaxConcurrency = parsePositiveIntOrDefault(
+                configurationProvider.getProperty(DISPATCH_VIRTUAL_THREAD_MAX_CONCURRENCY),
+                EventPublisherConstants.Dispatch.DEFAULT_VIRTUAL_THREAD_MAX_CONCURRENCY);
+        this.waitStrategy = WaitStrategy.fromValue(
+                configurationProvider.getProperty(DISPATCH_WAIT_STRATEGY), WaitStrategy.BLOCKING);
+        this.schedulingPolicy = SchedulingPolicy.fromValue(
+                configurationProvider.getProperty(DISPATCH_SCHEDULING_POLICY), SchedulingPolicy.FIFO);
+        this.tenantQueueCapacity = parsePositiveIntOrDefault(
+                configurationProvider.getProperty(DISPATCH_TENANT_QUEUE_CAPACITY), Math.max(1, queueCapacity / 2));
+        this.orderedDeliveryTimeout = parsePositiveLongOrDefault(
+                configurationProvider.getProperty(DISPATCH_ORDERED_DELIVERY_TIMEOUT),
+                EventPublisherConstants.Dispatch.DEFAULT_ORDERED_DELIVERY_TIMEOUT);
+        this.defaultTenantWeight = parsePositiveIntOrDefault(
+                configurationProvider.getProperty(FAIRNESS_DEFAULT_WEIGHT),
+                EventPublisherConstants.Dispatch.DEFAULT_TENANT_WEIGHT);
+        Map<String, Integer> weights = new HashMap<>();
+        for (Map.Entry<String, String> weight :
+                configurationProvider.getPropertiesWithPrefix(FAIRNESS_WEIGHT_PREFIX).entrySet()) {
+            weights.put(weight.getKey(), parsePositiveIntOrDefault(weight.getValue(), defaultTenantWeight));
+        }
+        this.tenantWeights = Collections.unmodifiableMap(weights);
+        this.maxBatchSize = parsePositiveIntOrDefault(
+                configurationProvider.getProperty(DISPATCH_MAX_BATCH_SIZE),
+                EventPublisherConstants.Dispatch.DEFAULT_MAX_BATCH_SIZE);
+        this.drainTimeout = parsePositiveLongOrDefault(
+                configurationProvider.getProperty(DISPATCH_DRAIN_TIMEOUT),
+                EventPublisherConstants.Dispatch.DEFAULT_DRAIN_TIMEOUT);
+        String inlineDispatch = configurationProvider.getProperty(DISPATCH_INLINE_ENABLED);
+        this.inlineDispatchEnabled = inlineDispatch != null && Boolean.parseBoolean(inlineDispatch.trim());
+        this.dedupEnabled = Boolean.parseBoolean(configurationProvider.getProperty(DEDUP_ENABLED));
+        this.dedupWindow = parsePositiveLongOrDefault(
+                configurationProvider.getProperty(DEDUP_WINDOW),
+                EventPublisherConstants.Dispatch.DEFAULT_DEDUP_WINDOW);
+        this.dedupCapacity = parsePositiveIntOrDefault(
+                configurationProvider.getProperty(DEDUP_CAPACITY),
+                EventPublisherConstants.Dispatch.DEFAULT_DEDUP_CAPACITY);
+        this.defaultTenantRateLimit = parsePositiveIntOrDefault(
+                configurationProvider.getProperty(RATE_LIMIT_TENANT_RATE), 0);
+        this.tenantRateLimits = parseRateLimits(configurationProvider, RATE_LIMIT_TENANT_RATE_PREFIX);
+        this.tenantRateLimitBurst = parsePositiveIntOrDefault(
+                configurationProvider.getProperty(RATE_LIMIT_TENANT_BURST), 0);
+        this.defaultEventUriRateLimit = parsePositiveIntOrDefault(
+                configurationProvider.getProperty(RATE_LIMIT_EVENT_URI_RATE), 0);
+        this.eventUriRateLimits = parseRateLimits(configurationProvider, RATE_LIMIT_EVENT_URI_RATE_PREFIX);
+        this.eventUriRateLimitBurst = parsePositiveIntOrDefault(
+                configurationProvider.getProperty(RATE_LIMIT_EVENT_URI_BURST), 0);
+        this.rateLimitPolicy = RateLimitPolicy.fromValue(
+                configurationProvider.getProperty(RATE_LIMIT_POLICY), RateLimitPolicy.DELAY);
+        this.rateLimitMaxDelay = parsePositiveLongOrDefault(
+                configurationProvider.getProperty(RATE_LIMIT_MAX_DELAY),
+                EventPublisherConstants.Dispatch.DEFAULT_RATE_LIMIT_MAX_DELAY);
+        Map<String, EventPriority> priorities = new HashMap<>();
+        Map<String, EventPriority> prefixPriorities = new LinkedHashMap<>();
+        // Critical mappings are resolved first, so that they win over the overlapping bulk mappings.
+        for (EventPriority priority : new EventPriority[]{EventPriority.CRITICAL, EventPriority.BULK}) {
+            String eventUris = configurationProvider.getProperty(
+                    PRIORITY_CONFIG_PREFIX + priority.getConfigName() + PRIORITY_EVENT_URIS);
+            if (eventUris == null) {
+                continue;
+            }
+            for (String eventUri : eventUris.split(EVENT_URI_SEPARATOR)) {
+                eventUri = eventUri.trim();
+                if (eventUri.isEmpty()) {
+                    continue;
+                }
+                if (eventUri.endsWith(EVENT_URI_PREFIX_WILDCARD)) {
+                    prefixPriorities.putIfAbsent(eventUri.substring(0,
+                            eventUri.length() - EVENT_URI_PREFIX_WILDCARD.length()), priority);
+                } else {
+                    priorities.putIfAbsent(eventUri, priority);
+                }
+            }
+        }
+        this.eventUriPriorities = Collections.unmodifiableMap(priorities);
+        this.eventUriPrefixPriorities = Collections.unmodifiableMap(prefixPriorities);
+        this.journalEnabled = Boolean.parseBoolean(configurationProvider.getProperty(JOURNAL_ENABLED));
+        String directory = configurationProvider.getProperty(JOURNAL_DIRECTORY);
+        this.journalDirectory = directory != null ? Paths.get(directory) :
+                getDataDirectory(EventPublisherConstants.Journal.DEFAULT_JOURNAL_DIRECTORY);
+        this.journalSegmentSize = parsePositiveIntOrDefault(
+                configurationProvider.getProperty(JOURNAL_SEGMENT_SIZE),
+                EventPublisherConstants.Journal.DEFAULT_SEGMENT_SIZE);
+        this.journalSyncInterval = parsePositiveLongOrDefault(
+                configurationProvider.getProperty(JOURNAL_SYNC_INTERVAL),
+                EventPublisherConstants.Journal.DEFAULT_SYNC_INTERVAL);
+        this.journalMaxDeliveryAttempts = parsePositiveIntOrDefault(
+                configurationProvider.getProperty(JOURNAL_MAX_DELIVERY_ATTEMPTS),
+                EventPublisherConstants.Journal.DEFAULT_MAX_DELIVERY_ATTEMPTS);
+        this.journalRedeliveryDelay = parsePositiveLongOrDefault(
+                configurationProvider.getProperty(JOURNAL_REDELIVERY_DELAY),
+                EventPublisherConstants.Journal.DEFAULT_REDELIVERY_DELAY);
+        Set<String> replayPublishers = new LinkedHashSet<>();
+        String replayPublisherNames = configurationProvider.getProperty(JOURNAL_REPLAY_PUBLISHERS);
+        if (replayPublisherNames != null) {
+            for (String publisherName : replayPublisherNames.split(PUBLISHER_NAME_SEPARATOR)) {
+                if (!publisherName.trim().isEmpty()) {
+                    replayPublishers.add(publisherName.trim());
+                }
+            }
+        }
+        this.journalReplayPublishers = Collections.unmodifiableSet(replayPublishers);
+        this.journalReplayTimeout = parsePositiveLongOrDefault(
+                configurationProvider.getProperty(JOURNAL_REPLAY_TIMEOUT),
+                EventPublisherConstants.Journal.DEFAULT_REPLAY_TIMEOUT);
+        this.spillEnabled = Boolean.parseBoolean(configurationProvider.getProperty(SPILL_ENABLED));
+        String spillDirectoryPath = configurationProvider.getProperty(SPILL_DIRECTORY);
+        this.spillDirectory = spillDirectoryPath != null ? Paths.get(spillDirectoryPath) :
+                getDataDirectory(EventPublisherConstants.Spill.DEFAULT_SPILL_DIRECTORY);
+        this.spillHighWaterMark = Math.min(MAX_HIGH_WATER_MARK, parsePositiveIntOrDefault(
+                configurationProvider.getProperty(SPILL_HIGH_WATER_MARK),
+                EventPublisherConstants.Spill.DEFAULT_HIGH_WATER_MARK));
+        this.spillDrainRate = parsePositiveIntOrDefault(
+                configurationProvider.getProperty(SPILL_DRAIN_RATE),
+                EventPublisherConstants.Spill.DEFAULT_DRAIN_RATE);
+        this.spillSegmentSize = parsePositiveIntOrDefault(
+                configurationProvider.getProperty(SPILL_SEGMENT_SIZE),
+                EventPublisherConstants.Spill.DEFAULT_SEGMENT_SIZE);
+        this.spillMaxSize = parsePositiveLongOrDefault(
+                configurationProvider.getProperty(SPILL_MAX_SIZE),
+                EventPublisherConstants.Spill.DEFAULT_MAX_SIZE);
+    }
+
+    private Map<String, Integer> parseRateLimits(EventPublisherConfigurationProvider configurationProvider,
+                                                 String prefix) {
+
+        Map<String, Integer> rateLimits = new HashMap<>();
+        for (Map.Entry<String, String> rateLimit : configurationProvider.getPropertiesWithPrefix(prefix).entrySet()) {
+            int rate = parsePositiveIntOrDefault(rateLimit.getValue(), 0);
+            if (rate > 0) {
+                rateLimits.put(rateLimit.getKey(), rate);
+            }
+        }
+        return Collections.unmodifiableMap(rateLimits);
+    }
+
+    private static Path getDataDirectory(String name) {
+
+        return Paths.get(System.getProperty(CARBON_HOME, "."), "repository", "data", name);
+    }
+
+    /**
+     * Returns the configuration with all the defaults applied.
+     *
+     * @return Default event publisher configuration.
+     */
+    public static EventPublisherConfiguration getDefault() {
+
+        return new EventPublisherConfiguration(EventPublisherConfigurationProvider.empty());
+    }
+
+    /**
+     * Returns the bulkhead configuration of the given event publisher.
+     * Publisher specific values are configured with the event.publisher.bulkhead.{publisher name} prefix and fall
+     * back to the event.publisher.dispatch values.
+     *
+     * @param publisherName Name of the event publisher.
+     * @return Bulkhead configuration of the event publisher.
+     */
+    public BulkheadConfiguration getBulkheadConfiguration(String publisherName) {
+
+        String prefix = BULKHEAD_CONFIG_PREFIX + publisherName;
+        int bulkheadQueueCapacity = parsePositiveIntOrDefault(
+                configurationProvider.getProperty(prefix + BULKHEAD_QUEUE_CAPACITY), queueCapacity);
+        return new BulkheadConfiguration(
+                parsePositiveIntOrDefault(configurationProvider.getProperty(prefix + BULKHEAD_THREAD_POOL_SIZE),
+                        threadPoolSize),
+                bulkheadQueueCapacity,
+                OverflowPolicy.fromValue(configurationProvider.getProperty(prefix + BULKHEAD_OVERFLOW_POLICY),
+                        overflowPolicy),
+                parsePositiveLongOrDefault(configurationProvider.getProperty(prefix + BULKHEAD_BLOCK_TIMEOUT),
+                        blockTimeout),
+                DispatchMode.fromValue(configurationProvider.getProperty(prefix + BULKHEAD_DISPATCH_MODE),
+                        dispatchMode),
+                parsePositiveIntOrDefault(
+                        configurationProvider.getProperty(prefix + BULKHEAD_VIRTUAL_THREAD_MAX_CONCURRENCY),
+                        virtualThreadMaxConcurrency),
+                WaitStrategy.fromValue(configurationProvider.getProperty(prefix + BULKHEAD_WAIT_STRATEGY),
+                        waitStrategy),
+                SchedulingPolicy.fromValue(configurationProvider.getProperty(prefix + BULKHEAD_SCHEDULING_POLICY),
+                        schedulingPolicy),
+                parsePositiveIntOrDefault(configurationProvider.getProperty(prefix + BULKHEAD_TENANT_QUEUE_CAPACITY),
+                        Math.min(tenantQueueCapacity, bulkheadQueueCapacity)),
+                this::getTenantWeight,
+                parsePositiveLongOrDefault(
+                        configurationProvider.getProperty(prefix + BULKHEAD_ORDERED_DELIVERY_TIMEOUT),
+                        orderedDeliveryTimeout));
+    }
+
+    /**
+     * Returns the bulkhead configuration of the lane of the given priority class of an event publisher.
+     * The {@link EventPriority#NORMAL} lane uses the bulkhead configuration of the event publisher. The other lanes
+     * are sized with the event.publisher.priority.{priority class}.threadPoolSize and queueCapacity properties.
+     *
+     * @param publisherName Name of the event publisher.
+     * @param priority      Priority class of the lane.
+     * @return Bulkhead configuration of the lane.
+     */
+    public BulkheadConfiguration getBulkheadConfiguration(String publisherName, EventPriority priority) {
+
+        BulkheadConfiguration configuration = getBulkheadConfiguration(publisherName);
+        if (priority == EventPriority.NORMAL) {
+            return configuration;
+        }
+        String prefix = PRIORITY_CONFIG_PREFIX + priority.getConfigName();
+        return configuration.withCapacity(
+                parsePositiveIntOrDefault(configurationProvider.getProperty(prefix + PRIORITY_THREAD_POOL_SIZE),
+                        EventPublisherConstants.Dispatch.DEFAULT_PRIORITY_LANE_THREAD_POOL_SIZE),
+                parsePositiveIntOrDefault(configurationProvider.getProperty(prefix + PRIORITY_QUEUE_CAPACITY),
+                        EventPublisherConstants.Dispatch.DEFAULT_PRIORITY_LANE_QUEUE_CAPACITY));
+    }
+
+    /**
+     * Returns whether any event URI is mapped to a priority class other than {@link EventPriority#NORMAL}.
+     *
+     * @return True if the events are dispatched through priority lanes.
+     */
+    public boolean isPriorityEnabled() {
+
+        return !eventUriPriorities.isEmpty() || !eventUriPrefixPriorities.isEmpty();
+    }
+
+    /**
+     * Returns the priority class of the events with the event URI. Event URIs are mapped to priority classes with
+     * the comma separated event.publisher.priority.{priority class}.eventUris properties, where a trailing
+     * {@value #EVENT_URI_PREFIX_WILDCARD} matches every event URI starting with the preceding characters.
+     *
+     * @param eventUri Event URI.
+     * @return Priority class of the event URI.
+     */
+    public EventPriority getEventPriority(String eventUri) {
+
+        if (eventUri == null || !isPriorityEnabled()) {
+            return EventPriority.NORMAL;
+        }
+        EventPriority priority = eventUriPriorities.get(eventUri);
+        if (priority != null) {
+            return priority;
+        }
+        for (Map.Entry<String, EventPriority> prefixPriority : eventUriPrefixPriorities.entrySet()) {
+            if (eventUri.startsWith(prefixPriority.getKey())) {
+                return prefixPriority.getValue();
+            }
+        }
+        return EventPriority.NORMAL;
+    }
+
+    private int parsePositiveIntOrDefault(String value, int defaultValue) {
+
+        try {
+            int parsedValue = value != null ? Integer.parseInt(value) : defaultValue;
+            return parsedValue > 0 ? parsedValue : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private long parsePositiveLongOrDefault(String value, long defaultValue) {
+
+        try {
+            long parsedValue = value != null ? Long.parseLong(value) : defaultValue;
+            return parsedValue > 0 ? parsedValue : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Returns the default number of threads dedicated to each event publisher.
+     *
+     * @return Dispatch thread pool size.
+     */
+    public int getThreadPoolSize() {
+
+        return threadPoolSize;
+    }
+
+    /**
+     * Returns the default maximum number of dispatches that can wait for each event publisher.
+     *
+     * @return Dispatch queue capacity.
+     */
+    public int getQueueCapacity() {
+
+        return queueCapacity;
+    }
+
+    /**
+     * Returns the default policy applied when the dispatch queue of an event publisher is full.
+     *
+     * @return Overflow policy.
+     */
+    public OverflowPolicy getOverflowPolicy() {
+
+        return overflowPolicy;
+    }
+
+    /**
+     * Returns the time in milliseconds a publishing thread waits for queue space with the
+     * {@link OverflowPolicy#BLOCK} policy.
+     *
+     * @return Block timeout in milliseconds.
+     */
+    public long getBlockTimeout() {
+
+        return blockTimeout;
+    }
+
+    /**
+     * Returns the default threading mode used to dispatch events.
+     *
+     * @return Dispatch mode.
+     */
+    public DispatchMode getDispatchMode() {
+
+        return dispatchMode;
+    }
+
+    /**
+     * Returns the maximum number of concurrent dispatches with the {@link DispatchMode#VIRTUAL} mode.
+     *
+     * @return Maximum number of concurrent virtual thread dispatches.
+     */
+    public int getVirtualThreadMaxConcurrency() {
+
+        return virtualThreadMaxConcurrency;
+    }
+
+    /**
+     * Returns the default strategy used by the idle consumers with the {@link DispatchMode#RING_BUFFER} mode.
+     *
+     * @return Wait strategy.
+     */
+    public WaitStrategy getWaitStrategy() {
+
+        return waitStrategy;
+    }
+
+    /**
+     * Returns the default policy used to order the queued dispatches of each event publisher.
+     *
+     * @return Scheduling policy.
+     */
+    public SchedulingPolicy getSchedulingPolicy() {
+
+        return schedulingPolicy;
+    }
+
+    /**
+     * Returns the default maximum number of dispatches of a single tenant that can wait for each event publisher
+     * with the {@link SchedulingPolicy#TENANT_FAIR} policy. Defaults to half of the queue capacity.
+     *
+     * @return Tenant queue capacity.
+     */
+    public int getTenantQueueCapacity() {
+
+        return tenantQueueCapacity;
+    }
+
+    /**
+     * Returns the time in milliseconds a lane of the {@link DispatchMode#PARTITIONED} mode waits for the delivery of
+     * an event before delivering the next event of the lane.
+     *
+     * @return Ordered delivery timeout in milliseconds.
+     */
+    public long getOrderedDeliveryTimeout() {
+
+        return orderedDeliveryTimeout;
+    }
+
+    /**
+     * Returns the scheduling weight of a tenant with the {@link SchedulingPolicy#TENANT_FAIR} policy.
+     * A tenant with weight n is served up to n events on each turn. Weights are configured with the
+     * event.publisher.fairness.weight.{tenant domain} properties.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return Scheduling weight of the tenant.
+     */
+    public int getTenantWeight(String tenantDomain) {
+
+        Integer weight = tenantDomain != null ? tenantWeights.get(tenantDomain) : null;
+        return weight != null ? weight : defaultTenantWeight;
+    }
+
+    /**
+     * Returns the maximum number of events handed over to a publisher in a single batch.
+     *
+     * @return Maximum batch size.
+     */
+    public int getMaxBatchSize() {
+
+        return maxBatchSize;
+    }
+
+    /**
+     * Returns the time in milliseconds to wait for the accepted events to be flushed when the event publisher service
+     * is de-activated.
+     *
+     * @return Drain timeout in milliseconds.
+     */
+    public long getDrainTimeout() {
+
+        return drainTimeout;
+    }
+
+    /**
+     * Returns whether the events of the event publishers which declare themselves non-blocking are published inline
+     * on the publishing thread while their lane is idle, instead of being handed over to the dispatch threads.
+     * Disabled unless configured otherwise.
+     *
+     * @return True if the inline dispatch is enabled.
+     */
+    public boolean isInlineDispatchEnabled() {
+
+        return inlineDispatchEnabled;
+    }
+
+    /**
+     * Returns whether the events with a jti which has already been published within the deduplication window are
+     * suppressed.
+     *
+     * @return True if the duplicate suppression is enabled.
+     */
+    public boolean isDedupEnabled() {
+
+        return dedupEnabled;
+    }
+
+    /**
+     * Returns the time for which the jti of a published event is remembered to suppress its duplicates.
+     *
+     * @return Deduplication window in milliseconds.
+     */
+    public long getDedupWindow() {
+
+        return dedupWindow;
+    }
+
+    /**
+     * Returns the maximum number of jti values remembered within the deduplication window.
+     *
+     * @return Deduplication capacity.
+     */
+    public int getDedupCapacity() {
+
+        return dedupCapacity;
+    }
+
+    /**
+     * Returns whether the accepted events are journaled in the write-ahead log before they are dispatched.
+     *
+     * @return True if the event journal is enabled.
+     */
+    public boolean isJournalEnabled() {
+
+        return journalEnabled;
+    }
+
+    /**
+     * Returns the directory of the event journal segments.
+     *
+     * @return Event journal directory.
+     */
+    public Path getJournalDirectory() {
+
+        return journalDirectory;
+    }
+
+    /**
+     * Returns the size in bytes of an event journal segment.
+     *
+     * @return Journal segment size.
+     */
+    public int getJournalSegmentSize() {
+
+        return journalSegmentSize;
+    }
+
+    /**
+     * Returns the interval in milliseconds at which the event journal is flushed to the disk. Events journaled
+     * within an interval are flushed together.
+     *
+     * @return Journal sync interval in milliseconds.
+     */
+    public long getJournalSyncInterval() {
+
+        return journalSyncInterval;
+    }
+
+    /**
+     * Returns the maximum number of attempts to deliver a journaled event to an event publisher, before its delivery
+     * is given up and the event is completed in the event journal.
+     *
+     * @return Maximum delivery attempts of a journaled event.
+     */
+    public int getJournalMaxDeliveryAttempts() {
+
+        return journalMaxDeliveryAttempts;
+    }
+
+    /**
+     * Returns the time in milliseconds to wait before redelivering a journaled event which an event publisher failed
+     * to publish. The delay is doubled on every further attempt.
+     *
+     * @return Journal redelivery delay in milliseconds.
+     */
+    public long getJournalRedeliveryDelay() {
+
+        return journalRedeliveryDelay;
+    }
+
+    /**
+     * Returns the names of the event publishers which are expected to be bound before the events recovered from the
+     * event journal are replayed.
+     *
+     * @return Names of the event publishers awaited by the replay.
+     */
+    public Set<String> getJournalReplayPublishers() {
+
+        return journalReplayPublishers;
+    }
+
+    /**
+     * Returns the time in milliseconds to wait, from the activation, for the expected event publishers to be bound
+     * before the recovered events are replayed to the event publishers bound at that time.
+     *
+     * @return Journal replay timeout in milliseconds.
+     */
+    public long getJournalReplayTimeout() {
+
+        return journalReplayTimeout;
+    }
+
+    /**
+     * Returns whether a rate limit is configured for the tenants or the event URIs.
+     *
+     * @return True if the published events are rate limited.
+     */
+    public boolean isRateLimitEnabled() {
+
+        return defaultTenantRateLimit > 0 || !tenantRateLimits.isEmpty() || defaultEventUriRateLimit > 0 ||
+                !eventUriRateLimits.isEmpty();
+    }
+
+    /**
+     * Returns the number of events a tenant may publish per second. Rate limits are configured with the
+     * event.publisher.rateLimit.tenant.rate.{tenant domain} properties, and default to the
+     * event.publisher.rateLimit.tenant.rate property.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return Rate limit of the tenant, or 0 if the tenant is not rate limited.
+     */
+    public int getTenantRateLimit(String tenantDomain) {
+
+        Integer rate = tenantDomain != null ? tenantRateLimits.get(tenantDomain) : null;
+        return rate != null ? rate : defaultTenantRateLimit;
+    }
+
+    /**
+     * Returns the number of events a tenant may publish at once above its rate limit.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return Burst size of the tenant rate limit.
+     */
+    public int getTenantRateLimitBurst(String tenantDomain) {
+
+        return tenantRateLimitBurst > 0 ? tenantRateLimitBurst : getTenantRateLimit(tenantDomain);
+    }
+
+    /**
+     * Returns the number of events with the event URI which may be published per second. Rate limits are configured
+     * with the event.publisher.rateLimit.eventUri.rate.{event URI} properties, and default to the
+     * event.publisher.rateLimit.eventUri.rate property.
+     *
+     * @param eventUri Event URI.
+     * @return Rate limit of the event URI, or 0 if the event URI is not rate limited.
+     */
+    public int getEventUriRateLimit(String eventUri) {
+
+        Integer rate = eventUri != null ? eventUriRateLimits.get(eventUri) : null;
+        return rate != null ? rate : defaultEventUriRateLimit;
+    }
+
+    /**
+     * Returns the number of events with the event URI which may be published at once above its rate limit.
+     *
+     * @param eventUri Event URI.
+     * @return Burst size of the event URI rate limit.
+     */
+    public int getEventUriRateLimitBurst(String eventUri) {
+
+        return eventUriRateLimitBurst > 0 ? eventUriRateLimitBurst : getEventUriRateLimit(eventUri);
+    }
+
+    /**
+     * Returns the policy applied to the events published above the rate limit.
+     *
+     * @return Rate limit policy.
+     */
+    public RateLimitPolicy getRateLimitPolicy() {
+
+        return rateLimitPolicy;
+    }
+
+    /**
+     * Returns the maximum time the publishing thread is delayed with the {@link RateLimitPolicy#DELAY} policy.
+     *
+     * @return Maximum delay in milliseconds.
+     */
+    public long getRateLimitMaxDelay() {
+
+        return rateLimitMaxDelay;
+    }
+
+    /**
+     * Returns whether the events are spilled to the disk when the dispatch queue of an event publisher crosses the
+     * high-water mark.
+     *
+     * @return True if the disk spill-over is enabled.
+     */
+    public boolean isSpillEnabled() {
+
+        return spillEnabled;
+    }
+
+    /**
+     * Returns the directory of the spill files. Each event publisher spills to its own sub directory.
+     *
+     * @return Spill directory.
+     */
+    public Path getSpillDirectory() {
+
+        return spillDirectory;
+    }
+
+    /**
+     * Returns the high-water mark of the dispatch queue, as a percentage of the queue capacity, above which the
+     * events are spilled to the disk.
+     *
+     * @return Spill high-water mark percentage.
+     */
+    public int getSpillHighWaterMark() {
+
+        return spillHighWaterMark;
+    }
+
+    /**
+     * Returns the maximum number of spilled events drained back to the dispatch queue of an event publisher per
+     * second.
+     *
+     * @return Spill drain rate.
+     */
+    public int getSpillDrainRate() {
+
+        return spillDrainRate;
+    }
+
+    /**
+     * Returns the size in bytes after which a spill file is rolled over.
+     *
+     * @return Spill segment size.
+     */
+    public int getSpillSegmentSize() {
+
+        return spillSegmentSize;
+    }
+
+    /**
+     * Returns the maximum size in bytes of the spill files of an event publisher. Once reached, the overflow policy
+     * of the bulkhead is applied instead.
+     *
+     * @return Maximum spill size.
+     */
+    public long getSpillMaxSize() {
+
+        return spillMaxSize;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.config;
+
+import edu.umd.cs.findbugs.annotations.SuppressWarnings;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.identity.event.common.publisher.exception.AdapterConfigurationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static java.util.Objects.isNull;
+import static org.wso2.identity.event.common.publisher.constant.EventPublisherConstants.Config.CONFIG_FILE_NAME;
+
+/**
+ * Class to load the event publisher configurations.
+ * Unlike the adapter configurations, the event publisher configurations are optional and the defaults are used
+ * when the configuration file is not available.
+ */
+public class EventPublisherConfigurationProvider {
+
+    private static final Log log = LogFactory.getLog(EventPublisherConfigurationProvider.class);
+    private final Properties publisherProperties;
+
+    private EventPublisherConfigurationProvider(Properties publisherProperties) {
+
+        this.publisherProperties = publisherProperties;
+    }
+
+    /**
+     * Load the event publisher configurations from the identity configuration directory.
+     *
+     * @return Configuration provider backed by the configuration file.
+     * @throws AdapterConfigurationException If the configuration file exists but cannot be read.
+     */
+    public static EventPublisherConfigurationProvider load() throws AdapterConfigurationException {
+
+        return new EventPublisherConfigurationProvider(loadProperties());
+    }
+
+    /**
+     * Returns a configuration provider without any configured properties.
+     *
+     * @return Configuration provider which resolves every property to the default.
+     */
+    public static EventPublisherConfigurationProvider empty() {
+
+        return new EventPublisherConfigurationProvider(new Properties());
+    }
+
+    @SuppressWarnings("PATH_TRAVERSAL_IN")
+    private static Properties loadProperties() throws AdapterConfigurationException {
+
+        Properties properties = new Properties();
+
+        Path path = Paths.get(IdentityUtil.getIdentityConfigDirPath(), CONFIG_FILE_NAME);
+
+        if (Files.notExists(path)) {
+            log.debug(CONFIG_FILE_NAME + " configuration file doesn't exist. Using the default event publisher " +
+                    "configurations.");
+            return properties;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             InputStream inputStream = Channels.newInputStream(channel)) {
+            properties.load(inputStream);
+        } catch (IOException e) {
+            throw new AdapterConfigurationException("Error while retrieving the configuration file.", e);
+        } catch (SecurityException e) {
+            throw new AdapterConfigurationException("Permission denied while accessing the configuration file.", e);
+        }
+
+        return properties;
+    }
+
+    /**
+     * Returns the value of the property provided.
+     *
+     * @param propertyName name of the config property.
+     * @return value of the property provided or null if not found or blank.
+     */
+    public String getProperty(String propertyName) {
+
+        if (isNull(propertyName)) {
+            return null;
+        }
+        String propertyValue = this.publisherProperties.getProperty(propertyName);
+        return propertyValue != null && !propertyValue.trim().isEmpty() ? propertyValue.trim() : null;
+    }
+
+    /**
+     * Returns the non blank properties whose names start with the given prefix.
+     *
+     * @param prefix Prefix of the property names.
+     * @return Property values keyed by the property name without the prefix.
+     */
+    public Map<String, String> getPropertiesWithPrefix(String prefix) {
+
+        Map<String, String> properties = new HashMap<>();
+        for (String propertyName : publisherProperties.stringPropertyNames()) {
+            if (propertyName.startsWith(prefix) && propertyName.length() > prefix.length()) {
+                String propertyValue = getProperty(propertyName);
+                if (propertyValue != null) {
+                    properties.put(propertyName.substring(prefix.length()), propertyValue);
+                }
+            }
+        }
+        return properties;
+    }
+}
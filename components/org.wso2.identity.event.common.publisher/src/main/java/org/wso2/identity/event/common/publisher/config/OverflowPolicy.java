@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.config;
+
+/**
+ * Policies applied when the bounded dispatch queue is full.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Block the publishing thread until space is available or the configured timeout elapses.
+     * The event is dropped if the timeout elapses.
+     */
+    BLOCK,
+
+    /**
+     * Drop the event being published.
+     */
+    DROP_NEWEST,
+
+    /**
+     * Drop the oldest queued event to make room for the event being published.
+     * With the tenant fair scheduling policy, only the oldest queued event of the same tenant is dropped. If the
+     * tenant has no queued events, the event being published is dropped instead.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Run the dispatch on the publishing thread.
+     */
+    CALLER_RUNS;
+
+    /**
+     * Resolve the overflow policy from the configured value.
+     *
+     * @param value        Configured value.
+     * @param defaultValue Policy to be used when the value is not set or is not a valid policy.
+     * @return Overflow policy.
+     */
+    public static OverflowPolicy fromValue(String value, OverflowPolicy defaultValue) {
+
+        if (value == null) {
+            return defaultValue;
+        }
+        for (OverflowPolicy policy : values()) {
+            if (policy.name().equalsIgnoreCase(value.trim())) {
+                return policy;
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.config;
+
+/**
+ * Policies applied to the events published above the rate limit of their tenant or event URI.
+ */
+public enum RateLimitPolicy {
+
+    /**
+     * Delay the publishing thread until the event is within the rate limit, for up to the configured maximum delay.
+     * The event is dropped if it cannot be published within the maximum delay.
+     */
+    DELAY,
+
+    /**
+     * Drop the event.
+     */
+    DROP,
+
+    /**
+     * Spill the event to the disk, to be drained back at the spill drain rate. The event is dropped if the disk
+     * spill-over is not enabled.
+     */
+    SPILL;
+
+    /**
+     * Resolve the rate limit policy from the configured value.
+     *
+     * @param value        Configured value.
+     * @param defaultValue Policy to be used when the value is not set or is not a valid policy.
+     * @return Rate limit policy.
+     */
+    public static RateLimitPolicy fromValue(String value, RateLimitPolicy defaultValue) {
+
+        if (value == null) {
+            return defaultValue;
+        }
+        for (RateLimitPolicy policy : values()) {
+            if (policy.name().equalsIgnoreCase(value.trim())) {
+                return policy;
+            }
+        }
+        return defaultValue;
+    }
+}
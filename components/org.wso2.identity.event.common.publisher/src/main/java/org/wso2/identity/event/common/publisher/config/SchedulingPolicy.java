@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.config;
+
+/**
+ * Policies used to order the queued dispatches of an event publisher.
+ */
+public enum SchedulingPolicy {
+
+    /**
+     * Dispatch in the order the events were published.
+     */
+    FIFO,
+
+    /**
+     * Queue the dispatches of each tenant separately and serve the tenants with weighted deficit round robin, so
+     * that a tenant publishing a burst of events does not delay the events of the other tenants.
+     * Applies to the {@link DispatchMode#PLATFORM} mode.
+     */
+    TENANT_FAIR;
+
+    /**
+     * Resolve the scheduling policy from the configured value.
+     *
+     * @param value        Configured value.
+     * @param defaultValue Policy to be used when the value is not set or is not a valid policy.
+     * @return Scheduling policy.
+     */
+    public static SchedulingPolicy fromValue(String value, SchedulingPolicy defaultValue) {
+
+        if (value == null) {
+            return defaultValue;
+        }
+        for (SchedulingPolicy policy : values()) {
+            if (policy.name().equalsIgnoreCase(value.trim())) {
+                return policy;
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.config;
+
+/**
+ * Strategies used by the idle consumers of the ring buffer dispatch mode to wait for events.
+ * The strategies trade CPU usage for dispatch latency, from the cheapest to the most responsive.
+ */
+public enum WaitStrategy {
+
+    /**
+     * Spin briefly, then block until a publishing thread signals a new event.
+     */
+    BLOCKING,
+
+    /**
+     * Spin, then yield, then park for a short period before polling again.
+     */
+    SLEEPING,
+
+    /**
+     * Spin briefly, then yield the processor before polling again.
+     */
+    YIELDING,
+
+    /**
+     * Poll continuously. Dedicates a processor to each consumer thread.
+     */
+    BUSY_SPIN;
+
+    /**
+     * Resolve the wait strategy from the configured value.
+     *
+     * @param value        Configured value.
+     * @param defaultValue Strategy to be used when the value is not set or is not a valid strategy.
+     * @return Wait strategy.
+     */
+    public static WaitStrategy fromValue(String value, WaitStrategy defaultValue) {
+
+        if (value == null) {
+            return defaultValue;
+        }
+        for (WaitStrategy strategy : values()) {
+            if (strategy.name().equalsIgnoreCase(value.trim())) {
+                return strategy;
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.constant;
+
+/**
+ * Keep constants required by the Event Publisher Service.
+ */
+public class EventPublisherConstants {
+
+    /**
+     * Configuration related constants.
+     */
+    public static class Config {
+        public static final String CONFIG_FILE_NAME = "identity-outbound-adapter.properties";
+        private Config() {}
+    }
+
+    /**
+     * Event dispatch related constants.
+     */
+    public static class Dispatch {
+        public static final String DISPATCH_THREAD_NAME_PREFIX = "event-publisher-dispatch";
+        public static final String DEADLINE_THREAD_NAME_PREFIX = "event-publisher-deadline";
+        public static final String DELAY_THREAD_NAME_PREFIX = "event-publisher-delay";
+        public static final Integer DEFAULT_THREAD_POOL_SIZE = 10;
+        public static final Integer DEFAULT_QUEUE_CAPACITY = 10000;
+        public static final Long DEFAULT_BLOCK_TIMEOUT = 100L;
+        public static final Integer DEFAULT_VIRTUAL_THREAD_MAX_CONCURRENCY = 1000;
+        public static final Integer DEFAULT_MAX_BATCH_SIZE = 500;
+        public static final Integer DEFAULT_TENANT_WEIGHT = 1;
+        public static final Long DEFAULT_ORDERED_DELIVERY_TIMEOUT = 10000L;
+        public static final Long DEFAULT_DRAIN_TIMEOUT = 30000L;
+        public static final Long DEFAULT_DEDUP_WINDOW = 60000L;
+        public static final Integer DEFAULT_DEDUP_CAPACITY = 100000;
+        public static final Long DEFAULT_RATE_LIMIT_MAX_DELAY = 100L;
+        public static final Integer DEFAULT_PRIORITY_LANE_THREAD_POOL_SIZE = 2;
+        public static final Integer DEFAULT_PRIORITY_LANE_QUEUE_CAPACITY = 1000;
+        private Dispatch() {}
+    }
+
+    /**
+     * Event journal related constants.
+     */
+    public static class Journal {
+        public static final String JOURNAL_THREAD_NAME_PREFIX = "event-publisher-journal";
+        public static final String DEFAULT_JOURNAL_DIRECTORY = "event-publisher-journal";
+        public static final String SEGMENT_FILE_PREFIX = "segment-";
+        public static final String SEGMENT_FILE_SUFFIX = ".wal";
+        public static final Integer DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+        public static final Long DEFAULT_SYNC_INTERVAL = 50L;
+        public static final Integer DEFAULT_MAX_DELIVERY_ATTEMPTS = 3;
+        public static final Long DEFAULT_REDELIVERY_DELAY = 1000L;
+        public static final String REPLAY_THREAD_NAME_PREFIX = "event-publisher-replay";
+        public static final Long DEFAULT_REPLAY_TIMEOUT = 30000L;
+        private Journal() {}
+    }
+
+    /**
+     * Disk spill-over related constants.
+     */
+    public static class Spill {
+        public static final String DRAIN_THREAD_NAME_SUFFIX = "-spill";
+        public static final String DEFAULT_SPILL_DIRECTORY = "event-publisher-spill";
+        public static final String SEGMENT_FILE_PREFIX = "spill-";
+        public static final String SEGMENT_FILE_SUFFIX = ".dat";
+        public static final Integer DEFAULT_HIGH_WATER_MARK = 80;
+        public static final Integer DEFAULT_DRAIN_RATE = 1000;
+        public static final Integer DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+        public static final Long DEFAULT_MAX_SIZE = 1024L * 1024 * 1024;
+        private Spill() {}
+    }
+
+    /**
+     * JMX related constants.
+     */
+    public static class Jmx {
+        public static final String PUBLISH_METRICS_OBJECT_NAME =
+                "org.wso2.identity.event.publisher:type=PublishMetrics";
+        public static final String MANAGEMENT_OBJECT_NAME =
+                "org.wso2.identity.event.publisher:type=EventPublisherManagement";
+        private Jmx() {}
+    }
+
+    private EventPublisherConstants() {}
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.identity.event.common.publisher.config.OverflowPolicy;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed size executor backed by a bounded dispatch queue.
+ * When the queue is full, the configured {@link OverflowPolicy} is applied and the rejection is counted, so that
+ * overload results in a predictable degradation instead of an unbounded growth of the heap. A dispatch which is dropped
+ * or evicted by the overflow policy is notified through {@link DiscardableDispatch}, so that the callers waiting on it
+ * are not left pending.
+ */
+public class BoundedDispatchExecutor extends ThreadPoolExecutor implements DispatchExecutor {
+
+    private static final Log log = LogFactory.getLog(BoundedDispatchExecutor.class);
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * Creates a bounded dispatch executor.
+     *
+     * @param name           Name used for the dispatch threads.
+     * @param poolSize       Number of dispatch threads.
+     * @param queueCapacity  Maximum number of queued dispatches.
+     * @param overflowPolicy Policy applied when the queue is full.
+     * @param blockTimeout   Time in milliseconds to wait for queue space with the {@link OverflowPolicy#BLOCK} policy.
+     */
+    public BoundedDispatchExecutor(String name, int poolSize, int queueCapacity, OverflowPolicy overflowPolicy,
+                                   long blockTimeout) {
+
+        this(name, poolSize, new ArrayBlockingQueue<>(queueCapacity), overflowPolicy, blockTimeout);
+    }
+
+    /**
+     * Creates a dispatch executor backed by the given bounded dispatch queue.
+     *
+     * @param name           Name used for the dispatch threads.
+     * @param poolSize       Number of dispatch threads.
+     * @param queue          Bounded dispatch queue.
+     * @param overflowPolicy Policy applied when the queue is full.
+     * @param blockTimeout   Time in milliseconds to wait for queue space with the {@link OverflowPolicy#BLOCK} policy.
+     */
+    public BoundedDispatchExecutor(String name, int poolSize, BlockingQueue<Runnable> queue,
+                                   OverflowPolicy overflowPolicy, long blockTimeout) {
+
+        super(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, queue, new DispatchThreadFactory(name));
+        setRejectedExecutionHandler(new OverflowHandler(overflowPolicy, blockTimeout));
+    }
+
+    @Override
+    public long getRejectedCount() {
+
+        return rejectedCount.get();
+    }
+
+    @Override
+    public long getDroppedCount() {
+
+        return droppedCount.get();
+    }
+
+    @Override
+    public int getQueueDepth() {
+
+        return getQueue().size();
+    }
+
+    @Override
+    public boolean resize(int threadPoolSize) {
+
+        if (threadPoolSize <= 0) {
+            throw new IllegalArgumentException("Thread pool size must be positive: " + threadPoolSize);
+        }
+        // The core pool size may not exceed the maximum pool size at any time.
+        if (threadPoolSize > getMaximumPoolSize()) {
+            setMaximumPoolSize(threadPoolSize);
+            setCorePoolSize(threadPoolSize);
+        } else {
+            setCorePoolSize(threadPoolSize);
+            setMaximumPoolSize(threadPoolSize);
+        }
+        return true;
+    }
+
+    @Override
+    public int abort() {
+
+        int runningCount = getActiveCount();
+        return shutdownNow().size() + runningCount;
+    }
+
+    /**
+     * Rejected execution handler applying the configured overflow policy.
+     */
+    private class OverflowHandler implements RejectedExecutionHandler {
+
+        private final OverflowPolicy overflowPolicy;
+        private final long blockTimeout;
+
+        OverflowHandler(OverflowPolicy overflowPolicy, long blockTimeout) {
+
+            this.overflowPolicy = overflowPolicy;
+            this.blockTimeout = blockTimeout;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+
+            rejectedCount.incrementAndGet();
+            if (executor.isShutdown()) {
+                // The dispatch is not discarded, so that a journaled event is kept to be replayed.
+                drop(null, "Dispatch executor is shut down.");
+                return;
+            }
+            switch (overflowPolicy) {
+                case BLOCK:
+                    block(runnable, executor);
+                    break;
+                case DROP_OLDEST:
+                    dropOldest(runnable, executor.getQueue());
+                    break;
+                case CALLER_RUNS:
+                    runnable.run();
+                    break;
+                case DROP_NEWEST:
+                default:
+                    drop(runnable, "Dropped the event as the dispatch queue is full.");
+                    break;
+            }
+        }
+
+        private void dropOldest(Runnable runnable, BlockingQueue<Runnable> queue) {
+
+            Runnable oldest;
+            if (queue instanceof TenantFairDispatchQueue) {
+                // Only the oldest dispatch of the same tenant is evicted, so that a tenant cannot take the queue space
+                // of the other tenants. If the tenant has nothing queued, the event being published is dropped.
+                String tenantDomain = runnable instanceof TenantAware ?
+                        ((TenantAware) runnable).getTenantDomain() : null;
+                oldest = ((TenantFairDispatchQueue) queue).pollOldest(tenantDomain);
+            } else {
+                oldest = queue.poll();
+            }
+            if (oldest != null) {
+                drop(oldest, "Dropped the oldest queued event as the dispatch queue is full.");
+            }
+            // The queue is offered to directly instead of executing again, so that a queue which stays full cannot
+            // recurse into the overflow handler.
+            if (!queue.offer(runnable)) {
+                drop(runnable, "Dropped the event as the dispatch queue is full.");
+            }
+        }
+
+        private void block(Runnable runnable, ThreadPoolExecutor executor) {
+
+            try {
+                if (!executor.getQueue().offer(runnable, blockTimeout, TimeUnit.MILLISECONDS)) {
+                    drop(runnable, "Dropped the event as the dispatch queue remained full for " + blockTimeout +
+                            "ms.");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                drop(runnable, "Interrupted while waiting for space in the dispatch queue.");
+            }
+        }
+
+        private void drop(Runnable runnable, String reason) {
+
+            droppedCount.incrementAndGet();
+            if (log.isDebugEnabled()) {
+                log.debug(reason);
+            }
+            DiscardableDispatch.discard(runnable, reason);
+        }
+    }
+}
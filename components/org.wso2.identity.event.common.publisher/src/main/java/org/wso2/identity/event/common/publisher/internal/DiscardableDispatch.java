@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Dispatch which is notified when it is discarded without running.
+ * A dispatch dropped or evicted by the overflow policy of an executor never runs, hence the callers waiting on its
+ * completion, such as an event journal entry or a publish outcome collector, are notified through this interface
+ * instead.
+ */
+interface DiscardableDispatch {
+
+    /**
+     * Notify the dispatch that it has been discarded without running.
+     *
+     * @param reason Reason the dispatch was discarded.
+     */
+    void discard(RejectedExecutionException reason);
+
+    /**
+     * Notify the given dispatch that it has been discarded without running, if it is discardable.
+     *
+     * @param dispatch Discarded dispatch.
+     * @param reason   Reason the dispatch was discarded.
+     */
+    static void discard(Runnable dispatch, String reason) {
+
+        if (dispatch instanceof DiscardableDispatch) {
+            ((DiscardableDispatch) dispatch).discard(new RejectedExecutionException(reason));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.wso2.identity.event.common.publisher.EventPublisher;
+import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor used to dispatch events to the event publishers.
+ */
+public interface DispatchExecutor extends Executor {
+
+    /**
+     * Dispatch an event to the event publisher. Failures of the event publisher are logged.
+     *
+     * @param eventPublisher Event publisher.
+     * @param payload        Event payload.
+     * @param eventContext   Event context.
+     */
+    default void dispatch(EventPublisher eventPublisher, SecurityEventTokenPayload payload,
+                          EventContext eventContext) {
+
+        execute(new EventDispatch(eventPublisher, payload, eventContext));
+    }
+
+    /**
+     * Returns the number of dispatches which could not be accepted immediately.
+     *
+     * @return Rejected dispatch count.
+     */
+    long getRejectedCount();
+
+    /**
+     * Returns the number of dispatches discarded due to the overflow policy.
+     *
+     * @return Dropped dispatch count.
+     */
+    long getDroppedCount();
+
+    /**
+     * Returns the number of dispatches waiting to be executed.
+     *
+     * @return Queue depth.
+     */
+    int getQueueDepth();
+
+    /**
+     * Returns the number of dispatches currently running.
+     *
+     * @return Active dispatch count.
+     */
+    int getActiveCount();
+
+    /**
+     * Resize the number of dispatch threads at runtime.
+     *
+     * @param threadPoolSize Number of dispatch threads.
+     * @return True if the executor is resized, false if its number of dispatch threads is fixed.
+     */
+    default boolean resize(int threadPoolSize) {
+
+        return false;
+    }
+
+    /**
+     * Stop accepting new dispatches. Already accepted dispatches are still executed.
+     */
+    void shutdown();
+
+    /**
+     * Wait until the accepted dispatches have been executed after a shutdown, or the timeout elapses.
+     *
+     * @param timeout Maximum time to wait.
+     * @param unit    Unit of the timeout.
+     * @return True if all the accepted dispatches have been executed.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Stop the executor without executing the queued dispatches. Queued dispatches are discarded and running
+     * dispatches are interrupted.
+     *
+     * @return Number of dispatches which were discarded or interrupted.
+     */
+    int abort();
+}
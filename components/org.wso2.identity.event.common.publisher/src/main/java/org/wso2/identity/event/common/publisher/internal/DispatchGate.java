@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+/**
+ * Gate through which the dispatch threads pass before invoking the event publishers, so that the dispatch can be
+ * paused at runtime. While paused, the dispatches accumulate in the queues of the bulkheads and the overflow policies
+ * apply once the queues are full. Publishing threads running a dispatch with the caller runs policy, and virtual
+ * threads, are never held at the gate.
+ */
+public class DispatchGate {
+
+    private final Object monitor = new Object();
+    private volatile boolean paused;
+
+    /**
+     * Hold the dispatch threads at the gate until the dispatch is resumed.
+     */
+    public void pause() {
+
+        paused = true;
+    }
+
+    /**
+     * Release the dispatch threads held at the gate.
+     */
+    public void resume() {
+
+        synchronized (monitor) {
+            paused = false;
+            monitor.notifyAll();
+        }
+    }
+
+    /**
+     * Returns whether the dispatch is paused.
+     *
+     * @return True if the dispatch threads are held at the gate.
+     */
+    public boolean isPaused() {
+
+        return paused;
+    }
+
+    /**
+     * Wait while the dispatch is paused, if the current thread is a dispatch thread. An interrupted thread passes
+     * the gate with its interrupt status restored, so that aborting a bulkhead is not blocked by a pause.
+     */
+    void pass() {
+
+        if (!paused || !DispatchThreadFactory.isDispatchThread()) {
+            return;
+        }
+        synchronized (monitor) {
+            while (paused) {
+                try {
+                    monitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factory for the event dispatch threads.
+ */
+public class DispatchThreadFactory implements ThreadFactory {
+
+    private final String namePrefix;
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    public DispatchThreadFactory(String namePrefix) {
+
+        this.namePrefix = namePrefix;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+
+        Thread thread = new DispatchThread(runnable, namePrefix + "-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Returns whether the current thread is an event dispatch thread.
+     *
+     * @return True if the current thread was created by a dispatch thread factory.
+     */
+    static boolean isDispatchThread() {
+
+        return Thread.currentThread() instanceof DispatchThread;
+    }
+
+    /**
+     * Event dispatch thread, distinguished from the publishing threads which run dispatches with the
+     * {@link org.wso2.identity.event.common.publisher.config.OverflowPolicy#CALLER_RUNS} policy.
+     */
+    private static final class DispatchThread extends Thread {
+
+        private DispatchThread(Runnable runnable, String name) {
+
+            super(runnable, name);
+        }
+    }
+}
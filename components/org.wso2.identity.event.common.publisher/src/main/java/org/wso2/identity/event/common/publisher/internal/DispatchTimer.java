@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single threaded timer of the event publisher service, owned by the {@link EventPublisherDataHolder}.
+ * The timer thread is created on the first use and stopped by {@link #shutdown()} when the service is de-activated.
+ * It is created again if the timer is used once more, e.g. when the service is activated again.
+ */
+public final class DispatchTimer {
+
+    private final String threadNamePrefix;
+    private volatile ScheduledThreadPoolExecutor timer;
+
+    public DispatchTimer(String threadNamePrefix) {
+
+        this.threadNamePrefix = threadNamePrefix;
+    }
+
+    /**
+     * Run the task once the delay elapses.
+     *
+     * @param task  Task.
+     * @param delay Delay.
+     * @param unit  Time unit of the delay.
+     * @return Future of the scheduled task, which can be used to cancel it.
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+
+        while (true) {
+            ScheduledThreadPoolExecutor current = getTimer();
+            try {
+                return current.schedule(task, delay, unit);
+            } catch (RejectedExecutionException e) {
+                if (!current.isShutdown()) {
+                    throw e;
+                }
+                // The timer was shut down concurrently, hence the task is scheduled on a new timer.
+            }
+        }
+    }
+
+    /**
+     * Stop the timer thread. The pending tasks are run right away on the calling thread, so that no task is lost
+     * and nothing keeps waiting on a stopped timer.
+     */
+    public void shutdown() {
+
+        ScheduledThreadPoolExecutor current;
+        synchronized (this) {
+            current = timer;
+            timer = null;
+        }
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        BlockingQueue<Runnable> queue = current.getQueue();
+        for (Runnable pendingTask : queue.toArray(new Runnable[0])) {
+            if (queue.remove(pendingTask)) {
+                pendingTask.run();
+            }
+        }
+        // The timer thread is interrupted, as it may still be waiting for the delay of a removed task.
+        current.shutdownNow();
+    }
+
+    /**
+     * Check whether the timer thread is running.
+     *
+     * @return True if the timer thread is running.
+     */
+    boolean isRunning() {
+
+        ScheduledThreadPoolExecutor current = timer;
+        return current != null && !current.isShutdown();
+    }
+
+    private ScheduledThreadPoolExecutor getTimer() {
+
+        ScheduledThreadPoolExecutor current = timer;
+        if (current == null) {
+            synchronized (this) {
+                current = timer;
+                if (current == null) {
+                    current = new ScheduledThreadPoolExecutor(1, new DispatchThreadFactory(threadNamePrefix));
+                    current.setRemoveOnCancelPolicy(true);
+                    timer = current;
+                }
+            }
+        }
+        return current;
+    }
+}
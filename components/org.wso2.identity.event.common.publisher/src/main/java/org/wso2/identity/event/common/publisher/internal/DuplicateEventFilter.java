@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Sliding window filter of the event identifiers (jti) which have already been published.
+ * The window is divided into time buckets, each holding the identifiers seen within its time slice. When the newest
+ * bucket expires, the oldest bucket is discarded and reused, so an identifier is remembered for at least the window
+ * and at most one bucket longer. The number of remembered identifiers is bounded by the capacity. When the capacity
+ * is exceeded, the oldest bucket is discarded early, shortening the effective window rather than growing the heap.
+ * The filter is best effort. Two copies of an event published concurrently across a bucket rotation may both pass.
+ */
+public class DuplicateEventFilter {
+
+    private static final int BUCKET_COUNT = 8;
+    private final Map<String, Boolean>[] buckets;
+    private final long bucketDurationNanos;
+    private final int capacity;
+    private final LongSupplier clock;
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong suppressedCount = new AtomicLong();
+    private volatile int head;
+    private volatile long headExpiry;
+
+    /**
+     * Create a duplicate event filter.
+     *
+     * @param window   Time in milliseconds for which an event identifier is remembered.
+     * @param capacity Maximum number of event identifiers remembered.
+     */
+    public DuplicateEventFilter(long window, int capacity) {
+
+        this(window, capacity, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    DuplicateEventFilter(long window, int capacity, LongSupplier clock) {
+
+        // An extra bucket holds the identifiers of the time slice in progress.
+        this.buckets = new Map[BUCKET_COUNT + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new ConcurrentHashMap<>();
+        }
+        this.bucketDurationNanos = Math.max(1, TimeUnit.MILLISECONDS.toNanos(window) / BUCKET_COUNT);
+        this.capacity = Math.max(1, capacity);
+        this.clock = clock;
+        this.headExpiry = clock.getAsLong() + bucketDurationNanos;
+    }
+
+    /**
+     * Check whether an event with the identifier has been seen within the window, and remember the identifier if it
+     * has not.
+     *
+     * @param jti Event identifier.
+     * @return True if the event is a duplicate and should be suppressed.
+     */
+    public boolean isDuplicate(String jti) {
+
+        if (jti == null) {
+            return false;
+        }
+        if (clock.getAsLong() - headExpiry >= 0) {
+            rotate();
+        }
+        int current = head;
+        for (int i = 0; i < buckets.length; i++) {
+            if (i != current && buckets[i].containsKey(jti)) {
+                suppressedCount.incrementAndGet();
+                return true;
+            }
+        }
+        if (buckets[current].putIfAbsent(jti, Boolean.TRUE) != null) {
+            suppressedCount.incrementAndGet();
+            return true;
+        }
+        if (size.incrementAndGet() > capacity) {
+            evictOldest();
+        }
+        return false;
+    }
+
+    /**
+     * Forget an event identifier remembered by {@link #isDuplicate(String)}, so that an event which was not published
+     * after all, for example because it was above the rate limit, is not suppressed when it is published again.
+     *
+     * @param jti Event identifier.
+     */
+    public void forget(String jti) {
+
+        if (jti == null) {
+            return;
+        }
+        for (Map<String, Boolean> bucket : buckets) {
+            if (bucket.remove(jti) != null) {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of events suppressed as duplicates.
+     *
+     * @return Suppressed event count.
+     */
+    public long getSuppressedCount() {
+
+        return suppressedCount.get();
+    }
+
+    /**
+     * Returns the number of event identifiers currently remembered.
+     *
+     * @return Remembered event identifier count.
+     */
+    public int size() {
+
+        return size.get();
+    }
+
+    private synchronized void rotate() {
+
+        long now = clock.getAsLong();
+        int rotations = 0;
+        while (now - headExpiry >= 0 && rotations < buckets.length) {
+            advance();
+            headExpiry += bucketDurationNanos;
+            rotations++;
+        }
+        if (now - headExpiry >= 0) {
+            // Idle for longer than the window. Every bucket has been discarded already.
+            headExpiry = now + bucketDurationNanos;
+        }
+    }
+
+    private synchronized void evictOldest() {
+
+        for (int i = 0; i < buckets.length && size.get() > capacity; i++) {
+            int oldest = (head + 1) % buckets.length;
+            if (buckets[oldest].isEmpty()) {
+                // Start a new bucket without waiting for the bucket in progress to expire.
+                advance();
+            } else {
+                discard(oldest);
+            }
+        }
+    }
+
+    private void advance() {
+
+        int next = (head + 1) % buckets.length;
+        discard(next);
+        head = next;
+    }
+
+    private void discard(int index) {
+
+        // The identifiers are removed one by one, as an identifier may be remembered concurrently in the bucket.
+        // Only the removed identifiers are subtracted, so that the size does not drift from the remembered ones.
+        Map<String, Boolean> bucket = buckets[index];
+        for (String jti : bucket.keySet()) {
+            if (bucket.remove(jti) != null) {
+                size.decrementAndGet();
+            }
+        }
+    }
+}
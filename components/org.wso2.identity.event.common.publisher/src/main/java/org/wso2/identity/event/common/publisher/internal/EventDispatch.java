@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.identity.event.common.publisher.EventPublisher;
+import org.wso2.identity.event.common.publisher.metrics.PublishFlightRecorder;
+import org.wso2.identity.event.common.publisher.metrics.PublishMetrics;
+import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Dispatch of a single event to an event publisher.
+ */
+class EventDispatch implements Runnable, TenantAware {
+
+    private static final Log log = LogFactory.getLog(EventDispatch.class);
+    private static final String PARTITION_KEY_SEPARATOR = "/";
+    private final EventPublisher eventPublisher;
+    private final SecurityEventTokenPayload payload;
+    private final EventContext eventContext;
+    private final long createdTime = System.nanoTime();
+
+    EventDispatch(EventPublisher eventPublisher, SecurityEventTokenPayload payload, EventContext eventContext) {
+
+        this.eventPublisher = eventPublisher;
+        this.payload = payload;
+        this.eventContext = eventContext;
+    }
+
+    /**
+     * Publish the event with the event publisher. Failures of the event publisher are logged.
+     *
+     * @param eventPublisher Event publisher.
+     * @param payload        Event payload.
+     * @param eventContext   Event context.
+     */
+    static void publish(EventPublisher eventPublisher, SecurityEventTokenPayload payload,
+                        EventContext eventContext) {
+
+        EventPublisherDataHolder.getInstance().getDispatchGate().pass();
+        PublishFlightRecorder.eventDispatched(eventPublisher, payload, eventContext);
+        long startTime = System.nanoTime();
+        try {
+            eventPublisher.publish(payload, eventContext);
+        } catch (Exception e) {
+            PublishFlightRecorder.publishFailed(payload, eventContext, getEventUri(eventContext), e);
+            log.error("Error while publishing event with publisher: " + eventPublisher.getClass().getName(), e);
+        }
+        recordLatency(eventPublisher, eventContext, startTime);
+    }
+
+    /**
+     * Publish the event asynchronously with the event publisher. Failures of the event publisher are logged.
+     *
+     * @param eventPublisher Event publisher.
+     * @param payload        Event payload.
+     * @param eventContext   Event context.
+     * @return Completion of the publishing.
+     */
+    static CompletionStage<Void> publishAsync(EventPublisher eventPublisher, SecurityEventTokenPayload payload,
+                                              EventContext eventContext) {
+
+        EventPublisherDataHolder.getInstance().getDispatchGate().pass();
+        PublishFlightRecorder.eventDispatched(eventPublisher, payload, eventContext);
+        long startTime = System.nanoTime();
+        try {
+            return eventPublisher.publishAsync(payload, eventContext).whenComplete((ignored, ex) -> {
+                recordLatency(eventPublisher, eventContext, startTime);
+                if (ex != null) {
+                    PublishFlightRecorder.publishFailed(payload, eventContext, getEventUri(eventContext), ex);
+                    log.error("Error while publishing event with publisher: " +
+                            eventPublisher.getClass().getName(), ex);
+                }
+            });
+        } catch (RuntimeException e) {
+            PublishFlightRecorder.publishFailed(payload, eventContext, getEventUri(eventContext), e);
+            log.error("Error while publishing event with publisher: " + eventPublisher.getClass().getName(), e);
+            CompletableFuture<Void> failedFuture = new CompletableFuture<>();
+            failedFuture.completeExceptionally(e);
+            return failedFuture;
+        }
+    }
+
+    /**
+     * Record the time taken by the event publisher to publish the event, since the given start time.
+     *
+     * @param eventPublisher Event publisher.
+     * @param eventContext   Event context.
+     * @param startTime      Start time of the publishing, from {@link System#nanoTime()}.
+     */
+    static void recordLatency(EventPublisher eventPublisher, EventContext eventContext, long startTime) {
+
+        PublishMetrics.getInstance().recordPublishLatency(eventPublisher, getEventUri(eventContext),
+                System.nanoTime() - startTime);
+    }
+
+    private static String getEventUri(EventContext eventContext) {
+
+        return eventContext != null ? eventContext.getEventUri() : null;
+    }
+
+    /**
+     * Returns the key within which the events must be delivered in order. The key is made of the tenant domain and
+     * the ordering key of the event context, falling back to the transaction of the payload.
+     *
+     * @param payload      Event payload.
+     * @param eventContext Event context.
+     * @return Partition key.
+     */
+    static String getPartitionKey(SecurityEventTokenPayload payload, EventContext eventContext) {
+
+        String tenantDomain = eventContext != null ? eventContext.getTenantDomain() : null;
+        String orderingKey = eventContext != null ? eventContext.getOrderingKey() : null;
+        if (orderingKey == null && payload != null) {
+            orderingKey = payload.getTxn();
+        }
+        return orderingKey != null ? tenantDomain + PARTITION_KEY_SEPARATOR + orderingKey : tenantDomain;
+    }
+
+    @Override
+    public String getPartitionKey() {
+
+        return getPartitionKey(payload, eventContext);
+    }
+
+    @Override
+    public String getTenantDomain() {
+
+        return eventContext != null ? eventContext.getTenantDomain() : null;
+    }
+
+    @Override
+    public void run() {
+
+        PublishMetrics.getInstance().recordDispatchWait(System.nanoTime() - createdTime);
+        publish(eventPublisher, payload, eventContext);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.EventEnvelope;
+import org.wso2.identity.event.common.publisher.model.EventPayload;
+import org.wso2.identity.event.common.publisher.model.JsonEventPayload;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encodes the journaled events as JSON documents made of the event payload claims and the event context.
+ * The event payloads are decoded as {@link JsonEventPayload}s.
+ */
+final class EventJournalCodec {
+
+    private static final String ISS = "iss";
+    private static final String JTI = "jti";
+    private static final String IAT = "iat";
+    private static final String AUD = "aud";
+    private static final String TXN = "txn";
+    private static final String RCI = "rci";
+    private static final String EVENTS = "events";
+    private static final String TENANT_DOMAIN = "tenantDomain";
+    private static final String EVENT_URI = "eventUri";
+    private static final String ORDERING_KEY = "orderingKey";
+    private static final TypeReference<Map<String, Object>> PROPERTIES_TYPE =
+            new TypeReference<Map<String, Object>>() { };
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+
+    private EventJournalCodec() {
+
+    }
+
+    static byte[] encode(SecurityEventTokenPayload payload, EventContext eventContext) throws IOException {
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        if (payload != null) {
+            document.put(ISS, payload.getIss());
+            document.put(JTI, payload.getJti());
+            document.put(IAT, payload.getIat());
+            document.put(AUD, payload.getAud());
+            document.put(TXN, payload.getTxn());
+            document.put(RCI, payload.getRci());
+            document.put(EVENTS, payload.getEvents());
+        }
+        if (eventContext != null) {
+            document.put(TENANT_DOMAIN, eventContext.getTenantDomain());
+            document.put(EVENT_URI, eventContext.getEventUri());
+            document.put(ORDERING_KEY, eventContext.getOrderingKey());
+        }
+        return MAPPER.writeValueAsBytes(document);
+    }
+
+    static EventEnvelope decode(byte[] data) throws IOException {
+
+        JsonNode document = MAPPER.readTree(data);
+        Map<String, EventPayload> events = null;
+        JsonNode eventsNode = document.get(EVENTS);
+        if (eventsNode != null && eventsNode.isObject()) {
+            events = new LinkedHashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = eventsNode.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> event = fields.next();
+                events.put(event.getKey(),
+                        new JsonEventPayload(MAPPER.convertValue(event.getValue(), PROPERTIES_TYPE)));
+            }
+        }
+        SecurityEventTokenPayload payload = SecurityEventTokenPayload.builder()
+                .iss(getText(document, ISS))
+                .jti(getText(document, JTI))
+                .iat(document.path(IAT).asLong())
+                .aud(getText(document, AUD))
+                .txn(getText(document, TXN))
+                .rci(getText(document, RCI))
+                .events(events)
+                .build();
+        EventContext eventContext = EventContext.builder()
+                .tenantDomain(getText(document, TENANT_DOMAIN))
+                .eventUri(getText(document, EVENT_URI))
+                .orderingKey(getText(document, ORDERING_KEY))
+                .build();
+        return EventEnvelope.builder().payload(payload).eventContext(eventContext).build();
+    }
+
+    private static String getText(JsonNode document, String field) {
+
+        JsonNode value = document.get(field);
+        return value != null && !value.isNull() ? value.asText() : null;
+    }
+}
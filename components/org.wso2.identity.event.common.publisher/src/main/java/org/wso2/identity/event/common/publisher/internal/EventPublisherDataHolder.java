@@ -19,17 +19,33 @@
 package org.wso2.identity.event.common.publisher.internal;
 
 import org.wso2.identity.event.common.publisher.EventPublisher;
+import org.wso2.identity.event.common.publisher.config.EventPublisherConfiguration;
+import org.wso2.identity.event.common.publisher.constant.EventPublisherConstants;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Event Publisher Data Holder.
+ * Registered event publishers are kept, along with their bulkheads, in an immutable routing table which is swapped
+ * atomically whenever a publisher is bound or unbound. Hence, the publishing path can read the publishers without
+ * any locking. Bind and unbind operations are serialized, since they create and tear down bulkheads.
+ * The timers of the service are owned here as well, so that they are stopped when the service is de-activated.
  */
 public class EventPublisherDataHolder {
 
     private static final EventPublisherDataHolder instance = new EventPublisherDataHolder();
-    private List<EventPublisher> eventPublishers = new ArrayList<>();
+    private volatile EventRoutingTable routingTable = EventRoutingTable.EMPTY;
+    private volatile EventPublisherConfiguration configuration = EventPublisherConfiguration.getDefault();
+    private volatile WriteAheadLog writeAheadLog;
+    private final DispatchGate dispatchGate = new DispatchGate();
+    private final DispatchTimer deadlineTimer =
+            new DispatchTimer(EventPublisherConstants.Dispatch.DEADLINE_THREAD_NAME_PREFIX);
+    private final DispatchTimer delayedDispatchTimer =
+            new DispatchTimer(EventPublisherConstants.Dispatch.DELAY_THREAD_NAME_PREFIX);
 
     private EventPublisherDataHolder() {
 
@@ -40,14 +56,64 @@ public class EventPublisherDataHolder {
         return instance;
     }
 
+    /**
+     * Get the timer which expires the deadlines of the asynchronous publish operations.
+     *
+     * @return Deadline timer.
+     */
+    public DispatchTimer getDeadlineTimer() {
+
+        return deadlineTimer;
+    }
+
+    /**
+     * Get the timer which hands over the events delayed by the rate limiter, and the redeliveries, once their delay
+     * elapses. It is kept apart from the deadline timer, since handing over an event may block on a full lane with
+     * the {@link org.wso2.identity.event.common.publisher.config.OverflowPolicy#BLOCK} policy.
+     *
+     * @return Delayed dispatch timer.
+     */
+    public DispatchTimer getDelayedDispatchTimer() {
+
+        return delayedDispatchTimer;
+    }
+
     /**
      * Get the list of event publishers.
      *
-     * @return List of event publishers.
+     * @return Unmodifiable list of event publishers.
      */
     public List<EventPublisher> getEventPublishers() {
 
-        return eventPublishers;
+        PublisherBulkhead[] snapshot = routingTable.getPublisherBulkheads();
+        List<EventPublisher> eventPublishers = new ArrayList<>(snapshot.length);
+        for (PublisherBulkhead bulkhead : snapshot) {
+            eventPublishers.add(bulkhead.getEventPublisher());
+        }
+        return Collections.unmodifiableList(eventPublishers);
+    }
+
+    /**
+     * Get the current snapshot of event publisher bulkheads.
+     * The returned array is shared and must not be modified.
+     *
+     * @return Event publisher bulkhead snapshot.
+     */
+    public PublisherBulkhead[] getPublisherBulkheadSnapshot() {
+
+        return routingTable.getPublisherBulkheads();
+    }
+
+    /**
+     * Get the bulkheads of the event publishers which handle the event URI, from the current routing table.
+     * The returned array is shared and must not be modified.
+     *
+     * @param eventUri Event URI.
+     * @return Event publisher bulkheads.
+     */
+    public PublisherBulkhead[] getPublisherBulkheads(String eventUri) {
+
+        return routingTable.route(eventUri);
     }
 
     /**
@@ -55,19 +121,32 @@ public class EventPublisherDataHolder {
      *
      * @param eventPublisher Event publisher implementation.
      */
-    public void addEventPublisher(EventPublisher eventPublisher) {
+    public synchronized void addEventPublisher(EventPublisher eventPublisher) {
 
-        eventPublishers.add(eventPublisher);
+        PublisherBulkhead[] current = routingTable.getPublisherBulkheads();
+        PublisherBulkhead[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = new PublisherBulkhead(eventPublisher, configuration);
+        routingTable = new EventRoutingTable(updated);
+        updated[current.length].startSpilledLanes();
     }
 
     /**
-     * Remove event publisher implementation.
+     * Remove event publisher implementation and tear down its bulkhead.
      *
      * @param eventPublisher Event publisher implementation.
      */
-    public void removeEventPublisher(EventPublisher eventPublisher) {
+    public synchronized void removeEventPublisher(EventPublisher eventPublisher) {
 
-        eventPublishers.remove(eventPublisher);
+        PublisherBulkhead[] current = routingTable.getPublisherBulkheads();
+        int index = indexOf(current, eventPublisher);
+        if (index < 0) {
+            return;
+        }
+        PublisherBulkhead[] updated = new PublisherBulkhead[current.length - 1];
+        System.arraycopy(current, 0, updated, 0, index);
+        System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+        routingTable = new EventRoutingTable(updated);
+        current[index].shutdown();
     }
 
     /**
@@ -75,8 +154,127 @@ public class EventPublisherDataHolder {
      *
      * @param eventPublishers List of event publishers.
      */
-    public void setEventPublishers(List<EventPublisher> eventPublishers) {
+    public synchronized void setEventPublishers(List<EventPublisher> eventPublishers) {
+
+        PublisherBulkhead[] previous = routingTable.getPublisherBulkheads();
+        routingTable = createRoutingTable(eventPublishers == null ? Collections.emptyList() : eventPublishers);
+        shutdown(previous);
+        // The spilled lanes are started once the previous lanes are shut down, as they share the spill files.
+        for (PublisherBulkhead bulkhead : routingTable.getPublisherBulkheads()) {
+            bulkhead.startSpilledLanes();
+        }
+    }
+
+    /**
+     * Stop dispatching events to the event publishers and flush the events already accepted by their bulkheads.
+     * The bound event publishers are released, hence new events are no longer accepted. The flush is bounded by
+     * the timeout, and the events which could not be flushed within it are discarded.
+     *
+     * @param timeout Time in milliseconds to wait for the events to be flushed.
+     * @return Number of event dispatches which could not be flushed.
+     */
+    public int drain(long timeout) {
+
+        PublisherBulkhead[] previous;
+        synchronized (this) {
+            previous = routingTable.getPublisherBulkheads();
+            routingTable = EventRoutingTable.EMPTY;
+            shutdown(previous);
+        }
+        // A paused dispatch would hold the accepted events until the timeout elapses.
+        dispatchGate.resume();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        int unflushedCount = 0;
+        for (PublisherBulkhead bulkhead : previous) {
+            unflushedCount += bulkhead.drain(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+        return unflushedCount;
+    }
+
+    /**
+     * Get the gate through which the dispatch threads pass before invoking the event publishers.
+     *
+     * @return Dispatch gate.
+     */
+    public DispatchGate getDispatchGate() {
+
+        return dispatchGate;
+    }
+
+    /**
+     * Get the event publisher configuration.
+     *
+     * @return Event publisher configuration.
+     */
+    public EventPublisherConfiguration getConfiguration() {
+
+        return configuration;
+    }
+
+    /**
+     * Set the event publisher configuration. The bulkheads of the already bound event publishers are recreated
+     * with the new configuration.
+     *
+     * @param configuration Event publisher configuration.
+     */
+    public synchronized void setConfiguration(EventPublisherConfiguration configuration) {
+
+        this.configuration = configuration;
+        PublisherBulkhead[] previous = routingTable.getPublisherBulkheads();
+        List<EventPublisher> eventPublishers = new ArrayList<>(previous.length);
+        for (PublisherBulkhead bulkhead : previous) {
+            eventPublishers.add(bulkhead.getEventPublisher());
+        }
+        routingTable = createRoutingTable(eventPublishers);
+        shutdown(previous);
+    }
+
+    /**
+     * Get the write-ahead log the accepted events are journaled in.
+     *
+     * @return Write-ahead log, or null if the event journal is not enabled.
+     */
+    public WriteAheadLog getWriteAheadLog() {
+
+        return writeAheadLog;
+    }
+
+    /**
+     * Set the write-ahead log the accepted events are journaled in.
+     *
+     * @param writeAheadLog Write-ahead log, or null to disable the event journal.
+     */
+    public void setWriteAheadLog(WriteAheadLog writeAheadLog) {
+
+        this.writeAheadLog = writeAheadLog;
+    }
+
+    private EventRoutingTable createRoutingTable(List<EventPublisher> eventPublishers) {
+
+        if (eventPublishers.isEmpty()) {
+            return EventRoutingTable.EMPTY;
+        }
+        PublisherBulkhead[] bulkheads = new PublisherBulkhead[eventPublishers.size()];
+        for (int i = 0; i < bulkheads.length; i++) {
+            bulkheads[i] = new PublisherBulkhead(eventPublishers.get(i), configuration);
+        }
+        return new EventRoutingTable(bulkheads);
+    }
+
+    private static void shutdown(PublisherBulkhead[] bulkheads) {
+
+        for (PublisherBulkhead bulkhead : bulkheads) {
+            bulkhead.shutdown();
+        }
+    }
+
+    private static int indexOf(PublisherBulkhead[] bulkheads, EventPublisher eventPublisher) {
 
-        this.eventPublishers = eventPublishers;
+        for (int i = 0; i < bulkheads.length; i++) {
+            if (bulkheads[i].getEventPublisher().equals(eventPublisher)) {
+                return i;
+            }
+        }
+        return -1;
     }
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.identity.event.common.publisher.config.EventPriority;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runtime control of the event dispatch, exposed through JMX.
+ */
+public class EventPublisherManagement implements EventPublisherManagementMXBean {
+
+    private static final Log log = LogFactory.getLog(EventPublisherManagement.class);
+    private final EventPublisherDataHolder dataHolder;
+
+    public EventPublisherManagement(EventPublisherDataHolder dataHolder) {
+
+        this.dataHolder = dataHolder;
+    }
+
+    @Override
+    public void pauseDispatch() {
+
+        dataHolder.getDispatchGate().pause();
+        log.info("Paused the event dispatch.");
+    }
+
+    @Override
+    public void resumeDispatch() {
+
+        dataHolder.getDispatchGate().resume();
+        log.info("Resumed the event dispatch.");
+    }
+
+    @Override
+    public boolean isDispatchPaused() {
+
+        return dataHolder.getDispatchGate().isPaused();
+    }
+
+    @Override
+    public boolean resizeThreadPool(String publisherName, String priority, int threadPoolSize) {
+
+        if (threadPoolSize <= 0) {
+            throw new IllegalArgumentException("Thread pool size must be positive: " + threadPoolSize);
+        }
+        EventPriority eventPriority;
+        try {
+            eventPriority = EventPriority.valueOf(String.valueOf(priority).trim().toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown priority class: " + priority);
+        }
+        for (PublisherBulkhead bulkhead : dataHolder.getPublisherBulkheadSnapshot()) {
+            if (bulkhead.getPublisherName().equals(publisherName)) {
+                return bulkhead.resize(eventPriority, threadPoolSize);
+            }
+        }
+        throw new IllegalArgumentException("Unknown event publisher: " + publisherName);
+    }
+
+    @Override
+    public int getActiveThreadCount() {
+
+        int activeCount = 0;
+        for (int count : getActiveThreadCounts().values()) {
+            activeCount += count;
+        }
+        return activeCount;
+    }
+
+    @Override
+    public int getQueueSize() {
+
+        int queueSize = 0;
+        for (int size : getQueueSizes().values()) {
+            queueSize += size;
+        }
+        return queueSize;
+    }
+
+    @Override
+    public Map<String, Integer> getActiveThreadCounts() {
+
+        Map<String, Integer> activeCounts = new HashMap<>();
+        for (PublisherBulkhead bulkhead : dataHolder.getPublisherBulkheadSnapshot()) {
+            int activeCount = 0;
+            for (DispatchExecutor executor : bulkhead.getStartedDispatchExecutors()) {
+                activeCount += executor.getActiveCount();
+            }
+            activeCounts.merge(bulkhead.getPublisherName(), activeCount, Integer::sum);
+        }
+        return activeCounts;
+    }
+
+    @Override
+    public Map<String, Integer> getQueueSizes() {
+
+        Map<String, Integer> queueSizes = new HashMap<>();
+        for (PublisherBulkhead bulkhead : dataHolder.getPublisherBulkheadSnapshot()) {
+            int queueSize = 0;
+            for (DispatchExecutor executor : bulkhead.getStartedDispatchExecutors()) {
+                queueSize += executor.getQueueDepth();
+            }
+            queueSizes.merge(bulkhead.getPublisherName(), queueSize, Integer::sum);
+        }
+        return queueSizes;
+    }
+}
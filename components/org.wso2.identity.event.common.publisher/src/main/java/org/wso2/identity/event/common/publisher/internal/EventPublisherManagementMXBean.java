@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import java.util.Map;
+
+/**
+ * Management interface to control the event dispatch at runtime through JMX.
+ */
+public interface EventPublisherManagementMXBean {
+
+    /**
+     * Hold the dispatch threads before they invoke the event publishers. The events accumulate in the queues of the
+     * bulkheads, and the overflow policies apply once the queues are full.
+     */
+    void pauseDispatch();
+
+    /**
+     * Resume the dispatch paused with {@link #pauseDispatch()}.
+     */
+    void resumeDispatch();
+
+    /**
+     * Returns whether the dispatch is paused.
+     *
+     * @return True if the dispatch is paused.
+     */
+    boolean isDispatchPaused();
+
+    /**
+     * Resize the dispatch threads of a lane of an event publisher.
+     *
+     * @param publisherName  Name of the event publisher.
+     * @param priority       Priority class of the lane: critical, normal or bulk.
+     * @param threadPoolSize Number of dispatch threads.
+     * @return True if the lane is resized, false if the dispatch mode of the lane has a fixed number of threads.
+     */
+    boolean resizeThreadPool(String publisherName, String priority, int threadPoolSize);
+
+    /**
+     * Returns the number of dispatches currently running.
+     *
+     * @return Active dispatch thread count.
+     */
+    int getActiveThreadCount();
+
+    /**
+     * Returns the number of dispatches waiting in the queues of the bulkheads.
+     *
+     * @return Queue size.
+     */
+    int getQueueSize();
+
+    /**
+     * Returns the number of dispatches currently running for each event publisher.
+     *
+     * @return Active dispatch thread counts keyed by the name of the event publisher.
+     */
+    Map<String, Integer> getActiveThreadCounts();
+
+    /**
+     * Returns the number of dispatches waiting in the queues of each event publisher.
+     *
+     * @return Queue sizes keyed by the name of the event publisher.
+     */
+    Map<String, Integer> getQueueSizes();
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.wso2.identity.event.common.publisher.EventPublisherService;
+import org.wso2.identity.event.common.publisher.metrics.LatencyHistogram;
+import org.wso2.identity.event.common.publisher.metrics.LatencySnapshot;
+import org.wso2.identity.event.common.publisher.metrics.PublishMetrics;
+import org.wso2.identity.event.common.publisher.metrics.PublishMetricsMXBean;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JMX view of the publish path metrics, combining the metrics registry with the counters of the event publisher
+ * service.
+ */
+public class EventPublisherMetrics implements PublishMetricsMXBean {
+
+    private final EventPublisherService eventPublisherService;
+    private final PublishMetrics publishMetrics;
+
+    public EventPublisherMetrics(EventPublisherService eventPublisherService, PublishMetrics publishMetrics) {
+
+        this.eventPublisherService = eventPublisherService;
+        this.publishMetrics = publishMetrics;
+    }
+
+    @Override
+    public int getQueueDepth() {
+
+        return eventPublisherService.getQueueDepth();
+    }
+
+    @Override
+    public long getRejectedCount() {
+
+        return eventPublisherService.getRejectedEventCount();
+    }
+
+    @Override
+    public long getDroppedCount() {
+
+        return eventPublisherService.getDroppedEventCount();
+    }
+
+    @Override
+    public long getRateLimitedCount() {
+
+        return eventPublisherService.getRateLimitedEventCount();
+    }
+
+    @Override
+    public long getSuppressedDuplicateCount() {
+
+        return eventPublisherService.getSuppressedDuplicateCount();
+    }
+
+    @Override
+    public long getSpilledCount() {
+
+        return eventPublisherService.getSpilledEventCount();
+    }
+
+    @Override
+    public long getRetryCount() {
+
+        return publishMetrics.getRetryCount();
+    }
+
+    @Override
+    public LatencySnapshot getDispatchWaitTime() {
+
+        return LatencySnapshot.of(publishMetrics.getDispatchWaitTime());
+    }
+
+    @Override
+    public Map<String, LatencySnapshot> getPublisherLatencies() {
+
+        return toSnapshots(publishMetrics.getPublisherLatencies());
+    }
+
+    @Override
+    public Map<String, LatencySnapshot> getEventUriLatencies() {
+
+        return toSnapshots(publishMetrics.getEventUriLatencies());
+    }
+
+    @Override
+    public Map<Integer, Long> getHubResponseCounts() {
+
+        return publishMetrics.getHubResponseCounts();
+    }
+
+    @Override
+    public long getHubFailureCount() {
+
+        return publishMetrics.getHubFailureCount();
+    }
+
+    @Override
+    public void reset() {
+
+        publishMetrics.reset();
+    }
+
+    private static Map<String, LatencySnapshot> toSnapshots(Map<String, LatencyHistogram> histograms) {
+
+        Map<String, LatencySnapshot> snapshots = new HashMap<>();
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            snapshots.put(entry.getKey(), LatencySnapshot.of(entry.getValue()));
+        }
+        return snapshots;
+    }
+}
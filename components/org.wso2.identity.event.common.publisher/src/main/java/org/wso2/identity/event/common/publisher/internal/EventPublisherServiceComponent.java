@@ -20,6 +20,7 @@ package org.wso2.identity.event.common.publisher.internal;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.osgi.framework.ServiceRegistration;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -29,6 +30,24 @@ import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
 import org.wso2.identity.event.common.publisher.EventPublisher;
 import org.wso2.identity.event.common.publisher.EventPublisherService;
+import org.wso2.identity.event.common.publisher.config.EventPublisherConfiguration;
+import org.wso2.identity.event.common.publisher.config.EventPublisherConfigurationProvider;
+import org.wso2.identity.event.common.publisher.constant.EventPublisherConstants;
+import org.wso2.identity.event.common.publisher.metrics.PublishMetrics;
+import org.wso2.identity.event.common.publisher.model.EventEnvelope;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 /**
  * Event Publisher Service Component.
@@ -39,13 +58,26 @@ import org.wso2.identity.event.common.publisher.EventPublisherService;
 public class EventPublisherServiceComponent {
 
     private static final Log log = LogFactory.getLog(EventPublisherServiceComponent.class);
+    private ServiceRegistration<?> serviceRegistration;
+    private EventPublisherService eventPublisherService;
+    private ScheduledExecutorService replayExecutor;
+    private boolean replayPending;
 
     @Activate
     protected void activate(ComponentContext context) {
 
         try {
-            context.getBundleContext().registerService(EventPublisherService.class.getName(),
-                    new EventPublisherService(), null);
+            EventPublisherConfiguration configuration =
+                    new EventPublisherConfiguration(EventPublisherConfigurationProvider.load());
+            EventPublisherDataHolder.getInstance().setConfiguration(configuration);
+            if (configuration.isJournalEnabled()) {
+                openWriteAheadLog(configuration);
+            }
+            eventPublisherService = new EventPublisherService(configuration);
+            serviceRegistration = context.getBundleContext().registerService(EventPublisherService.class.getName(),
+                    eventPublisherService, null);
+            registerMBeans();
+            scheduleReplay(configuration);
             log.debug("Successfully activated the Event Publisher service.");
         } catch (Throwable e) {
             log.error("Can not activate the Event Publisher service." + e.getMessage(), e);
@@ -55,6 +87,31 @@ public class EventPublisherServiceComponent {
     @Deactivate
     protected void deactivate(ComponentContext context) {
 
+        if (serviceRegistration != null) {
+            try {
+                serviceRegistration.unregister();
+            } catch (IllegalStateException e) {
+                log.debug("Event Publisher service is already unregistered.", e);
+            }
+            serviceRegistration = null;
+        }
+        unregisterMBeans();
+        stopReplay();
+        // The delayed dispatches are handed over right away, so that they are flushed by the drain below.
+        EventPublisherDataHolder.getInstance().getDelayedDispatchTimer().shutdown();
+        long drainTimeout = EventPublisherDataHolder.getInstance().getConfiguration().getDrainTimeout();
+        int unflushedCount = EventPublisherDataHolder.getInstance().drain(drainTimeout);
+        if (unflushedCount > 0) {
+            log.warn(unflushedCount + " event dispatches could not be flushed within " + drainTimeout +
+                    "ms while de-activating the Event Publisher service.");
+        }
+        // The pending deadlines are expired right away, so that no caller keeps waiting on a stopped timer.
+        EventPublisherDataHolder.getInstance().getDeadlineTimer().shutdown();
+        WriteAheadLog writeAheadLog = EventPublisherDataHolder.getInstance().getWriteAheadLog();
+        if (writeAheadLog != null) {
+            EventPublisherDataHolder.getInstance().setWriteAheadLog(null);
+            writeAheadLog.close();
+        }
         log.debug("Successfully de-activated the Event Publisher service.");
     }
 
@@ -70,6 +127,7 @@ public class EventPublisherServiceComponent {
         log.debug("Adding the event publisher service : " +
                 eventPublisher.getClass().getName());
         EventPublisherDataHolder.getInstance().addEventPublisher(eventPublisher);
+        replayJournaledEvents(false);
     }
 
     protected void removeEventPublisher(EventPublisher eventPublisher) {
@@ -77,7 +135,150 @@ public class EventPublisherServiceComponent {
         log.debug("Removing the event publisher service : " +
                 eventPublisher.getClass().getName());
         EventPublisherDataHolder.getInstance().removeEventPublisher(eventPublisher);
+        PublishMetrics.getInstance().removeEventPublisher(eventPublisher);
     }
-}
 
+    private void registerMBeans() {
+
+        registerMBean(new EventPublisherMetrics(eventPublisherService, PublishMetrics.getInstance()),
+                EventPublisherConstants.Jmx.PUBLISH_METRICS_OBJECT_NAME);
+        registerMBean(new EventPublisherManagement(EventPublisherDataHolder.getInstance()),
+                EventPublisherConstants.Jmx.MANAGEMENT_OBJECT_NAME);
+    }
+
+    private void registerMBean(Object mBean, String name) {
+
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+            mBeanServer.registerMBean(mBean, objectName);
+        } catch (JMException e) {
+            log.error("Error while registering the MBean: " + name, e);
+        }
+    }
+
+    private void unregisterMBeans() {
+
+        unregisterMBean(EventPublisherConstants.Jmx.PUBLISH_METRICS_OBJECT_NAME);
+        unregisterMBean(EventPublisherConstants.Jmx.MANAGEMENT_OBJECT_NAME);
+    }
+
+    private void unregisterMBean(String name) {
+
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            log.debug("Error while unregistering the MBean: " + name, e);
+        }
+    }
+
+    private void openWriteAheadLog(EventPublisherConfiguration configuration) {
+
+        try {
+            WriteAheadLog writeAheadLog = WriteAheadLog.open(configuration.getJournalDirectory(),
+                    configuration.getJournalSegmentSize(), configuration.getJournalSyncInterval());
+            EventPublisherDataHolder.getInstance().setWriteAheadLog(writeAheadLog);
+            replayPending = true;
+            log.debug("Journaling the published events in: " + configuration.getJournalDirectory());
+        } catch (IOException e) {
+            log.error("Error while opening the event journal in: " + configuration.getJournalDirectory() +
+                    ". Events are published without journaling.", e);
+        }
+    }
+
+    /**
+     * Schedule the replay of the events recovered from the event journal. The events are replayed once the expected
+     * event publishers are bound, or once the replay timeout elapses, whichever happens first.
+     *
+     * @param configuration Event publisher configuration.
+     */
+    private synchronized void scheduleReplay(EventPublisherConfiguration configuration) {
+
+        if (!replayPending) {
+            return;
+        }
+        replayExecutor = Executors.newSingleThreadScheduledExecutor(
+                new DispatchThreadFactory(EventPublisherConstants.Journal.REPLAY_THREAD_NAME_PREFIX));
+        replayExecutor.schedule(() -> replayJournaledEvents(true), configuration.getJournalReplayTimeout(),
+                TimeUnit.MILLISECONDS);
+        replayJournaledEvents(false);
+    }
+
+    private synchronized void stopReplay() {
+
+        replayPending = false;
+        if (replayExecutor != null) {
+            replayExecutor.shutdownNow();
+            replayExecutor = null;
+        }
+    }
+
+    /**
+     * Replay the events recovered from the event journal on the replay thread, so that the binding of the event
+     * publishers is not held up.
+     *
+     * @param timedOut Whether the replay timeout has elapsed, in which case the events are replayed to the event
+     *                 publishers bound at this time.
+     */
+    private synchronized void replayJournaledEvents(boolean timedOut) {
+
+        WriteAheadLog writeAheadLog = EventPublisherDataHolder.getInstance().getWriteAheadLog();
+        if (!replayPending || replayExecutor == null || writeAheadLog == null || eventPublisherService == null) {
+            return;
+        }
+        if (!timedOut && !areReplayPublishersBound()) {
+            return;
+        }
+        replayPending = false;
+        EventPublisherService replayingService = eventPublisherService;
+        replayExecutor.execute(() -> replay(replayingService, writeAheadLog));
+    }
+
+    private static boolean areReplayPublishersBound() {
+
+        Set<String> replayPublishers =
+                EventPublisherDataHolder.getInstance().getConfiguration().getJournalReplayPublishers();
+        if (replayPublishers.isEmpty()) {
+            return false;
+        }
+        Set<String> boundPublishers = new HashSet<>();
+        for (EventPublisher eventPublisher : EventPublisherDataHolder.getInstance().getEventPublishers()) {
+            boundPublishers.add(eventPublisher.getName());
+        }
+        return boundPublishers.containsAll(replayPublishers);
+    }
+
+    /**
+     * Replay the recovered events, and discard the recovered journal segments once every event has been journaled
+     * again or completed. The segments are kept when an event is not handled by any bound event publisher, so that
+     * the event is replayed on the next activation.
+     *
+     * @param service       Event publisher service.
+     * @param writeAheadLog Event journal.
+     */
+    private static void replay(EventPublisherService service, WriteAheadLog writeAheadLog) {
 
+        List<EventEnvelope> recoveredEvents = writeAheadLog.getRecoveredEvents();
+        if (recoveredEvents.isEmpty()) {
+            writeAheadLog.discardRecoveredSegments();
+            return;
+        }
+        log.info("Replaying " + recoveredEvents.size() + " events recovered from the event journal.");
+        service.replay(recoveredEvents).whenComplete((replayed, error) -> {
+            if (Boolean.TRUE.equals(replayed)) {
+                writeAheadLog.discardRecoveredSegments();
+            } else {
+                log.warn("Some of the events recovered from the event journal are not handled by any bound event " +
+                        "publisher. The recovered journal segments are kept, to be replayed on the next activation.",
+                        error);
+            }
+        });
+    }
+}
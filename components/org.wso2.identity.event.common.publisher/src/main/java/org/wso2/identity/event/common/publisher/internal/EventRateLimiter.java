@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.wso2.identity.event.common.publisher.config.EventPublisherConfiguration;
+import org.wso2.identity.event.common.publisher.config.RateLimitPolicy;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Rate limiter of the published events, keyed by the tenant domain and the event URI of the events.
+ * Each tenant and each event URI with a configured rate limit gets its own lock-free token bucket, so publishing
+ * threads of different tenants never contend, and threads of the same tenant only contend on a single atomic value.
+ * An event needs a permit of both its tenant and its event URI.
+ */
+public class EventRateLimiter {
+
+    private static final String NO_KEY = "";
+    private final EventPublisherConfiguration configuration;
+    private final LongSupplier clock;
+    private final long maxDelayNanos;
+    private final ConcurrentMap<String, TokenBucket> tenantBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TokenBucket> eventUriBuckets = new ConcurrentHashMap<>();
+    private final AtomicLong limitedCount = new AtomicLong();
+
+    public EventRateLimiter(EventPublisherConfiguration configuration) {
+
+        this(configuration, System::nanoTime);
+    }
+
+    EventRateLimiter(EventPublisherConfiguration configuration, LongSupplier clock) {
+
+        this.configuration = configuration;
+        this.clock = clock;
+        this.maxDelayNanos = configuration.getRateLimitPolicy() == RateLimitPolicy.DELAY ?
+                TimeUnit.MILLISECONDS.toNanos(configuration.getRateLimitMaxDelay()) : 0;
+    }
+
+    /**
+     * Acquire a permit to publish an event. With the {@link RateLimitPolicy#DELAY} policy, a permit which becomes
+     * available within the maximum delay is reserved.
+     *
+     * @param tenantDomain Tenant domain of the event.
+     * @param eventUri     Event URI of the event.
+     * @return Time in nanoseconds the event has to be delayed, or -1 if the event is above the rate limit.
+     */
+    public long acquire(String tenantDomain, String eventUri) {
+
+        TokenBucket tenantBucket = getTenantBucket(tenantDomain);
+        long tenantWait = tenantBucket != null ? tenantBucket.tryAcquire(maxDelayNanos) : 0;
+        if (tenantWait < 0) {
+            limitedCount.incrementAndGet();
+            return -1;
+        }
+        TokenBucket eventUriBucket = getEventUriBucket(eventUri);
+        long eventUriWait = eventUriBucket != null ? eventUriBucket.tryAcquire(maxDelayNanos) : 0;
+        if (eventUriWait < 0) {
+            if (tenantBucket != null) {
+                // Do not charge the tenant for an event which is not published.
+                tenantBucket.release();
+            }
+            limitedCount.incrementAndGet();
+            return -1;
+        }
+        return Math.max(tenantWait, eventUriWait);
+    }
+
+    /**
+     * Returns the policy applied to the events above the rate limit.
+     *
+     * @return Rate limit policy.
+     */
+    public RateLimitPolicy getPolicy() {
+
+        return configuration.getRateLimitPolicy();
+    }
+
+    /**
+     * Returns the number of events which were above the rate limit.
+     *
+     * @return Rate limited event count.
+     */
+    public long getLimitedCount() {
+
+        return limitedCount.get();
+    }
+
+    private TokenBucket getTenantBucket(String tenantDomain) {
+
+        if (configuration.getTenantRateLimit(tenantDomain) <= 0) {
+            return null;
+        }
+        return tenantBuckets.computeIfAbsent(tenantDomain != null ? tenantDomain : NO_KEY,
+                key -> new TokenBucket(configuration.getTenantRateLimit(tenantDomain),
+                        configuration.getTenantRateLimitBurst(tenantDomain), clock));
+    }
+
+    private TokenBucket getEventUriBucket(String eventUri) {
+
+        if (configuration.getEventUriRateLimit(eventUri) <= 0) {
+            return null;
+        }
+        return eventUriBuckets.computeIfAbsent(eventUri != null ? eventUri : NO_KEY,
+                key -> new TokenBucket(configuration.getEventUriRateLimit(eventUri),
+                        configuration.getEventUriRateLimitBurst(eventUri), clock));
+    }
+}
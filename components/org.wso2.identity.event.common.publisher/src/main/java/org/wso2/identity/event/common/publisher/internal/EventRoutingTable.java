@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable routing table of the event publisher bulkheads, keyed by the event URI.
+ * A routing table is created whenever an event publisher is bound or unbound, when the routes of the event URIs
+ * declared by the event publishers are precomputed. Events of other event URIs are routed to the event publishers
+ * which handle every event URI, through a single shared route. Only the event URIs matched by a declared event URI
+ * prefix are resolved on the first lookup and cached. Routes keep the registration order of the event publishers.
+ */
+public class EventRoutingTable {
+
+    static final EventRoutingTable EMPTY = new EventRoutingTable(new PublisherBulkhead[0]);
+    private static final int MAX_CACHED_ROUTES = 1024;
+    private final PublisherBulkhead[] publisherBulkheads;
+    private final Map<String, PublisherBulkhead[]> routes;
+    private final PublisherBulkhead[] defaultRoute;
+    private final boolean routeAll;
+    private final boolean prefixRouting;
+    private final ConcurrentHashMap<String, PublisherBulkhead[]> prefixRoutes = new ConcurrentHashMap<>();
+
+    EventRoutingTable(PublisherBulkhead[] publisherBulkheads) {
+
+        this.publisherBulkheads = publisherBulkheads;
+        List<PublisherBulkhead> matchAllBulkheads = new ArrayList<>(publisherBulkheads.length);
+        boolean prefixes = false;
+        for (PublisherBulkhead bulkhead : publisherBulkheads) {
+            EventUriFilter filter = bulkhead.getEventUriFilter();
+            if (filter.isMatchAll()) {
+                matchAllBulkheads.add(bulkhead);
+            }
+            prefixes |= filter.hasEventUriPrefixes();
+        }
+        this.routeAll = matchAllBulkheads.size() == publisherBulkheads.length;
+        this.prefixRouting = prefixes;
+        this.defaultRoute = routeAll ? publisherBulkheads : matchAllBulkheads.toArray(new PublisherBulkhead[0]);
+        Map<String, PublisherBulkhead[]> declaredRoutes = new HashMap<>();
+        if (!routeAll) {
+            for (PublisherBulkhead bulkhead : publisherBulkheads) {
+                for (String eventUri : bulkhead.getEventUriFilter().getEventUris()) {
+                    declaredRoutes.computeIfAbsent(eventUri, this::computeRoute);
+                }
+            }
+        }
+        this.routes = declaredRoutes;
+    }
+
+    /**
+     * Returns all the event publisher bulkheads. The returned array is shared and must not be modified.
+     *
+     * @return Event publisher bulkheads.
+     */
+    public PublisherBulkhead[] getPublisherBulkheads() {
+
+        return publisherBulkheads;
+    }
+
+    /**
+     * Returns the bulkheads of the event publishers which handle the event URI.
+     * The returned array is shared and must not be modified.
+     *
+     * @param eventUri Event URI. Events without an event URI are routed to every event publisher.
+     * @return Event publisher bulkheads.
+     */
+    public PublisherBulkhead[] route(String eventUri) {
+
+        if (eventUri == null || routeAll) {
+            return publisherBulkheads;
+        }
+        PublisherBulkhead[] route = routes.get(eventUri);
+        if (route != null) {
+            return route;
+        }
+        if (!prefixRouting) {
+            return defaultRoute;
+        }
+        route = prefixRoutes.get(eventUri);
+        if (route == null) {
+            route = computeRoute(eventUri);
+            if (route.length == defaultRoute.length) {
+                // No declared event URI prefix matches the event URI.
+                return defaultRoute;
+            }
+            if (prefixRoutes.size() < MAX_CACHED_ROUTES) {
+                prefixRoutes.putIfAbsent(eventUri, route);
+            }
+        }
+        return route;
+    }
+
+    private PublisherBulkhead[] computeRoute(String eventUri) {
+
+        PublisherBulkhead[] route = new PublisherBulkhead[publisherBulkheads.length];
+        int count = 0;
+        for (PublisherBulkhead bulkhead : publisherBulkheads) {
+            if (bulkhead.getEventUriFilter().matches(eventUri)) {
+                route[count++] = bulkhead;
+            }
+        }
+        return count == publisherBulkheads.length ? publisherBulkheads : Arrays.copyOf(route, count);
+    }
+}
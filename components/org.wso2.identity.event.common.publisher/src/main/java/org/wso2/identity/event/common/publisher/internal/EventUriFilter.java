@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.apache.commons.lang.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Filter of the event URIs handled by an event publisher.
+ * A declared event URI ending with {@value #PREFIX_WILDCARD} matches every event URI starting with the preceding
+ * characters. Other declared event URIs must match exactly.
+ */
+class EventUriFilter {
+
+    static final String PREFIX_WILDCARD = "*";
+    private static final EventUriFilter MATCH_ALL = new EventUriFilter(Collections.emptySet(), new String[0], true);
+    private final Set<String> eventUris;
+    private final String[] eventUriPrefixes;
+    private final boolean matchAll;
+
+    private EventUriFilter(Set<String> eventUris, String[] eventUriPrefixes, boolean matchAll) {
+
+        this.eventUris = eventUris;
+        this.eventUriPrefixes = eventUriPrefixes;
+        this.matchAll = matchAll;
+    }
+
+    /**
+     * Create the filter of the declared event URIs.
+     *
+     * @param declaredEventUris Event URIs declared by the event publisher. Null or empty to match every event URI.
+     * @return Event URI filter.
+     */
+    static EventUriFilter of(Collection<String> declaredEventUris) {
+
+        if (declaredEventUris == null || declaredEventUris.isEmpty()) {
+            return MATCH_ALL;
+        }
+        Set<String> eventUris = new HashSet<>();
+        List<String> eventUriPrefixes = new ArrayList<>();
+        for (String declaredEventUri : declaredEventUris) {
+            if (StringUtils.isBlank(declaredEventUri)) {
+                continue;
+            }
+            String eventUri = declaredEventUri.trim();
+            if (PREFIX_WILDCARD.equals(eventUri)) {
+                return MATCH_ALL;
+            }
+            if (eventUri.endsWith(PREFIX_WILDCARD)) {
+                eventUriPrefixes.add(eventUri.substring(0, eventUri.length() - PREFIX_WILDCARD.length()));
+            } else {
+                eventUris.add(eventUri);
+            }
+        }
+        return new EventUriFilter(eventUris, eventUriPrefixes.toArray(new String[0]), false);
+    }
+
+    /**
+     * Returns whether the event URI is handled by the event publisher.
+     *
+     * @param eventUri Event URI.
+     * @return True if the event URI matches the filter.
+     */
+    boolean matches(String eventUri) {
+
+        if (matchAll) {
+            return true;
+        }
+        if (eventUri == null) {
+            return false;
+        }
+        if (eventUris.contains(eventUri)) {
+            return true;
+        }
+        for (String eventUriPrefix : eventUriPrefixes) {
+            if (eventUri.startsWith(eventUriPrefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean isMatchAll() {
+
+        return matchAll;
+    }
+
+    Set<String> getEventUris() {
+
+        return eventUris;
+    }
+
+    boolean hasEventUriPrefixes() {
+
+        return eventUriPrefixes.length > 0;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.wso2.identity.event.common.publisher.EventPublisher;
+import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor which runs the dispatches of a lane inline on the publishing thread while the lane is idle.
+ * It is used for event publishers which do not block while publishing, for which handing over the dispatch to a
+ * dispatch thread only adds a context switch and the queue wait. A dispatch is only run inline when the lane has
+ * nothing queued or spilled and fewer dispatches than the dispatch threads of the lane are running inline. Otherwise
+ * the dispatch is handed over to the lane, so that the overflow policy, the spill-over, the tenant fair scheduling
+ * and the metrics of the lane still apply under load.
+ * Only the dispatches to the non-blocking event publisher of the lane are run inline. Other tasks handed over with
+ * {@link #execute(Runnable)}, such as batches or journaled dispatches, are not known to be non-blocking and are always
+ * handed over to the lane.
+ */
+class InlineDispatchExecutor implements DispatchExecutor {
+
+    private final DispatchExecutor lane;
+    private final int maxConcurrency;
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private volatile boolean shutdown;
+
+    InlineDispatchExecutor(DispatchExecutor lane, int maxConcurrency) {
+
+        this.lane = lane;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+
+        if (shutdown) {
+            throw new RejectedExecutionException("Inline dispatch executor has been shut down.");
+        }
+        lane.execute(command);
+    }
+
+    @Override
+    public void dispatch(EventPublisher eventPublisher, SecurityEventTokenPayload payload,
+                         EventContext eventContext) {
+
+        if (!runInline(new EventDispatch(eventPublisher, payload, eventContext))) {
+            lane.dispatch(eventPublisher, payload, eventContext);
+        }
+    }
+
+    private boolean runInline(Runnable command) {
+
+        if (shutdown) {
+            throw new RejectedExecutionException("Inline dispatch executor has been shut down.");
+        }
+        if (hasBacklog() || !tryAcquire()) {
+            return false;
+        }
+        try {
+            command.run();
+        } finally {
+            activeCount.decrementAndGet();
+        }
+        return true;
+    }
+
+    private boolean hasBacklog() {
+
+        // Events waiting in the lane are published first, so that an inline dispatch does not overtake them.
+        return lane.getQueueDepth() > 0 ||
+                (lane instanceof SpillOverDispatchExecutor && ((SpillOverDispatchExecutor) lane).getSpilledCount() > 0);
+    }
+
+    private boolean tryAcquire() {
+
+        int active;
+        do {
+            active = activeCount.get();
+            if (active >= maxConcurrency) {
+                return false;
+            }
+        } while (!activeCount.compareAndSet(active, active + 1));
+        return true;
+    }
+
+    @Override
+    public long getRejectedCount() {
+
+        return lane.getRejectedCount();
+    }
+
+    @Override
+    public long getDroppedCount() {
+
+        return lane.getDroppedCount();
+    }
+
+    @Override
+    public int getQueueDepth() {
+
+        return lane.getQueueDepth();
+    }
+
+    @Override
+    public int getActiveCount() {
+
+        return activeCount.get() + lane.getActiveCount();
+    }
+
+    /**
+     * Stop running dispatches inline. The lane is owned by the bulkhead, which shuts it down separately.
+     */
+    @Override
+    public void shutdown() {
+
+        shutdown = true;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+
+        // Inline dispatches are run by the publishing threads, which are not owned by the executor.
+        return true;
+    }
+
+    @Override
+    public int abort() {
+
+        shutdown = true;
+        return 0;
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.identity.event.common.publisher.EventPublisher;
+import org.wso2.identity.event.common.publisher.config.OverflowPolicy;
+import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dispatch executor which delivers the events through single threaded lanes.
+ * Each dispatch is assigned to a lane by its partition key, which is made of the tenant domain and the ordering key
+ * of the event. A lane delivers an event with
+ * {@link EventPublisher#publishAsync(SecurityEventTokenPayload, EventContext)} and waits until the event publisher
+ * has completed the delivery, up to the ordered delivery timeout, before delivering the next event. Hence, the events
+ * with the same partition key reach the event publisher in order, while the other lanes deliver in parallel.
+ * Dispatches without a partition key are spread across the lanes.
+ */
+public class PartitionedDispatchExecutor implements DispatchExecutor {
+
+    private static final Log log = LogFactory.getLog(PartitionedDispatchExecutor.class);
+    private final BoundedDispatchExecutor[] lanes;
+    private final long orderedDeliveryTimeout;
+    private final AtomicInteger nextLane = new AtomicInteger();
+
+    /**
+     * Creates a partitioned dispatch executor.
+     *
+     * @param name                   Name used for the lane threads.
+     * @param laneCount              Number of lanes.
+     * @param queueCapacity          Maximum number of queued dispatches, shared equally by the lanes.
+     * @param overflowPolicy         Policy applied when the queue of a lane is full. The
+     *                               {@link OverflowPolicy#CALLER_RUNS} policy is applied as
+     *                               {@link OverflowPolicy#BLOCK}, since an event run by the publishing thread would
+     *                               overtake the queued events of its partition.
+     * @param blockTimeout           Time in milliseconds to wait for queue space with the
+     *                               {@link OverflowPolicy#BLOCK} policy.
+     * @param orderedDeliveryTimeout Time in milliseconds a lane waits for the delivery of an event.
+     */
+    public PartitionedDispatchExecutor(String name, int laneCount, int queueCapacity, OverflowPolicy overflowPolicy,
+                                       long blockTimeout, long orderedDeliveryTimeout) {
+
+        if (overflowPolicy == OverflowPolicy.CALLER_RUNS) {
+            log.warn("The caller runs overflow policy does not preserve the order of the events. Blocking the " +
+                    "publishing threads instead when a lane of: " + name + " is full.");
+            overflowPolicy = OverflowPolicy.BLOCK;
+        }
+        this.lanes = new BoundedDispatchExecutor[laneCount];
+        int laneCapacity = Math.max(1, queueCapacity / laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new BoundedDispatchExecutor(name + "-lane-" + i, 1, laneCapacity, overflowPolicy,
+                    blockTimeout);
+        }
+        this.orderedDeliveryTimeout = orderedDeliveryTimeout;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+
+        String partitionKey = task instanceof TenantAware ? ((TenantAware) task).getPartitionKey() : null;
+        lanes[laneOf(partitionKey)].execute(new OrderedTask(task));
+    }
+
+    @Override
+    public void dispatch(EventPublisher eventPublisher, SecurityEventTokenPayload payload,
+                         EventContext eventContext) {
+
+        execute(new TenantDispatchTask(payload, eventContext,
+                () -> EventDispatch.publishAsync(eventPublisher, payload, eventContext)));
+    }
+
+    /**
+     * Returns the number of lanes.
+     *
+     * @return Lane count.
+     */
+    public int getLaneCount() {
+
+        return lanes.length;
+    }
+
+    @Override
+    public long getRejectedCount() {
+
+        long rejectedCount = 0;
+        for (BoundedDispatchExecutor lane : lanes) {
+            rejectedCount += lane.getRejectedCount();
+        }
+        return rejectedCount;
+    }
+
+    @Override
+    public long getDroppedCount() {
+
+        long droppedCount = 0;
+        for (BoundedDispatchExecutor lane : lanes) {
+            droppedCount += lane.getDroppedCount();
+        }
+        return droppedCount;
+    }
+
+    @Override
+    public int getQueueDepth() {
+
+        int queueDepth = 0;
+        for (BoundedDispatchExecutor lane : lanes) {
+            queueDepth += lane.getQueueDepth();
+        }
+        return queueDepth;
+    }
+
+    @Override
+    public int getActiveCount() {
+
+        int activeCount = 0;
+        for (BoundedDispatchExecutor lane : lanes) {
+            activeCount += lane.getActiveCount();
+        }
+        return activeCount;
+    }
+
+    @Override
+    public void shutdown() {
+
+        for (BoundedDispatchExecutor lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (BoundedDispatchExecutor lane : lanes) {
+            if (!lane.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int abort() {
+
+        int abortedCount = 0;
+        for (BoundedDispatchExecutor lane : lanes) {
+            abortedCount += lane.abort();
+        }
+        return abortedCount;
+    }
+
+    int laneOf(String partitionKey) {
+
+        if (partitionKey == null) {
+            return Math.floorMod(nextLane.getAndIncrement(), lanes.length);
+        }
+        int hash = partitionKey.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+    }
+
+    /**
+     * Runs a dispatch task and waits for the completion of an asynchronous dispatch, so that the next task of the
+     * lane starts only after the delivery. A discarded ordered task discards the dispatch task it runs.
+     */
+    private class OrderedTask implements Runnable, DiscardableDispatch {
+
+        private final Runnable task;
+
+        OrderedTask(Runnable task) {
+
+            this.task = task;
+        }
+
+        @Override
+        public void discard(RejectedExecutionException reason) {
+
+            if (task instanceof DiscardableDispatch) {
+                ((DiscardableDispatch) task).discard(reason);
+            }
+        }
+
+        @Override
+        public void run() {
+
+            task.run();
+            CompletionStage<?> completion =
+                    task instanceof TenantDispatchTask ? ((TenantDispatchTask) task).getCompletion() : null;
+            if (completion == null) {
+                return;
+            }
+            try {
+                completion.toCompletableFuture().get(orderedDeliveryTimeout, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                // Failures are reported by the dispatch task.
+                log.debug("Ordered event delivery failed.", e);
+            } catch (TimeoutException e) {
+                log.warn("Event delivery did not complete within " + orderedDeliveryTimeout + "ms. Proceeding " +
+                        "with the next event of the lane, which may be delivered out of order.");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.wso2.identity.event.common.publisher.model.PublishResult;
+import org.wso2.identity.event.common.publisher.model.PublisherOutcome;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Collects the outcomes of publishing a single event with a set of event publishers.
+ * The first outcome recorded for a publisher wins, hence a publisher which completes after the deadline is reported
+ * as timed out.
+ */
+public class PublishOutcomeCollector {
+
+    private final String[] publisherNames;
+    private final long startTime;
+    private final AtomicReferenceArray<PublisherOutcome> outcomes;
+    private final AtomicInteger pendingCount;
+    private final CompletableFuture<PublishResult> result = new CompletableFuture<>();
+    private volatile ScheduledFuture<?> deadlineTask;
+
+    public PublishOutcomeCollector(String[] publisherNames) {
+
+        this.publisherNames = publisherNames;
+        this.startTime = System.nanoTime();
+        this.outcomes = new AtomicReferenceArray<>(publisherNames.length);
+        this.pendingCount = new AtomicInteger(publisherNames.length);
+        if (publisherNames.length == 0) {
+            finish();
+        }
+    }
+
+    /**
+     * Record the completion of a publisher.
+     *
+     * @param index Index of the publisher.
+     * @param error Failure of the publisher, or null if the publisher succeeded.
+     */
+    public void complete(int index, Throwable error) {
+
+        if (error == null) {
+            record(index, PublisherOutcome.Status.SUCCESS, null);
+        } else {
+            record(index, PublisherOutcome.Status.FAILED,
+                    error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+        }
+    }
+
+    /**
+     * Returns a stage which completes once every publisher has completed, without a deadline.
+     *
+     * @return Stage of the aggregated result.
+     */
+    public CompletionStage<PublishResult> await() {
+
+        return result;
+    }
+
+    /**
+     * Returns a stage which completes once every publisher has completed or the given deadline has expired.
+     *
+     * @param timeout Time to wait for the publishers, measured from the creation of the collector.
+     * @param unit    Time unit of the timeout.
+     * @return Stage of the aggregated result.
+     */
+    public CompletionStage<PublishResult> awaitWithin(long timeout, TimeUnit unit) {
+
+        if (!result.isDone()) {
+            long remaining = unit.toNanos(timeout) - (System.nanoTime() - startTime);
+            deadlineTask = EventPublisherDataHolder.getInstance().getDeadlineTimer()
+                    .schedule(this::expire, remaining, TimeUnit.NANOSECONDS);
+            if (result.isDone()) {
+                deadlineTask.cancel(false);
+            }
+        }
+        return result;
+    }
+
+    private void expire() {
+
+        for (int i = 0; i < publisherNames.length; i++) {
+            record(i, PublisherOutcome.Status.TIMED_OUT, null);
+        }
+    }
+
+    private void record(int index, PublisherOutcome.Status status, Throwable error) {
+
+        PublisherOutcome outcome =
+                new PublisherOutcome(publisherNames[index], status, System.nanoTime() - startTime, error);
+        if (outcomes.compareAndSet(index, null, outcome) && pendingCount.decrementAndGet() == 0) {
+            finish();
+        }
+    }
+
+    private void finish() {
+
+        List<PublisherOutcome> publisherOutcomes = new ArrayList<>(publisherNames.length);
+        for (int i = 0; i < publisherNames.length; i++) {
+            publisherOutcomes.add(outcomes.get(i));
+        }
+        result.complete(new PublishResult(publisherOutcomes));
+        ScheduledFuture<?> task = deadlineTask;
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,412 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.identity.event.common.publisher.EventPublisher;
+import org.wso2.identity.event.common.publisher.config.BulkheadConfiguration;
+import org.wso2.identity.event.common.publisher.config.DispatchMode;
+import org.wso2.identity.event.common.publisher.config.EventPriority;
+import org.wso2.identity.event.common.publisher.config.EventPublisherConfiguration;
+import org.wso2.identity.event.common.publisher.config.SchedulingPolicy;
+import org.wso2.identity.event.common.publisher.constant.EventPublisherConstants;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bulkhead isolating the dispatches of a single event publisher.
+ * Each bound event publisher gets its own dispatch executor, so that a stalled publisher cannot starve the
+ * other publishers. The dispatch executor is created on the first dispatch.
+ */
+public class PublisherBulkhead {
+
+    private static final Log log = LogFactory.getLog(PublisherBulkhead.class);
+    private final EventPublisher eventPublisher;
+    private final EventPublisherConfiguration configuration;
+    private final AtomicReferenceArray<DispatchExecutor> dispatchExecutors =
+            new AtomicReferenceArray<>(EventPriority.values().length);
+    private final AtomicReferenceArray<InlineDispatchExecutor> inlineDispatchExecutors =
+            new AtomicReferenceArray<>(EventPriority.values().length);
+    private volatile String publisherName;
+    private volatile EventUriFilter eventUriFilter;
+    private volatile Boolean inlineDispatch;
+    private volatile boolean shutdown;
+
+    public PublisherBulkhead(EventPublisher eventPublisher, EventPublisherConfiguration configuration) {
+
+        this.eventPublisher = eventPublisher;
+        this.configuration = configuration;
+    }
+
+    private static String getLaneName(String publisherName, EventPriority priority) {
+
+        // The normal lane keeps the publisher name, so that its thread and spill file names are not changed.
+        return priority == EventPriority.NORMAL ? publisherName : publisherName + "-" + priority.getConfigName();
+    }
+
+    private static DispatchExecutor createDispatchExecutor(String publisherName, BulkheadConfiguration configuration) {
+
+        String threadNamePrefix = EventPublisherConstants.Dispatch.DISPATCH_THREAD_NAME_PREFIX + "-" + publisherName;
+        if (configuration.getDispatchMode() == DispatchMode.RING_BUFFER) {
+            log.debug("Dispatching events of the publisher: " + publisherName + " through a ring buffer.");
+            return new RingBufferDispatchExecutor(threadNamePrefix, configuration.getThreadPoolSize(),
+                    configuration.getQueueCapacity(), configuration.getOverflowPolicy(),
+                    configuration.getBlockTimeout(), configuration.getWaitStrategy());
+        }
+        if (configuration.getDispatchMode() == DispatchMode.PARTITIONED) {
+            log.debug("Dispatching events of the publisher: " + publisherName + " through ordered lanes.");
+            return new PartitionedDispatchExecutor(threadNamePrefix, configuration.getThreadPoolSize(),
+                    configuration.getQueueCapacity(), configuration.getOverflowPolicy(),
+                    configuration.getBlockTimeout(), configuration.getOrderedDeliveryTimeout());
+        }
+        if (configuration.getDispatchMode() == DispatchMode.VIRTUAL) {
+            DispatchExecutor virtualThreadExecutor = VirtualThreadDispatchExecutor.createIfSupported(
+                    configuration.getVirtualThreadMaxConcurrency(), configuration.getOverflowPolicy(),
+                    configuration.getBlockTimeout());
+            if (virtualThreadExecutor != null) {
+                log.debug("Dispatching events of the publisher: " + publisherName + " on virtual threads.");
+                return virtualThreadExecutor;
+            }
+            log.warn("Virtual thread dispatch mode is configured, but virtual threads are not supported by the " +
+                    "runtime. Falling back to the platform thread dispatch mode for the publisher: " +
+                    publisherName);
+        }
+        if (configuration.getSchedulingPolicy() == SchedulingPolicy.TENANT_FAIR) {
+            log.debug("Scheduling the events of the publisher: " + publisherName + " fairly across tenants.");
+            return new BoundedDispatchExecutor(threadNamePrefix, configuration.getThreadPoolSize(),
+                    new TenantFairDispatchQueue(configuration.getQueueCapacity(),
+                            configuration.getTenantQueueCapacity(), configuration::getTenantWeight),
+                    configuration.getOverflowPolicy(), configuration.getBlockTimeout());
+        }
+        return new BoundedDispatchExecutor(threadNamePrefix, configuration.getThreadPoolSize(),
+                configuration.getQueueCapacity(), configuration.getOverflowPolicy(), configuration.getBlockTimeout());
+    }
+
+    private DispatchExecutor enableSpillOver(String laneName, DispatchExecutor executor,
+                                             BulkheadConfiguration bulkheadConfiguration) {
+
+        if (executor instanceof VirtualThreadDispatchExecutor) {
+            log.warn("Disk spill-over is not supported in the virtual thread dispatch mode. Events of the " +
+                    "publisher: " + laneName + " are not spilled to the disk.");
+            return executor;
+        }
+        int highWaterMark = (int) ((long) bulkheadConfiguration.getQueueCapacity() *
+                configuration.getSpillHighWaterMark() / 100);
+        try {
+            return new SpillOverDispatchExecutor(
+                    EventPublisherConstants.Dispatch.DISPATCH_THREAD_NAME_PREFIX + "-" + laneName, executor,
+                    eventPublisher, configuration.getSpillDirectory().resolve(laneName), highWaterMark,
+                    configuration.getSpillDrainRate(), configuration.getSpillSegmentSize(),
+                    configuration.getSpillMaxSize());
+        } catch (IOException e) {
+            log.error("Error while opening the spill files of the event publisher: " + laneName +
+                    ". Events are not spilled to the disk.", e);
+            return executor;
+        }
+    }
+
+    public EventPublisher getEventPublisher() {
+
+        return eventPublisher;
+    }
+
+    /**
+     * Returns the name of the event publisher, which is used to resolve the bulkhead configuration.
+     *
+     * @return Name of the event publisher.
+     */
+    public String getPublisherName() {
+
+        String name = publisherName;
+        if (name == null) {
+            name = StringUtils.defaultIfBlank(eventPublisher.getName(), eventPublisher.getClass().getSimpleName());
+            publisherName = name;
+        }
+        return name;
+    }
+
+    /**
+     * Returns whether the event publisher handles the event URI.
+     *
+     * @param eventUri Event URI.
+     * @return True if events with the event URI should be dispatched to the event publisher.
+     */
+    public boolean handles(String eventUri) {
+
+        return eventUri == null || getEventUriFilter().matches(eventUri);
+    }
+
+    EventUriFilter getEventUriFilter() {
+
+        EventUriFilter filter = eventUriFilter;
+        if (filter == null) {
+            filter = EventUriFilter.of(eventPublisher.getSupportedEventUris());
+            eventUriFilter = filter;
+        }
+        return filter;
+    }
+
+    /**
+     * Returns the dispatch executor of the {@link EventPriority#NORMAL} lane of the bulkhead, creating it on the
+     * first call.
+     *
+     * @return Dispatch executor.
+     */
+    public DispatchExecutor getDispatchExecutor() {
+
+        return getDispatchExecutor(EventPriority.NORMAL);
+    }
+
+    /**
+     * Returns the dispatch executor of the lane of the priority class of the event URI, creating it on the first
+     * call.
+     *
+     * @param eventUri Event URI.
+     * @return Dispatch executor.
+     */
+    public DispatchExecutor getDispatchExecutor(String eventUri) {
+
+        return getDispatchExecutor(configuration.getEventPriority(eventUri));
+    }
+
+    /**
+     * Returns the dispatch executor of the lane of the priority class, creating it on the first call.
+     * Each lane has its own threads and queue, so that the events of a priority class are not queued behind the
+     * events of the others.
+     *
+     * @param priority Priority class.
+     * @return Dispatch executor.
+     */
+    public DispatchExecutor getDispatchExecutor(EventPriority priority) {
+
+        DispatchExecutor executor = dispatchExecutors.get(priority.ordinal());
+        if (executor == null) {
+            synchronized (this) {
+                executor = dispatchExecutors.get(priority.ordinal());
+                if (executor == null) {
+                    String laneName = getLaneName(getPublisherName(), priority);
+                    BulkheadConfiguration bulkheadConfiguration =
+                            configuration.getBulkheadConfiguration(getPublisherName(), priority);
+                    executor = createDispatchExecutor(laneName, bulkheadConfiguration);
+                    if (configuration.isSpillEnabled()) {
+                        executor = enableSpillOver(laneName, executor, bulkheadConfiguration);
+                    }
+                    if (shutdown) {
+                        executor.shutdown();
+                    }
+                    dispatchExecutors.set(priority.ordinal(), executor);
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Returns the dispatch executor through which an event with the event URI is published.
+     * See {@link #getPublishExecutor(EventPriority)}.
+     *
+     * @param eventUri Event URI.
+     * @return Dispatch executor.
+     */
+    public DispatchExecutor getPublishExecutor(String eventUri) {
+
+        return getPublishExecutor(configuration.getEventPriority(eventUri));
+    }
+
+    /**
+     * Returns the dispatch executor through which an event of the priority class is published.
+     * When the inline dispatch is enabled, the events of a non-blocking event publisher are published inline on the
+     * publishing thread while the lane is idle, saving the context switch and the queue wait of the lane. Otherwise
+     * they are still handed over to the lane, see {@link InlineDispatchExecutor}. The lane of the priority class is
+     * used directly when the event publisher blocks, when the inline dispatch is disabled, when the bulkhead delivers
+     * the events in order, and while the dispatch is paused or the bulkhead is shut down.
+     *
+     * @param priority Priority class.
+     * @return Dispatch executor.
+     */
+    public DispatchExecutor getPublishExecutor(EventPriority priority) {
+
+        if (isInlineDispatch() && !shutdown && !EventPublisherDataHolder.getInstance().getDispatchGate().isPaused()) {
+            return getInlineDispatchExecutor(priority);
+        }
+        return getDispatchExecutor(priority);
+    }
+
+    private InlineDispatchExecutor getInlineDispatchExecutor(EventPriority priority) {
+
+        InlineDispatchExecutor executor = inlineDispatchExecutors.get(priority.ordinal());
+        if (executor == null) {
+            DispatchExecutor lane = getDispatchExecutor(priority);
+            synchronized (this) {
+                executor = inlineDispatchExecutors.get(priority.ordinal());
+                if (executor == null) {
+                    executor = new InlineDispatchExecutor(lane, configuration.getBulkheadConfiguration(
+                            getPublisherName(), priority).getThreadPoolSize());
+                    if (shutdown) {
+                        executor.shutdown();
+                    }
+                    inlineDispatchExecutors.set(priority.ordinal(), executor);
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Returns whether the events of the bulkhead can be published inline on the publishing thread.
+     *
+     * @return True if the event publisher is non-blocking and the bulkhead does not deliver the events in order.
+     */
+    boolean isInlineDispatch() {
+
+        Boolean inline = inlineDispatch;
+        if (inline == null) {
+            inline = configuration.isInlineDispatchEnabled() && eventPublisher.isNonBlocking() &&
+                    configuration.getBulkheadConfiguration(getPublisherName(), EventPriority.NORMAL)
+                            .getDispatchMode() != DispatchMode.PARTITIONED;
+            if (inline) {
+                log.debug("Publishing the events of the non-blocking event publisher: " + getPublisherName() +
+                        " inline on the publishing threads.");
+            }
+            inlineDispatch = inline;
+        }
+        return inline;
+    }
+
+    /**
+     * Create the lanes which have spilled events left behind by a previous run, so that the spilled events are
+     * drained once the event publisher is bound, instead of waiting for the first event of the lane.
+     */
+    public void startSpilledLanes() {
+
+        if (!configuration.isSpillEnabled()) {
+            return;
+        }
+        for (EventPriority priority : EventPriority.values()) {
+            String laneName = getLaneName(getPublisherName(), priority);
+            try {
+                if (SpillQueue.hasSegmentFiles(configuration.getSpillDirectory().resolve(laneName))) {
+                    log.debug("Draining the spilled events of the event publisher: " + laneName);
+                    getDispatchExecutor(priority);
+                }
+            } catch (IOException e) {
+                log.error("Error while reading the spill files of the event publisher: " + laneName, e);
+            }
+        }
+    }
+
+    /**
+     * Returns the dispatch executors of the lanes which have been created.
+     *
+     * @return Started dispatch executors.
+     */
+    public List<DispatchExecutor> getStartedDispatchExecutors() {
+
+        List<DispatchExecutor> executors = new ArrayList<>(dispatchExecutors.length());
+        for (int i = 0; i < dispatchExecutors.length(); i++) {
+            DispatchExecutor executor = dispatchExecutors.get(i);
+            if (executor != null) {
+                executors.add(executor);
+            }
+        }
+        return executors;
+    }
+
+    /**
+     * Resize the dispatch threads of the lane of the priority class at runtime, creating the lane if it has not
+     * been created yet.
+     *
+     * @param priority       Priority class of the lane.
+     * @param threadPoolSize Number of dispatch threads.
+     * @return True if the lane is resized, false if the dispatch mode of the lane has a fixed number of threads.
+     */
+    public boolean resize(EventPriority priority, int threadPoolSize) {
+
+        boolean resized = getDispatchExecutor(priority).resize(threadPoolSize);
+        if (resized) {
+            log.info("Resized the " + priority.getConfigName() + " lane of the event publisher: " +
+                    getPublisherName() + " to " + threadPoolSize + " dispatch threads.");
+        }
+        return resized;
+    }
+
+    /**
+     * Returns whether a dispatch executor of the bulkhead has been created.
+     *
+     * @return True if the bulkhead has dispatched at least one event.
+     */
+    public boolean isStarted() {
+
+        return !getStartedDispatchExecutors().isEmpty();
+    }
+
+    /**
+     * Tear down the bulkhead. Already accepted dispatches are still executed.
+     */
+    public synchronized void shutdown() {
+
+        shutdown = true;
+        for (int i = 0; i < inlineDispatchExecutors.length(); i++) {
+            InlineDispatchExecutor executor = inlineDispatchExecutors.get(i);
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+        for (DispatchExecutor executor : getStartedDispatchExecutors()) {
+            log.debug("Shutting down a bulkhead lane of the event publisher: " + getPublisherName());
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tear down the bulkhead and wait until the accepted dispatches have been executed, or the timeout elapses.
+     * The dispatches which could not be executed within the timeout are discarded.
+     *
+     * @param timeout Maximum time to wait.
+     * @param unit    Unit of the timeout.
+     * @return Number of dispatches which could not be flushed.
+     */
+    public int drain(long timeout, TimeUnit unit) {
+
+        shutdown();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int unflushedCount = 0;
+        for (DispatchExecutor executor : getStartedDispatchExecutors()) {
+            try {
+                if (executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            unflushedCount += executor.abort();
+        }
+        if (unflushedCount > 0) {
+            log.warn(unflushedCount + " event dispatches of the event publisher: " + getPublisherName() +
+                    " could not be flushed in time and were discarded.");
+        }
+        return unflushedCount;
+    }
+}
@@ -0,0 +1,443 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.identity.event.common.publisher.EventPublisher;
+import org.wso2.identity.event.common.publisher.config.OverflowPolicy;
+import org.wso2.identity.event.common.publisher.config.WaitStrategy;
+import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Dispatch executor backed by a preallocated ring buffer.
+ * Events are written into reusable slots and consumed by a fixed number of platform threads, hence dispatching an
+ * event does not allocate a task object. Each slot carries a sequence number: publishing threads claim a slot by
+ * advancing the producer position and publish it by advancing the slot sequence, and consumers claim published
+ * slots the same way, so neither side takes a lock. When the ring buffer is full, the configured
+ * {@link OverflowPolicy} is applied. A dispatch which is dropped, or evicted by {@link OverflowPolicy#DROP_OLDEST},
+ * is discarded through {@link DiscardableDispatch}, so that the callers waiting on its completion are notified.
+ */
+public class RingBufferDispatchExecutor implements DispatchExecutor {
+
+    private static final Log log = LogFactory.getLog(RingBufferDispatchExecutor.class);
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int SPIN_TRIES = 100;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private final Slot[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong producerPosition = new AtomicLong();
+    private final AtomicLong consumerPosition = new AtomicLong();
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeout;
+    private final WaitStrategy waitStrategy;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final AtomicInteger waitingConsumers = new AtomicInteger();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final Thread[] consumers;
+    private volatile boolean running = true;
+
+    /**
+     * Creates a ring buffer dispatch executor and starts the consumer threads.
+     *
+     * @param name           Name used for the consumer threads.
+     * @param consumerCount  Number of consumer threads.
+     * @param capacity       Minimum number of slots. Rounded up to the next power of two.
+     * @param overflowPolicy Policy applied when the ring buffer is full.
+     * @param blockTimeout   Time in milliseconds to wait for a free slot with the {@link OverflowPolicy#BLOCK} policy.
+     * @param waitStrategy   Strategy used by the idle consumers.
+     */
+    public RingBufferDispatchExecutor(String name, int consumerCount, int capacity, OverflowPolicy overflowPolicy,
+                                      long blockTimeout, WaitStrategy waitStrategy) {
+
+        int size = capacity >= MAX_CAPACITY ? MAX_CAPACITY : Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.slots = new Slot[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeout = blockTimeout;
+        this.waitStrategy = waitStrategy;
+
+        DispatchThreadFactory threadFactory = new DispatchThreadFactory(name);
+        this.consumers = new Thread[consumerCount];
+        for (int i = 0; i < consumerCount; i++) {
+            consumers[i] = threadFactory.newThread(this::consume);
+            consumers[i].start();
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+
+        Objects.requireNonNull(task);
+        publish(null, null, null, task);
+    }
+
+    @Override
+    public void dispatch(EventPublisher eventPublisher, SecurityEventTokenPayload payload,
+                         EventContext eventContext) {
+
+        publish(eventPublisher, payload, eventContext, null);
+    }
+
+    @Override
+    public long getRejectedCount() {
+
+        return rejectedCount.get();
+    }
+
+    @Override
+    public long getDroppedCount() {
+
+        return droppedCount.get();
+    }
+
+    @Override
+    public int getActiveCount() {
+
+        return activeCount.get();
+    }
+
+    @Override
+    public int getQueueDepth() {
+
+        return (int) Math.max(0, producerPosition.get() - consumerPosition.get());
+    }
+
+    /**
+     * Returns the number of slots of the ring buffer.
+     *
+     * @return Ring buffer capacity.
+     */
+    public int getCapacity() {
+
+        return slots.length;
+    }
+
+    @Override
+    public void shutdown() {
+
+        running = false;
+        lock.lock();
+        try {
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Thread consumer : consumers) {
+            TimeUnit.NANOSECONDS.timedJoin(consumer, deadline - System.nanoTime());
+            if (consumer.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int abort() {
+
+        shutdown();
+        int abortedCount = 0;
+        while (poll(false, null)) {
+            abortedCount++;
+        }
+        // Consumers which are still alive after the queued dispatches are discarded are running a dispatch.
+        for (Thread consumer : consumers) {
+            if (consumer.isAlive()) {
+                abortedCount++;
+                consumer.interrupt();
+            }
+        }
+        return abortedCount;
+    }
+
+    private void publish(EventPublisher eventPublisher, SecurityEventTokenPayload payload, EventContext eventContext,
+                         Runnable task) {
+
+        if (!running) {
+            rejectedCount.incrementAndGet();
+            // The dispatch is not discarded, so that a journaled event is kept to be replayed.
+            drop(null, "Dispatch executor is shut down.");
+            return;
+        }
+        if (tryPublish(eventPublisher, payload, eventContext, task)) {
+            return;
+        }
+        rejectedCount.incrementAndGet();
+        switch (overflowPolicy) {
+            case BLOCK:
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockTimeout);
+                while (running && System.nanoTime() < deadline) {
+                    LockSupport.parkNanos(PARK_NANOS);
+                    if (tryPublish(eventPublisher, payload, eventContext, task)) {
+                        return;
+                    }
+                }
+                drop(task, "Dropped the event as the ring buffer remained full for " + blockTimeout + "ms.");
+                break;
+            case DROP_OLDEST:
+                String evictionReason = "Dropped the oldest queued event as the ring buffer is full.";
+                if (poll(false, evictionReason)) {
+                    // The evicted dispatch has been discarded when it was removed from the ring buffer.
+                    drop(null, evictionReason);
+                }
+                if (!tryPublish(eventPublisher, payload, eventContext, task)) {
+                    drop(task, "Dropped the event as the ring buffer is full.");
+                }
+                break;
+            case CALLER_RUNS:
+                run(eventPublisher, payload, eventContext, task);
+                break;
+            case DROP_NEWEST:
+            default:
+                drop(task, "Dropped the event as the ring buffer is full.");
+                break;
+        }
+    }
+
+    /**
+     * Claim the next free slot and publish the dispatch into it.
+     *
+     * @return True if a slot was claimed, false if the ring buffer is full.
+     */
+    private boolean tryPublish(EventPublisher eventPublisher, SecurityEventTokenPayload payload,
+                               EventContext eventContext, Runnable task) {
+
+        long position = producerPosition.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (producerPosition.compareAndSet(position, position + 1)) {
+                    Slot slot = slots[index];
+                    // The consumers may have exited since the executor was shut down, if they found the ring buffer
+                    // empty before the slot was claimed. The slot is then published empty and the event is dropped.
+                    if (running) {
+                        slot.eventPublisher = eventPublisher;
+                        slot.payload = payload;
+                        slot.eventContext = eventContext;
+                        slot.task = task;
+                    } else {
+                        rejectedCount.incrementAndGet();
+                        // The dispatch is not discarded, so that a journaled event is kept to be replayed.
+                        drop(null, "Dispatch executor is shut down.");
+                    }
+                    sequences.set(index, position + 1);
+                    signalConsumers();
+                    return true;
+                }
+                position = producerPosition.get();
+            } else if (difference < 0) {
+                // The slot has not been consumed since the previous round, hence the ring buffer is full.
+                return false;
+            } else {
+                position = producerPosition.get();
+            }
+        }
+    }
+
+    /**
+     * Claim the next published slot.
+     *
+     * @param execute       Whether to run the dispatch of the slot, or to remove it without running.
+     * @param discardReason Reason to discard the removed dispatch with, or null to remove it without discarding.
+     * @return True if a slot was claimed.
+     */
+    private boolean poll(boolean execute, String discardReason) {
+
+        long position = consumerPosition.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (consumerPosition.compareAndSet(position, position + 1)) {
+                    Slot slot = slots[index];
+                    EventPublisher eventPublisher = slot.eventPublisher;
+                    SecurityEventTokenPayload payload = slot.payload;
+                    EventContext eventContext = slot.eventContext;
+                    Runnable task = slot.task;
+                    slot.clear();
+                    // Release the slot for the next round before running the dispatch.
+                    sequences.set(index, position + mask + 1);
+                    if (task == null && eventPublisher == null) {
+                        // The slot was published empty, as its event was dropped on shutdown.
+                        return true;
+                    }
+                    if (execute) {
+                        run(eventPublisher, payload, eventContext, task);
+                    } else if (discardReason != null) {
+                        DiscardableDispatch.discard(task, discardReason);
+                    }
+                    return true;
+                }
+                position = consumerPosition.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = consumerPosition.get();
+            }
+        }
+    }
+
+    private void run(EventPublisher eventPublisher, SecurityEventTokenPayload payload, EventContext eventContext,
+                     Runnable task) {
+
+        activeCount.incrementAndGet();
+        try {
+            if (task != null) {
+                task.run();
+            } else {
+                EventDispatch.publish(eventPublisher, payload, eventContext);
+            }
+        } catch (RuntimeException e) {
+            log.error("Error while running the dispatch task.", e);
+        } finally {
+            activeCount.decrementAndGet();
+        }
+    }
+
+    private void consume() {
+
+        int idleCount = 0;
+        while (true) {
+            if (poll(true, null)) {
+                idleCount = 0;
+            } else if (!running) {
+                if (isEmpty()) {
+                    return;
+                }
+            } else {
+                await(idleCount++);
+            }
+        }
+    }
+
+    private void await(int idleCount) {
+
+        if (waitStrategy == WaitStrategy.BUSY_SPIN || idleCount < SPIN_TRIES) {
+            return;
+        }
+        switch (waitStrategy) {
+            case YIELDING:
+                Thread.yield();
+                break;
+            case SLEEPING:
+                if (idleCount < 2 * SPIN_TRIES) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+                break;
+            case BLOCKING:
+            default:
+                block();
+                break;
+        }
+    }
+
+    private void block() {
+
+        lock.lock();
+        try {
+            // The waiting consumer is registered before the final emptiness check, and publishers check for
+            // waiting consumers after publishing, hence a signal cannot be missed.
+            waitingConsumers.incrementAndGet();
+            try {
+                if (running && isEmpty()) {
+                    notEmpty.await();
+                }
+            } finally {
+                waitingConsumers.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            log.debug("Ring buffer consumer interrupted while waiting for events.");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void signalConsumers() {
+
+        if (waitingConsumers.get() > 0) {
+            lock.lock();
+            try {
+                notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private boolean isEmpty() {
+
+        return consumerPosition.get() >= producerPosition.get();
+    }
+
+    private void drop(Runnable task, String reason) {
+
+        droppedCount.incrementAndGet();
+        if (log.isDebugEnabled()) {
+            log.debug(reason);
+        }
+        DiscardableDispatch.discard(task, reason);
+    }
+
+    /**
+     * Reusable ring buffer slot. The fields are published to the consumers through the slot sequence.
+     */
+    private static final class Slot {
+
+        private EventPublisher eventPublisher;
+        private SecurityEventTokenPayload payload;
+        private EventContext eventContext;
+        private Runnable task;
+
+        private void clear() {
+
+            eventPublisher = null;
+            payload = null;
+            eventContext = null;
+            task = null;
+        }
+    }
+}
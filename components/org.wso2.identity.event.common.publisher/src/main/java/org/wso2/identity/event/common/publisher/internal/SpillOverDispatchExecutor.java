@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.identity.event.common.publisher.EventPublisher;
+import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.EventEnvelope;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.wso2.identity.event.common.publisher.constant.EventPublisherConstants.Spill.DRAIN_THREAD_NAME_SUFFIX;
+
+/**
+ * Dispatch executor which spills the dispatched events to the disk while the queue of the underlying executor is
+ * above the high-water mark, so that the heap footprint of a stalled event publisher stays bounded.
+ * A drainer thread dispatches the spilled events back to the underlying executor at the configured rate once the
+ * queue has fallen below half of the high-water mark. The spilled events which have not been drained on shutdown are
+ * drained after the next start. Spilled events are delivered after the events queued in memory, hence the order of
+ * the events is not preserved while spilling. When the spill files reach the maximum size, or cannot be written, the
+ * events are handed over to the underlying executor and its overflow policy is applied.
+ * Only the events dispatched through {@link #dispatch} are spilled. Tasks submitted through {@link #execute} are
+ * executed by the underlying executor, see {@link #execute(Runnable)}.
+ */
+public class SpillOverDispatchExecutor implements DispatchExecutor {
+
+    private static final Log log = LogFactory.getLog(SpillOverDispatchExecutor.class);
+    private static final long IDLE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private final DispatchExecutor delegate;
+    private final EventPublisher eventPublisher;
+    private final SpillQueue spillQueue;
+    private final int highWaterMark;
+    private final int lowWaterMark;
+    private final long drainIntervalNanos;
+    private final Thread drainer;
+    private volatile boolean running = true;
+
+    /**
+     * Create a spill-over dispatch executor.
+     *
+     * @param threadNamePrefix Name prefix of the drainer thread.
+     * @param delegate         Underlying dispatch executor.
+     * @param eventPublisher   Event publisher the spilled events are dispatched to.
+     * @param directory        Directory of the spill files.
+     * @param highWaterMark    Queue depth of the underlying executor above which the events are spilled.
+     * @param drainRate        Maximum number of spilled events drained per second.
+     * @param segmentSize      Size in bytes after which a spill file is rolled over.
+     * @param maxSize          Maximum size in bytes of the spill files.
+     * @throws IOException If the spill directory cannot be accessed.
+     */
+    public SpillOverDispatchExecutor(String threadNamePrefix, DispatchExecutor delegate,
+                                     EventPublisher eventPublisher, Path directory, int highWaterMark, int drainRate,
+                                     int segmentSize, long maxSize) throws IOException {
+
+        this.delegate = delegate;
+        this.eventPublisher = eventPublisher;
+        this.spillQueue = new SpillQueue(directory, segmentSize, maxSize);
+        this.highWaterMark = Math.max(1, highWaterMark);
+        this.lowWaterMark = Math.max(1, this.highWaterMark / 2);
+        this.drainIntervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, drainRate);
+        this.drainer = new DispatchThreadFactory(threadNamePrefix + DRAIN_THREAD_NAME_SUFFIX).newThread(this::drain);
+        drainer.start();
+    }
+
+    /**
+     * Hand over the task to the underlying executor without spilling it. The tasks complete callbacks held in the
+     * heap, such as the outcome of a publish or the acknowledgement of a journaled event, which cannot be written to
+     * the spill files. Such events are kept on the disk by the event journal instead, and the overflow policy of the
+     * underlying executor bounds their heap footprint.
+     *
+     * @param task Task to be executed.
+     */
+    @Override
+    public void execute(Runnable task) {
+
+        delegate.execute(task);
+    }
+
+    @Override
+    public void dispatch(EventPublisher eventPublisher, SecurityEventTokenPayload payload,
+                         EventContext eventContext) {
+
+        if (delegate.getQueueDepth() >= highWaterMark && spill(payload, eventContext)) {
+            return;
+        }
+        delegate.dispatch(eventPublisher, payload, eventContext);
+    }
+
+    /**
+     * Returns the number of events waiting in the spill files.
+     *
+     * @return Spilled event count.
+     */
+    public long getSpilledCount() {
+
+        return spillQueue.size();
+    }
+
+    @Override
+    public long getRejectedCount() {
+
+        return delegate.getRejectedCount();
+    }
+
+    @Override
+    public long getDroppedCount() {
+
+        return delegate.getDroppedCount();
+    }
+
+    @Override
+    public int getQueueDepth() {
+
+        return delegate.getQueueDepth();
+    }
+
+    @Override
+    public int getActiveCount() {
+
+        return delegate.getActiveCount();
+    }
+
+    @Override
+    public boolean resize(int threadPoolSize) {
+
+        return delegate.resize(threadPoolSize);
+    }
+
+    @Override
+    public void shutdown() {
+
+        running = false;
+        LockSupport.unpark(drainer);
+        delegate.shutdown();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        drainer.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        return !drainer.isAlive() &&
+                delegate.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int abort() {
+
+        running = false;
+        LockSupport.unpark(drainer);
+        return delegate.abort();
+    }
+
+    /**
+     * Spill an event to the disk regardless of the queue depth, to be drained back at the drain rate.
+     *
+     * @param payload      Event payload.
+     * @param eventContext Event context.
+     * @return True if the event was spilled, false if the spill files are full or cannot be written.
+     */
+    public boolean spill(SecurityEventTokenPayload payload, EventContext eventContext) {
+
+        if (!running) {
+            return false;
+        }
+        try {
+            if (spillQueue.offer(EventJournalCodec.encode(payload, eventContext))) {
+                return true;
+            }
+            log.debug("Spill files are full. The event is not spilled.");
+        } catch (IOException e) {
+            log.error("Error while spilling the event to the disk.", e);
+        }
+        return false;
+    }
+
+    private void drain() {
+
+        long nextDrainTime = System.nanoTime();
+        try {
+            while (running) {
+                if (spillQueue.size() == 0 || delegate.getQueueDepth() >= lowWaterMark) {
+                    LockSupport.parkNanos(this, IDLE_INTERVAL_NANOS);
+                    continue;
+                }
+                long waitTime = nextDrainTime - System.nanoTime();
+                if (waitTime > 0) {
+                    LockSupport.parkNanos(this, waitTime);
+                    continue;
+                }
+                nextDrainTime = Math.max(nextDrainTime, System.nanoTime() - drainIntervalNanos) +
+                        drainIntervalNanos;
+                drainNext();
+            }
+        } finally {
+            spillQueue.close();
+            if (spillQueue.size() > 0) {
+                log.info(spillQueue.size() + " spilled events are retained on the disk until the next start.");
+            }
+        }
+    }
+
+    private void drainNext() {
+
+        byte[] record;
+        try {
+            record = spillQueue.poll();
+        } catch (IOException e) {
+            log.error("Error while reading the spilled events.", e);
+            LockSupport.parkNanos(this, IDLE_INTERVAL_NANOS);
+            return;
+        }
+        if (record == null) {
+            return;
+        }
+        EventEnvelope event;
+        try {
+            event = EventJournalCodec.decode(record);
+        } catch (IOException e) {
+            log.error("Error while decoding a spilled event. The event is discarded.", e);
+            return;
+        }
+        delegate.dispatch(eventPublisher, event.getPayload(), event.getEventContext());
+    }
+}
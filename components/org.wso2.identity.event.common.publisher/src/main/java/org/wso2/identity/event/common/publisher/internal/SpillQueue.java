@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import static org.wso2.identity.event.common.publisher.constant.EventPublisherConstants.Spill.SEGMENT_FILE_PREFIX;
+import static org.wso2.identity.event.common.publisher.constant.EventPublisherConstants.Spill.SEGMENT_FILE_SUFFIX;
+
+/**
+ * First in, first out queue of records stored in sequentially written segment files.
+ * Records are appended to the active segment, which is sealed once it reaches the segment size or when the consumer
+ * runs out of sealed segments. A single consumer reads the sealed segments in order and deletes each segment once
+ * it has been read. The segments left behind by a previous run are read before the new records.
+ */
+final class SpillQueue implements Closeable {
+
+    private static final Log log = LogFactory.getLog(SpillQueue.class);
+    // Record length and checksum.
+    private static final int RECORD_HEADER_SIZE = 4 + 4;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxSize;
+    private final Deque<Segment> sealedSegments = new ArrayDeque<>();
+    private final AtomicLong recordCount = new AtomicLong();
+    private final AtomicLong diskSize = new AtomicLong();
+    private long nextSegmentIndex;
+    private Path writeSegment;
+    private DataOutputStream writer;
+    private long writeSegmentSize;
+    private long writeSegmentRecords;
+    private Path readSegment;
+    private long readSegmentRecords;
+    private DataInputStream reader;
+    private boolean closed;
+
+    SpillQueue(Path directory, int segmentSize, long maxSize) throws IOException {
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSize = maxSize;
+
+        Files.createDirectories(directory);
+        long lastSegmentIndex = 0;
+        for (Path segmentFile : listSegmentFiles(directory)) {
+            lastSegmentIndex = Math.max(lastSegmentIndex, getSegmentIndex(segmentFile));
+            long records = countRecords(segmentFile);
+            recordCount.addAndGet(records);
+            diskSize.addAndGet(Files.size(segmentFile));
+            sealedSegments.add(new Segment(segmentFile, records));
+        }
+        this.nextSegmentIndex = lastSegmentIndex + 1;
+        if (recordCount.get() > 0) {
+            log.info(recordCount.get() + " spilled events were found in: " + directory);
+        }
+    }
+
+    /**
+     * Append a record to the queue.
+     *
+     * @param record Record to be appended.
+     * @return True if the record was appended, false if the queue is closed or the maximum size has been reached.
+     * @throws IOException If the record cannot be written.
+     */
+    synchronized boolean offer(byte[] record) throws IOException {
+
+        if (closed || diskSize.get() + RECORD_HEADER_SIZE + record.length > maxSize) {
+            return false;
+        }
+        if (writer == null) {
+            writeSegment = directory.resolve(String.format("%s%020d%s", SEGMENT_FILE_PREFIX, nextSegmentIndex++,
+                    SEGMENT_FILE_SUFFIX));
+            writer = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(writeSegment,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), BUFFER_SIZE));
+            writeSegmentSize = 0;
+            writeSegmentRecords = 0;
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(record, 0, record.length);
+        writer.writeInt(record.length);
+        writer.writeInt((int) checksum.getValue());
+        writer.write(record);
+        writeSegmentSize += RECORD_HEADER_SIZE + record.length;
+        writeSegmentRecords++;
+        diskSize.addAndGet(RECORD_HEADER_SIZE + record.length);
+        recordCount.incrementAndGet();
+        if (writeSegmentSize >= segmentSize) {
+            seal();
+        }
+        return true;
+    }
+
+    /**
+     * Read the next record of the queue. Must only be called by the consumer of the queue.
+     *
+     * @return Next record, or null if the queue is empty.
+     * @throws IOException If the record cannot be read.
+     */
+    byte[] poll() throws IOException {
+
+        while (true) {
+            if (reader == null && !openNextSegment()) {
+                return null;
+            }
+            byte[] record = readRecord(reader);
+            if (record != null) {
+                recordCount.decrementAndGet();
+                if (--readSegmentRecords == 0) {
+                    closeReadSegment(true);
+                }
+                return record;
+            }
+            closeReadSegment(true);
+        }
+    }
+
+    /**
+     * Returns the number of records in the queue.
+     *
+     * @return Record count.
+     */
+    long size() {
+
+        return recordCount.get();
+    }
+
+    /**
+     * Close the queue. The records which have not been read remain in the segment files, and are read again when the
+     * queue is opened on the same directory.
+     */
+    @Override
+    public synchronized void close() {
+
+        closed = true;
+        try {
+            if (writer != null) {
+                seal();
+            }
+        } catch (IOException e) {
+            log.error("Error while closing the spill segment: " + writeSegment, e);
+        }
+        closeReadSegment(false);
+    }
+
+    private synchronized boolean openNextSegment() throws IOException {
+
+        if (sealedSegments.isEmpty() && writer != null) {
+            // Hand over the partially written segment rather than waiting for it to fill up.
+            seal();
+        }
+        Segment segment = sealedSegments.poll();
+        if (segment == null) {
+            return false;
+        }
+        readSegment = segment.path;
+        readSegmentRecords = segment.records;
+        reader = new DataInputStream(new BufferedInputStream(Files.newInputStream(readSegment), BUFFER_SIZE));
+        return true;
+    }
+
+    private void seal() throws IOException {
+
+        try {
+            writer.close();
+        } finally {
+            sealedSegments.add(new Segment(writeSegment, writeSegmentRecords));
+            writer = null;
+        }
+    }
+
+    private synchronized void closeReadSegment(boolean delete) {
+
+        if (reader == null) {
+            return;
+        }
+        try {
+            reader.close();
+        } catch (IOException e) {
+            log.debug("Error while closing the spill segment: " + readSegment, e);
+        }
+        if (delete) {
+            // Records skipped due to corruption are no longer counted.
+            recordCount.addAndGet(-Math.max(0, readSegmentRecords));
+            try {
+                diskSize.addAndGet(-Files.size(readSegment));
+                Files.deleteIfExists(readSegment);
+            } catch (IOException e) {
+                log.error("Error while deleting the spill segment: " + readSegment, e);
+            }
+        }
+        reader = null;
+        readSegment = null;
+    }
+
+    private static byte[] readRecord(DataInputStream input) throws IOException {
+
+        int length;
+        int expectedChecksum;
+        try {
+            length = input.readInt();
+            expectedChecksum = input.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length < 0) {
+            log.warn("Invalid record found in a spill segment. The rest of the segment is skipped.");
+            return null;
+        }
+        byte[] record = new byte[length];
+        try {
+            input.readFully(record);
+        } catch (EOFException e) {
+            log.warn("Truncated record found in a spill segment. The rest of the segment is skipped.");
+            return null;
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(record, 0, record.length);
+        if ((int) checksum.getValue() != expectedChecksum) {
+            log.warn("Corrupted record found in a spill segment. The rest of the segment is skipped.");
+            return null;
+        }
+        return record;
+    }
+
+    private static long countRecords(Path segmentFile) throws IOException {
+
+        long count = 0;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(segmentFile),
+                BUFFER_SIZE))) {
+            while (readRecord(input) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns whether the directory holds segment files left behind by a previous run.
+     *
+     * @param directory Directory of the segment files.
+     * @return True if there are segment files to be read.
+     * @throws IOException If the directory cannot be read.
+     */
+    static boolean hasSegmentFiles(Path directory) throws IOException {
+
+        return Files.isDirectory(directory) && !listSegmentFiles(directory).isEmpty();
+    }
+
+    private static List<Path> listSegmentFiles(Path directory) throws IOException {
+
+        List<Path> segmentFiles = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                SEGMENT_FILE_PREFIX + "*" + SEGMENT_FILE_SUFFIX)) {
+            for (Path segmentFile : stream) {
+                segmentFiles.add(segmentFile);
+            }
+        }
+        // Segment file names are zero padded, hence the name order is the spill order.
+        Collections.sort(segmentFiles);
+        return segmentFiles;
+    }
+
+    private static long getSegmentIndex(Path segmentFile) {
+
+        String name = segmentFile.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_FILE_PREFIX.length(),
+                    name.length() - SEGMENT_FILE_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final long records;
+
+        private Segment(Path path, long records) {
+
+            this.path = path;
+            this.records = records;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+/**
+ * Dispatch which belongs to a tenant.
+ */
+interface TenantAware {
+
+    /**
+     * Returns the tenant domain of the dispatched event.
+     *
+     * @return Tenant domain, or null if the tenant is not known.
+     */
+    String getTenantDomain();
+
+    /**
+     * Returns the key within which the dispatches must be executed in order.
+     *
+     * @return Partition key, or null if the dispatch is not ordered.
+     */
+    default String getPartitionKey() {
+
+        return getTenantDomain();
+    }
+}
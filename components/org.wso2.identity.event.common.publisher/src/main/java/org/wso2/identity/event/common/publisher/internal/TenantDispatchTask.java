@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.wso2.identity.event.common.publisher.EventPublisher;
+import org.wso2.identity.event.common.publisher.metrics.PublishMetrics;
+import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Dispatch task which belongs to a tenant.
+ * An asynchronous dispatch task exposes the completion of the dispatch once it has run, so that an ordered
+ * dispatch executor can wait for the completion before running the next task of the same partition. A task which is
+ * discarded by the overflow policy of the executor without running notifies its discard handler instead.
+ */
+public class TenantDispatchTask implements Runnable, TenantAware, DiscardableDispatch {
+
+    private final String tenantDomain;
+    private final Runnable task;
+    private final SecurityEventTokenPayload payload;
+    private final EventContext eventContext;
+    private final Supplier<? extends CompletionStage<?>> asyncTask;
+    private final Consumer<Throwable> discardHandler;
+    private final long createdTime = System.nanoTime();
+    private CompletionStage<?> completion;
+
+    /**
+     * Creates a dispatch task.
+     *
+     * @param tenantDomain Tenant domain of the dispatched events.
+     * @param task         Dispatch task.
+     */
+    public TenantDispatchTask(String tenantDomain, Runnable task) {
+
+        this(tenantDomain, task, null);
+    }
+
+    /**
+     * Creates a dispatch task which notifies the given handler if it is discarded without running.
+     *
+     * @param tenantDomain   Tenant domain of the dispatched events.
+     * @param task           Dispatch task.
+     * @param discardHandler Notified with the reason the task was discarded, or null.
+     */
+    public TenantDispatchTask(String tenantDomain, Runnable task, Consumer<Throwable> discardHandler) {
+
+        this.tenantDomain = tenantDomain;
+        this.task = task;
+        this.payload = null;
+        this.eventContext = null;
+        this.asyncTask = null;
+        this.discardHandler = discardHandler;
+    }
+
+    /**
+     * Creates an asynchronous dispatch task of a single event.
+     *
+     * @param payload      Dispatched event payload.
+     * @param eventContext Dispatched event context.
+     * @param asyncTask    Dispatch task returning the completion of the dispatch.
+     */
+    public TenantDispatchTask(SecurityEventTokenPayload payload, EventContext eventContext,
+                              Supplier<? extends CompletionStage<?>> asyncTask) {
+
+        this(payload, eventContext, asyncTask, null);
+    }
+
+    private TenantDispatchTask(SecurityEventTokenPayload payload, EventContext eventContext,
+                               Supplier<? extends CompletionStage<?>> asyncTask, Consumer<Throwable> discardHandler) {
+
+        this.tenantDomain = eventContext != null ? eventContext.getTenantDomain() : null;
+        this.task = null;
+        this.payload = payload;
+        this.eventContext = eventContext;
+        this.asyncTask = asyncTask;
+        this.discardHandler = discardHandler;
+    }
+
+    /**
+     * Creates an asynchronous dispatch task which publishes a single event with
+     * {@link EventPublisher#publishAsync(SecurityEventTokenPayload, EventContext)}, recording the metrics and logging
+     * the failures as any other dispatch. If the task is discarded without running, the completion handler is
+     * notified with a {@link RejectedExecutionException}.
+     *
+     * @param eventPublisher    Event publisher.
+     * @param payload           Dispatched event payload.
+     * @param eventContext      Dispatched event context.
+     * @param completionHandler Notified with the failure of the event publisher, or null once it has succeeded.
+     */
+    public TenantDispatchTask(EventPublisher eventPublisher, SecurityEventTokenPayload payload,
+                              EventContext eventContext, Consumer<Throwable> completionHandler) {
+
+        this(payload, eventContext, () -> EventDispatch.publishAsync(eventPublisher, payload, eventContext)
+                .whenComplete((ignored, error) -> completionHandler.accept(error)), completionHandler);
+    }
+
+    @Override
+    public String getTenantDomain() {
+
+        return tenantDomain;
+    }
+
+    @Override
+    public String getPartitionKey() {
+
+        return asyncTask != null ? EventDispatch.getPartitionKey(payload, eventContext) : tenantDomain;
+    }
+
+    /**
+     * Returns the completion of an asynchronous dispatch task which has run.
+     *
+     * @return Completion of the dispatch, or null if the task is not asynchronous or has not run.
+     */
+    public CompletionStage<?> getCompletion() {
+
+        return completion;
+    }
+
+    @Override
+    public void discard(RejectedExecutionException reason) {
+
+        if (discardHandler != null) {
+            discardHandler.accept(reason);
+        }
+    }
+
+    @Override
+    public void run() {
+
+        PublishMetrics.getInstance().recordDispatchWait(System.nanoTime() - createdTime);
+        EventPublisherDataHolder.getInstance().getDispatchGate().pass();
+        if (asyncTask != null) {
+            completion = asyncTask.get();
+        } else {
+            task.run();
+        }
+    }
+}
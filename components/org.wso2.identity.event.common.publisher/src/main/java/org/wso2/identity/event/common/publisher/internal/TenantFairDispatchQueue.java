@@ -0,0 +1,407 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded dispatch queue which serves the tenants fairly.
+ * The dispatches of each tenant are kept in a separate sub queue, and the tenants with queued dispatches are served
+ * with deficit round robin: on each turn, a tenant may dispatch as many events as its weight before the next tenant
+ * is served. Each tenant may occupy only a part of the total capacity, so that a tenant publishing a burst of events
+ * cannot take the queue space of the other tenants. Dispatches which do not carry a tenant are queued as a single
+ * tenant.
+ */
+public class TenantFairDispatchQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+    private static final String UNKNOWN_TENANT = "";
+    private final int capacity;
+    private final int tenantCapacity;
+    private final ToIntFunction<String> tenantWeights;
+    private final Map<String, TenantQueue> tenantQueues = new HashMap<>();
+    private final ArrayDeque<TenantQueue> activeTenantQueues = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    // The producers waiting for space may wait on the capacity of different tenants, hence all of them are signalled.
+    private final Condition notFull = lock.newCondition();
+    private int count;
+
+    /**
+     * Creates a tenant fair dispatch queue.
+     *
+     * @param capacity       Maximum number of queued dispatches.
+     * @param tenantCapacity Maximum number of queued dispatches of a single tenant.
+     * @param tenantWeights  Resolves the weight of a tenant domain.
+     */
+    public TenantFairDispatchQueue(int capacity, int tenantCapacity, ToIntFunction<String> tenantWeights) {
+
+        this.capacity = capacity;
+        this.tenantCapacity = Math.min(tenantCapacity, capacity);
+        this.tenantWeights = tenantWeights;
+    }
+
+    @Override
+    public boolean offer(Runnable runnable) {
+
+        Objects.requireNonNull(runnable);
+        String tenantDomain = tenantOf(runnable);
+        lock.lock();
+        try {
+            return enqueue(runnable, tenantDomain);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(Runnable runnable, long timeout, TimeUnit unit) throws InterruptedException {
+
+        Objects.requireNonNull(runnable);
+        String tenantDomain = tenantOf(runnable);
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (!enqueue(runnable, tenantDomain)) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(Runnable runnable) throws InterruptedException {
+
+        Objects.requireNonNull(runnable);
+        String tenantDomain = tenantOf(runnable);
+        lock.lockInterruptibly();
+        try {
+            while (!enqueue(runnable, tenantDomain)) {
+                notFull.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll() {
+
+        lock.lock();
+        try {
+            return count == 0 ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable peek() {
+
+        lock.lock();
+        try {
+            TenantQueue tenantQueue = activeTenantQueues.peekFirst();
+            return tenantQueue != null ? tenantQueue.dispatches.peekFirst() : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the oldest queued dispatch of a tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return Oldest queued dispatch of the tenant, or null if the tenant has no queued dispatches.
+     */
+    public Runnable pollOldest(String tenantDomain) {
+
+        lock.lock();
+        try {
+            TenantQueue tenantQueue = tenantQueues.get(tenantDomain != null ? tenantDomain : UNKNOWN_TENANT);
+            if (tenantQueue == null) {
+                return null;
+            }
+            Runnable runnable = tenantQueue.dispatches.pollFirst();
+            count--;
+            if (tenantQueue.dispatches.isEmpty()) {
+                deactivate(tenantQueue);
+            }
+            notFull.signalAll();
+            return runnable;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+
+        if (!(o instanceof Runnable)) {
+            return false;
+        }
+        lock.lock();
+        try {
+            TenantQueue tenantQueue = tenantQueues.get(tenantOf((Runnable) o));
+            if (tenantQueue == null || !tenantQueue.dispatches.remove(o)) {
+                return false;
+            }
+            count--;
+            if (tenantQueue.dispatches.isEmpty()) {
+                deactivate(tenantQueue);
+            }
+            notFull.signalAll();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+
+        lock.lock();
+        try {
+            return capacity - count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of queued dispatches of a tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return Tenant queue depth.
+     */
+    public int size(String tenantDomain) {
+
+        lock.lock();
+        try {
+            TenantQueue tenantQueue = tenantQueues.get(tenantDomain != null ? tenantDomain : UNKNOWN_TENANT);
+            return tenantQueue != null ? tenantQueue.dispatches.size() : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> collection) {
+
+        return drainTo(collection, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> collection, int maxElements) {
+
+        Objects.requireNonNull(collection);
+        if (collection == this) {
+            throw new IllegalArgumentException();
+        }
+        lock.lock();
+        try {
+            int drained = 0;
+            while (count > 0 && drained < maxElements) {
+                collection.add(dequeue());
+                drained++;
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the queued dispatches.
+     *
+     * @return Iterator of the queued dispatches.
+     */
+    @Override
+    public Iterator<Runnable> iterator() {
+
+        lock.lock();
+        try {
+            List<Runnable> snapshot = new ArrayList<>(count);
+            for (TenantQueue tenantQueue : activeTenantQueues) {
+                snapshot.addAll(tenantQueue.dispatches);
+            }
+            Iterator<Runnable> snapshotIterator = snapshot.iterator();
+            return new Iterator<Runnable>() {
+
+                private Runnable last;
+
+                @Override
+                public boolean hasNext() {
+
+                    return snapshotIterator.hasNext();
+                }
+
+                @Override
+                public Runnable next() {
+
+                    last = snapshotIterator.next();
+                    return last;
+                }
+
+                @Override
+                public void remove() {
+
+                    if (last == null) {
+                        throw new IllegalStateException();
+                    }
+                    TenantFairDispatchQueue.this.remove(last);
+                    last = null;
+                }
+            };
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean enqueue(Runnable runnable, String tenantDomain) {
+
+        if (count >= capacity) {
+            return false;
+        }
+        TenantQueue tenantQueue = tenantQueues.get(tenantDomain);
+        if (tenantQueue == null) {
+            tenantQueue = new TenantQueue(tenantDomain, Math.max(1, tenantWeights.applyAsInt(tenantDomain)));
+            tenantQueues.put(tenantDomain, tenantQueue);
+        } else if (tenantQueue.dispatches.size() >= tenantCapacity) {
+            return false;
+        }
+        if (tenantQueue.dispatches.isEmpty()) {
+            activeTenantQueues.addLast(tenantQueue);
+        }
+        tenantQueue.dispatches.addLast(runnable);
+        count++;
+        notEmpty.signal();
+        return true;
+    }
+
+    private Runnable dequeue() {
+
+        TenantQueue tenantQueue = activeTenantQueues.peekFirst();
+        if (tenantQueue.deficit == 0) {
+            // Start of the turn of the tenant.
+            tenantQueue.deficit = tenantQueue.weight;
+        }
+        Runnable runnable = tenantQueue.dispatches.pollFirst();
+        tenantQueue.deficit--;
+        count--;
+        if (tenantQueue.dispatches.isEmpty()) {
+            deactivate(tenantQueue);
+        } else if (tenantQueue.deficit == 0) {
+            activeTenantQueues.pollFirst();
+            activeTenantQueues.addLast(tenantQueue);
+        }
+        notFull.signalAll();
+        return runnable;
+    }
+
+    private void deactivate(TenantQueue tenantQueue) {
+
+        // Idle tenants are forgotten, so that the queue does not retain every tenant which has ever published.
+        activeTenantQueues.remove(tenantQueue);
+        tenantQueues.remove(tenantQueue.tenantDomain);
+        tenantQueue.deficit = 0;
+    }
+
+    private static String tenantOf(Runnable runnable) {
+
+        String tenantDomain = runnable instanceof TenantAware ? ((TenantAware) runnable).getTenantDomain() : null;
+        return tenantDomain != null ? tenantDomain : UNKNOWN_TENANT;
+    }
+
+    /**
+     * Queued dispatches of a single tenant.
+     */
+    private static final class TenantQueue {
+
+        private final String tenantDomain;
+        private final int weight;
+        private final ArrayDeque<Runnable> dispatches = new ArrayDeque<>();
+        private int deficit;
+
+        private TenantQueue(String tenantDomain, int weight) {
+
+            this.tenantDomain = tenantDomain;
+            this.weight = weight;
+        }
+    }
+}
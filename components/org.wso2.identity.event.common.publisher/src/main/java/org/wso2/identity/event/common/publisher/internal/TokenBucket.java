@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket.
+ * The bucket is tracked as the theoretical arrival time of the next event (generic cell rate algorithm), which is
+ * equivalent to a token bucket refilled at the rate and holding up to the burst size, but needs only a single atomic
+ * value. Acquiring a permit is a compare and set of that value.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final LongSupplier clock;
+    private final AtomicLong theoreticalArrivalTime;
+
+    /**
+     * Create a token bucket.
+     *
+     * @param rate  Permits per second.
+     * @param burst Permits which may be acquired at once.
+     * @param clock Clock in nanoseconds.
+     */
+    TokenBucket(int rate, int burst, LongSupplier clock) {
+
+        this.intervalNanos = Math.max(1, TimeUnit.SECONDS.toNanos(1) / Math.max(1, rate));
+        this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1);
+        this.clock = clock;
+        this.theoreticalArrivalTime = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Acquire a permit, reserving a future permit if none is available now.
+     *
+     * @param maxWaitNanos Maximum time the caller is willing to wait for a permit.
+     * @return Time in nanoseconds the caller has to wait before using the permit, or -1 if no permit is available
+     * within the maximum wait time.
+     */
+    long tryAcquire(long maxWaitNanos) {
+
+        while (true) {
+            long now = clock.getAsLong();
+            long arrivalTime = theoreticalArrivalTime.get();
+            long start = arrivalTime - now > 0 ? arrivalTime : now;
+            long waitNanos = start - toleranceNanos - now;
+            if (waitNanos > maxWaitNanos) {
+                return -1;
+            }
+            if (theoreticalArrivalTime.compareAndSet(arrivalTime, start + intervalNanos)) {
+                return Math.max(0, waitNanos);
+            }
+        }
+    }
+
+    /**
+     * Return a permit which has been acquired but not used.
+     */
+    void release() {
+
+        theoreticalArrivalTime.addAndGet(-intervalNanos);
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.identity.event.common.publisher.config.OverflowPolicy;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executor which runs every dispatch on its own virtual thread.
+ * The number of concurrent dispatches is capped with a semaphore. When the cap is reached, the configured
+ * {@link OverflowPolicy} is applied and the rejection is counted. {@link OverflowPolicy#DROP_OLDEST} is not
+ * supported, as there is no queue to evict the oldest dispatch from, and the running dispatches cannot be evicted.
+ * It is replaced with {@link OverflowPolicy#DROP_NEWEST} when the executor is created, hence the new dispatch is
+ * dropped instead.
+ * Virtual threads are only available from JDK 21 onwards, hence the executor is created reflectively.
+ */
+public class VirtualThreadDispatchExecutor implements DispatchExecutor {
+
+    private static final Log log = LogFactory.getLog(VirtualThreadDispatchExecutor.class);
+    private static final String VIRTUAL_THREAD_EXECUTOR_FACTORY = "newVirtualThreadPerTaskExecutor";
+    private final ExecutorService virtualThreadExecutor;
+    private final Semaphore concurrencyPermits;
+    private final int maxConcurrency;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeout;
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private VirtualThreadDispatchExecutor(ExecutorService virtualThreadExecutor, int maxConcurrency,
+                                          OverflowPolicy overflowPolicy, long blockTimeout) {
+
+        this.virtualThreadExecutor = virtualThreadExecutor;
+        this.concurrencyPermits = new Semaphore(maxConcurrency);
+        this.maxConcurrency = maxConcurrency;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeout = blockTimeout;
+    }
+
+    /**
+     * Creates a virtual thread dispatch executor if virtual threads are supported by the runtime.
+     *
+     * @param maxConcurrency Maximum number of concurrent dispatches.
+     * @param overflowPolicy Policy applied when the concurrency cap is reached.
+     * @param blockTimeout   Time in milliseconds to wait for a permit with the {@link OverflowPolicy#BLOCK} policy.
+     * @return Virtual thread dispatch executor or null if virtual threads are not supported.
+     */
+    public static VirtualThreadDispatchExecutor createIfSupported(int maxConcurrency, OverflowPolicy overflowPolicy,
+                                                                  long blockTimeout) {
+
+        try {
+            Method factory = Executors.class.getMethod(VIRTUAL_THREAD_EXECUTOR_FACTORY);
+            ExecutorService executor = (ExecutorService) factory.invoke(null);
+            if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+                log.warn("The drop oldest overflow policy is not supported in the virtual thread dispatch mode. " +
+                        "The newest events are dropped instead.");
+                overflowPolicy = OverflowPolicy.DROP_NEWEST;
+            }
+            return new VirtualThreadDispatchExecutor(executor, maxConcurrency, overflowPolicy, blockTimeout);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.debug("Virtual threads are not supported by the runtime.", e);
+            return null;
+        }
+    }
+
+    @Override
+    public void execute(Runnable runnable) {
+
+        if (!concurrencyPermits.tryAcquire()) {
+            rejectedCount.incrementAndGet();
+            if (!handleOverflow(runnable)) {
+                return;
+            }
+        }
+        try {
+            virtualThreadExecutor.execute(() -> {
+                try {
+                    runnable.run();
+                } finally {
+                    concurrencyPermits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            concurrencyPermits.release();
+            // The dispatch is not discarded, so that a journaled event is kept to be replayed.
+            drop(null, "Virtual thread dispatch executor is shut down.");
+        }
+    }
+
+    /**
+     * Apply the overflow policy.
+     *
+     * @param runnable Dispatch which could not acquire a permit.
+     * @return True if a permit was acquired and the dispatch should be started.
+     */
+    private boolean handleOverflow(Runnable runnable) {
+
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    if (concurrencyPermits.tryAcquire(blockTimeout, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                    drop(runnable, "Dropped the event as the virtual thread concurrency limit remained reached for " +
+                            blockTimeout + "ms.");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    drop(runnable, "Interrupted while waiting for a virtual thread dispatch permit.");
+                }
+                return false;
+            case CALLER_RUNS:
+                runnable.run();
+                return false;
+            case DROP_NEWEST:
+            default:
+                drop(runnable, "Dropped the event as the virtual thread concurrency limit is reached.");
+                return false;
+        }
+    }
+
+    private void drop(Runnable runnable, String reason) {
+
+        droppedCount.incrementAndGet();
+        if (log.isDebugEnabled()) {
+            log.debug(reason);
+        }
+        DiscardableDispatch.discard(runnable, reason);
+    }
+
+    @Override
+    public long getRejectedCount() {
+
+        return rejectedCount.get();
+    }
+
+    @Override
+    public long getDroppedCount() {
+
+        return droppedCount.get();
+    }
+
+    @Override
+    public int getQueueDepth() {
+
+        return 0;
+    }
+
+    @Override
+    public void shutdown() {
+
+        virtualThreadExecutor.shutdown();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+
+        return virtualThreadExecutor.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public int abort() {
+
+        int runningCount = getActiveCount();
+        virtualThreadExecutor.shutdownNow();
+        return runningCount;
+    }
+
+    @Override
+    public int getActiveCount() {
+
+        return maxConcurrency - concurrencyPermits.availablePermits();
+    }
+}
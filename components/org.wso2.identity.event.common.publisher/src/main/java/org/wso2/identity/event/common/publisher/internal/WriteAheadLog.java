@@ -0,0 +1,445 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.EventEnvelope;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import static org.wso2.identity.event.common.publisher.constant.EventPublisherConstants.Journal.JOURNAL_THREAD_NAME_PREFIX;
+import static org.wso2.identity.event.common.publisher.constant.EventPublisherConstants.Journal.SEGMENT_FILE_PREFIX;
+import static org.wso2.identity.event.common.publisher.constant.EventPublisherConstants.Journal.SEGMENT_FILE_SUFFIX;
+
+/**
+ * Append-only write-ahead log of the accepted events.
+ * The log is made of memory mapped segment files of a fixed size. An event is journaled before it is dispatched, and
+ * a completion record is journaled once every event publisher it was dispatched to has acknowledged it, whether the
+ * event was delivered or given up. Appending
+ * only copies the record into the mapped segment. A background thread flushes the segments to the disk at the sync
+ * interval, so that the records appended within an interval share a single flush and the publishing threads never
+ * wait for the disk. Hence, a JVM crash does not lose any journaled event, while a host crash may lose the events
+ * journaled within the last sync interval.
+ * When the log is opened, the events of the existing segments without a completion record are recovered, so that
+ * they can be replayed. A segment is deleted once all its events, and all the events of the older segments, have
+ * been completed.
+ */
+public class WriteAheadLog {
+
+    private static final Log log = LogFactory.getLog(WriteAheadLog.class);
+    private static final byte EVENT_RECORD = 1;
+    private static final byte COMPLETION_RECORD = 2;
+    private static final byte[] EMPTY_BODY = new byte[0];
+    // Record length, checksum, record type and event id.
+    private static final int RECORD_HEADER_SIZE = 4 + 4 + 1 + 8;
+    private final Path directory;
+    private final int segmentSize;
+    private final AtomicLong nextEventId;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Deque<Segment> segments = new ConcurrentLinkedDeque<>();
+    private final ScheduledExecutorService syncExecutor;
+    private List<Path> recoveredSegments;
+    private List<EventEnvelope> recoveredEvents;
+    private Segment activeSegment;
+    private volatile boolean closed;
+
+    private WriteAheadLog(Path directory, int segmentSize, long syncInterval) throws IOException {
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+
+        List<Path> segmentFiles = listSegmentFiles(directory);
+        Map<Long, EventEnvelope> pendingEvents = new LinkedHashMap<>();
+        long lastEventId = 0;
+        long lastSegmentIndex = 0;
+        for (Path segmentFile : segmentFiles) {
+            lastSegmentIndex = Math.max(lastSegmentIndex, getSegmentIndex(segmentFile));
+            lastEventId = Math.max(lastEventId, recover(segmentFile, pendingEvents));
+        }
+        this.recoveredSegments = segmentFiles;
+        this.recoveredEvents = Collections.unmodifiableList(new ArrayList<>(pendingEvents.values()));
+        this.nextEventId = new AtomicLong(lastEventId + 1);
+        this.activeSegment = createSegment(lastSegmentIndex + 1);
+        segments.add(activeSegment);
+
+        syncExecutor = Executors.newSingleThreadScheduledExecutor(
+                new DispatchThreadFactory(JOURNAL_THREAD_NAME_PREFIX));
+        syncExecutor.scheduleWithFixedDelay(this::sync, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open the write-ahead log in the given directory and recover the events which were not completed.
+     *
+     * @param directory    Directory of the segment files.
+     * @param segmentSize  Size of a segment file in bytes.
+     * @param syncInterval Interval in milliseconds at which the segments are flushed to the disk.
+     * @return Write-ahead log.
+     * @throws IOException If the directory or the segments cannot be accessed.
+     */
+    public static WriteAheadLog open(Path directory, int segmentSize, long syncInterval) throws IOException {
+
+        Files.createDirectories(directory);
+        return new WriteAheadLog(directory, segmentSize, syncInterval);
+    }
+
+    /**
+     * Journal an event before it is dispatched.
+     *
+     * @param payload          Event payload.
+     * @param eventContext     Event context.
+     * @param acknowledgements Number of event publishers which need to acknowledge the event.
+     * @return Journal entry of the event, or null if the event could not be journaled.
+     */
+    public Entry append(SecurityEventTokenPayload payload, EventContext eventContext, int acknowledgements) {
+
+        byte[] body;
+        try {
+            body = EventJournalCodec.encode(payload, eventContext);
+        } catch (IOException e) {
+            log.error("Error while encoding the event to be journaled. The event is dispatched without journaling.",
+                    e);
+            return null;
+        }
+        long eventId = nextEventId.getAndIncrement();
+        Segment segment = write(EVENT_RECORD, eventId, body);
+        return segment != null ? new Entry(segment, eventId, acknowledgements) : null;
+    }
+
+    /**
+     * Returns the events recovered when the log was opened, in the order they were journaled.
+     *
+     * @return Recovered events.
+     */
+    public synchronized List<EventEnvelope> getRecoveredEvents() {
+
+        return recoveredEvents;
+    }
+
+    /**
+     * Flush the log and delete the segments the events were recovered from. To be invoked once the recovered events
+     * have been replayed, and hence journaled again.
+     */
+    public synchronized void discardRecoveredSegments() {
+
+        forceSegments();
+        for (Path segmentFile : recoveredSegments) {
+            deleteSegmentFile(segmentFile);
+        }
+        recoveredSegments = Collections.emptyList();
+        recoveredEvents = Collections.emptyList();
+    }
+
+    /**
+     * Returns the number of journaled events which have not been completed.
+     *
+     * @return Pending event count.
+     */
+    public long getPendingEventCount() {
+
+        long pendingEventCount = 0;
+        for (Segment segment : segments) {
+            pendingEventCount += segment.pendingEvents.get();
+        }
+        return pendingEventCount;
+    }
+
+    /**
+     * Stop journaling and flush the log. The events which have not been completed are recovered when the log is
+     * opened again.
+     */
+    public void close() {
+
+        appendLock.lock();
+        try {
+            closed = true;
+        } finally {
+            appendLock.unlock();
+        }
+        syncExecutor.shutdown();
+        sync();
+    }
+
+    /**
+     * Flush the segments to the disk and delete the segments whose events have been completed.
+     */
+    synchronized void sync() {
+
+        forceSegments();
+        Segment oldest = segments.peekFirst();
+        while (oldest != null && oldest.sealed && oldest.pendingEvents.get() == 0) {
+            segments.pollFirst();
+            deleteSegmentFile(oldest.path);
+            oldest = segments.peekFirst();
+        }
+    }
+
+    private void forceSegments() {
+
+        for (Segment segment : segments) {
+            segment.force();
+        }
+    }
+
+    private Segment write(byte recordType, long eventId, byte[] body) {
+
+        int recordLength = RECORD_HEADER_SIZE + body.length;
+        if (recordLength > segmentSize) {
+            log.warn("Journal record of " + recordLength + " bytes exceeds the journal segment size. The event is " +
+                    "dispatched without journaling.");
+            return null;
+        }
+        int checksum = checksum(recordType, eventId, body);
+        appendLock.lock();
+        try {
+            if (closed) {
+                return null;
+            }
+            Segment segment = activeSegment;
+            if (segment.buffer.remaining() < recordLength) {
+                segment = rollOver();
+            }
+            if (recordType == EVENT_RECORD) {
+                segment.pendingEvents.incrementAndGet();
+            }
+            MappedByteBuffer buffer = segment.buffer;
+            int start = buffer.position();
+            buffer.position(start + Integer.BYTES);
+            buffer.putInt(checksum).put(recordType).putLong(eventId).put(body);
+            // The length is written last, so that a partially written record is not recovered.
+            buffer.putInt(start, recordLength);
+            segment.writePosition = buffer.position();
+            return segment;
+        } catch (IOException e) {
+            log.error("Error while creating a new journal segment. The event is dispatched without journaling.", e);
+            return null;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private Segment rollOver() throws IOException {
+
+        Segment segment = createSegment(activeSegment.index + 1);
+        activeSegment.sealed = true;
+        activeSegment = segment;
+        segments.add(segment);
+        return segment;
+    }
+
+    private void complete(Entry entry) {
+
+        write(COMPLETION_RECORD, entry.eventId, EMPTY_BODY);
+        entry.segment.pendingEvents.decrementAndGet();
+    }
+
+    private Segment createSegment(long index) throws IOException {
+
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_FILE_PREFIX, index, SEGMENT_FILE_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return new Segment(index, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+        }
+    }
+
+    /**
+     * Recover the events of a segment file which have not been completed.
+     *
+     * @param segmentFile   Segment file.
+     * @param pendingEvents Events which have not been completed, keyed by the event id.
+     * @return Largest event id of the segment.
+     * @throws IOException If the segment file cannot be read.
+     */
+    private static long recover(Path segmentFile, Map<Long, EventEnvelope> pendingEvents) throws IOException {
+
+        long lastEventId = 0;
+        try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+                int recordLength = buffer.getInt();
+                if (recordLength == 0) {
+                    break;
+                }
+                if (recordLength < RECORD_HEADER_SIZE || recordLength - Integer.BYTES > buffer.remaining()) {
+                    log.warn("Ignoring a partially written record in the journal segment: " + segmentFile);
+                    break;
+                }
+                int checksum = buffer.getInt();
+                byte recordType = buffer.get();
+                long eventId = buffer.getLong();
+                byte[] body = new byte[recordLength - RECORD_HEADER_SIZE];
+                buffer.get(body);
+                if (checksum(recordType, eventId, body) != checksum) {
+                    log.warn("Ignoring a corrupted record in the journal segment: " + segmentFile);
+                    break;
+                }
+                lastEventId = Math.max(lastEventId, eventId);
+                if (recordType == COMPLETION_RECORD) {
+                    pendingEvents.remove(eventId);
+                    continue;
+                }
+                try {
+                    pendingEvents.put(eventId, EventJournalCodec.decode(body));
+                } catch (IOException e) {
+                    log.error("Ignoring the journaled event: " + eventId + " which could not be decoded.", e);
+                }
+            }
+        }
+        return lastEventId;
+    }
+
+    private static List<Path> listSegmentFiles(Path directory) throws IOException {
+
+        List<Path> segmentFiles = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                SEGMENT_FILE_PREFIX + "*" + SEGMENT_FILE_SUFFIX)) {
+            for (Path segmentFile : stream) {
+                segmentFiles.add(segmentFile);
+            }
+        }
+        // Segment file names are zero padded, hence the name order is the journal order.
+        Collections.sort(segmentFiles);
+        return segmentFiles;
+    }
+
+    private static long getSegmentIndex(Path segmentFile) {
+
+        String name = segmentFile.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_FILE_PREFIX.length(),
+                    name.length() - SEGMENT_FILE_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void deleteSegmentFile(Path segmentFile) {
+
+        try {
+            Files.deleteIfExists(segmentFile);
+        } catch (IOException e) {
+            log.error("Error while deleting the journal segment: " + segmentFile, e);
+        }
+    }
+
+    private static int checksum(byte recordType, long eventId, byte[] body) {
+
+        CRC32 crc = new CRC32();
+        crc.update(recordType);
+        for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+            crc.update((int) (eventId >>> shift));
+        }
+        crc.update(body, 0, body.length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Journaled event, which is completed once every event publisher it was dispatched to has acknowledged it.
+     * An event which has not been acknowledged by every event publisher is kept in the log, and is replayed when the
+     * log is opened again. An event whose delivery has been given up by an event publisher is completed as well, so
+     * that it does not keep its segment, and hence every newer segment, on the disk.
+     */
+    public final class Entry {
+
+        private final Segment segment;
+        private final long eventId;
+        private final AtomicInteger pendingAcknowledgements;
+        private volatile boolean failed;
+
+        private Entry(Segment segment, long eventId, int acknowledgements) {
+
+            this.segment = segment;
+            this.eventId = eventId;
+            this.pendingAcknowledgements = new AtomicInteger(acknowledgements);
+        }
+
+        /**
+         * Acknowledge the delivery of the event by an event publisher. An event publisher acknowledges a failed
+         * delivery once it has given up the event, after any redelivery attempts.
+         *
+         * @param error Error of a failed delivery, or null if the event was delivered.
+         */
+        public void acknowledge(Throwable error) {
+
+            if (error != null) {
+                failed = true;
+            }
+            if (pendingAcknowledgements.decrementAndGet() != 0) {
+                return;
+            }
+            if (failed) {
+                log.warn("Journaled event: " + eventId + " was not delivered by every event publisher. The event " +
+                        "is completed in the journal, as its delivery has been given up.");
+            }
+            complete(this);
+        }
+    }
+
+    /**
+     * Memory mapped segment file. The buffer is written under the append lock only.
+     */
+    private static final class Segment {
+
+        private final long index;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private final AtomicInteger pendingEvents = new AtomicInteger();
+        private volatile int writePosition;
+        private volatile boolean sealed;
+        private int syncedPosition;
+
+        Segment(long index, Path path, MappedByteBuffer buffer) {
+
+            this.index = index;
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        void force() {
+
+            int position = writePosition;
+            if (position != syncedPosition) {
+                buffer.force();
+                syncedPosition = position;
+            }
+        }
+    }
+}
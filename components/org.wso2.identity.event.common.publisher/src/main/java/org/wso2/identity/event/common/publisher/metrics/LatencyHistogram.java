@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies with a bounded relative error, in the manner of an HDR histogram.
+ * Values are counted in log-linear buckets: every power of two range is split into {@value #SUB_BUCKET_COUNT}
+ * linear sub-buckets, hence the reported percentiles are within about 3% of the recorded values. Recording a value
+ * does not allocate.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT * (Long.SIZE - SUB_BUCKET_BITS);
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Record a value.
+     *
+     * @param value Value, such as a latency in nanoseconds. Negative values are recorded as zero.
+     */
+    public void record(long value) {
+
+        long recordedValue = Math.max(0, value);
+        counts.incrementAndGet(indexOf(recordedValue));
+        totalCount.incrementAndGet();
+        long currentMax = maxValue.get();
+        while (recordedValue > currentMax && !maxValue.compareAndSet(currentMax, recordedValue)) {
+            currentMax = maxValue.get();
+        }
+    }
+
+    /**
+     * Returns the value below which the given percentage of the recorded values fall.
+     *
+     * @param percentile Percentile, between 0 and 100.
+     * @return Value at the percentile, or zero if no value is recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+
+        long count = totalCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestEquivalentValue(i), maxValue.get());
+            }
+        }
+        return maxValue.get();
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return Recorded value count.
+     */
+    public long getCount() {
+
+        return totalCount.get();
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return Maximum value, or zero if no value is recorded.
+     */
+    public long getMax() {
+
+        return maxValue.get();
+    }
+
+    /**
+     * Discard the recorded values. Values recorded concurrently may be partially discarded.
+     */
+    public void reset() {
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        maxValue.set(0);
+    }
+
+    private static int indexOf(long value) {
+
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return SUB_BUCKET_COUNT * (shift + 1) + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    }
+
+    private static long highestEquivalentValue(int index) {
+
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long lowestValue = (long) (index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT) << shift;
+        return lowestValue + (1L << shift) - 1;
+    }
+}
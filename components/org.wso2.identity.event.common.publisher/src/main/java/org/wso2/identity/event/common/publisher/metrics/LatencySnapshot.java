@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.metrics;
+
+import java.beans.ConstructorProperties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time summary of a {@link LatencyHistogram}, with the latencies in microseconds.
+ */
+public class LatencySnapshot {
+
+    private final long count;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    @ConstructorProperties({"count", "p50", "p99", "p999", "max"})
+    public LatencySnapshot(long count, long p50, long p99, long p999, long max) {
+
+        this.count = count;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    /**
+     * Summarize the latencies, in nanoseconds, recorded in the histogram.
+     *
+     * @param histogram Latency histogram.
+     * @return Latency snapshot.
+     */
+    public static LatencySnapshot of(LatencyHistogram histogram) {
+
+        return new LatencySnapshot(histogram.getCount(), toMicros(histogram.getValueAtPercentile(50)),
+                toMicros(histogram.getValueAtPercentile(99)), toMicros(histogram.getValueAtPercentile(99.9)),
+                toMicros(histogram.getMax()));
+    }
+
+    private static long toMicros(long nanos) {
+
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    public long getCount() {
+
+        return count;
+    }
+
+    public long getP50() {
+
+        return p50;
+    }
+
+    public long getP99() {
+
+        return p99;
+    }
+
+    public long getP999() {
+
+        return p999;
+    }
+
+    public long getMax() {
+
+        return max;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.metrics;
+
+import org.apache.commons.lang.StringUtils;
+import org.wso2.identity.event.common.publisher.EventPublisher;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder events of the publish path. This is the only class which refers to the JFR API, so that it
+ * is loaded only when the API is available in the runtime. Each event is allocated and checked whether it is enabled
+ * before its fields are set, hence an event costs next to nothing while no recording is running.
+ */
+final class PublishFlightEvents {
+
+    private static final String EVENT_NAME_PREFIX = "org.wso2.identity.event.publisher.";
+
+    private PublishFlightEvents() {
+
+    }
+
+    static void accepted(String tenantDomain, String topic, String jti) {
+
+        EventAccepted event = new EventAccepted();
+        if (event.isEnabled()) {
+            event.set(tenantDomain, topic, jti);
+            event.commit();
+        }
+    }
+
+    static void dispatched(EventPublisher eventPublisher, String tenantDomain, String topic, String jti) {
+
+        EventDispatched event = new EventDispatched();
+        if (event.isEnabled()) {
+            event.set(tenantDomain, topic, jti);
+            event.publisher = StringUtils.defaultIfBlank(eventPublisher.getName(),
+                    eventPublisher.getClass().getSimpleName());
+            event.commit();
+        }
+    }
+
+    static void serialized(String tenantDomain, String topic, String jti, long payloadBytes) {
+
+        EventSerialized event = new EventSerialized();
+        if (event.isEnabled()) {
+            event.set(tenantDomain, topic, jti);
+            event.payloadBytes = payloadBytes;
+            event.commit();
+        }
+    }
+
+    static void requestSent(String tenantDomain, String topic, String jti) {
+
+        HttpRequestSent event = new HttpRequestSent();
+        if (event.isEnabled()) {
+            event.set(tenantDomain, topic, jti);
+            event.commit();
+        }
+    }
+
+    static void responseReceived(String tenantDomain, String topic, String jti, int statusCode, long requestNanos) {
+
+        HttpResponseReceived event = new HttpResponseReceived();
+        if (event.isEnabled()) {
+            event.set(tenantDomain, topic, jti);
+            event.statusCode = statusCode;
+            event.requestTime = requestNanos;
+            event.commit();
+        }
+    }
+
+    static void failed(String tenantDomain, String topic, String jti, Throwable error) {
+
+        PublishFailed event = new PublishFailed();
+        if (event.isEnabled()) {
+            event.set(tenantDomain, topic, jti);
+            event.error = error != null ? error.getClass().getName() + ": " + error.getMessage() : null;
+            event.commit();
+        }
+    }
+
+    /**
+     * Base of the publish path events, identifying the event being published.
+     */
+    @Category({"WSO2 Identity Server", "Event Publisher"})
+    @StackTrace(false)
+    abstract static class PublishFlightEvent extends Event {
+
+        @Label("Tenant Domain")
+        String tenantDomain;
+
+        @Label("Topic")
+        String topic;
+
+        @Label("JTI")
+        @Description("Unique identifier of the security event token.")
+        String jti;
+
+        void set(String tenantDomain, String topic, String jti) {
+
+            this.tenantDomain = tenantDomain;
+            this.topic = topic;
+            this.jti = jti;
+        }
+    }
+
+    @Name(EVENT_NAME_PREFIX + "EventAccepted")
+    @Label("Event Accepted")
+    @Description("An event was accepted by the event publisher service for publishing.")
+    static class EventAccepted extends PublishFlightEvent {
+
+    }
+
+    @Name(EVENT_NAME_PREFIX + "EventDispatched")
+    @Label("Event Dispatched")
+    @Description("An event was dispatched to an event publisher.")
+    static class EventDispatched extends PublishFlightEvent {
+
+        @Label("Publisher")
+        String publisher;
+    }
+
+    @Name(EVENT_NAME_PREFIX + "EventSerialized")
+    @Label("Event Serialized")
+    @Description("An event was serialized into the request payload.")
+    static class EventSerialized extends PublishFlightEvent {
+
+        @Label("Payload Size")
+        @DataAmount
+        long payloadBytes;
+    }
+
+    @Name(EVENT_NAME_PREFIX + "HttpRequestSent")
+    @Label("HTTP Request Sent")
+    @Description("A publish request was handed over to the HTTP client.")
+    static class HttpRequestSent extends PublishFlightEvent {
+
+    }
+
+    @Name(EVENT_NAME_PREFIX + "HttpResponseReceived")
+    @Label("HTTP Response Received")
+    @Description("A response was received for a publish request.")
+    static class HttpResponseReceived extends PublishFlightEvent {
+
+        @Label("Status Code")
+        int statusCode;
+
+        @Label("Request Time")
+        @Timespan
+        long requestTime;
+    }
+
+    @Name(EVENT_NAME_PREFIX + "PublishFailed")
+    @Label("Publish Failed")
+    @Description("Publishing an event failed.")
+    static class PublishFailed extends PublishFlightEvent {
+
+        @Label("Error")
+        String error;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.metrics;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.identity.event.common.publisher.EventPublisher;
+import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.EventEnvelope;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+
+import java.util.List;
+
+/**
+ * Emits Java Flight Recorder events along the publish path, so that the publish latency can be correlated with GC
+ * pauses and lock contention in a recording. Every event carries the tenant domain, topic and jti of the published
+ * event. The event URI is reported as the topic until the event publisher resolves its own topic.
+ * The events are emitted only when the JFR API is available in the runtime, and cost next to nothing while no
+ * recording is running.
+ */
+public final class PublishFlightRecorder {
+
+    private static final Log log = LogFactory.getLog(PublishFlightRecorder.class);
+    private static final String JFR_EVENT_CLASS = "jdk.jfr.Event";
+    private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+    private PublishFlightRecorder() {
+
+    }
+
+    /**
+     * Record that an event was accepted for publishing.
+     *
+     * @param payload      Event payload.
+     * @param eventContext Event context.
+     */
+    public static void eventAccepted(SecurityEventTokenPayload payload, EventContext eventContext) {
+
+        if (AVAILABLE) {
+            PublishFlightEvents.accepted(getTenantDomain(eventContext), getEventUri(eventContext), getJti(payload));
+        }
+    }
+
+    /**
+     * Record that an event was dispatched to an event publisher.
+     *
+     * @param eventPublisher Event publisher.
+     * @param payload        Event payload.
+     * @param eventContext   Event context.
+     */
+    public static void eventDispatched(EventPublisher eventPublisher, SecurityEventTokenPayload payload,
+                                       EventContext eventContext) {
+
+        if (AVAILABLE) {
+            PublishFlightEvents.dispatched(eventPublisher, getTenantDomain(eventContext), getEventUri(eventContext),
+                    getJti(payload));
+        }
+    }
+
+    /**
+     * Record that a batch of events was dispatched to an event publisher.
+     *
+     * @param eventPublisher Event publisher.
+     * @param events         Events of the batch.
+     */
+    public static void eventsDispatched(EventPublisher eventPublisher, List<EventEnvelope> events) {
+
+        if (AVAILABLE) {
+            for (EventEnvelope event : events) {
+                PublishFlightEvents.dispatched(eventPublisher, getTenantDomain(event.getEventContext()),
+                        getEventUri(event.getEventContext()), getJti(event.getPayload()));
+            }
+        }
+    }
+
+    /**
+     * Record that an event was serialized into the payload of a request to the given topic.
+     *
+     * @param payload      Event payload.
+     * @param eventContext Event context.
+     * @param topic        Topic the event is published to.
+     * @param payloadBytes Size of the serialized payload in bytes.
+     */
+    public static void eventSerialized(SecurityEventTokenPayload payload, EventContext eventContext, String topic,
+                                       long payloadBytes) {
+
+        if (AVAILABLE) {
+            PublishFlightEvents.serialized(getTenantDomain(eventContext), topic, getJti(payload), payloadBytes);
+        }
+    }
+
+    /**
+     * Record that a request publishing an event to the given topic was sent.
+     *
+     * @param payload      Event payload.
+     * @param eventContext Event context.
+     * @param topic        Topic the event is published to.
+     */
+    public static void requestSent(SecurityEventTokenPayload payload, EventContext eventContext, String topic) {
+
+        if (AVAILABLE) {
+            PublishFlightEvents.requestSent(getTenantDomain(eventContext), topic, getJti(payload));
+        }
+    }
+
+    /**
+     * Record that a response was received for a request publishing an event to the given topic.
+     *
+     * @param payload      Event payload.
+     * @param eventContext Event context.
+     * @param topic        Topic the event is published to.
+     * @param statusCode   HTTP status code of the response.
+     * @param requestNanos Time taken by the request in nanoseconds.
+     */
+    public static void responseReceived(SecurityEventTokenPayload payload, EventContext eventContext, String topic,
+                                        int statusCode, long requestNanos) {
+
+        if (AVAILABLE) {
+            PublishFlightEvents.responseReceived(getTenantDomain(eventContext), topic, getJti(payload), statusCode,
+                    requestNanos);
+        }
+    }
+
+    /**
+     * Record that publishing an event to the given topic failed.
+     *
+     * @param payload      Event payload.
+     * @param eventContext Event context.
+     * @param topic        Topic the event is published to, or the event URI if the topic is not resolved.
+     * @param error        Cause of the failure.
+     */
+    public static void publishFailed(SecurityEventTokenPayload payload, EventContext eventContext, String topic,
+                                     Throwable error) {
+
+        if (AVAILABLE) {
+            PublishFlightEvents.failed(getTenantDomain(eventContext), topic, getJti(payload), error);
+        }
+    }
+
+    /**
+     * Returns whether the events are emitted to the Java Flight Recorder.
+     *
+     * @return True if the JFR API is available in the runtime.
+     */
+    public static boolean isAvailable() {
+
+        return AVAILABLE;
+    }
+
+    private static boolean isFlightRecorderAvailable() {
+
+        try {
+            Class.forName(JFR_EVENT_CLASS, false, PublishFlightRecorder.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            log.debug("Java Flight Recorder is not available. Publish path events will not be recorded.");
+            return false;
+        }
+    }
+
+    private static String getTenantDomain(EventContext eventContext) {
+
+        return eventContext != null ? eventContext.getTenantDomain() : null;
+    }
+
+    private static String getEventUri(EventContext eventContext) {
+
+        return eventContext != null ? eventContext.getEventUri() : null;
+    }
+
+    private static String getJti(SecurityEventTokenPayload payload) {
+
+        return payload != null ? payload.getJti() : null;
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.metrics;
+
+import org.apache.commons.lang.StringUtils;
+import org.wso2.identity.event.common.publisher.EventPublisher;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registry of the metrics of the publish path. Latencies are recorded in nanoseconds into
+ * {@link LatencyHistogram}s, and the updates do not allocate once the histogram of an event publisher or an event
+ * URI has been created.
+ */
+public final class PublishMetrics {
+
+    private static final int MAX_HTTP_STATUS_CODE = 599;
+    private static final PublishMetrics instance = new PublishMetrics();
+    private final LatencyHistogram dispatchWaitTime = new LatencyHistogram();
+    private final ConcurrentMap<EventPublisher, LatencyHistogram> publisherLatencies = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> eventUriLatencies = new ConcurrentHashMap<>();
+    private final AtomicLongArray hubResponseCounts = new AtomicLongArray(MAX_HTTP_STATUS_CODE + 1);
+    private final LongAdder hubFailureCount = new LongAdder();
+    private final LongAdder retryCount = new LongAdder();
+
+    private PublishMetrics() {
+
+    }
+
+    public static PublishMetrics getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Record the time a dispatch waited in the queue of a bulkhead before it was run.
+     *
+     * @param waitTimeNanos Wait time in nanoseconds.
+     */
+    public void recordDispatchWait(long waitTimeNanos) {
+
+        dispatchWaitTime.record(waitTimeNanos);
+    }
+
+    /**
+     * Record the time taken by an event publisher to publish an event.
+     *
+     * @param eventPublisher Event publisher.
+     * @param eventUri       Event URI of the event.
+     * @param latencyNanos   Publish latency in nanoseconds.
+     */
+    public void recordPublishLatency(EventPublisher eventPublisher, String eventUri, long latencyNanos) {
+
+        LatencyHistogram publisherLatency = publisherLatencies.get(eventPublisher);
+        if (publisherLatency == null) {
+            publisherLatency = publisherLatencies.computeIfAbsent(eventPublisher, key -> new LatencyHistogram());
+        }
+        publisherLatency.record(latencyNanos);
+        if (eventUri != null) {
+            LatencyHistogram eventUriLatency = eventUriLatencies.get(eventUri);
+            if (eventUriLatency == null) {
+                eventUriLatency = eventUriLatencies.computeIfAbsent(eventUri, key -> new LatencyHistogram());
+            }
+            eventUriLatency.record(latencyNanos);
+        }
+    }
+
+    /**
+     * Discard the publish latencies of an event publisher which is no longer available.
+     *
+     * @param eventPublisher Event publisher.
+     */
+    public void removeEventPublisher(EventPublisher eventPublisher) {
+
+        publisherLatencies.remove(eventPublisher);
+    }
+
+    /**
+     * Record the HTTP status code of a response from the hub.
+     *
+     * @param statusCode HTTP status code.
+     */
+    public void recordHubResponse(int statusCode) {
+
+        if (statusCode >= 0 && statusCode <= MAX_HTTP_STATUS_CODE) {
+            hubResponseCounts.incrementAndGet(statusCode);
+        }
+    }
+
+    /**
+     * Record a request to the hub which failed without a response.
+     */
+    public void recordHubFailure() {
+
+        hubFailureCount.increment();
+    }
+
+    /**
+     * Record an event which is published again, such as an event replayed from the event journal.
+     */
+    public void recordRetry() {
+
+        retryCount.increment();
+    }
+
+    /**
+     * Returns the histogram of the time the dispatches waited in the queues of the bulkheads.
+     *
+     * @return Dispatch wait time histogram.
+     */
+    public LatencyHistogram getDispatchWaitTime() {
+
+        return dispatchWaitTime;
+    }
+
+    /**
+     * Returns the publish latency histograms of the event publishers.
+     *
+     * @return Publish latency histograms keyed by the name of the event publisher.
+     */
+    public Map<String, LatencyHistogram> getPublisherLatencies() {
+
+        Map<String, LatencyHistogram> latencies = new HashMap<>();
+        for (Map.Entry<EventPublisher, LatencyHistogram> entry : publisherLatencies.entrySet()) {
+            EventPublisher eventPublisher = entry.getKey();
+            latencies.put(StringUtils.defaultIfBlank(eventPublisher.getName(),
+                    eventPublisher.getClass().getSimpleName()), entry.getValue());
+        }
+        return latencies;
+    }
+
+    /**
+     * Returns the publish latency histograms of the event URIs.
+     *
+     * @return Publish latency histograms keyed by the event URI.
+     */
+    public Map<String, LatencyHistogram> getEventUriLatencies() {
+
+        return Collections.unmodifiableMap(eventUriLatencies);
+    }
+
+    /**
+     * Returns the number of responses from the hub by HTTP status code.
+     *
+     * @return Response counts keyed by the HTTP status code.
+     */
+    public Map<Integer, Long> getHubResponseCounts() {
+
+        Map<Integer, Long> responseCounts = new HashMap<>();
+        for (int statusCode = 0; statusCode <= MAX_HTTP_STATUS_CODE; statusCode++) {
+            long count = hubResponseCounts.get(statusCode);
+            if (count > 0) {
+                responseCounts.put(statusCode, count);
+            }
+        }
+        return responseCounts;
+    }
+
+    /**
+     * Returns the number of requests to the hub which failed without a response.
+     *
+     * @return Hub failure count.
+     */
+    public long getHubFailureCount() {
+
+        return hubFailureCount.sum();
+    }
+
+    /**
+     * Returns the number of events published again.
+     *
+     * @return Retry count.
+     */
+    public long getRetryCount() {
+
+        return retryCount.sum();
+    }
+
+    /**
+     * Discard the recorded metrics.
+     */
+    public void reset() {
+
+        dispatchWaitTime.reset();
+        publisherLatencies.clear();
+        eventUriLatencies.clear();
+        for (int statusCode = 0; statusCode <= MAX_HTTP_STATUS_CODE; statusCode++) {
+            hubResponseCounts.set(statusCode, 0);
+        }
+        hubFailureCount.reset();
+        retryCount.reset();
+    }
+}
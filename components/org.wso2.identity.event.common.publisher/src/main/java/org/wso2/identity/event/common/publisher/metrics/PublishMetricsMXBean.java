@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface exposing the metrics of the publish path through JMX. Latencies are reported in
+ * microseconds.
+ */
+public interface PublishMetricsMXBean {
+
+    /**
+     * Returns the number of dispatches waiting in the queues of the bulkheads.
+     *
+     * @return Queue depth.
+     */
+    int getQueueDepth();
+
+    /**
+     * Returns the number of dispatches which could not be accepted immediately by the bulkheads.
+     *
+     * @return Rejected dispatch count.
+     */
+    long getRejectedCount();
+
+    /**
+     * Returns the number of dispatches discarded due to the overflow policy.
+     *
+     * @return Dropped dispatch count.
+     */
+    long getDroppedCount();
+
+    /**
+     * Returns the number of events which exceeded the rate limits and could not be delayed.
+     *
+     * @return Rate limited event count.
+     */
+    long getRateLimitedCount();
+
+    /**
+     * Returns the number of events suppressed as duplicates.
+     *
+     * @return Suppressed duplicate event count.
+     */
+    long getSuppressedDuplicateCount();
+
+    /**
+     * Returns the number of dispatches spilled to the disk.
+     *
+     * @return Spilled dispatch count.
+     */
+    long getSpilledCount();
+
+    /**
+     * Returns the number of events published again.
+     *
+     * @return Retry count.
+     */
+    long getRetryCount();
+
+    /**
+     * Returns the time the dispatches waited in the queues of the bulkheads.
+     *
+     * @return Dispatch wait time.
+     */
+    LatencySnapshot getDispatchWaitTime();
+
+    /**
+     * Returns the publish latencies of the event publishers.
+     *
+     * @return Publish latencies keyed by the name of the event publisher.
+     */
+    Map<String, LatencySnapshot> getPublisherLatencies();
+
+    /**
+     * Returns the publish latencies of the event URIs.
+     *
+     * @return Publish latencies keyed by the event URI.
+     */
+    Map<String, LatencySnapshot> getEventUriLatencies();
+
+    /**
+     * Returns the number of responses from the hub by HTTP status code.
+     *
+     * @return Response counts keyed by the HTTP status code.
+     */
+    Map<Integer, Long> getHubResponseCounts();
+
+    /**
+     * Returns the number of requests to the hub which failed without a response.
+     *
+     * @return Hub failure count.
+     */
+    long getHubFailureCount();
+
+    /**
+     * Discard the recorded latencies and counts of the publish path metrics registry.
+     */
+    void reset();
+}
@@ -25,11 +25,13 @@ public class EventContext {
 
     private final String tenantDomain;
     private final String eventUri;
+    private final String orderingKey;
 
     private EventContext(Builder builder) {
 
         this.tenantDomain = builder.tenantDomain;
         this.eventUri = builder.eventUri;
+        this.orderingKey = builder.orderingKey;
     }
 
     public String getTenantDomain() {
@@ -42,6 +44,17 @@ public class EventContext {
         return eventUri;
     }
 
+    /**
+     * Returns the key, such as the subject of the event, within which the events of a tenant must be delivered in
+     * order with the partitioned dispatch mode.
+     *
+     * @return Ordering key, or null to order the events by the transaction of the payload.
+     */
+    public String getOrderingKey() {
+
+        return orderingKey;
+    }
+
     public static Builder builder() {
 
         return new Builder();
@@ -54,6 +67,7 @@ public class EventContext {
 
         private String tenantDomain;
         private String eventUri;
+        private String orderingKey;
 
         public Builder() {}
 
@@ -69,6 +83,12 @@ public class EventContext {
             return this;
         }
 
+        public Builder orderingKey(String orderingKey) {
+
+            this.orderingKey = orderingKey;
+            return this;
+        }
+
         public EventContext build() {
 
             return new EventContext(this);
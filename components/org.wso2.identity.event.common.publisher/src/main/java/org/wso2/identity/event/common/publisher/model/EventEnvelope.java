@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.model;
+
+/**
+ * Model Class for an event to be published along with its context.
+ */
+public class EventEnvelope {
+
+    private final SecurityEventTokenPayload payload;
+    private final EventContext eventContext;
+
+    private EventEnvelope(Builder builder) {
+
+        this.payload = builder.payload;
+        this.eventContext = builder.eventContext;
+    }
+
+    public SecurityEventTokenPayload getPayload() {
+
+        return payload;
+    }
+
+    public EventContext getEventContext() {
+
+        return eventContext;
+    }
+
+    public static Builder builder() {
+
+        return new Builder();
+    }
+
+    /**
+     * Builder class to build EventEnvelope.
+     */
+    public static class Builder {
+
+        private SecurityEventTokenPayload payload;
+        private EventContext eventContext;
+
+        public Builder() {}
+
+        public Builder payload(SecurityEventTokenPayload payload) {
+
+            this.payload = payload;
+            return this;
+        }
+
+        public Builder eventContext(EventContext eventContext) {
+
+            this.eventContext = eventContext;
+            return this;
+        }
+
+        public EventEnvelope build() {
+
+            return new EventEnvelope(this);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.model;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Event payload made of the JSON properties of an event payload.
+ * The events recovered from the event journal carry this payload, since the original event payload classes are not
+ * known when the events are replayed. The properties are serialized as the properties of the payload itself.
+ */
+public class JsonEventPayload extends EventPayload {
+
+    private final Map<String, Object> properties;
+
+    public JsonEventPayload(Map<String, Object> properties) {
+
+        this.properties = properties != null ?
+                Collections.unmodifiableMap(new LinkedHashMap<>(properties)) : Collections.emptyMap();
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> getProperties() {
+
+        return properties;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.model;
+
+import java.io.IOException;
+
+/**
+ * Serializer of a {@link SecurityEventTokenPayload} into the wire format of an event publisher.
+ */
+@FunctionalInterface
+public interface PayloadSerializer {
+
+    /**
+     * Serialize the payload.
+     *
+     * @param payload Security Event Token Payload.
+     * @return Serialized payload. The returned array is owned by the caller and must not be modified afterwards.
+     * @throws IOException If the payload cannot be serialized.
+     */
+    byte[] serialize(SecurityEventTokenPayload payload) throws IOException;
+}
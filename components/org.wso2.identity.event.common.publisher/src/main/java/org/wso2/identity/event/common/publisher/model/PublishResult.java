@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Model Class for the aggregated outcome of publishing an event with all the event publishers.
+ */
+public class PublishResult {
+
+    private final List<PublisherOutcome> publisherOutcomes;
+
+    public PublishResult(List<PublisherOutcome> publisherOutcomes) {
+
+        this.publisherOutcomes = Collections.unmodifiableList(publisherOutcomes);
+    }
+
+    public List<PublisherOutcome> getPublisherOutcomes() {
+
+        return publisherOutcomes;
+    }
+
+    /**
+     * Returns whether every event publisher published the event successfully.
+     *
+     * @return True if all the event publishers succeeded.
+     */
+    public boolean isSuccessful() {
+
+        for (PublisherOutcome outcome : publisherOutcomes) {
+            if (!outcome.isSuccessful()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
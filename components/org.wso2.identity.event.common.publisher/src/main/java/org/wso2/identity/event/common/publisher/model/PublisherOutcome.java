@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.model;
+
+/**
+ * Model Class for the outcome of publishing an event with a single event publisher.
+ */
+public class PublisherOutcome {
+
+    private final String publisherName;
+    private final Status status;
+    private final long latencyNanos;
+    private final Throwable error;
+
+    public PublisherOutcome(String publisherName, Status status, long latencyNanos, Throwable error) {
+
+        this.publisherName = publisherName;
+        this.status = status;
+        this.latencyNanos = latencyNanos;
+        this.error = error;
+    }
+
+    public String getPublisherName() {
+
+        return publisherName;
+    }
+
+    public Status getStatus() {
+
+        return status;
+    }
+
+    /**
+     * Returns the time taken from dispatching the event until the outcome was known, including the time spent
+     * waiting in the dispatch queue.
+     *
+     * @return Latency in nanoseconds.
+     */
+    public long getLatencyNanos() {
+
+        return latencyNanos;
+    }
+
+    /**
+     * Returns the failure of the event publisher, if the status is {@link Status#FAILED}.
+     *
+     * @return Error or null.
+     */
+    public Throwable getError() {
+
+        return error;
+    }
+
+    public boolean isSuccessful() {
+
+        return status == Status.SUCCESS;
+    }
+
+    /**
+     * Publishing status of an event publisher.
+     */
+    public enum Status {
+
+        SUCCESS,
+        FAILED,
+        TIMED_OUT
+    }
+}
@@ -18,6 +18,7 @@
 
 package org.wso2.identity.event.common.publisher.model;
 
+import java.io.IOException;
 import java.util.Map;
 
 /**
@@ -32,6 +33,7 @@ public class SecurityEventTokenPayload {
     private final String txn;
     private final String rci;
     private final Map<String, EventPayload> events;
+    private volatile SerializedPayload serializedForm;
 
     private SecurityEventTokenPayload(Builder builder) {
 
@@ -79,6 +81,34 @@ public class SecurityEventTokenPayload {
         return events;
     }
 
+    /**
+     * Returns the payload serialized in the content type by the serializer. The payload is serialized on the first
+     * call, and the serialized form is shared by the later calls for the same content type and serializer instance,
+     * so that the payload is serialized once however many event publishers and retries publish it. Event publishers
+     * share the serialized form only by sharing the serializer instance, since two serializers of the same content
+     * type may still produce different bytes. Only the last serialized form is kept. The payload, including its
+     * events, must not be modified once it has been serialized.
+     *
+     * @param contentType Content type of the serialized form.
+     * @param serializer  Serializer used if the payload is not serialized in the content type by it yet.
+     * @return Serialized payload.
+     * @throws IOException If the payload cannot be serialized.
+     */
+    public SerializedPayload serialize(String contentType, PayloadSerializer serializer) throws IOException {
+
+        SerializedPayload serialized = serializedForm;
+        if (serialized == null || !serialized.isSerializedBy(contentType, serializer)) {
+            synchronized (this) {
+                serialized = serializedForm;
+                if (serialized == null || !serialized.isSerializedBy(contentType, serializer)) {
+                    serialized = new SerializedPayload(contentType, serializer, serializer.serialize(this));
+                    serializedForm = serialized;
+                }
+            }
+        }
+        return serialized;
+    }
+
     public static Builder builder() {
 
         return new Builder();
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Immutable serialized form of a {@link SecurityEventTokenPayload}, shared by every event publisher and every retry
+ * which publishes the payload in the same content type with the same serializer. The bytes are never exposed for
+ * modification.
+ */
+public final class SerializedPayload {
+
+    private final String contentType;
+    private final PayloadSerializer serializer;
+    private final byte[] content;
+
+    SerializedPayload(String contentType, PayloadSerializer serializer, byte[] content) {
+
+        this.contentType = contentType;
+        this.serializer = serializer;
+        this.content = content;
+    }
+
+    /**
+     * Returns whether the payload is serialized in the content type by the serializer.
+     *
+     * @param contentType Content type.
+     * @param serializer  Serializer.
+     * @return True if the serialized form can be shared with a caller of the content type and serializer.
+     */
+    boolean isSerializedBy(String contentType, PayloadSerializer serializer) {
+
+        return this.serializer == serializer && this.contentType.equals(contentType);
+    }
+
+    /**
+     * Returns the content type the payload is serialized in.
+     *
+     * @return Content type.
+     */
+    public String getContentType() {
+
+        return contentType;
+    }
+
+    /**
+     * Returns the size of the serialized payload.
+     *
+     * @return Size in bytes.
+     */
+    public int getLength() {
+
+        return content.length;
+    }
+
+    /**
+     * Returns a stream reading the serialized payload. Each call returns a new stream.
+     *
+     * @return Input stream of the serialized payload.
+     */
+    public InputStream getInputStream() {
+
+        return new ByteArrayInputStream(content);
+    }
+
+    /**
+     * Returns a read-only buffer over the serialized payload, without copying it. Each call returns a new buffer
+     * positioned at the start of the payload, so that concurrent readers do not interfere.
+     *
+     * @return Read-only buffer of the serialized payload.
+     */
+    public ByteBuffer asByteBuffer() {
+
+        return ByteBuffer.wrap(content).asReadOnlyBuffer();
+    }
+
+    /**
+     * Write the serialized payload to the output stream, without copying it.
+     *
+     * @param outputStream Output stream.
+     * @throws IOException If writing to the output stream failed.
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+
+        outputStream.write(content);
+    }
+
+    /**
+     * Returns a copy of the serialized payload.
+     *
+     * @return Serialized payload.
+     */
+    public byte[] toByteArray() {
+
+        return Arrays.copyOf(content, content.length);
+    }
+}
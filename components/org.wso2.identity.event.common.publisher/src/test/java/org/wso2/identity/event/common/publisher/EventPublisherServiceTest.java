@@ -25,19 +25,48 @@ import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
+import org.wso2.identity.event.common.publisher.config.EventPriority;
+import org.wso2.identity.event.common.publisher.config.EventPublisherConfiguration;
+import org.wso2.identity.event.common.publisher.config.EventPublisherConfigurationProvider;
+import org.wso2.identity.event.common.publisher.internal.DispatchExecutor;
 import org.wso2.identity.event.common.publisher.internal.EventPublisherDataHolder;
+import org.wso2.identity.event.common.publisher.internal.EventPublisherMetrics;
+import org.wso2.identity.event.common.publisher.internal.WriteAheadLog;
+import org.wso2.identity.event.common.publisher.metrics.LatencyHistogram;
+import org.wso2.identity.event.common.publisher.metrics.PublishMetrics;
 import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.EventEnvelope;
 import org.wso2.identity.event.common.publisher.model.EventPayload;
+import org.wso2.identity.event.common.publisher.model.PayloadSerializer;
+import org.wso2.identity.event.common.publisher.model.PublishResult;
+import org.wso2.identity.event.common.publisher.model.PublisherOutcome;
 import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+import org.wso2.identity.event.common.publisher.model.SerializedPayload;
 
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -70,6 +99,9 @@ public class EventPublisherServiceTest {
     public void setup() {
 
         Mockito.reset(mockEventPublisher1, mockEventPublisher2); // Reset mocks
+        // Batches are published through the default publishBatchAsync, which delegates to publishBatch.
+        Mockito.when(mockEventPublisher1.publishBatchAsync(anyList())).thenCallRealMethod();
+        Mockito.when(mockEventPublisher2.publishBatchAsync(anyList())).thenCallRealMethod();
         eventPublishers = Arrays.asList(mockEventPublisher1, mockEventPublisher2);
         EventPublisherDataHolder.getInstance().setEventPublishers(eventPublishers); // Set publishers
     }
@@ -130,6 +162,8 @@ public class EventPublisherServiceTest {
     public void testPublishWithNoPublishers() throws Exception {
 
         EventPublisherDataHolder.getInstance().setEventPublishers(Arrays.asList());
+        // The event URIs of the publishers bound in the setup were resolved when the routing table was built.
+        Mockito.clearInvocations(mockEventPublisher1, mockEventPublisher2);
 
         // Call the service method
         eventPublisherService.publish(mockEventPayload, mockEventContext);
@@ -138,6 +172,658 @@ public class EventPublisherServiceTest {
         verifyNoInteractions(mockEventPublisher1, mockEventPublisher2);
     }
 
+    @Test
+    public void testPublishAsyncReportsPublisherOutcomes() throws Exception {
+
+        CompletableFuture<Void> failedFuture = new CompletableFuture<>();
+        failedFuture.completeExceptionally(new RuntimeException("Test Exception"));
+        Mockito.when(mockEventPublisher1.publishAsync(mockEventPayload, mockEventContext))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        Mockito.when(mockEventPublisher2.publishAsync(mockEventPayload, mockEventContext)).thenReturn(failedFuture);
+
+        PublishResult result = eventPublisherService.publishAsync(mockEventPayload, mockEventContext, 5,
+                TimeUnit.SECONDS).toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+        List<PublisherOutcome> outcomes = result.getPublisherOutcomes();
+        Assert.assertEquals(outcomes.size(), 2);
+        Assert.assertEquals(outcomes.get(0).getStatus(), PublisherOutcome.Status.SUCCESS);
+        Assert.assertEquals(outcomes.get(1).getStatus(), PublisherOutcome.Status.FAILED);
+        Assert.assertEquals(outcomes.get(1).getError().getMessage(), "Test Exception");
+        Assert.assertTrue(outcomes.get(0).getLatencyNanos() >= 0);
+        Assert.assertFalse(result.isSuccessful());
+    }
+
+    @Test
+    public void testPublishAsyncDeadline() throws Exception {
+
+        Mockito.when(mockEventPublisher1.publishAsync(mockEventPayload, mockEventContext))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        Mockito.when(mockEventPublisher2.publishAsync(mockEventPayload, mockEventContext))
+                .thenReturn(new CompletableFuture<>());
+
+        PublishResult result = eventPublisherService.publishAsync(mockEventPayload, mockEventContext, 100,
+                TimeUnit.MILLISECONDS).toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+        List<PublisherOutcome> outcomes = result.getPublisherOutcomes();
+        Assert.assertEquals(outcomes.get(0).getStatus(), PublisherOutcome.Status.SUCCESS);
+        Assert.assertEquals(outcomes.get(1).getStatus(), PublisherOutcome.Status.TIMED_OUT);
+        Assert.assertTrue(outcomes.get(1).getLatencyNanos() >= TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    public void testPublishAsyncWithNoPublishers() throws Exception {
+
+        EventPublisherDataHolder.getInstance().setEventPublishers(Arrays.asList());
+
+        CompletionStage<PublishResult> result =
+                eventPublisherService.publishAsync(mockEventPayload, mockEventContext, 5, TimeUnit.SECONDS);
+
+        Assert.assertTrue(result.toCompletableFuture().isDone());
+        Assert.assertTrue(result.toCompletableFuture().get().getPublisherOutcomes().isEmpty());
+        Assert.assertTrue(result.toCompletableFuture().get().isSuccessful());
+    }
+
+    @Test
+    public void testPublishAsyncFallsBackToPublish() throws Exception {
+
+        EventPublisher eventPublisher = Mockito.mock(EventPublisher.class, Mockito.CALLS_REAL_METHODS);
+        doAnswer(invocation -> {
+            throw new RuntimeException("Test Exception");
+        }).when(eventPublisher).publish(mockEventPayload, mockEventContext);
+
+        CompletableFuture<Void> result =
+                eventPublisher.publishAsync(mockEventPayload, mockEventContext).toCompletableFuture();
+
+        Assert.assertTrue(result.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testPublishRoutesByEventUri() throws Exception {
+
+        EventContext eventContext = EventContext.builder()
+                .tenantDomain("example.com")
+                .eventUri("https://schemas.identity.wso2.org/events/user/locked")
+                .build();
+        Mockito.when(mockEventPublisher2.getSupportedEventUris())
+                .thenReturn(Collections.singletonList("https://schemas.identity.wso2.org/events/session/*"));
+        EventPublisherDataHolder.getInstance().setEventPublishers(eventPublishers);
+        CountDownLatch latch = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            latch.countDown();
+            return null;
+        }).when(mockEventPublisher1).publish(mockEventPayload, eventContext);
+
+        eventPublisherService.publish(mockEventPayload, eventContext);
+
+        Assert.assertTrue(latch.await(1, TimeUnit.SECONDS));
+        verify(mockEventPublisher1, times(1)).publish(mockEventPayload, eventContext);
+        verify(mockEventPublisher2, never()).publish(mockEventPayload, eventContext);
+    }
+
+    @Test
+    public void testPublishJournalsEventUntilAcknowledged() throws Exception {
+
+        WriteAheadLog writeAheadLog = WriteAheadLog.open(Files.createTempDirectory("event-journal"), 64 * 1024, 10);
+        EventPublisherDataHolder.getInstance().setWriteAheadLog(writeAheadLog);
+        CompletableFuture<Void> hubAcknowledgement = new CompletableFuture<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        Mockito.when(mockEventPublisher1.publishAsync(mockEventPayload, mockEventContext))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        Mockito.when(mockEventPublisher2.publishAsync(mockEventPayload, mockEventContext)).thenAnswer(invocation -> {
+            latch.countDown();
+            return hubAcknowledgement;
+        });
+        try {
+            eventPublisherService.publish(mockEventPayload, mockEventContext);
+
+            Assert.assertTrue(latch.await(1, TimeUnit.SECONDS));
+            Assert.assertEquals(writeAheadLog.getPendingEventCount(), 1,
+                    "Event should be pending until every publisher has acknowledged it.");
+            hubAcknowledgement.complete(null);
+            long deadline = System.currentTimeMillis() + 1000;
+            while (writeAheadLog.getPendingEventCount() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            Assert.assertEquals(writeAheadLog.getPendingEventCount(), 0);
+            verify(mockEventPublisher1, never()).publish(mockEventPayload, mockEventContext);
+        } finally {
+            EventPublisherDataHolder.getInstance().setWriteAheadLog(null);
+            writeAheadLog.close();
+        }
+    }
+
+    @Test
+    public void testPublishAllJournalsEventsUntilAcknowledged() throws Exception {
+
+        WriteAheadLog writeAheadLog = WriteAheadLog.open(Files.createTempDirectory("event-journal"), 64 * 1024, 10);
+        EventPublisherDataHolder.getInstance().setWriteAheadLog(writeAheadLog);
+        List<EventEnvelope> events = Arrays.asList(
+                EventEnvelope.builder().payload(mockEventPayload).eventContext(mockEventContext).build(),
+                EventEnvelope.builder().payload(mockEventPayload).eventContext(mockEventContext).build());
+        CountDownLatch batchPublishing = new CountDownLatch(1);
+        CountDownLatch releaseBatch = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            batchPublishing.countDown();
+            releaseBatch.await(1, TimeUnit.SECONDS);
+            return null;
+        }).when(mockEventPublisher2).publishBatch(anyList());
+        try {
+            eventPublisherService.publishAll(events);
+
+            Assert.assertTrue(batchPublishing.await(1, TimeUnit.SECONDS));
+            Assert.assertEquals(writeAheadLog.getPendingEventCount(), 2,
+                    "Events should be pending until every publisher has published their batch.");
+            releaseBatch.countDown();
+            long deadline = System.currentTimeMillis() + 1000;
+            while (writeAheadLog.getPendingEventCount() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            Assert.assertEquals(writeAheadLog.getPendingEventCount(), 0);
+        } finally {
+            releaseBatch.countDown();
+            EventPublisherDataHolder.getInstance().setWriteAheadLog(null);
+            writeAheadLog.close();
+        }
+    }
+
+    @Test
+    public void testFailedJournaledEventIsRedeliveredUntilGivenUp() throws Exception {
+
+        EventPublisherConfigurationProvider configurationProvider =
+                Mockito.mock(EventPublisherConfigurationProvider.class);
+        Mockito.when(configurationProvider.getProperty("event.publisher.journal.maxDeliveryAttempts"))
+                .thenReturn("3");
+        Mockito.when(configurationProvider.getProperty("event.publisher.journal.redeliveryDelay")).thenReturn("10");
+        EventPublisherService redeliveringService =
+                new EventPublisherService(new EventPublisherConfiguration(configurationProvider));
+        WriteAheadLog writeAheadLog = WriteAheadLog.open(Files.createTempDirectory("event-journal"), 64 * 1024, 10);
+        EventPublisherDataHolder.getInstance().setWriteAheadLog(writeAheadLog);
+        EventPublisherDataHolder.getInstance().setEventPublishers(Collections.singletonList(mockEventPublisher1));
+        AtomicInteger attempts = new AtomicInteger();
+        Mockito.when(mockEventPublisher1.publishAsync(mockEventPayload, mockEventContext)).thenAnswer(invocation -> {
+            attempts.incrementAndGet();
+            CompletableFuture<Void> failedFuture = new CompletableFuture<>();
+            failedFuture.completeExceptionally(new IllegalStateException("Hub is not reachable."));
+            return failedFuture;
+        });
+        try {
+            redeliveringService.publish(mockEventPayload, mockEventContext);
+
+            long deadline = System.currentTimeMillis() + 2000;
+            while (writeAheadLog.getPendingEventCount() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            Assert.assertEquals(writeAheadLog.getPendingEventCount(), 0,
+                    "Event should be completed once its delivery has been given up.");
+            Assert.assertEquals(attempts.get(), 3);
+        } finally {
+            EventPublisherDataHolder.getInstance().setWriteAheadLog(null);
+            writeAheadLog.close();
+        }
+    }
+
+    @Test
+    public void testDroppedJournaledEventIsAcknowledged() throws Exception {
+
+        EventPublisherConfigurationProvider configurationProvider =
+                Mockito.mock(EventPublisherConfigurationProvider.class);
+        Mockito.when(configurationProvider.getProperty("event.publisher.dispatch.threadPoolSize")).thenReturn("1");
+        Mockito.when(configurationProvider.getProperty("event.publisher.dispatch.queueCapacity")).thenReturn("1");
+        Mockito.when(configurationProvider.getProperty("event.publisher.dispatch.overflowPolicy"))
+                .thenReturn("drop_newest");
+        WriteAheadLog writeAheadLog = WriteAheadLog.open(Files.createTempDirectory("event-journal"), 64 * 1024, 10);
+        EventPublisherDataHolder.getInstance().setWriteAheadLog(writeAheadLog);
+        EventPublisherDataHolder.getInstance().setConfiguration(new EventPublisherConfiguration(configurationProvider));
+        CountDownLatch dispatchStarted = new CountDownLatch(1);
+        CountDownLatch releasePublisher = new CountDownLatch(1);
+        Mockito.when(mockEventPublisher1.publishAsync(mockEventPayload, mockEventContext)).thenAnswer(invocation -> {
+            dispatchStarted.countDown();
+            releasePublisher.await(5, TimeUnit.SECONDS);
+            return CompletableFuture.completedFuture(null);
+        });
+        try {
+            EventPublisherDataHolder.getInstance().setEventPublishers(Collections.singletonList(mockEventPublisher1));
+            eventPublisherService.publish(mockEventPayload, mockEventContext);
+            Assert.assertTrue(dispatchStarted.await(1, TimeUnit.SECONDS));
+
+            // The first event holds the only dispatch thread and the second one fills the queue.
+            eventPublisherService.publish(mockEventPayload, mockEventContext);
+            eventPublisherService.publish(mockEventPayload, mockEventContext);
+            Assert.assertEquals(writeAheadLog.getPendingEventCount(), 2,
+                    "Dropped event should be acknowledged instead of being kept pending.");
+
+            releasePublisher.countDown();
+            long deadline = System.currentTimeMillis() + 1000;
+            while (writeAheadLog.getPendingEventCount() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            Assert.assertEquals(writeAheadLog.getPendingEventCount(), 0);
+        } finally {
+            releasePublisher.countDown();
+            EventPublisherDataHolder.getInstance().setWriteAheadLog(null);
+            writeAheadLog.close();
+            EventPublisherDataHolder.getInstance().setConfiguration(EventPublisherConfiguration.getDefault());
+        }
+    }
+
+    @Test
+    public void testReplayBypassesDuplicateSuppressionAndRateLimits() throws Exception {
+
+        EventPublisherConfigurationProvider configurationProvider =
+                Mockito.mock(EventPublisherConfigurationProvider.class);
+        Mockito.when(configurationProvider.getProperty("event.publisher.dedup.enabled")).thenReturn("true");
+        Mockito.when(configurationProvider.getProperty("event.publisher.rateLimit.tenant.rate")).thenReturn("1");
+        Mockito.when(configurationProvider.getProperty("event.publisher.rateLimit.policy")).thenReturn("DROP");
+        EventPublisherService replayingService =
+                new EventPublisherService(new EventPublisherConfiguration(configurationProvider));
+        SecurityEventTokenPayload payload = SecurityEventTokenPayload.builder().jti("jti-1").build();
+        SecurityEventTokenPayload otherPayload = SecurityEventTokenPayload.builder().jti("jti-2").build();
+        Mockito.when(mockEventPublisher1.publishAsync(Mockito.any(), Mockito.eq(mockEventContext)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        Mockito.when(mockEventPublisher2.publishAsync(Mockito.any(), Mockito.eq(mockEventContext)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        replayingService.publish(payload, mockEventContext);
+        Boolean replayed = replayingService.replay(Arrays.asList(
+                        EventEnvelope.builder().payload(payload).eventContext(mockEventContext).build(),
+                        EventEnvelope.builder().payload(otherPayload).eventContext(mockEventContext).build()))
+                .toCompletableFuture().get(1, TimeUnit.SECONDS);
+
+        Assert.assertTrue(replayed);
+        verify(mockEventPublisher1).publishAsync(payload, mockEventContext);
+        verify(mockEventPublisher1).publishAsync(otherPayload, mockEventContext);
+        Assert.assertEquals(replayingService.getSuppressedDuplicateCount(), 0);
+        Assert.assertEquals(replayingService.getRateLimitedEventCount(), 0);
+    }
+
+    @Test
+    public void testReplayReportsEventsWithoutBoundPublisher() throws Exception {
+
+        EventPublisherDataHolder.getInstance().setEventPublishers(Collections.emptyList());
+
+        Boolean replayed = eventPublisherService.replay(Collections.singletonList(
+                        EventEnvelope.builder().payload(mockEventPayload).eventContext(mockEventContext).build()))
+                .toCompletableFuture().get(1, TimeUnit.SECONDS);
+
+        Assert.assertFalse(replayed, "Events without a bound publisher should be kept for the next replay.");
+    }
+
+    @Test
+    public void testPublishSuppressesDuplicateEvents() throws Exception {
+
+        EventPublisherConfigurationProvider configurationProvider =
+                Mockito.mock(EventPublisherConfigurationProvider.class);
+        Mockito.when(configurationProvider.getProperty("event.publisher.dedup.enabled")).thenReturn("true");
+        EventPublisherService deduplicatingService =
+                new EventPublisherService(new EventPublisherConfiguration(configurationProvider));
+        SecurityEventTokenPayload payload = SecurityEventTokenPayload.builder().jti("jti-1").build();
+        SecurityEventTokenPayload retriedPayload = SecurityEventTokenPayload.builder().jti("jti-1").build();
+        SecurityEventTokenPayload otherPayload = SecurityEventTokenPayload.builder().jti("jti-2").build();
+
+        deduplicatingService.publish(payload, mockEventContext);
+        deduplicatingService.publish(retriedPayload, mockEventContext);
+        deduplicatingService.publish(otherPayload, mockEventContext);
+        PublishResult result = deduplicatingService.publishAsync(retriedPayload, mockEventContext, 1,
+                TimeUnit.SECONDS).toCompletableFuture().get(1, TimeUnit.SECONDS);
+
+        Assert.assertTrue(result.getPublisherOutcomes().isEmpty());
+        Assert.assertEquals(deduplicatingService.getSuppressedDuplicateCount(), 2);
+        verify(mockEventPublisher1, Mockito.timeout(1000)).publish(otherPayload, mockEventContext);
+        verify(mockEventPublisher1, Mockito.timeout(1000)).publish(payload, mockEventContext);
+        verify(mockEventPublisher1, never()).publish(retriedPayload, mockEventContext);
+    }
+
+    @Test
+    public void testRateLimitedEventsAreNotRememberedAsPublished() throws Exception {
+
+        EventPublisherConfigurationProvider configurationProvider =
+                Mockito.mock(EventPublisherConfigurationProvider.class);
+        Mockito.when(configurationProvider.getProperty("event.publisher.dedup.enabled")).thenReturn("true");
+        Mockito.when(configurationProvider.getProperty("event.publisher.rateLimit.tenant.rate")).thenReturn("1");
+        Mockito.when(configurationProvider.getProperty("event.publisher.rateLimit.policy")).thenReturn("DROP");
+        EventPublisherService rateLimitedService =
+                new EventPublisherService(new EventPublisherConfiguration(configurationProvider));
+        SecurityEventTokenPayload payload = SecurityEventTokenPayload.builder().jti("jti-1").build();
+        SecurityEventTokenPayload limitedPayload = SecurityEventTokenPayload.builder().jti("jti-2").build();
+
+        rateLimitedService.publish(payload, mockEventContext);
+        rateLimitedService.publish(limitedPayload, mockEventContext);
+        rateLimitedService.publish(limitedPayload, mockEventContext);
+
+        Assert.assertEquals(rateLimitedService.getRateLimitedEventCount(), 2);
+        Assert.assertEquals(rateLimitedService.getSuppressedDuplicateCount(), 0,
+                "A retry of a rate limited event should not be suppressed as a duplicate.");
+        verify(mockEventPublisher1, Mockito.timeout(1000)).publish(payload, mockEventContext);
+        verify(mockEventPublisher1, never()).publish(limitedPayload, mockEventContext);
+    }
+
+    @Test
+    public void testPublishAsyncReportsRateLimitedEvents() throws Exception {
+
+        EventPublisherConfigurationProvider configurationProvider =
+                Mockito.mock(EventPublisherConfigurationProvider.class);
+        Mockito.when(configurationProvider.getProperty("event.publisher.rateLimit.tenant.rate")).thenReturn("1");
+        Mockito.when(configurationProvider.getProperty("event.publisher.rateLimit.policy")).thenReturn("DROP");
+        EventPublisherService rateLimitedService =
+                new EventPublisherService(new EventPublisherConfiguration(configurationProvider));
+        Mockito.when(mockEventPublisher1.publishAsync(mockEventPayload, mockEventContext))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        Mockito.when(mockEventPublisher2.publishAsync(mockEventPayload, mockEventContext))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        PublishResult admitted = rateLimitedService.publishAsync(mockEventPayload, mockEventContext, 1,
+                TimeUnit.SECONDS).toCompletableFuture().get(1, TimeUnit.SECONDS);
+        PublishResult limited = rateLimitedService.publishAsync(mockEventPayload, mockEventContext, 1,
+                TimeUnit.SECONDS).toCompletableFuture().get(1, TimeUnit.SECONDS);
+
+        Assert.assertTrue(admitted.isSuccessful());
+        Assert.assertFalse(limited.isSuccessful());
+        Assert.assertEquals(limited.getPublisherOutcomes().size(), 2);
+        for (PublisherOutcome outcome : limited.getPublisherOutcomes()) {
+            Assert.assertEquals(outcome.getStatus(), PublisherOutcome.Status.FAILED);
+        }
+        Assert.assertEquals(rateLimitedService.getRateLimitedEventCount(), 1);
+        verify(mockEventPublisher1, times(1)).publishAsync(mockEventPayload, mockEventContext);
+    }
+
+    @Test
+    public void testDelayedEventsDoNotHoldUpAsyncPublishing() throws Exception {
+
+        EventPublisherConfigurationProvider configurationProvider =
+                Mockito.mock(EventPublisherConfigurationProvider.class);
+        Mockito.when(configurationProvider.getProperty("event.publisher.rateLimit.tenant.rate")).thenReturn("2");
+        Mockito.when(configurationProvider.getProperty("event.publisher.rateLimit.tenant.burst")).thenReturn("1");
+        Mockito.when(configurationProvider.getProperty("event.publisher.rateLimit.policy")).thenReturn("DELAY");
+        Mockito.when(configurationProvider.getProperty("event.publisher.rateLimit.maxDelay")).thenReturn("2000");
+        EventPublisherService rateLimitedService =
+                new EventPublisherService(new EventPublisherConfiguration(configurationProvider));
+        EventPublisherDataHolder.getInstance().setEventPublishers(Collections.singletonList(mockEventPublisher1));
+        Mockito.when(mockEventPublisher1.publishAsync(mockEventPayload, mockEventContext))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        List<EventEnvelope> events = Collections.singletonList(
+                EventEnvelope.builder().payload(mockEventPayload).eventContext(mockEventContext).build());
+
+        rateLimitedService.publishAsync(mockEventPayload, mockEventContext, 5, TimeUnit.SECONDS);
+        long startTime = System.nanoTime();
+        CompletionStage<PublishResult> delayed =
+                rateLimitedService.publishAsync(mockEventPayload, mockEventContext, 5, TimeUnit.SECONDS);
+        rateLimitedService.publishAll(events);
+        long elapsed = System.nanoTime() - startTime;
+
+        Assert.assertTrue(elapsed < TimeUnit.MILLISECONDS.toNanos(400),
+                "Delayed events should not hold up the publishing thread.");
+        Assert.assertTrue(delayed.toCompletableFuture().get(2, TimeUnit.SECONDS).isSuccessful());
+        Assert.assertTrue(System.nanoTime() - startTime >= TimeUnit.MILLISECONDS.toNanos(400),
+                "Delayed event should be dispatched once its delay elapses.");
+        verify(mockEventPublisher1, times(2)).publishAsync(mockEventPayload, mockEventContext);
+        verify(mockEventPublisher1, Mockito.timeout(2000)).publishBatch(events);
+    }
+
+    @Test
+    public void testCriticalEventsBypassBlockedNormalLane() throws Exception {
+
+        String criticalEventUri = "https://schemas.identity.wso2.org/events/session/revoked";
+        EventPublisherConfigurationProvider configurationProvider =
+                Mockito.mock(EventPublisherConfigurationProvider.class);
+        Mockito.when(configurationProvider.getProperty("event.publisher.dispatch.threadPoolSize")).thenReturn("1");
+        Mockito.when(configurationProvider.getProperty("event.publisher.priority.critical.eventUris"))
+                .thenReturn("https://schemas.identity.wso2.org/events/credential/*, " + criticalEventUri);
+        EventPublisherConfiguration configuration = new EventPublisherConfiguration(configurationProvider);
+        EventPublisherService prioritizingService = new EventPublisherService(configuration);
+        EventPublisherDataHolder.getInstance().setEventPublishers(Collections.singletonList(mockEventPublisher1));
+        EventContext normalContext = EventContext.builder().tenantDomain("example.com")
+                .eventUri("https://schemas.identity.wso2.org/events/user/updated").build();
+        EventContext criticalContext = EventContext.builder().tenantDomain("example.com")
+                .eventUri(criticalEventUri).build();
+        CountDownLatch normalLaneBlocked = new CountDownLatch(1);
+        CountDownLatch releaseNormalLane = new CountDownLatch(1);
+        CountDownLatch criticalDelivered = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            normalLaneBlocked.countDown();
+            releaseNormalLane.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(mockEventPublisher1).publish(mockEventPayload, normalContext);
+        doAnswer(invocation -> {
+            criticalDelivered.countDown();
+            return null;
+        }).when(mockEventPublisher1).publish(mockEventPayload, criticalContext);
+
+        try {
+            prioritizingService.publish(mockEventPayload, normalContext);
+            Assert.assertTrue(normalLaneBlocked.await(1, TimeUnit.SECONDS));
+            prioritizingService.publish(mockEventPayload, normalContext);
+            prioritizingService.publish(mockEventPayload, criticalContext);
+
+            Assert.assertTrue(criticalDelivered.await(1, TimeUnit.SECONDS),
+                    "Critical event should not wait for the blocked normal lane.");
+            Assert.assertEquals(configuration.getEventPriority(
+                    "https://schemas.identity.wso2.org/events/credential/updated"), EventPriority.CRITICAL);
+            Assert.assertEquals(configuration.getEventPriority(normalContext.getEventUri()), EventPriority.NORMAL);
+        } finally {
+            releaseNormalLane.countDown();
+        }
+        verify(mockEventPublisher1, Mockito.timeout(1000).times(2)).publish(mockEventPayload, normalContext);
+    }
+
+    @Test
+    public void testNonBlockingPublisherIsInvokedInline() throws Exception {
+
+        Mockito.when(mockEventPublisher1.isNonBlocking()).thenReturn(true);
+        Thread publishingThread = Thread.currentThread();
+        Thread[] invokingThreads = new Thread[2];
+        CountDownLatch blockingPublisherInvoked = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            invokingThreads[0] = Thread.currentThread();
+            return null;
+        }).when(mockEventPublisher1).publish(mockEventPayload, mockEventContext);
+        doAnswer(invocation -> {
+            invokingThreads[1] = Thread.currentThread();
+            blockingPublisherInvoked.countDown();
+            return null;
+        }).when(mockEventPublisher2).publish(mockEventPayload, mockEventContext);
+        EventPublisherDataHolder.getInstance().setConfiguration(createInlineDispatchConfiguration(null));
+        try {
+            eventPublisherService.publish(mockEventPayload, mockEventContext);
+
+            Assert.assertSame(invokingThreads[0], publishingThread, "Non-blocking publisher should be invoked inline.");
+            Assert.assertTrue(blockingPublisherInvoked.await(1, TimeUnit.SECONDS));
+            Assert.assertNotSame(invokingThreads[1], publishingThread, "Blocking publisher should be offloaded.");
+
+            // While the dispatch is paused, the events of a non-blocking publisher are held on the dispatch threads.
+            EventPublisherDataHolder.getInstance().getDispatchGate().pause();
+            try {
+                eventPublisherService.publish(mockEventPayload, mockEventContext);
+                verify(mockEventPublisher1, times(1)).publish(mockEventPayload, mockEventContext);
+            } finally {
+                EventPublisherDataHolder.getInstance().getDispatchGate().resume();
+            }
+            verify(mockEventPublisher1, Mockito.timeout(1000).times(2)).publish(mockEventPayload, mockEventContext);
+            Assert.assertNotSame(invokingThreads[0], publishingThread);
+        } finally {
+            EventPublisherDataHolder.getInstance().setConfiguration(EventPublisherConfiguration.getDefault());
+        }
+    }
+
+    @Test
+    public void testInlineDispatchIsDisabledByDefault() throws Exception {
+
+        Assert.assertFalse(EventPublisherConfiguration.getDefault().isInlineDispatchEnabled());
+        Assert.assertTrue(createInlineDispatchConfiguration(null).isInlineDispatchEnabled());
+
+        Mockito.when(mockEventPublisher1.isNonBlocking()).thenReturn(true);
+        Thread publishingThread = Thread.currentThread();
+        Thread[] invokingThread = new Thread[1];
+        CountDownLatch published = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            invokingThread[0] = Thread.currentThread();
+            published.countDown();
+            return null;
+        }).when(mockEventPublisher1).publish(mockEventPayload, mockEventContext);
+        EventPublisherDataHolder.getInstance().setEventPublishers(Collections.singletonList(mockEventPublisher1));
+        eventPublisherService.publish(mockEventPayload, mockEventContext);
+
+        Assert.assertTrue(published.await(1, TimeUnit.SECONDS));
+        Assert.assertNotSame(invokingThread[0], publishingThread);
+    }
+
+    @Test
+    public void testInlineDispatchAppliesOverflowPolicyOfLane() throws Exception {
+
+        EventPublisherConfiguration configuration = createInlineDispatchConfiguration("drop_newest");
+        Mockito.when(mockEventPublisher1.isNonBlocking()).thenReturn(true);
+        CountDownLatch inlineDispatchStarted = new CountDownLatch(1);
+        CountDownLatch releasePublisher = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            inlineDispatchStarted.countDown();
+            releasePublisher.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(mockEventPublisher1).publish(mockEventPayload, mockEventContext);
+        EventPublisherDataHolder.getInstance().setConfiguration(configuration);
+        Thread inlinePublisher = new Thread(() -> eventPublisherService.publish(mockEventPayload, mockEventContext));
+        try {
+            EventPublisherDataHolder.getInstance().setEventPublishers(Collections.singletonList(mockEventPublisher1));
+            inlinePublisher.start();
+            Assert.assertTrue(inlineDispatchStarted.await(1, TimeUnit.SECONDS));
+
+            // The only inline slot is taken, so the events go through the lane, which drops the overflowing ones.
+            for (int i = 0; i < 3; i++) {
+                eventPublisherService.publish(mockEventPayload, mockEventContext);
+            }
+            DispatchExecutor lane = EventPublisherDataHolder.getInstance().getPublisherBulkheadSnapshot()[0]
+                    .getDispatchExecutor();
+            Assert.assertTrue(lane.getDroppedCount() > 0, "Lane overflow policy should apply to inline dispatch.");
+        } finally {
+            releasePublisher.countDown();
+            inlinePublisher.join(1000);
+            EventPublisherDataHolder.getInstance().setConfiguration(EventPublisherConfiguration.getDefault());
+        }
+    }
+
+    private static EventPublisherConfiguration createInlineDispatchConfiguration(String overflowPolicy) {
+
+        EventPublisherConfigurationProvider configurationProvider =
+                Mockito.mock(EventPublisherConfigurationProvider.class);
+        Mockito.when(configurationProvider.getProperty("event.publisher.dispatch.inline.enabled")).thenReturn("true");
+        Mockito.when(configurationProvider.getProperty("event.publisher.dispatch.threadPoolSize")).thenReturn("1");
+        Mockito.when(configurationProvider.getProperty("event.publisher.dispatch.queueCapacity")).thenReturn("1");
+        Mockito.when(configurationProvider.getProperty("event.publisher.dispatch.overflowPolicy"))
+                .thenReturn(overflowPolicy);
+        return new EventPublisherConfiguration(configurationProvider);
+    }
+
+    @Test
+    public void testPublishRecordsMetricsExposedThroughJmx() throws Exception {
+
+        String eventUri = "https://schemas.identity.wso2.org/events/user/metrics";
+        EventContext eventContext = EventContext.builder().tenantDomain("example.com").eventUri(eventUri).build();
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName("org.wso2.identity.event.publisher.test:type=PublishMetrics");
+        mBeanServer.registerMBean(new EventPublisherMetrics(eventPublisherService, PublishMetrics.getInstance()),
+                objectName);
+        try {
+            eventPublisherService.publish(mockEventPayload, eventContext);
+            verify(mockEventPublisher1, Mockito.timeout(1000)).publish(mockEventPayload, eventContext);
+            verify(mockEventPublisher2, Mockito.timeout(1000)).publish(mockEventPayload, eventContext);
+            long deadline = System.currentTimeMillis() + 1000;
+            while (getRecordedLatencyCount(eventUri) < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+
+            TabularData eventUriLatencies = (TabularData) mBeanServer.getAttribute(objectName, "EventUriLatencies");
+            CompositeData eventUriLatency = (CompositeData) eventUriLatencies.get(new Object[]{eventUri})
+                    .get("value");
+            Assert.assertEquals(eventUriLatency.get("count"), 2L);
+            CompositeData dispatchWaitTime = (CompositeData) mBeanServer.getAttribute(objectName, "DispatchWaitTime");
+            Assert.assertTrue((Long) dispatchWaitTime.get("count") >= 2);
+            Assert.assertEquals(mBeanServer.getAttribute(objectName, "QueueDepth"), 0);
+        } finally {
+            mBeanServer.unregisterMBean(objectName);
+        }
+    }
+
+    private static long getRecordedLatencyCount(String eventUri) {
+
+        LatencyHistogram latency = PublishMetrics.getInstance().getEventUriLatencies().get(eventUri);
+        return latency != null ? latency.getCount() : 0;
+    }
+
+    @Test
+    public void testPublishAll() throws Exception {
+
+        List<EventEnvelope> events = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            events.add(EventEnvelope.builder().payload(mockEventPayload).eventContext(mockEventContext).build());
+        }
+        CountDownLatch latch = new CountDownLatch(eventPublishers.size());
+
+        doAnswer(invocation -> {
+            latch.countDown();
+            return null;
+        }).when(mockEventPublisher1).publishBatch(anyList());
+
+        doAnswer(invocation -> {
+            latch.countDown();
+            return null;
+        }).when(mockEventPublisher2).publishBatch(anyList());
+
+        eventPublisherService.publishAll(events);
+
+        Assert.assertTrue(latch.await(1, TimeUnit.SECONDS));
+        verify(mockEventPublisher1, times(1)).publishBatch(events);
+        verify(mockEventPublisher2, times(1)).publishBatch(events);
+    }
+
+    @Test
+    public void testPublishAllBatchesEventsByTenant() throws Exception {
+
+        EventContext otherTenantContext = EventContext.builder().tenantDomain("other.com")
+                .eventUri(mockEventContext.getEventUri()).build();
+        List<EventEnvelope> events = Arrays.asList(
+                EventEnvelope.builder().payload(mockEventPayload).eventContext(mockEventContext).build(),
+                EventEnvelope.builder().payload(mockEventPayload).eventContext(otherTenantContext).build(),
+                EventEnvelope.builder().payload(mockEventPayload).eventContext(mockEventContext).build());
+        List<List<EventEnvelope>> batches = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            batches.add(new ArrayList<>(invocation.getArgument(0)));
+            latch.countDown();
+            return null;
+        }).when(mockEventPublisher1).publishBatch(anyList());
+        EventPublisherDataHolder.getInstance().setEventPublishers(Collections.singletonList(mockEventPublisher1));
+
+        eventPublisherService.publishAll(events);
+
+        Assert.assertTrue(latch.await(1, TimeUnit.SECONDS));
+        Assert.assertEquals(batches.size(), 2);
+        for (List<EventEnvelope> batch : batches) {
+            String tenantDomain = batch.get(0).getEventContext().getTenantDomain();
+            for (EventEnvelope event : batch) {
+                Assert.assertEquals(event.getEventContext().getTenantDomain(), tenantDomain,
+                        "A batch should only carry the events of a single tenant.");
+            }
+        }
+    }
+
+    @Test
+    public void testPublishBatchFallsBackToPublish() throws Exception {
+
+        List<EventEnvelope> events = Arrays.asList(
+                EventEnvelope.builder().payload(mockEventPayload).eventContext(mockEventContext).build(),
+                EventEnvelope.builder().payload(mockEventPayload).eventContext(mockEventContext).build());
+        EventPublisher eventPublisher = Mockito.mock(EventPublisher.class, Mockito.CALLS_REAL_METHODS);
+        doAnswer(invocation -> {
+            throw new RuntimeException("Test Exception");
+        }).doAnswer(invocation -> null).when(eventPublisher).publish(mockEventPayload, mockEventContext);
+
+        try {
+            eventPublisher.publishBatch(events);
+            Assert.fail("The failure of the first event should be reported.");
+        } catch (RuntimeException e) {
+            Assert.assertEquals(e.getMessage(), "Test Exception");
+        }
+        verify(eventPublisher, times(2)).publish(mockEventPayload, mockEventContext);
+    }
+
     @Test
     public void testEventContextBuilder() {
 
@@ -176,6 +862,37 @@ public class EventPublisherServiceTest {
         Assert.assertEquals(payload.getEvents().get("key1"), eventMap.get("key1"));
     }
 
+    @Test
+    public void testSecurityEventTokenPayloadIsSerializedOnce() throws Exception {
+
+        SecurityEventTokenPayload payload = SecurityEventTokenPayload.builder().iss("issuer").jti("jti").build();
+        AtomicInteger serializationCount = new AtomicInteger();
+        PayloadSerializer serializer = eventPayload -> {
+            serializationCount.incrementAndGet();
+            return eventPayload.getJti().getBytes(StandardCharsets.UTF_8);
+        };
+
+        SerializedPayload serialized = payload.serialize("application/json", serializer);
+        Assert.assertSame(payload.serialize("application/json", serializer), serialized);
+        Assert.assertEquals(serializationCount.get(), 1);
+        Assert.assertEquals(serialized.getLength(), 3);
+
+        serialized.toByteArray()[0] = 'x';
+        Assert.assertEquals(new String(serialized.toByteArray(), StandardCharsets.UTF_8), "jti");
+
+        SerializedPayload otherContentType = payload.serialize("application/cbor", serializer);
+        Assert.assertNotSame(otherContentType, serialized);
+        Assert.assertEquals(otherContentType.getContentType(), "application/cbor");
+        Assert.assertEquals(serializationCount.get(), 2);
+
+        // Another serializer of the same content type does not get the bytes of the first one.
+        PayloadSerializer otherSerializer = eventPayload -> eventPayload.getIss().getBytes(StandardCharsets.UTF_8);
+        SerializedPayload otherSerialized = payload.serialize("application/cbor", otherSerializer);
+        Assert.assertEquals(new String(otherSerialized.toByteArray(), StandardCharsets.UTF_8), "issuer");
+        Assert.assertSame(payload.serialize("application/cbor", otherSerializer), otherSerialized);
+        Assert.assertEquals(serializationCount.get(), 2);
+    }
+
     @Test
     public void testSecurityEventTokenPayloadWithNullEvent() {
 
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.identity.event.common.publisher.config.OverflowPolicy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for BoundedDispatchExecutor.
+ */
+public class BoundedDispatchExecutorTest {
+
+    @Test
+    public void testDropNewestWhenQueueIsFull() throws Exception {
+
+        BoundedDispatchExecutor executor = new BoundedDispatchExecutor("test-dispatch", 1, 1,
+                OverflowPolicy.DROP_NEWEST, 10);
+        CountDownLatch blocker = new CountDownLatch(1);
+        AtomicInteger executed = new AtomicInteger();
+        try {
+            executor.execute(() -> awaitQuietly(blocker));
+            waitForActiveThread(executor);
+            executor.execute(executed::incrementAndGet);
+            executor.execute(executed::incrementAndGet);
+
+            Assert.assertEquals(executor.getRejectedCount(), 1);
+            Assert.assertEquals(executor.getDroppedCount(), 1);
+            Assert.assertEquals(executor.getQueueDepth(), 1);
+        } finally {
+            blocker.countDown();
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        Assert.assertEquals(executed.get(), 1);
+    }
+
+    @Test
+    public void testDropOldestWhenQueueIsFull() throws Exception {
+
+        BoundedDispatchExecutor executor = new BoundedDispatchExecutor("test-dispatch", 1, 1,
+                OverflowPolicy.DROP_OLDEST, 10);
+        CountDownLatch blocker = new CountDownLatch(1);
+        AtomicInteger lastExecuted = new AtomicInteger();
+        try {
+            executor.execute(() -> awaitQuietly(blocker));
+            waitForActiveThread(executor);
+            executor.execute(() -> lastExecuted.set(1));
+            executor.execute(() -> lastExecuted.set(2));
+
+            Assert.assertEquals(executor.getRejectedCount(), 1);
+            Assert.assertEquals(executor.getDroppedCount(), 1);
+        } finally {
+            blocker.countDown();
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        Assert.assertEquals(lastExecuted.get(), 2);
+    }
+
+    @Test
+    public void testBlockTimesOutWhenQueueIsFull() throws Exception {
+
+        BoundedDispatchExecutor executor = new BoundedDispatchExecutor("test-dispatch", 1, 1,
+                OverflowPolicy.BLOCK, 50);
+        CountDownLatch blocker = new CountDownLatch(1);
+        try {
+            executor.execute(() -> awaitQuietly(blocker));
+            waitForActiveThread(executor);
+            executor.execute(() -> { });
+
+            long start = System.nanoTime();
+            executor.execute(() -> { });
+            long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            Assert.assertTrue(waited >= 40, "Publishing thread should wait for the block timeout.");
+            Assert.assertEquals(executor.getRejectedCount(), 1);
+            Assert.assertEquals(executor.getDroppedCount(), 1);
+        } finally {
+            blocker.countDown();
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testCallerRunsWhenQueueIsFull() throws Exception {
+
+        BoundedDispatchExecutor executor = new BoundedDispatchExecutor("test-dispatch", 1, 1,
+                OverflowPolicy.CALLER_RUNS, 10);
+        CountDownLatch blocker = new CountDownLatch(1);
+        Thread caller = Thread.currentThread();
+        Thread[] executedOn = new Thread[1];
+        try {
+            executor.execute(() -> awaitQuietly(blocker));
+            waitForActiveThread(executor);
+            executor.execute(() -> { });
+            executor.execute(() -> executedOn[0] = Thread.currentThread());
+
+            Assert.assertEquals(executedOn[0], caller);
+            Assert.assertEquals(executor.getRejectedCount(), 1);
+            Assert.assertEquals(executor.getDroppedCount(), 0);
+        } finally {
+            blocker.countDown();
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void waitForActiveThread(BoundedDispatchExecutor executor) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + 1000;
+        while (executor.getActiveCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
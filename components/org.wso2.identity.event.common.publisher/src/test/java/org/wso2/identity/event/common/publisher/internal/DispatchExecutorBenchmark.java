@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.wso2.identity.event.common.publisher.config.OverflowPolicy;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Manual benchmark comparing the platform thread and the virtual thread dispatch executors.
+ * The benchmark is not part of the test suite. Run the main method with the test classpath, on JDK 21 or later
+ * to include the virtual thread dispatch executor. Every dispatch simulates a publisher blocked on a slow hub.
+ */
+public class DispatchExecutorBenchmark {
+
+    private static final int[] RATES_PER_SECOND = {1000, 10000, 50000};
+    private static final long PUBLISH_LATENCY_MILLIS = 20;
+    private static final long RUN_SECONDS = 5;
+    private static final int POOL_SIZE = 10;
+    private static final int QUEUE_CAPACITY = 10000;
+    private static final int VIRTUAL_THREAD_MAX_CONCURRENCY = 10000;
+
+    public static void main(String[] args) throws Exception {
+
+        for (int rate : RATES_PER_SECOND) {
+            BoundedDispatchExecutor platformExecutor = new BoundedDispatchExecutor("benchmark-dispatch", POOL_SIZE,
+                    QUEUE_CAPACITY, OverflowPolicy.DROP_NEWEST, 0);
+            run("platform(" + POOL_SIZE + ")", platformExecutor, rate);
+            platformExecutor.shutdownNow();
+
+            VirtualThreadDispatchExecutor virtualExecutor = VirtualThreadDispatchExecutor.createIfSupported(
+                    VIRTUAL_THREAD_MAX_CONCURRENCY, OverflowPolicy.DROP_NEWEST, 0);
+            if (virtualExecutor != null) {
+                run("virtual(" + VIRTUAL_THREAD_MAX_CONCURRENCY + ")", virtualExecutor, rate);
+            } else {
+                System.out.println("Virtual threads are not supported by the runtime.");
+            }
+        }
+    }
+
+    private static void run(String name, DispatchExecutor executor, int ratePerSecond) throws Exception {
+
+        int totalEvents = (int) (ratePerSecond * RUN_SECONDS);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long[] waitNanos = new long[totalEvents];
+        AtomicInteger completed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(totalEvents);
+        int peakThreads = 0;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < totalEvents; i++) {
+            long scheduled = start + i * intervalNanos;
+            long now;
+            while ((now = System.nanoTime()) < scheduled) {
+                LockSupport.parkNanos(scheduled - now);
+            }
+            int index = i;
+            long submitted = System.nanoTime();
+            executor.execute(() -> {
+                waitNanos[index] = System.nanoTime() - submitted;
+                try {
+                    Thread.sleep(PUBLISH_LATENCY_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                completed.incrementAndGet();
+                done.countDown();
+            });
+            if ((i & 1023) == 0) {
+                peakThreads = Math.max(peakThreads, Thread.activeCount());
+            }
+        }
+        long dropped = executor.getDroppedCount();
+        for (long i = 0; i < dropped; i++) {
+            done.countDown();
+        }
+        done.await(RUN_SECONDS * 4, TimeUnit.SECONDS);
+        long elapsedNanos = System.nanoTime() - start;
+
+        long[] dispatched = Arrays.stream(waitNanos).filter(wait -> wait > 0).sorted().toArray();
+        System.out.printf("%-16s rate=%6d/s completed=%7d dropped=%7d throughput=%8.0f/s " +
+                        "wait p50=%8.2fms p99=%8.2fms peakPlatformThreads=%d%n",
+                name, ratePerSecond, completed.get(), dropped,
+                completed.get() / (elapsedNanos / 1e9), percentile(dispatched, 0.50), percentile(dispatched, 0.99),
+                peakThreads);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(sorted.length * percentile))] / 1e6;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for DispatchTimer.
+ */
+public class DispatchTimerTest {
+
+    @Test
+    public void testShutdownRunsPendingTasksAndStopsTimer() {
+
+        DispatchTimer timer = new DispatchTimer("dispatch-timer-test");
+        AtomicInteger runCount = new AtomicInteger();
+        timer.schedule(runCount::incrementAndGet, 1, TimeUnit.HOURS);
+        ScheduledFuture<?> cancelled = timer.schedule(runCount::incrementAndGet, 1, TimeUnit.HOURS);
+        cancelled.cancel(false);
+        Assert.assertTrue(timer.isRunning());
+
+        timer.shutdown();
+
+        Assert.assertEquals(runCount.get(), 1, "Only the pending task should be run on shutdown.");
+        Assert.assertFalse(timer.isRunning());
+    }
+
+    @Test
+    public void testTimerIsCreatedAgainAfterShutdown() throws Exception {
+
+        DispatchTimer timer = new DispatchTimer("dispatch-timer-test");
+        timer.shutdown();
+        timer.schedule(() -> { }, 0, TimeUnit.MILLISECONDS);
+        timer.shutdown();
+        CountDownLatch executed = new CountDownLatch(1);
+        try {
+            timer.schedule(executed::countDown, 10, TimeUnit.MILLISECONDS);
+
+            Assert.assertTrue(executed.await(1, TimeUnit.SECONDS));
+            Assert.assertTrue(timer.isRunning());
+        } finally {
+            timer.shutdown();
+        }
+    }
+}
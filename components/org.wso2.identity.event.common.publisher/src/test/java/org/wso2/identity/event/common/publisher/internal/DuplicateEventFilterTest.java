@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test class for DuplicateEventFilter.
+ */
+public class DuplicateEventFilterTest {
+
+    private static final long WINDOW = 8000;
+
+    @Test
+    public void testSuppressesDuplicatesWithinWindow() {
+
+        AtomicLong clock = new AtomicLong();
+        DuplicateEventFilter filter = new DuplicateEventFilter(WINDOW, 100, clock::get);
+
+        Assert.assertFalse(filter.isDuplicate("jti-1"));
+        Assert.assertTrue(filter.isDuplicate("jti-1"));
+        Assert.assertFalse(filter.isDuplicate("jti-2"));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(WINDOW - 500));
+        Assert.assertTrue(filter.isDuplicate("jti-1"));
+        Assert.assertEquals(filter.getSuppressedCount(), 2);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(WINDOW / 4));
+        Assert.assertFalse(filter.isDuplicate("jti-1"), "Event identifiers should expire after the window.");
+        Assert.assertEquals(filter.size(), 1);
+    }
+
+    @Test
+    public void testIdleFilterForgetsAllIdentifiers() {
+
+        AtomicLong clock = new AtomicLong();
+        DuplicateEventFilter filter = new DuplicateEventFilter(WINDOW, 100, clock::get);
+        for (int i = 0; i < 10; i++) {
+            filter.isDuplicate("jti-" + i);
+        }
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(WINDOW * 10));
+        Assert.assertFalse(filter.isDuplicate("jti-0"));
+        Assert.assertEquals(filter.size(), 1);
+    }
+
+    @Test
+    public void testCapacityEvictsOldestIdentifiers() {
+
+        AtomicLong clock = new AtomicLong();
+        DuplicateEventFilter filter = new DuplicateEventFilter(WINDOW, 10, clock::get);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertFalse(filter.isDuplicate("old-" + i));
+        }
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(WINDOW / 8));
+        for (int i = 0; i < 5; i++) {
+            Assert.assertFalse(filter.isDuplicate("new-" + i));
+        }
+
+        Assert.assertTrue(filter.size() <= 10, "Remembered identifiers should be bounded by the capacity.");
+        Assert.assertTrue(filter.isDuplicate("new-0"));
+        Assert.assertFalse(filter.isDuplicate("old-0"), "Oldest identifiers should be evicted first.");
+    }
+
+    @Test
+    public void testForgottenIdentifiersAreNotSuppressed() {
+
+        DuplicateEventFilter filter = new DuplicateEventFilter(WINDOW, 100);
+
+        Assert.assertFalse(filter.isDuplicate("jti-1"));
+        filter.forget("jti-1");
+        Assert.assertEquals(filter.size(), 0);
+        Assert.assertFalse(filter.isDuplicate("jti-1"));
+        Assert.assertTrue(filter.isDuplicate("jti-1"));
+        Assert.assertEquals(filter.getSuppressedCount(), 1);
+    }
+
+    @Test
+    public void testSizeIsConsistentUnderConcurrentEviction() throws Exception {
+
+        DuplicateEventFilter filter = new DuplicateEventFilter(WINDOW, 16);
+        int threadCount = 4;
+        int eventsPerThread = 20000;
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            String prefix = "jti-" + t + "-";
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < eventsPerThread; i++) {
+                    filter.isDuplicate(prefix + i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        // Forgetting every identifier leaves no identifier behind, unless the size drifted while evicting.
+        for (int t = 0; t < threadCount; t++) {
+            for (int i = 0; i < eventsPerThread; i++) {
+                filter.forget("jti-" + t + "-" + i);
+            }
+        }
+        Assert.assertEquals(filter.size(), 0);
+    }
+
+    @Test
+    public void testEventsWithoutJtiAreNotSuppressed() {
+
+        DuplicateEventFilter filter = new DuplicateEventFilter(WINDOW, 100);
+
+        Assert.assertFalse(filter.isDuplicate(null));
+        Assert.assertFalse(filter.isDuplicate(null));
+        Assert.assertEquals(filter.getSuppressedCount(), 0);
+    }
+}
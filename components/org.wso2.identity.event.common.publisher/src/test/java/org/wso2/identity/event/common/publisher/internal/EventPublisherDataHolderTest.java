@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.wso2.identity.event.common.publisher.EventPublisher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for EventPublisherDataHolder.
+ */
+public class EventPublisherDataHolderTest {
+
+    private static final int WRITER_THREADS = 4;
+    private static final int READER_THREADS = 4;
+    private static final int REBINDS_PER_WRITER = 2000;
+
+    @AfterMethod
+    public void tearDown() {
+
+        EventPublisherDataHolder.getInstance().setEventPublishers(null);
+    }
+
+    @Test
+    public void testAddAndRemoveEventPublisher() {
+
+        EventPublisherDataHolder dataHolder = EventPublisherDataHolder.getInstance();
+        EventPublisher publisher1 = Mockito.mock(EventPublisher.class);
+        EventPublisher publisher2 = Mockito.mock(EventPublisher.class);
+
+        dataHolder.addEventPublisher(publisher1);
+        dataHolder.addEventPublisher(publisher2);
+        Assert.assertEquals(dataHolder.getEventPublishers(), Arrays.asList(publisher1, publisher2));
+
+        PublisherBulkhead[] snapshot = dataHolder.getPublisherBulkheadSnapshot();
+        dataHolder.removeEventPublisher(publisher1);
+        Assert.assertEquals(dataHolder.getEventPublishers(), Collections.singletonList(publisher2));
+        Assert.assertEquals(snapshot.length, 2, "A snapshot taken before unbinding must not change.");
+        Assert.assertEquals(snapshot[0].getEventPublisher(), publisher1);
+        Assert.assertEquals(snapshot[1].getEventPublisher(), publisher2);
+
+        dataHolder.removeEventPublisher(publisher1);
+        Assert.assertEquals(dataHolder.getEventPublishers(), Collections.singletonList(publisher2));
+    }
+
+    @Test
+    public void testBulkheadIsTornDownOnUnbind() throws Exception {
+
+        EventPublisherDataHolder dataHolder = EventPublisherDataHolder.getInstance();
+        EventPublisher publisher1 = Mockito.mock(EventPublisher.class);
+        EventPublisher publisher2 = Mockito.mock(EventPublisher.class);
+        dataHolder.addEventPublisher(publisher1);
+        dataHolder.addEventPublisher(publisher2);
+
+        PublisherBulkhead[] bulkheads = dataHolder.getPublisherBulkheadSnapshot();
+        Assert.assertNotSame(bulkheads[0].getDispatchExecutor(), bulkheads[1].getDispatchExecutor(),
+                "Each event publisher should get its own bulkhead.");
+
+        dataHolder.removeEventPublisher(publisher1);
+        BoundedDispatchExecutor removedExecutor = (BoundedDispatchExecutor) bulkheads[0].getDispatchExecutor();
+        BoundedDispatchExecutor remainingExecutor = (BoundedDispatchExecutor) bulkheads[1].getDispatchExecutor();
+        Assert.assertTrue(removedExecutor.isShutdown());
+        Assert.assertFalse(remainingExecutor.isShutdown());
+    }
+
+    @Test
+    public void testStalledPublisherDoesNotStarveOtherPublishers() throws Exception {
+
+        EventPublisherDataHolder dataHolder = EventPublisherDataHolder.getInstance();
+        dataHolder.setEventPublishers(Arrays.asList(Mockito.mock(EventPublisher.class),
+                Mockito.mock(EventPublisher.class)));
+        PublisherBulkhead[] bulkheads = dataHolder.getPublisherBulkheadSnapshot();
+        int stalledThreads = dataHolder.getConfiguration().getThreadPoolSize();
+        CountDownLatch stall = new CountDownLatch(1);
+        CountDownLatch executed = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < stalledThreads + 1; i++) {
+                bulkheads[0].getDispatchExecutor().execute(() -> {
+                    try {
+                        stall.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            bulkheads[1].getDispatchExecutor().execute(executed::countDown);
+            Assert.assertTrue(executed.await(1, TimeUnit.SECONDS));
+        } finally {
+            stall.countDown();
+        }
+    }
+
+    @Test
+    public void testDrainFlushesAcceptedEvents() {
+
+        EventPublisherDataHolder dataHolder = EventPublisherDataHolder.getInstance();
+        dataHolder.setEventPublishers(Collections.singletonList(Mockito.mock(EventPublisher.class)));
+        PublisherBulkhead bulkhead = dataHolder.getPublisherBulkheadSnapshot()[0];
+        AtomicInteger executed = new AtomicInteger();
+        for (int i = 0; i < 100; i++) {
+            bulkhead.getDispatchExecutor().execute(executed::incrementAndGet);
+        }
+
+        Assert.assertEquals(dataHolder.drain(5000), 0);
+        Assert.assertEquals(executed.get(), 100, "Accepted events should be flushed.");
+        Assert.assertTrue(dataHolder.getEventPublishers().isEmpty(), "New events should no longer be accepted.");
+    }
+
+    @Test
+    public void testDrainReportsUnflushedEvents() {
+
+        EventPublisherDataHolder dataHolder = EventPublisherDataHolder.getInstance();
+        dataHolder.setEventPublishers(Collections.singletonList(Mockito.mock(EventPublisher.class)));
+        PublisherBulkhead bulkhead = dataHolder.getPublisherBulkheadSnapshot()[0];
+        int stalledThreads = dataHolder.getConfiguration().getThreadPoolSize();
+        CountDownLatch stall = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < stalledThreads + 5; i++) {
+                bulkhead.getDispatchExecutor().execute(() -> {
+                    try {
+                        stall.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+
+            Assert.assertEquals(dataHolder.drain(100), stalledThreads + 5);
+        } finally {
+            stall.countDown();
+        }
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testEventPublisherListIsUnmodifiable() {
+
+        EventPublisherDataHolder.getInstance().getEventPublishers().add(Mockito.mock(EventPublisher.class));
+    }
+
+    /**
+     * Stress test in which writers keep binding and unbinding publishers while readers keep reading snapshots.
+     * Every snapshot must contain the permanently bound publishers, no nulls, no duplicates, and no more publishers
+     * than could have been bound at any point. Every rebinding must be visible once the writers are done.
+     */
+    @Test
+    public void testConcurrentRebindingUnderLoad() throws Exception {
+
+        EventPublisherDataHolder dataHolder = EventPublisherDataHolder.getInstance();
+        EventPublisher permanentPublisher1 = Mockito.mock(EventPublisher.class);
+        EventPublisher permanentPublisher2 = Mockito.mock(EventPublisher.class);
+        dataHolder.setEventPublishers(Arrays.asList(permanentPublisher1, permanentPublisher2));
+
+        List<EventPublisher> transientPublishers = new ArrayList<>();
+        for (int i = 0; i < WRITER_THREADS; i++) {
+            transientPublishers.add(Mockito.mock(EventPublisher.class));
+        }
+        int maxPublishers = 2 + WRITER_THREADS;
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITER_THREADS + READER_THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writersDone = new AtomicBoolean(false);
+        List<Future<String>> readers = new ArrayList<>();
+        List<Future<?>> writers = new ArrayList<>();
+        try {
+            for (int i = 0; i < READER_THREADS; i++) {
+                readers.add(executor.submit(() -> {
+                    start.await();
+                    long reads = 0;
+                    while (!writersDone.get() || reads == 0) {
+                        PublisherBulkhead[] snapshot = dataHolder.getPublisherBulkheadSnapshot();
+                        Set<EventPublisher> seen = new HashSet<>();
+                        for (PublisherBulkhead bulkhead : snapshot) {
+                            EventPublisher publisher = bulkhead == null ? null : bulkhead.getEventPublisher();
+                            if (publisher == null) {
+                                return "Snapshot contains a null publisher.";
+                            }
+                            if (!seen.add(publisher)) {
+                                return "Snapshot contains a duplicate publisher.";
+                            }
+                        }
+                        if (!seen.contains(permanentPublisher1) || !seen.contains(permanentPublisher2)) {
+                            return "Snapshot lost a permanently bound publisher.";
+                        }
+                        if (snapshot.length > maxPublishers) {
+                            return "Snapshot contains more publishers than ever bound.";
+                        }
+                        reads++;
+                    }
+                    return null;
+                }));
+            }
+            for (EventPublisher transientPublisher : transientPublishers) {
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < REBINDS_PER_WRITER; i++) {
+                        dataHolder.addEventPublisher(transientPublisher);
+                        dataHolder.removeEventPublisher(transientPublisher);
+                    }
+                    dataHolder.addEventPublisher(transientPublisher);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+            writersDone.set(true);
+            for (Future<String> reader : readers) {
+                Assert.assertNull(reader.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            writersDone.set(true);
+            executor.shutdownNow();
+        }
+
+        Set<EventPublisher> expected = new HashSet<>(transientPublishers);
+        expected.add(permanentPublisher1);
+        expected.add(permanentPublisher2);
+        Assert.assertEquals(new HashSet<>(dataHolder.getEventPublishers()), expected);
+        Assert.assertEquals(dataHolder.getPublisherBulkheadSnapshot().length, expected.size());
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.wso2.identity.event.common.publisher.EventPublisher;
+import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test class for EventPublisherManagement.
+ */
+public class EventPublisherManagementTest {
+
+    private static final String PUBLISHER_NAME = "managed-publisher";
+    private final EventPublisherDataHolder dataHolder = EventPublisherDataHolder.getInstance();
+    private final EventPublisherManagement management = new EventPublisherManagement(dataHolder);
+
+    @AfterMethod
+    public void tearDown() {
+
+        management.resumeDispatch();
+        dataHolder.setEventPublishers(null);
+    }
+
+    @Test
+    public void testPauseHoldsDispatchUntilResumed() throws Exception {
+
+        EventPublisher eventPublisher = createEventPublisher();
+        CountDownLatch published = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            published.countDown();
+            return null;
+        }).when(eventPublisher).publish(any(), any());
+        PublisherBulkhead bulkhead = dataHolder.getPublisherBulkheadSnapshot()[0];
+
+        management.pauseDispatch();
+        Assert.assertTrue(management.isDispatchPaused());
+        bulkhead.getDispatchExecutor().dispatch(eventPublisher, Mockito.mock(SecurityEventTokenPayload.class),
+                Mockito.mock(EventContext.class));
+
+        Assert.assertFalse(published.await(200, TimeUnit.MILLISECONDS), "Paused dispatch must not publish.");
+        verify(eventPublisher, never()).publish(any(), any());
+        Assert.assertEquals(management.getActiveThreadCount(), 1);
+        Assert.assertEquals(management.getActiveThreadCounts().get(PUBLISHER_NAME), Integer.valueOf(1));
+
+        management.resumeDispatch();
+        Assert.assertTrue(published.await(1, TimeUnit.SECONDS));
+        Assert.assertFalse(management.isDispatchPaused());
+    }
+
+    @Test
+    public void testPauseDoesNotHoldPublishingThreads() throws Exception {
+
+        EventPublisher eventPublisher = createEventPublisher();
+        management.pauseDispatch();
+
+        // A publishing thread running the dispatch, as with the caller runs policy, must not be held.
+        EventDispatch.publish(eventPublisher, null, null);
+
+        verify(eventPublisher).publish(null, null);
+    }
+
+    @Test
+    public void testResizeThreadPool() {
+
+        createEventPublisher();
+        PublisherBulkhead bulkhead = dataHolder.getPublisherBulkheadSnapshot()[0];
+
+        Assert.assertTrue(management.resizeThreadPool(PUBLISHER_NAME, "critical", 3));
+        Assert.assertTrue(management.resizeThreadPool(PUBLISHER_NAME, "NORMAL", 2));
+
+        BoundedDispatchExecutor normalLane = (BoundedDispatchExecutor) bulkhead.getDispatchExecutor();
+        Assert.assertEquals(normalLane.getCorePoolSize(), 2);
+        Assert.assertEquals(normalLane.getMaximumPoolSize(), 2);
+        Assert.assertEquals(management.getQueueSizes().get(PUBLISHER_NAME), Integer.valueOf(0));
+        Assert.assertEquals(management.getQueueSize(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testResizeUnknownPublisher() {
+
+        createEventPublisher();
+        management.resizeThreadPool("unknown-publisher", "normal", 2);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testResizeUnknownPriority() {
+
+        createEventPublisher();
+        management.resizeThreadPool(PUBLISHER_NAME, "urgent", 2);
+    }
+
+    private EventPublisher createEventPublisher() {
+
+        EventPublisher eventPublisher = Mockito.mock(EventPublisher.class);
+        Mockito.when(eventPublisher.getName()).thenReturn(PUBLISHER_NAME);
+        dataHolder.setEventPublishers(Collections.singletonList(eventPublisher));
+        return eventPublisher;
+    }
+}
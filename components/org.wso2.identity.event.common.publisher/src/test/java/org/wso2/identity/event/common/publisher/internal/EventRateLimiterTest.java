@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.identity.event.common.publisher.config.EventPublisherConfiguration;
+import org.wso2.identity.event.common.publisher.config.EventPublisherConfigurationProvider;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test class for EventRateLimiter.
+ */
+public class EventRateLimiterTest {
+
+    private static final String TENANT = "example.com";
+    private static final String EVENT_URI = "https://schemas.org/event/logout";
+
+    @Test
+    public void testTenantRateLimitAllowsBurst() {
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("event.publisher.rateLimit.tenant.rate", "10");
+        properties.put("event.publisher.rateLimit.tenant.burst", "5");
+        properties.put("event.publisher.rateLimit.policy", "DROP");
+        AtomicLong clock = new AtomicLong();
+        EventRateLimiter rateLimiter = new EventRateLimiter(createConfiguration(properties), clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(rateLimiter.acquire(TENANT, EVENT_URI), 0);
+        }
+        Assert.assertEquals(rateLimiter.acquire(TENANT, EVENT_URI), -1);
+        Assert.assertEquals(rateLimiter.acquire("other.com", EVENT_URI), 0,
+                "Tenants should be rate limited independently.");
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        Assert.assertEquals(rateLimiter.acquire(TENANT, EVENT_URI), 0);
+        Assert.assertEquals(rateLimiter.acquire(TENANT, EVENT_URI), -1);
+        Assert.assertEquals(rateLimiter.getLimitedCount(), 2);
+    }
+
+    @Test
+    public void testTenantOverrideAndEventUriRateLimit() {
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("event.publisher.rateLimit.eventUri.rate", "1");
+        properties.put("event.publisher.rateLimit.policy", "DROP");
+        Map<String, String> tenantRates = Collections.singletonMap(TENANT, "2");
+        EventPublisherConfigurationProvider configurationProvider = createConfigurationProvider(properties);
+        Mockito.when(configurationProvider.getPropertiesWithPrefix("event.publisher.rateLimit.tenant.rate."))
+                .thenReturn(tenantRates);
+        EventRateLimiter rateLimiter = new EventRateLimiter(new EventPublisherConfiguration(configurationProvider),
+                new AtomicLong()::get);
+
+        Assert.assertEquals(rateLimiter.acquire(TENANT, EVENT_URI), 0);
+        Assert.assertEquals(rateLimiter.acquire(TENANT, EVENT_URI), -1);
+        // The tenant is not charged for the event rejected by the event URI rate limit.
+        Assert.assertEquals(rateLimiter.acquire(TENANT, "https://schemas.org/event/login"), 0);
+        Assert.assertEquals(rateLimiter.acquire(TENANT, "https://schemas.org/event/update"), -1);
+        Assert.assertEquals(rateLimiter.acquire("other.com", "https://schemas.org/event/update"), 0);
+    }
+
+    @Test
+    public void testDelayPolicyReservesPermits() {
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("event.publisher.rateLimit.tenant.rate", "10");
+        properties.put("event.publisher.rateLimit.tenant.burst", "1");
+        properties.put("event.publisher.rateLimit.policy", "DELAY");
+        properties.put("event.publisher.rateLimit.maxDelay", "150");
+        EventRateLimiter rateLimiter = new EventRateLimiter(createConfiguration(properties), new AtomicLong()::get);
+
+        Assert.assertEquals(rateLimiter.acquire(TENANT, EVENT_URI), 0);
+        Assert.assertEquals(rateLimiter.acquire(TENANT, EVENT_URI), TimeUnit.MILLISECONDS.toNanos(100));
+        Assert.assertEquals(rateLimiter.acquire(TENANT, EVENT_URI), -1);
+    }
+
+    @Test
+    public void testConcurrentAcquireDoesNotExceedBurst() throws InterruptedException {
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("event.publisher.rateLimit.tenant.rate", "100");
+        properties.put("event.publisher.rateLimit.policy", "DROP");
+        EventRateLimiter rateLimiter = new EventRateLimiter(createConfiguration(properties), new AtomicLong()::get);
+        AtomicInteger permits = new AtomicInteger();
+        int threadCount = 8;
+        CountDownLatch done = new CountDownLatch(threadCount);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                executor.execute(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        if (rateLimiter.acquire(TENANT, EVENT_URI) == 0) {
+                            permits.incrementAndGet();
+                        }
+                    }
+                    done.countDown();
+                });
+            }
+            Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(permits.get(), 100);
+        Assert.assertEquals(rateLimiter.getLimitedCount(), threadCount * 1000 - 100);
+    }
+
+    private static EventPublisherConfiguration createConfiguration(Map<String, String> properties) {
+
+        return new EventPublisherConfiguration(createConfigurationProvider(properties));
+    }
+
+    private static EventPublisherConfigurationProvider createConfigurationProvider(Map<String, String> properties) {
+
+        EventPublisherConfigurationProvider configurationProvider =
+                Mockito.mock(EventPublisherConfigurationProvider.class);
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            Mockito.when(configurationProvider.getProperty(property.getKey())).thenReturn(property.getValue());
+        }
+        return configurationProvider;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.identity.event.common.publisher.EventPublisher;
+import org.wso2.identity.event.common.publisher.config.EventPublisherConfiguration;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Test class for EventRoutingTable.
+ */
+public class EventRoutingTableTest {
+
+    private static final String SESSION_REVOKED = "https://schemas.identity.wso2.org/events/session/revoked";
+    private static final String SESSION_CREATED = "https://schemas.identity.wso2.org/events/session/created";
+    private static final String USER_LOCKED = "https://schemas.identity.wso2.org/events/user/locked";
+
+    @Test
+    public void testRouteByEventUri() {
+
+        PublisherBulkhead allEvents = createBulkhead(Collections.emptyList());
+        PublisherBulkhead sessionEvents = createBulkhead(
+                Collections.singletonList("https://schemas.identity.wso2.org/events/session/*"));
+        PublisherBulkhead userLocked = createBulkhead(Arrays.asList(USER_LOCKED, " "));
+        EventRoutingTable routingTable =
+                new EventRoutingTable(new PublisherBulkhead[]{allEvents, sessionEvents, userLocked});
+
+        Assert.assertEquals(routingTable.route(SESSION_REVOKED), new PublisherBulkhead[]{allEvents, sessionEvents});
+        Assert.assertEquals(routingTable.route(SESSION_CREATED), new PublisherBulkhead[]{allEvents, sessionEvents});
+        Assert.assertEquals(routingTable.route(USER_LOCKED), new PublisherBulkhead[]{allEvents, userLocked});
+        Assert.assertEquals(routingTable.route("https://example.com/other"), new PublisherBulkhead[]{allEvents});
+        Assert.assertSame(routingTable.route(null), routingTable.getPublisherBulkheads());
+    }
+
+    @Test
+    public void testRoutesAreReused() {
+
+        PublisherBulkhead sessionEvents = createBulkhead(Collections.singletonList(SESSION_REVOKED));
+        PublisherBulkhead userLocked = createBulkhead(Collections.singletonList(USER_LOCKED));
+        EventRoutingTable routingTable = new EventRoutingTable(new PublisherBulkhead[]{sessionEvents, userLocked});
+
+        Assert.assertSame(routingTable.route(SESSION_REVOKED), routingTable.route(SESSION_REVOKED));
+        Assert.assertSame(routingTable.route("https://example.com/other"),
+                routingTable.route("https://example.com/other"));
+        Assert.assertEquals(routingTable.route("https://example.com/other").length, 0);
+    }
+
+    @Test
+    public void testRouteAllWhenNoEventUrisAreDeclared() {
+
+        PublisherBulkhead first = createBulkhead(Collections.emptyList());
+        PublisherBulkhead second = createBulkhead(Collections.singletonList("*"));
+        EventRoutingTable routingTable = new EventRoutingTable(new PublisherBulkhead[]{first, second});
+
+        Assert.assertSame(routingTable.route(USER_LOCKED), routingTable.getPublisherBulkheads());
+    }
+
+    @Test
+    public void testEventUrisAreResolvedOnce() {
+
+        EventPublisher eventPublisher = Mockito.mock(EventPublisher.class);
+        Mockito.when(eventPublisher.getSupportedEventUris()).thenReturn(Collections.singletonList(USER_LOCKED));
+        EventRoutingTable routingTable = new EventRoutingTable(new PublisherBulkhead[]{
+                new PublisherBulkhead(eventPublisher, EventPublisherConfiguration.getDefault())});
+
+        for (int i = 0; i < 10; i++) {
+            routingTable.route(USER_LOCKED);
+            routingTable.route(SESSION_REVOKED + i);
+        }
+
+        Mockito.verify(eventPublisher, Mockito.times(1)).getSupportedEventUris();
+    }
+
+    @Test
+    public void testRoutesArePrecomputedWhenBound() {
+
+        EventPublisher eventPublisher = Mockito.mock(EventPublisher.class);
+        Mockito.when(eventPublisher.getSupportedEventUris()).thenReturn(Collections.singletonList(USER_LOCKED));
+        PublisherBulkhead userLocked = new PublisherBulkhead(eventPublisher, EventPublisherConfiguration.getDefault());
+        PublisherBulkhead allEvents = createBulkhead(Collections.emptyList());
+        EventRoutingTable routingTable = new EventRoutingTable(new PublisherBulkhead[]{allEvents, userLocked});
+
+        Mockito.verify(eventPublisher, Mockito.times(1)).getSupportedEventUris();
+        Assert.assertEquals(routingTable.route(USER_LOCKED), new PublisherBulkhead[]{allEvents, userLocked});
+        // Undeclared event URIs share the route of the event publishers which handle every event URI.
+        Assert.assertEquals(routingTable.route(SESSION_REVOKED), new PublisherBulkhead[]{allEvents});
+        Assert.assertSame(routingTable.route(SESSION_REVOKED), routingTable.route(SESSION_CREATED));
+    }
+
+    private static PublisherBulkhead createBulkhead(Collection<String> eventUris) {
+
+        EventPublisher eventPublisher = Mockito.mock(EventPublisher.class);
+        Mockito.when(eventPublisher.getSupportedEventUris()).thenReturn(eventUris);
+        return new PublisherBulkhead(eventPublisher, EventPublisherConfiguration.getDefault());
+    }
+}
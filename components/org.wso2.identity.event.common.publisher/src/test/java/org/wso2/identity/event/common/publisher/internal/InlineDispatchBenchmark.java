@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.mockito.Mockito;
+import org.wso2.identity.event.common.publisher.EventPublisher;
+import org.wso2.identity.event.common.publisher.config.EventPriority;
+import org.wso2.identity.event.common.publisher.config.EventPublisherConfiguration;
+import org.wso2.identity.event.common.publisher.config.EventPublisherConfigurationProvider;
+import org.wso2.identity.event.common.publisher.metrics.LatencyHistogram;
+import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Manual benchmark comparing the inline dispatch of a non-blocking event publisher with the dispatch offloaded to
+ * the dispatch threads. The benchmark is not part of the test suite. Run the main method with the test classpath.
+ * The non-blocking publisher hands every event over to a simulated I/O thread, as the WebSub Hub publisher does with
+ * its asynchronous HTTP client. The benchmark reports the time the publishing thread spends per event, the time
+ * until the publisher is invoked, and the time until the simulated I/O thread has handled the event. A blocking
+ * publisher is also run through the publish executor, to show that it keeps the offloaded path.
+ */
+public class InlineDispatchBenchmark {
+
+    private static final int[] RATES_PER_SECOND = {1000, 10000, 50000};
+    private static final long RUN_SECONDS = 5;
+    private static final long BLOCKING_PUBLISH_LATENCY_MILLIS = 5;
+    private static final EventContext EVENT_CONTEXT =
+            EventContext.builder().tenantDomain("carbon.super").eventUri("uri").build();
+
+    public static void main(String[] args) throws Exception {
+
+        ExecutorService ioExecutor = Executors.newSingleThreadExecutor();
+        try {
+            for (int rate : RATES_PER_SECOND) {
+                LatencyHistogram invokeLatency = new LatencyHistogram();
+                LatencyHistogram completionLatency = new LatencyHistogram();
+                EventPublisher nonBlockingPublisher = new EventPublisher() {
+
+                    @Override
+                    public boolean isNonBlocking() {
+
+                        return true;
+                    }
+
+                    @Override
+                    public void publish(SecurityEventTokenPayload payload, EventContext eventContext) {
+
+                        invokeLatency.record(System.nanoTime() - payload.getIat());
+                        ioExecutor.execute(() -> completionLatency.record(System.nanoTime() - payload.getIat()));
+                    }
+                };
+                PublisherBulkhead bulkhead = new PublisherBulkhead(nonBlockingPublisher, createConfiguration());
+
+                run("offloaded", bulkhead.getDispatchExecutor(EventPriority.NORMAL), nonBlockingPublisher, rate,
+                        invokeLatency, completionLatency);
+                run("inline", bulkhead.getPublishExecutor(EventPriority.NORMAL), nonBlockingPublisher, rate,
+                        invokeLatency, completionLatency);
+                bulkhead.drain(RUN_SECONDS, TimeUnit.SECONDS);
+
+                EventPublisher blockingPublisher = (payload, eventContext) -> {
+                    invokeLatency.record(System.nanoTime() - payload.getIat());
+                    Thread.sleep(BLOCKING_PUBLISH_LATENCY_MILLIS);
+                    completionLatency.record(System.nanoTime() - payload.getIat());
+                };
+                PublisherBulkhead blockingBulkhead = new PublisherBulkhead(blockingPublisher, createConfiguration());
+                run("blocking", blockingBulkhead.getPublishExecutor(EventPriority.NORMAL), blockingPublisher,
+                        Math.min(rate, 1000), invokeLatency, completionLatency);
+                blockingBulkhead.drain(RUN_SECONDS, TimeUnit.SECONDS);
+                System.out.println();
+            }
+        } finally {
+            ioExecutor.shutdown();
+        }
+    }
+
+    private static EventPublisherConfiguration createConfiguration() {
+
+        EventPublisherConfigurationProvider configurationProvider =
+                Mockito.mock(EventPublisherConfigurationProvider.class);
+        Mockito.when(configurationProvider.getProperty("event.publisher.dispatch.inline.enabled")).thenReturn("true");
+        return new EventPublisherConfiguration(configurationProvider);
+    }
+
+    private static void run(String name, DispatchExecutor executor, EventPublisher eventPublisher,
+                            int ratePerSecond, LatencyHistogram invokeLatency, LatencyHistogram completionLatency)
+            throws InterruptedException {
+
+        invokeLatency.reset();
+        completionLatency.reset();
+        LatencyHistogram callerTime = new LatencyHistogram();
+        int totalEvents = (int) (ratePerSecond * RUN_SECONDS);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < totalEvents; i++) {
+            long scheduled = start + i * intervalNanos;
+            long now;
+            while ((now = System.nanoTime()) < scheduled) {
+                LockSupport.parkNanos(scheduled - now);
+            }
+            long submitted = System.nanoTime();
+            SecurityEventTokenPayload payload = SecurityEventTokenPayload.builder().jti("jti").iat(submitted).build();
+            executor.dispatch(eventPublisher, payload, EVENT_CONTEXT);
+            callerTime.record(System.nanoTime() - submitted);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(RUN_SECONDS * 2);
+        while (completionLatency.getCount() < totalEvents && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        System.out.printf("%-10s rate=%6d/s executor=%-24s completed=%7d caller p50=%8.2fus p99=%8.2fus " +
+                        "invoke p50=%8.2fus p99=%8.2fus completion p50=%8.2fus p99=%8.2fus%n",
+                name, ratePerSecond, executor.getClass().getSimpleName(), completionLatency.getCount(),
+                micros(callerTime, 50), micros(callerTime, 99), micros(invokeLatency, 50), micros(invokeLatency, 99),
+                micros(completionLatency, 50), micros(completionLatency, 99));
+    }
+
+    private static double micros(LatencyHistogram histogram, double percentile) {
+
+        return histogram.getValueAtPercentile(percentile) / 1e3;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.identity.event.common.publisher.EventPublisher;
+import org.wso2.identity.event.common.publisher.config.OverflowPolicy;
+import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test class for InlineDispatchExecutor.
+ */
+public class InlineDispatchExecutorTest {
+
+    @Test
+    public void testDispatchIsRunInlineWhileLaneIsIdle() throws Exception {
+
+        BoundedDispatchExecutor lane = new BoundedDispatchExecutor("inline-test", 1, 1, OverflowPolicy.BLOCK, 10);
+        InlineDispatchExecutor executor = new InlineDispatchExecutor(lane, 1);
+        EventPublisher eventPublisher = Mockito.mock(EventPublisher.class);
+        Thread publishingThread = Thread.currentThread();
+        Thread[] invokingThread = new Thread[1];
+        Mockito.doAnswer(invocation -> {
+            invokingThread[0] = Thread.currentThread();
+            return null;
+        }).when(eventPublisher).publish(Mockito.any(), Mockito.any());
+        try {
+            executor.dispatch(eventPublisher, Mockito.mock(SecurityEventTokenPayload.class),
+                    Mockito.mock(EventContext.class));
+
+            Assert.assertSame(invokingThread[0], publishingThread);
+        } finally {
+            executor.shutdown();
+            lane.shutdown();
+            lane.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testExecutedTaskIsHandedOverToLane() throws Exception {
+
+        BoundedDispatchExecutor lane = new BoundedDispatchExecutor("inline-test", 1, 1, OverflowPolicy.BLOCK, 10);
+        InlineDispatchExecutor executor = new InlineDispatchExecutor(lane, 1);
+        Thread publishingThread = Thread.currentThread();
+        Thread[] invokingThread = new Thread[1];
+        CountDownLatch executed = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                invokingThread[0] = Thread.currentThread();
+                executed.countDown();
+            });
+
+            Assert.assertTrue(executed.await(1, TimeUnit.SECONDS));
+            Assert.assertNotSame(invokingThread[0], publishingThread, "Executed task should not be run inline.");
+        } finally {
+            executor.shutdown();
+            lane.shutdown();
+            lane.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.identity.event.common.publisher.EventPublisher;
+import org.wso2.identity.event.common.publisher.config.OverflowPolicy;
+import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test class for PartitionedDispatchExecutor.
+ */
+public class PartitionedDispatchExecutorTest {
+
+    private static final int KEY_COUNT = 8;
+    private static final int EVENTS_PER_KEY = 50;
+
+    @Test
+    public void testEventsOfAKeyAreDeliveredInOrder() throws Exception {
+
+        ScheduledExecutorService hub = Executors.newScheduledThreadPool(4);
+        PartitionedDispatchExecutor executor = new PartitionedDispatchExecutor("test-partitioned", 4, 1000,
+                OverflowPolicy.BLOCK, 1000, 5000);
+        Map<String, List<Integer>> delivered = new ConcurrentHashMap<>();
+        CountDownLatch deliveredAll = new CountDownLatch(KEY_COUNT * EVENTS_PER_KEY);
+        EventPublisher eventPublisher = new AsyncEventPublisher() {
+
+            @Override
+            public CompletionStage<Void> publishAsync(SecurityEventTokenPayload payload, EventContext eventContext) {
+
+                // Simulate a hub acknowledging the events after a random delay.
+                CompletableFuture<Void> acknowledged = new CompletableFuture<>();
+                hub.schedule(() -> {
+                    delivered.computeIfAbsent(eventContext.getOrderingKey(),
+                            key -> Collections.synchronizedList(new ArrayList<>()))
+                            .add(Integer.parseInt(payload.getJti()));
+                    deliveredAll.countDown();
+                    acknowledged.complete(null);
+                }, ThreadLocalRandom.current().nextInt(1000), TimeUnit.MICROSECONDS);
+                return acknowledged;
+            }
+        };
+        try {
+            for (int i = 0; i < EVENTS_PER_KEY; i++) {
+                for (int key = 0; key < KEY_COUNT; key++) {
+                    executor.dispatch(eventPublisher,
+                            SecurityEventTokenPayload.builder().jti(String.valueOf(i)).build(),
+                            EventContext.builder().tenantDomain("example.com").orderingKey("user-" + key).build());
+                }
+            }
+
+            Assert.assertTrue(deliveredAll.await(10, TimeUnit.SECONDS));
+            Assert.assertEquals(delivered.size(), KEY_COUNT);
+            for (List<Integer> events : delivered.values()) {
+                for (int i = 0; i < EVENTS_PER_KEY; i++) {
+                    Assert.assertEquals(events.get(i).intValue(), i);
+                }
+            }
+        } finally {
+            executor.shutdown();
+            hub.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testKeysOfDifferentLanesAreDeliveredInParallel() throws Exception {
+
+        PartitionedDispatchExecutor executor = new PartitionedDispatchExecutor("test-partitioned", 2, 100,
+                OverflowPolicy.DROP_NEWEST, 10, 5000);
+        String blockedKey = "user-0";
+        String otherKey = findKeyOfOtherLane(executor, "example.com/" + blockedKey);
+        CompletableFuture<Void> blockedDelivery = new CompletableFuture<>();
+        CountDownLatch otherDelivered = new CountDownLatch(1);
+        EventPublisher eventPublisher = new AsyncEventPublisher() {
+
+            @Override
+            public CompletionStage<Void> publishAsync(SecurityEventTokenPayload payload, EventContext eventContext) {
+
+                if (blockedKey.equals(eventContext.getOrderingKey())) {
+                    return blockedDelivery;
+                }
+                otherDelivered.countDown();
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+        try {
+            executor.dispatch(eventPublisher, null,
+                    EventContext.builder().tenantDomain("example.com").orderingKey(blockedKey).build());
+            executor.dispatch(eventPublisher, null,
+                    EventContext.builder().tenantDomain("example.com").orderingKey(otherKey).build());
+
+            Assert.assertTrue(otherDelivered.await(1, TimeUnit.SECONDS),
+                    "A pending delivery should not block the other lanes.");
+        } finally {
+            blockedDelivery.complete(null);
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testLaneProceedsAfterOrderedDeliveryTimeout() throws Exception {
+
+        PartitionedDispatchExecutor executor = new PartitionedDispatchExecutor("test-partitioned", 1, 100,
+                OverflowPolicy.DROP_NEWEST, 10, 50);
+        CountDownLatch delivered = new CountDownLatch(2);
+        EventPublisher eventPublisher = new AsyncEventPublisher() {
+
+            @Override
+            public CompletionStage<Void> publishAsync(SecurityEventTokenPayload payload, EventContext eventContext) {
+
+                delivered.countDown();
+                return new CompletableFuture<>();
+            }
+        };
+        EventContext eventContext = EventContext.builder().tenantDomain("example.com").orderingKey("user").build();
+        try {
+            executor.dispatch(eventPublisher, null, eventContext);
+            executor.dispatch(eventPublisher, null, eventContext);
+
+            Assert.assertTrue(delivered.await(1, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCallerRunsPolicyKeepsOrderOfFullLane() throws Exception {
+
+        PartitionedDispatchExecutor executor = new PartitionedDispatchExecutor("test-partitioned", 1, 1,
+                OverflowPolicy.CALLER_RUNS, 5000, 5000);
+        CompletableFuture<Void> firstDelivery = new CompletableFuture<>();
+        List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch firstDelivering = new CountDownLatch(1);
+        CountDownLatch deliveredAll = new CountDownLatch(3);
+        EventPublisher eventPublisher = new AsyncEventPublisher() {
+
+            @Override
+            public CompletionStage<Void> publishAsync(SecurityEventTokenPayload payload, EventContext eventContext) {
+
+                delivered.add(payload.getJti());
+                deliveredAll.countDown();
+                if ("0".equals(payload.getJti())) {
+                    firstDelivering.countDown();
+                    return firstDelivery;
+                }
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+        EventContext eventContext = EventContext.builder().tenantDomain("example.com").orderingKey("user").build();
+        Thread overflowingPublisher = new Thread(() -> executor.dispatch(eventPublisher,
+                SecurityEventTokenPayload.builder().jti("2").build(), eventContext));
+        try {
+            executor.dispatch(eventPublisher, SecurityEventTokenPayload.builder().jti("0").build(), eventContext);
+            Assert.assertTrue(firstDelivering.await(1, TimeUnit.SECONDS));
+            executor.dispatch(eventPublisher, SecurityEventTokenPayload.builder().jti("1").build(), eventContext);
+
+            // The lane is full, hence the third event has to wait instead of being delivered by the caller.
+            overflowingPublisher.start();
+            overflowingPublisher.join(200);
+            Assert.assertTrue(overflowingPublisher.isAlive(), "Publishing thread should wait for the full lane.");
+            firstDelivery.complete(null);
+
+            Assert.assertTrue(deliveredAll.await(1, TimeUnit.SECONDS));
+            Assert.assertEquals(delivered, Arrays.asList("0", "1", "2"));
+        } finally {
+            firstDelivery.complete(null);
+            overflowingPublisher.join(1000);
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testPartitionKey() {
+
+        SecurityEventTokenPayload payload = SecurityEventTokenPayload.builder().txn("txn-1").build();
+
+        Assert.assertEquals(EventDispatch.getPartitionKey(payload,
+                EventContext.builder().tenantDomain("example.com").orderingKey("user-1").build()),
+                "example.com/user-1");
+        Assert.assertEquals(EventDispatch.getPartitionKey(payload,
+                EventContext.builder().tenantDomain("example.com").build()), "example.com/txn-1");
+        Assert.assertEquals(EventDispatch.getPartitionKey(SecurityEventTokenPayload.builder().build(),
+                EventContext.builder().tenantDomain("example.com").build()), "example.com");
+    }
+
+    private static String findKeyOfOtherLane(PartitionedDispatchExecutor executor, String partitionKey) {
+
+        int lane = executor.laneOf(partitionKey);
+        for (int i = 1; ; i++) {
+            if (executor.laneOf("example.com/user-" + i) != lane) {
+                return "user-" + i;
+            }
+        }
+    }
+
+    /**
+     * Event publisher which only delivers asynchronously.
+     */
+    private abstract static class AsyncEventPublisher implements EventPublisher {
+
+        @Override
+        public void publish(SecurityEventTokenPayload payload, EventContext eventContext) {
+
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.wso2.identity.event.common.publisher.EventPublisher;
+import org.wso2.identity.event.common.publisher.config.OverflowPolicy;
+import org.wso2.identity.event.common.publisher.config.WaitStrategy;
+import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Manual throughput benchmark comparing the dispatch engines with a no-op event publisher.
+ * The benchmark is not part of the test suite. Run the main method with the test classpath. For every engine, the
+ * producer threads publish as fast as possible and the benchmark reports the throughput, the bytes allocated by the
+ * producer threads per event and the number of garbage collections.
+ */
+public class RingBufferDispatchBenchmark {
+
+    private static final int PRODUCER_COUNT = 4;
+    private static final int CONSUMER_COUNT = 4;
+    private static final int CAPACITY = 16384;
+    private static final int EVENTS_PER_PRODUCER = 2_000_000;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws Exception {
+
+        SecurityEventTokenPayload payload = SecurityEventTokenPayload.builder().iss("issuer").jti("jti").build();
+        EventContext eventContext = EventContext.builder().tenantDomain("carbon.super").eventUri("uri").build();
+        for (int round = 0; round < ROUNDS; round++) {
+            BoundedDispatchExecutor futureExecutor = new BoundedDispatchExecutor("benchmark-future",
+                    CONSUMER_COUNT, CAPACITY, OverflowPolicy.BLOCK, TimeUnit.SECONDS.toMillis(10));
+            run("executor+future", futureExecutor, (executor, publisher) ->
+                    CompletableFuture.runAsync(() -> EventDispatch.publish(publisher, payload, eventContext),
+                            executor).exceptionally(ex -> null));
+            futureExecutor.shutdown();
+
+            BoundedDispatchExecutor boundedExecutor = new BoundedDispatchExecutor("benchmark-executor",
+                    CONSUMER_COUNT, CAPACITY, OverflowPolicy.BLOCK, TimeUnit.SECONDS.toMillis(10));
+            run("executor", boundedExecutor, (executor, publisher) ->
+                    executor.dispatch(publisher, payload, eventContext));
+            boundedExecutor.shutdown();
+
+            for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+                RingBufferDispatchExecutor ringExecutor = new RingBufferDispatchExecutor("benchmark-ring",
+                        CONSUMER_COUNT, CAPACITY, OverflowPolicy.BLOCK, TimeUnit.SECONDS.toMillis(10), waitStrategy);
+                run("ring(" + waitStrategy + ")", ringExecutor, (executor, publisher) ->
+                        executor.dispatch(publisher, payload, eventContext));
+                ringExecutor.shutdown();
+            }
+            System.out.println();
+        }
+    }
+
+    private static void run(String name, DispatchExecutor executor, Dispatcher dispatcher) throws Exception {
+
+        LongAdder published = new LongAdder();
+        EventPublisher eventPublisher = (payload, eventContext) -> published.increment();
+        long totalEvents = (long) PRODUCER_COUNT * EVENTS_PER_PRODUCER;
+        long[] allocatedBytes = new long[PRODUCER_COUNT];
+        long collections = collectionCount();
+
+        Thread[] producers = new Thread[PRODUCER_COUNT];
+        long start = System.nanoTime();
+        for (int i = 0; i < PRODUCER_COUNT; i++) {
+            int index = i;
+            producers[i] = new Thread(() -> {
+                long allocatedBefore = allocatedBytes();
+                for (int j = 0; j < EVENTS_PER_PRODUCER; j++) {
+                    dispatcher.dispatch(executor, eventPublisher);
+                }
+                allocatedBytes[index] = allocatedBytes() - allocatedBefore;
+            });
+            producers[i].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        while (published.sum() + executor.getDroppedCount() < totalEvents) {
+            Thread.sleep(1);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        long totalAllocated = 0;
+        for (long bytes : allocatedBytes) {
+            totalAllocated += bytes;
+        }
+        System.out.printf("%-20s throughput=%12.0f/s producerAllocation=%6.1fB/event gcCount=%4d dropped=%d%n",
+                name, totalEvents / (elapsedNanos / 1e9), (double) totalAllocated / totalEvents,
+                collectionCount() - collections, executor.getDroppedCount());
+    }
+
+    private static long allocatedBytes() {
+
+        java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    private static long collectionCount() {
+
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    /**
+     * Dispatch of a single event with a dispatch engine.
+     */
+    private interface Dispatcher {
+
+        void dispatch(DispatchExecutor executor, EventPublisher eventPublisher);
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.identity.event.common.publisher.EventPublisher;
+import org.wso2.identity.event.common.publisher.config.OverflowPolicy;
+import org.wso2.identity.event.common.publisher.config.WaitStrategy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for RingBufferDispatchExecutor.
+ */
+public class RingBufferDispatchExecutorTest {
+
+    private static final int PRODUCER_COUNT = 4;
+    private static final int EVENTS_PER_PRODUCER = 20000;
+
+    @DataProvider(name = "waitStrategies")
+    public Object[][] waitStrategies() {
+
+        return new Object[][]{
+                {WaitStrategy.BLOCKING},
+                {WaitStrategy.SLEEPING},
+                {WaitStrategy.YIELDING},
+                {WaitStrategy.BUSY_SPIN}
+        };
+    }
+
+    @Test(dataProvider = "waitStrategies")
+    public void testDispatchesEveryEvent(WaitStrategy waitStrategy) throws Exception {
+
+        RingBufferDispatchExecutor executor = new RingBufferDispatchExecutor("test-ring", 2, 1024,
+                OverflowPolicy.BLOCK, TimeUnit.SECONDS.toMillis(5), waitStrategy);
+        int totalEvents = PRODUCER_COUNT * EVENTS_PER_PRODUCER;
+        CountDownLatch published = new CountDownLatch(totalEvents);
+        EventPublisher eventPublisher = (payload, eventContext) -> published.countDown();
+        try {
+            Thread[] producers = new Thread[PRODUCER_COUNT];
+            for (int i = 0; i < PRODUCER_COUNT; i++) {
+                producers[i] = new Thread(() -> {
+                    for (int j = 0; j < EVENTS_PER_PRODUCER; j++) {
+                        executor.dispatch(eventPublisher, null, null);
+                    }
+                });
+                producers[i].start();
+            }
+            for (Thread producer : producers) {
+                producer.join();
+            }
+
+            Assert.assertTrue(published.await(10, TimeUnit.SECONDS), "Every event should be dispatched.");
+            Assert.assertEquals(executor.getDroppedCount(), 0);
+            Assert.assertEquals(executor.getQueueDepth(), 0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCapacityIsRoundedToPowerOfTwo() {
+
+        RingBufferDispatchExecutor executor = new RingBufferDispatchExecutor("test-ring", 1, 1000,
+                OverflowPolicy.DROP_NEWEST, 10, WaitStrategy.BLOCKING);
+        try {
+            Assert.assertEquals(executor.getCapacity(), 1024);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDropNewestWhenRingBufferIsFull() throws Exception {
+
+        RingBufferDispatchExecutor executor = new RingBufferDispatchExecutor("test-ring", 1, 2,
+                OverflowPolicy.DROP_NEWEST, 10, WaitStrategy.BLOCKING);
+        CountDownLatch blocker = new CountDownLatch(1);
+        AtomicInteger executed = new AtomicInteger();
+        try {
+            executor.execute(() -> awaitQuietly(blocker));
+            waitForEmptyQueue(executor);
+            executor.execute(executed::incrementAndGet);
+            executor.execute(executed::incrementAndGet);
+            executor.execute(executed::incrementAndGet);
+
+            Assert.assertEquals(executor.getRejectedCount(), 1);
+            Assert.assertEquals(executor.getDroppedCount(), 1);
+            Assert.assertEquals(executor.getQueueDepth(), 2);
+        } finally {
+            blocker.countDown();
+        }
+        waitForEmptyQueue(executor);
+        executor.shutdown();
+        Assert.assertEquals(executed.get(), 2);
+    }
+
+    @Test
+    public void testDropOldestWhenRingBufferIsFull() throws Exception {
+
+        RingBufferDispatchExecutor executor = new RingBufferDispatchExecutor("test-ring", 1, 2,
+                OverflowPolicy.DROP_OLDEST, 10, WaitStrategy.BLOCKING);
+        CountDownLatch blocker = new CountDownLatch(1);
+        StringBuffer executed = new StringBuffer();
+        try {
+            executor.execute(() -> awaitQuietly(blocker));
+            waitForEmptyQueue(executor);
+            executor.execute(() -> executed.append(1));
+            executor.execute(() -> executed.append(2));
+            executor.execute(() -> executed.append(3));
+
+            Assert.assertEquals(executor.getRejectedCount(), 1);
+            Assert.assertEquals(executor.getDroppedCount(), 1);
+        } finally {
+            blocker.countDown();
+        }
+        waitForEmptyQueue(executor);
+        executor.shutdown();
+        Thread.sleep(50);
+        Assert.assertEquals(executed.toString(), "23");
+    }
+
+    @Test
+    public void testEvictedAndDroppedDispatchesAreDiscarded() throws Exception {
+
+        RingBufferDispatchExecutor executor = new RingBufferDispatchExecutor("test-ring", 1, 2,
+                OverflowPolicy.DROP_OLDEST, 10, WaitStrategy.BLOCKING);
+        CountDownLatch blocker = new CountDownLatch(1);
+        StringBuffer discarded = new StringBuffer();
+        try {
+            executor.execute(() -> awaitQuietly(blocker));
+            waitForEmptyQueue(executor);
+            for (int i = 1; i <= 3; i++) {
+                String id = String.valueOf(i);
+                executor.execute(new TenantDispatchTask("carbon.super", () -> { }, error -> discarded.append(id)));
+            }
+
+            Assert.assertEquals(discarded.toString(), "1", "The evicted dispatch should be discarded.");
+        } finally {
+            blocker.countDown();
+            executor.shutdown();
+        }
+
+        RingBufferDispatchExecutor droppingExecutor = new RingBufferDispatchExecutor("test-ring", 1, 2,
+                OverflowPolicy.DROP_NEWEST, 10, WaitStrategy.BLOCKING);
+        CountDownLatch droppingBlocker = new CountDownLatch(1);
+        discarded.setLength(0);
+        try {
+            droppingExecutor.execute(() -> awaitQuietly(droppingBlocker));
+            waitForEmptyQueue(droppingExecutor);
+            for (int i = 1; i <= 3; i++) {
+                String id = String.valueOf(i);
+                droppingExecutor.execute(new TenantDispatchTask("carbon.super", () -> { },
+                        error -> discarded.append(id)));
+            }
+
+            Assert.assertEquals(discarded.toString(), "3", "The dropped dispatch should be discarded.");
+        } finally {
+            droppingBlocker.countDown();
+            droppingExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCallerRunsWhenRingBufferIsFull() throws Exception {
+
+        RingBufferDispatchExecutor executor = new RingBufferDispatchExecutor("test-ring", 1, 2,
+                OverflowPolicy.CALLER_RUNS, 10, WaitStrategy.BLOCKING);
+        CountDownLatch blocker = new CountDownLatch(1);
+        Thread caller = Thread.currentThread();
+        Thread[] executedOn = new Thread[1];
+        try {
+            executor.execute(() -> awaitQuietly(blocker));
+            waitForEmptyQueue(executor);
+            executor.execute(() -> { });
+            executor.execute(() -> { });
+            executor.execute(() -> executedOn[0] = Thread.currentThread());
+
+            Assert.assertEquals(executedOn[0], caller);
+            Assert.assertEquals(executor.getRejectedCount(), 1);
+            Assert.assertEquals(executor.getDroppedCount(), 0);
+        } finally {
+            blocker.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testShutdownDrainsQueuedEvents() throws Exception {
+
+        RingBufferDispatchExecutor executor = new RingBufferDispatchExecutor("test-ring", 1, 16,
+                OverflowPolicy.DROP_NEWEST, 10, WaitStrategy.BLOCKING);
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch executed = new CountDownLatch(10);
+        executor.execute(() -> awaitQuietly(blocker));
+        waitForEmptyQueue(executor);
+        for (int i = 0; i < 10; i++) {
+            executor.execute(executed::countDown);
+        }
+        executor.shutdown();
+        executor.execute(executed::countDown);
+        blocker.countDown();
+
+        Assert.assertTrue(executed.await(1, TimeUnit.SECONDS), "Accepted events should be dispatched.");
+        Assert.assertEquals(executor.getDroppedCount(), 1);
+    }
+
+    @Test
+    public void testAbortDiscardsQueuedEvents() throws Exception {
+
+        RingBufferDispatchExecutor executor = new RingBufferDispatchExecutor("test-ring", 1, 16,
+                OverflowPolicy.DROP_NEWEST, 10, WaitStrategy.BLOCKING);
+        CountDownLatch blocker = new CountDownLatch(1);
+        AtomicInteger executed = new AtomicInteger();
+        executor.execute(() -> awaitQuietly(blocker));
+        waitForEmptyQueue(executor);
+        for (int i = 0; i < 10; i++) {
+            executor.execute(executed::incrementAndGet);
+        }
+        executor.shutdown();
+
+        Assert.assertFalse(executor.awaitTermination(50, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(executor.abort(), 11, "Queued events and the running event should be reported.");
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        Assert.assertEquals(executed.get(), 0);
+    }
+
+    private static void waitForEmptyQueue(RingBufferDispatchExecutor executor) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + 1000;
+        while (executor.getQueueDepth() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.identity.event.common.publisher.EventPublisher;
+import org.wso2.identity.event.common.publisher.config.EventPublisherConfiguration;
+import org.wso2.identity.event.common.publisher.config.EventPublisherConfigurationProvider;
+import org.wso2.identity.event.common.publisher.config.OverflowPolicy;
+import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Test class for SpillOverDispatchExecutor.
+ */
+public class SpillOverDispatchExecutorTest {
+
+    private static final int QUEUE_CAPACITY = 100;
+    private static final int HIGH_WATER_MARK = 10;
+    private static final int DRAIN_RATE = 10000;
+    private static final int SEGMENT_SIZE = 1024;
+    private static final long MAX_SIZE = 1024 * 1024;
+    private Path directory;
+    private List<String> deliveredEvents;
+    private EventPublisher eventPublisher;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+
+        directory = Files.createTempDirectory("event-spill");
+        deliveredEvents = new CopyOnWriteArrayList<>();
+        eventPublisher = (payload, eventContext) -> deliveredEvents.add(payload.getJti());
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testSpillsAboveHighWaterMarkAndDrainsBack() throws Exception {
+
+        BoundedDispatchExecutor delegate = new BoundedDispatchExecutor("spill-test", 1, QUEUE_CAPACITY,
+                OverflowPolicy.DROP_NEWEST, 0);
+        SpillOverDispatchExecutor executor = new SpillOverDispatchExecutor("spill-test", delegate, eventPublisher,
+                directory, HIGH_WATER_MARK, DRAIN_RATE, SEGMENT_SIZE, MAX_SIZE);
+        try {
+            CountDownLatch release = block(executor);
+            for (int i = 0; i < 50; i++) {
+                executor.dispatch(eventPublisher, createPayload("jti-" + i), createContext());
+            }
+            Assert.assertEquals(executor.getQueueDepth(), HIGH_WATER_MARK);
+            Assert.assertEquals(executor.getSpilledCount(), 40);
+            Assert.assertTrue(listSpillFiles().size() > 1, "Spilled events should roll over to new files.");
+
+            release.countDown();
+            awaitDelivery(50);
+            Assert.assertEquals(executor.getSpilledCount(), 0);
+            Assert.assertEquals(new HashSet<>(deliveredEvents), expectedEvents(50));
+            Assert.assertEquals(delegate.getDroppedCount(), 0);
+            awaitSpillFilesDeleted();
+        } finally {
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testSpilledEventsAreDrainedAfterRestart() throws Exception {
+
+        BoundedDispatchExecutor delegate = new BoundedDispatchExecutor("spill-test", 1, QUEUE_CAPACITY,
+                OverflowPolicy.DROP_NEWEST, 0);
+        SpillOverDispatchExecutor executor = new SpillOverDispatchExecutor("spill-test", delegate, eventPublisher,
+                directory, HIGH_WATER_MARK, DRAIN_RATE, SEGMENT_SIZE, MAX_SIZE);
+        CountDownLatch release = block(executor);
+        for (int i = 0; i < 30; i++) {
+            executor.dispatch(eventPublisher, createPayload("jti-" + i), createContext());
+        }
+        Assert.assertEquals(executor.getSpilledCount(), 20);
+        executor.shutdown();
+        release.countDown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertEquals(deliveredEvents.size(), HIGH_WATER_MARK);
+
+        SpillOverDispatchExecutor restarted = new SpillOverDispatchExecutor("spill-test",
+                new BoundedDispatchExecutor("spill-test", 1, QUEUE_CAPACITY, OverflowPolicy.DROP_NEWEST, 0),
+                eventPublisher, directory, HIGH_WATER_MARK, DRAIN_RATE, SEGMENT_SIZE, MAX_SIZE);
+        try {
+            Assert.assertEquals(restarted.getSpilledCount(), 20);
+            awaitDelivery(30);
+            Assert.assertEquals(new HashSet<>(deliveredEvents), expectedEvents(30));
+        } finally {
+            restarted.shutdown();
+            Assert.assertTrue(restarted.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testSpilledEventsAreDrainedOnceBulkheadIsStarted() throws Exception {
+
+        EventPublisherConfigurationProvider configurationProvider =
+                Mockito.mock(EventPublisherConfigurationProvider.class);
+        Mockito.when(configurationProvider.getProperty("event.publisher.spill.enabled")).thenReturn("true");
+        Mockito.when(configurationProvider.getProperty("event.publisher.spill.directory"))
+                .thenReturn(directory.toString());
+        PublisherBulkhead bulkhead = new PublisherBulkhead(eventPublisher,
+                new EventPublisherConfiguration(configurationProvider));
+        SpillOverDispatchExecutor executor = new SpillOverDispatchExecutor("spill-test",
+                new BoundedDispatchExecutor("spill-test", 1, QUEUE_CAPACITY, OverflowPolicy.DROP_NEWEST, 0),
+                eventPublisher, directory.resolve(bulkhead.getPublisherName()), HIGH_WATER_MARK, DRAIN_RATE,
+                SEGMENT_SIZE, MAX_SIZE);
+        CountDownLatch release = block(executor);
+        for (int i = 0; i < 30; i++) {
+            executor.dispatch(eventPublisher, createPayload("jti-" + i), createContext());
+        }
+        executor.shutdown();
+        release.countDown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertEquals(deliveredEvents.size(), HIGH_WATER_MARK);
+
+        try {
+            // The spilled events are drained without waiting for a new event to be dispatched.
+            bulkhead.startSpilledLanes();
+            Assert.assertEquals(bulkhead.getStartedDispatchExecutors().size(), 1);
+            awaitDelivery(30);
+            Assert.assertEquals(new HashSet<>(deliveredEvents), expectedEvents(30));
+        } finally {
+            bulkhead.shutdown();
+            for (DispatchExecutor lane : bulkhead.getStartedDispatchExecutors()) {
+                Assert.assertTrue(lane.awaitTermination(5, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    @Test
+    public void testOverflowPolicyIsAppliedWhenSpillFilesAreFull() throws Exception {
+
+        BoundedDispatchExecutor delegate = new BoundedDispatchExecutor("spill-test", 1, HIGH_WATER_MARK,
+                OverflowPolicy.DROP_NEWEST, 0);
+        SpillOverDispatchExecutor executor = new SpillOverDispatchExecutor("spill-test", delegate, eventPublisher,
+                directory, HIGH_WATER_MARK, DRAIN_RATE, SEGMENT_SIZE, SEGMENT_SIZE);
+        try {
+            CountDownLatch release = block(executor);
+            for (int i = 0; i < 100; i++) {
+                executor.dispatch(eventPublisher, createPayload("jti-" + i), createContext());
+            }
+            long spilledCount = executor.getSpilledCount();
+            Assert.assertTrue(spilledCount > 0 && spilledCount < 90, "Spill files should be bounded by the size.");
+            Assert.assertEquals(delegate.getDroppedCount(), 90 - spilledCount);
+
+            release.countDown();
+            awaitDelivery(HIGH_WATER_MARK + (int) spilledCount);
+        } finally {
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static CountDownLatch block(DispatchExecutor executor) throws InterruptedException {
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    private void awaitDelivery(int count) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (deliveredEvents.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(deliveredEvents.size(), count);
+    }
+
+    private void awaitSpillFilesDeleted() throws IOException, InterruptedException {
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!listSpillFiles().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(listSpillFiles().size(), 0);
+    }
+
+    private List<Path> listSpillFiles() throws IOException {
+
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.collect(Collectors.toList());
+        }
+    }
+
+    private static Set<String> expectedEvents(int count) {
+
+        Set<String> events = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            events.add("jti-" + i);
+        }
+        return events;
+    }
+
+    private static SecurityEventTokenPayload createPayload(String jti) {
+
+        return SecurityEventTokenPayload.builder()
+                .iss("https://localhost:9443")
+                .jti(jti)
+                .iat(1700000000L)
+                .events(Collections.singletonMap("https://schemas.org/event/logout",
+                        new WriteAheadLogTest.TestEventPayload("user-1", 1)))
+                .build();
+    }
+
+    private static EventContext createContext() {
+
+        return EventContext.builder()
+                .tenantDomain("example.com")
+                .eventUri("https://schemas.org/event/logout")
+                .build();
+    }
+}
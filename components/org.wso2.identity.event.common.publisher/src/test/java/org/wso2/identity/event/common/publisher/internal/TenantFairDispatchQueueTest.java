@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.identity.event.common.publisher.config.OverflowPolicy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test class for TenantFairDispatchQueue.
+ */
+public class TenantFairDispatchQueueTest {
+
+    @Test
+    public void testTenantsAreServedRoundRobin() {
+
+        TenantFairDispatchQueue queue = new TenantFairDispatchQueue(100, 100, tenantDomain -> 1);
+        for (int i = 0; i < 5; i++) {
+            queue.offer(new TenantDispatchTask("bulk.com", () -> { }));
+        }
+        queue.offer(new TenantDispatchTask("small.com", () -> { }));
+        queue.offer(new TenantDispatchTask("small.com", () -> { }));
+
+        Assert.assertEquals(pollTenants(queue), "bulk.com,small.com,bulk.com,small.com,bulk.com,bulk.com,bulk.com");
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testTenantsAreServedByWeight() {
+
+        TenantFairDispatchQueue queue = new TenantFairDispatchQueue(100, 100,
+                tenantDomain -> "gold.com".equals(tenantDomain) ? 3 : 1);
+        for (int i = 0; i < 6; i++) {
+            queue.offer(new TenantDispatchTask("gold.com", () -> { }));
+            queue.offer(new TenantDispatchTask("basic.com", () -> { }));
+        }
+
+        Assert.assertEquals(pollTenants(queue), "gold.com,gold.com,gold.com,basic.com,gold.com,gold.com,gold.com," +
+                "basic.com,basic.com,basic.com,basic.com,basic.com");
+    }
+
+    @Test
+    public void testTenantQueueCapacity() {
+
+        TenantFairDispatchQueue queue = new TenantFairDispatchQueue(10, 2, tenantDomain -> 1);
+
+        Assert.assertTrue(queue.offer(new TenantDispatchTask("bulk.com", () -> { })));
+        Assert.assertTrue(queue.offer(new TenantDispatchTask("bulk.com", () -> { })));
+        Assert.assertFalse(queue.offer(new TenantDispatchTask("bulk.com", () -> { })));
+        Assert.assertTrue(queue.offer(new TenantDispatchTask("small.com", () -> { })));
+        Assert.assertTrue(queue.offer(() -> { }));
+        Assert.assertEquals(queue.size(), 4);
+        Assert.assertEquals(queue.size("bulk.com"), 2);
+        Assert.assertEquals(queue.remainingCapacity(), 6);
+    }
+
+    @Test
+    public void testRemoveAndDrain() {
+
+        TenantFairDispatchQueue queue = new TenantFairDispatchQueue(10, 10, tenantDomain -> 1);
+        TenantDispatchTask task = new TenantDispatchTask("bulk.com", () -> { });
+        queue.offer(task);
+        queue.offer(new TenantDispatchTask("bulk.com", () -> { }));
+        queue.offer(new TenantDispatchTask("small.com", () -> { }));
+
+        Assert.assertTrue(queue.remove(task));
+        Assert.assertFalse(queue.remove(task));
+        List<Runnable> drained = new ArrayList<>();
+        Assert.assertEquals(queue.drainTo(drained), 2);
+        Assert.assertTrue(queue.isEmpty());
+        Assert.assertEquals(queue.size("bulk.com"), 0);
+    }
+
+    @Test
+    public void testFreedTenantCapacityWakesWaitingProducerOfThatTenant() throws Exception {
+
+        TenantFairDispatchQueue queue = new TenantFairDispatchQueue(10, 1, tenantDomain -> 1);
+        TenantDispatchTask smallTask = new TenantDispatchTask("small.com", () -> { });
+        queue.offer(new TenantDispatchTask("bulk.com", () -> { }));
+        queue.offer(smallTask);
+        Thread bulkProducer = startProducer(queue, "bulk.com");
+        Thread smallProducer = startProducer(queue, "small.com");
+        try {
+            // The bulk tenant stays full, so only the waiting producer of the small tenant can make progress.
+            Assert.assertTrue(queue.remove(smallTask));
+            smallProducer.join(1000);
+            Assert.assertFalse(smallProducer.isAlive(), "Producer of the freed tenant should be woken.");
+            Assert.assertEquals(queue.size("small.com"), 1);
+        } finally {
+            bulkProducer.interrupt();
+            smallProducer.interrupt();
+        }
+    }
+
+    @Test
+    public void testSmallTenantIsNotDelayedByBulkTenant() throws Exception {
+
+        TenantFairDispatchQueue queue = new TenantFairDispatchQueue(1000, 1000, tenantDomain -> 1);
+        BoundedDispatchExecutor executor = new BoundedDispatchExecutor("test-dispatch", 1, queue,
+                OverflowPolicy.DROP_NEWEST, 10);
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch smallTenantDispatched = new CountDownLatch(1);
+        List<String> dispatched = new ArrayList<>();
+        try {
+            executor.execute(() -> awaitQuietly(blocker));
+            waitForEmptyQueue(queue);
+            for (int i = 0; i < 500; i++) {
+                executor.execute(new TenantDispatchTask("bulk.com", () -> dispatched.add("bulk.com")));
+            }
+            executor.execute(new TenantDispatchTask("small.com", () -> {
+                dispatched.add("small.com");
+                smallTenantDispatched.countDown();
+            }));
+            blocker.countDown();
+
+            Assert.assertTrue(smallTenantDispatched.await(1, TimeUnit.SECONDS));
+            Assert.assertTrue(dispatched.indexOf("small.com") <= 1,
+                    "Small tenant should be served on its first turn.");
+        } finally {
+            blocker.countDown();
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testDropOldestEvictsOnlyTheSameTenant() throws Exception {
+
+        TenantFairDispatchQueue queue = new TenantFairDispatchQueue(4, 2, tenantDomain -> 1);
+        BoundedDispatchExecutor executor = new BoundedDispatchExecutor("test-dispatch", 1, queue,
+                OverflowPolicy.DROP_OLDEST, 10);
+        CountDownLatch blocker = new CountDownLatch(1);
+        try {
+            executor.execute(() -> awaitQuietly(blocker));
+            waitForEmptyQueue(queue);
+            executor.execute(new TenantDispatchTask("small.com", () -> { }));
+            executor.execute(new TenantDispatchTask("small.com", () -> { }));
+            TenantDispatchTask oldestBulkTask = new TenantDispatchTask("bulk.com", () -> { });
+            executor.execute(oldestBulkTask);
+            executor.execute(new TenantDispatchTask("bulk.com", () -> { }));
+
+            // The bulk tenant is at its capacity, so its own oldest dispatch makes room for the new one.
+            executor.execute(new TenantDispatchTask("bulk.com", () -> { }));
+            Assert.assertEquals(queue.size("small.com"), 2);
+            Assert.assertEquals(queue.size("bulk.com"), 2);
+            Assert.assertFalse(queue.contains(oldestBulkTask));
+            Assert.assertEquals(executor.getDroppedCount(), 1);
+
+            // A tenant without queued dispatches cannot evict the dispatches of the others.
+            executor.execute(new TenantDispatchTask("other.com", () -> { }));
+            Assert.assertEquals(queue.size("small.com"), 2);
+            Assert.assertEquals(queue.size("bulk.com"), 2);
+            Assert.assertEquals(queue.size("other.com"), 0);
+            Assert.assertEquals(executor.getDroppedCount(), 2);
+        } finally {
+            blocker.countDown();
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    private static String pollTenants(TenantFairDispatchQueue queue) {
+
+        List<String> tenants = new ArrayList<>();
+        Runnable runnable;
+        while ((runnable = queue.poll()) != null) {
+            tenants.add(((TenantDispatchTask) runnable).getTenantDomain());
+        }
+        return String.join(",", tenants);
+    }
+
+    private static Thread startProducer(TenantFairDispatchQueue queue, String tenantDomain)
+            throws InterruptedException {
+
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put(new TenantDispatchTask(tenantDomain, () -> { }));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        long deadline = System.currentTimeMillis() + 1000;
+        while (producer.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        return producer;
+    }
+
+    private static void waitForEmptyQueue(TenantFairDispatchQueue queue) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + 1000;
+        while (!queue.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+import org.wso2.identity.event.common.publisher.config.OverflowPolicy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Test class for VirtualThreadDispatchExecutor. The tests are skipped when the runtime does not support virtual
+ * threads.
+ */
+public class VirtualThreadDispatchExecutorTest {
+
+    private static final long BLOCK_TIMEOUT = 100;
+
+    @Test
+    public void testBlockTimesOutWhenConcurrencyLimitIsReached() throws Exception {
+
+        VirtualThreadDispatchExecutor executor = createExecutor(OverflowPolicy.BLOCK);
+        CountDownLatch release = block(executor);
+        AtomicBoolean executed = new AtomicBoolean();
+        try {
+            long start = System.nanoTime();
+            executor.execute(() -> executed.set(true));
+
+            Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(BLOCK_TIMEOUT));
+            Assert.assertEquals(executor.getRejectedCount(), 1);
+            Assert.assertEquals(executor.getDroppedCount(), 1);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        }
+        Assert.assertFalse(executed.get());
+    }
+
+    @Test
+    public void testCallerRunsWhenConcurrencyLimitIsReached() throws Exception {
+
+        VirtualThreadDispatchExecutor executor = createExecutor(OverflowPolicy.CALLER_RUNS);
+        CountDownLatch release = block(executor);
+        AtomicReference<Thread> invokingThread = new AtomicReference<>();
+        try {
+            executor.execute(() -> invokingThread.set(Thread.currentThread()));
+
+            Assert.assertSame(invokingThread.get(), Thread.currentThread());
+            Assert.assertEquals(executor.getRejectedCount(), 1);
+            Assert.assertEquals(executor.getDroppedCount(), 0);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testDropOldestDropsNewestDispatch() throws Exception {
+
+        VirtualThreadDispatchExecutor executor = createExecutor(OverflowPolicy.DROP_OLDEST);
+        CountDownLatch runningCompleted = new CountDownLatch(1);
+        CountDownLatch release = block(executor, runningCompleted);
+        AtomicBoolean executed = new AtomicBoolean();
+        AtomicReference<Throwable> discarded = new AtomicReference<>();
+        try {
+            executor.execute(new TenantDispatchTask("carbon.super", () -> executed.set(true), discarded::set));
+
+            Assert.assertEquals(executor.getDroppedCount(), 1);
+            Assert.assertNotNull(discarded.get(), "The dropped dispatch should be discarded.");
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        }
+        Assert.assertFalse(executed.get());
+        Assert.assertEquals(runningCompleted.getCount(), 0, "The running dispatch should not be evicted.");
+    }
+
+    @Test
+    public void testPermitIsReleasedWhenDispatchFails() throws Exception {
+
+        VirtualThreadDispatchExecutor executor = createExecutor(OverflowPolicy.DROP_NEWEST);
+        CountDownLatch executed = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                throw new IllegalStateException("Dispatch failure.");
+            });
+            long deadline = System.currentTimeMillis() + 1000;
+            while (executor.getActiveCount() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(executor.getActiveCount(), 0);
+
+            executor.execute(executed::countDown);
+            Assert.assertTrue(executed.await(1, TimeUnit.SECONDS));
+            Assert.assertEquals(executor.getDroppedCount(), 0);
+        } finally {
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        }
+    }
+
+    private static VirtualThreadDispatchExecutor createExecutor(OverflowPolicy overflowPolicy) {
+
+        VirtualThreadDispatchExecutor executor =
+                VirtualThreadDispatchExecutor.createIfSupported(1, overflowPolicy, BLOCK_TIMEOUT);
+        if (executor == null) {
+            throw new SkipException("Virtual threads are not supported by the runtime.");
+        }
+        return executor;
+    }
+
+    private static CountDownLatch block(VirtualThreadDispatchExecutor executor) throws InterruptedException {
+
+        return block(executor, new CountDownLatch(1));
+    }
+
+    private static CountDownLatch block(VirtualThreadDispatchExecutor executor, CountDownLatch completed)
+            throws InterruptedException {
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            completed.countDown();
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+}
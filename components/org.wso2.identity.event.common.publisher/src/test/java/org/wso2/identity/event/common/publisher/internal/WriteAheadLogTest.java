@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.internal;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.EventEnvelope;
+import org.wso2.identity.event.common.publisher.model.EventPayload;
+import org.wso2.identity.event.common.publisher.model.JsonEventPayload;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Test class for WriteAheadLog.
+ */
+public class WriteAheadLogTest {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+    private static final long SYNC_INTERVAL = 10;
+    private Path directory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+
+        directory = Files.createTempDirectory("event-journal");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testRecoversEventsWhichWereNotCompleted() throws IOException {
+
+        WriteAheadLog writeAheadLog = WriteAheadLog.open(directory, SEGMENT_SIZE, SYNC_INTERVAL);
+        WriteAheadLog.Entry delivered = writeAheadLog.append(createPayload("jti-1"), createContext(), 1);
+        WriteAheadLog.Entry partiallyDelivered = writeAheadLog.append(createPayload("jti-2"), createContext(), 2);
+        writeAheadLog.append(createPayload("jti-3"), createContext(), 1);
+        delivered.acknowledge(null);
+        partiallyDelivered.acknowledge(null);
+        Assert.assertEquals(writeAheadLog.getPendingEventCount(), 2);
+        writeAheadLog.close();
+
+        WriteAheadLog reopened = WriteAheadLog.open(directory, SEGMENT_SIZE, SYNC_INTERVAL);
+        try {
+            List<EventEnvelope> recoveredEvents = reopened.getRecoveredEvents();
+            Assert.assertEquals(recoveredEvents.size(), 2);
+            Assert.assertEquals(recoveredEvents.get(0).getPayload().getJti(), "jti-2");
+            Assert.assertEquals(recoveredEvents.get(1).getPayload().getJti(), "jti-3");
+
+            SecurityEventTokenPayload payload = recoveredEvents.get(0).getPayload();
+            Assert.assertEquals(payload.getIss(), "https://localhost:9443");
+            Assert.assertEquals(payload.getIat(), 1700000000L);
+            Assert.assertEquals(payload.getTxn(), "txn-1");
+            JsonEventPayload event = (JsonEventPayload) payload.getEvents().get("https://schemas.org/event/logout");
+            Assert.assertEquals(event.getProperties().get("userId"), "user-1");
+            Assert.assertEquals(event.getProperties().get("sessionCount"), 2);
+
+            EventContext eventContext = recoveredEvents.get(0).getEventContext();
+            Assert.assertEquals(eventContext.getTenantDomain(), "example.com");
+            Assert.assertEquals(eventContext.getEventUri(), "https://schemas.org/event/logout");
+            Assert.assertEquals(eventContext.getOrderingKey(), "user-1");
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    public void testCompletedSegmentsAreDeleted() throws IOException {
+
+        WriteAheadLog writeAheadLog = WriteAheadLog.open(directory, 1024, SYNC_INTERVAL);
+        try {
+            List<WriteAheadLog.Entry> entries = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                entries.add(writeAheadLog.append(createPayload("jti-" + i), createContext(), 1));
+            }
+            Assert.assertTrue(listSegmentFiles().size() > 1, "Events should roll over to new segments.");
+
+            for (int i = 1; i < entries.size(); i++) {
+                entries.get(i).acknowledge(null);
+            }
+            writeAheadLog.sync();
+            Assert.assertTrue(listSegmentFiles().size() > 1,
+                    "Segments should be kept while an older segment has pending events.");
+
+            entries.get(0).acknowledge(null);
+            writeAheadLog.sync();
+            Assert.assertEquals(listSegmentFiles().size(), 1, "Only the active segment should be kept.");
+            Assert.assertEquals(writeAheadLog.getPendingEventCount(), 0);
+        } finally {
+            writeAheadLog.close();
+        }
+    }
+
+    @Test
+    public void testGivenUpEventsAreCompleted() throws IOException {
+
+        WriteAheadLog writeAheadLog = WriteAheadLog.open(directory, 1024, SYNC_INTERVAL);
+        try {
+            List<WriteAheadLog.Entry> entries = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                entries.add(writeAheadLog.append(createPayload("jti-" + i), createContext(), 2));
+            }
+            for (WriteAheadLog.Entry entry : entries) {
+                entry.acknowledge(null);
+                entry.acknowledge(new IOException("Hub is not reachable."));
+            }
+            writeAheadLog.sync();
+            Assert.assertEquals(writeAheadLog.getPendingEventCount(), 0);
+            Assert.assertEquals(listSegmentFiles().size(), 1, "Segments of given up events should be deleted.");
+        } finally {
+            writeAheadLog.close();
+        }
+    }
+
+    @Test
+    public void testCorruptedRecordIsIgnored() throws IOException {
+
+        WriteAheadLog writeAheadLog = WriteAheadLog.open(directory, SEGMENT_SIZE, SYNC_INTERVAL);
+        writeAheadLog.append(createPayload("jti-1"), createContext(), 1);
+        writeAheadLog.append(createPayload("jti-2"), createContext(), 1);
+        writeAheadLog.close();
+
+        Path segmentFile = listSegmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer recordLength = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(recordLength, 0);
+            recordLength.flip();
+            // Overwrite a byte of the second record body.
+            channel.write(ByteBuffer.wrap(new byte[]{'x'}), recordLength.getInt() + 20);
+        }
+
+        WriteAheadLog reopened = WriteAheadLog.open(directory, SEGMENT_SIZE, SYNC_INTERVAL);
+        try {
+            List<EventEnvelope> recoveredEvents = reopened.getRecoveredEvents();
+            Assert.assertEquals(recoveredEvents.size(), 1);
+            Assert.assertEquals(recoveredEvents.get(0).getPayload().getJti(), "jti-1");
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    public void testDiscardRecoveredSegments() throws IOException {
+
+        WriteAheadLog writeAheadLog = WriteAheadLog.open(directory, SEGMENT_SIZE, SYNC_INTERVAL);
+        writeAheadLog.append(createPayload("jti-1"), createContext(), 1);
+        writeAheadLog.close();
+
+        WriteAheadLog reopened = WriteAheadLog.open(directory, SEGMENT_SIZE, SYNC_INTERVAL);
+        try {
+            Assert.assertEquals(listSegmentFiles().size(), 2);
+            Assert.assertEquals(reopened.getRecoveredEvents().size(), 1);
+
+            reopened.discardRecoveredSegments();
+            Assert.assertEquals(listSegmentFiles().size(), 1);
+            Assert.assertTrue(reopened.getRecoveredEvents().isEmpty());
+        } finally {
+            reopened.close();
+        }
+
+        WriteAheadLog recovered = WriteAheadLog.open(directory, SEGMENT_SIZE, SYNC_INTERVAL);
+        try {
+            Assert.assertTrue(recovered.getRecoveredEvents().isEmpty());
+        } finally {
+            recovered.close();
+        }
+    }
+
+    private List<Path> listSegmentFiles() throws IOException {
+
+        List<Path> segmentFiles = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.wal")) {
+            for (Path segmentFile : stream) {
+                segmentFiles.add(segmentFile);
+            }
+        }
+        Collections.sort(segmentFiles);
+        return segmentFiles;
+    }
+
+    private static SecurityEventTokenPayload createPayload(String jti) {
+
+        return SecurityEventTokenPayload.builder()
+                .iss("https://localhost:9443")
+                .jti(jti)
+                .iat(1700000000L)
+                .txn("txn-1")
+                .events(Collections.singletonMap("https://schemas.org/event/logout",
+                        new TestEventPayload("user-1", 2)))
+                .build();
+    }
+
+    private static EventContext createContext() {
+
+        return EventContext.builder()
+                .tenantDomain("example.com")
+                .eventUri("https://schemas.org/event/logout")
+                .orderingKey("user-1")
+                .build();
+    }
+
+    /**
+     * Event payload used to verify the journaled event payloads.
+     */
+    public static class TestEventPayload extends EventPayload {
+
+        private final String userId;
+        private final int sessionCount;
+
+        TestEventPayload(String userId, int sessionCount) {
+
+            this.userId = userId;
+            this.sessionCount = sessionCount;
+        }
+
+        public String getUserId() {
+
+            return userId;
+        }
+
+        public int getSessionCount() {
+
+            return sessionCount;
+        }
+    }
+}
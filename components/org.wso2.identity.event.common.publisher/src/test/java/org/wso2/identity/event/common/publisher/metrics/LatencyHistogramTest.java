@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.metrics;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Test class for LatencyHistogram.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testPercentilesWithinRelativeError() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        Assert.assertEquals(histogram.getCount(), 100000);
+        Assert.assertEquals(histogram.getMax(), 100000000L);
+        assertWithinRelativeError(histogram.getValueAtPercentile(50), 50000000L);
+        assertWithinRelativeError(histogram.getValueAtPercentile(99), 99000000L);
+        assertWithinRelativeError(histogram.getValueAtPercentile(99.9), 99900000L);
+        Assert.assertEquals(histogram.getValueAtPercentile(100), 100000000L);
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(3);
+        histogram.record(7);
+        histogram.record(Long.MAX_VALUE);
+
+        Assert.assertEquals(histogram.getValueAtPercentile(25), 0);
+        Assert.assertEquals(histogram.getValueAtPercentile(50), 3);
+        Assert.assertEquals(histogram.getValueAtPercentile(75), 7);
+        Assert.assertEquals(histogram.getValueAtPercentile(100), Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testReset() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000);
+        histogram.reset();
+
+        Assert.assertEquals(histogram.getCount(), 0);
+        Assert.assertEquals(histogram.getMax(), 0);
+        Assert.assertEquals(histogram.getValueAtPercentile(99), 0);
+    }
+
+    private static void assertWithinRelativeError(long actual, long expected) {
+
+        Assert.assertTrue(Math.abs(actual - expected) <= expected / 32,
+                "Expected " + expected + " within the relative error, but was " + actual);
+    }
+}
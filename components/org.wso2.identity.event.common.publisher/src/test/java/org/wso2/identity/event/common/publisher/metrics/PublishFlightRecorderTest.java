@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.common.publisher.metrics;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Test class for PublishFlightRecorder.
+ */
+public class PublishFlightRecorderTest {
+
+    private static final String EVENT_NAME_PREFIX = "org.wso2.identity.event.publisher.";
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final String EVENT_URI = "https://schemas.identity.wso2.org/events/session";
+    private static final String TOPIC = TENANT_DOMAIN + "-" + EVENT_URI;
+    private static final String JTI = "jfr-jti";
+
+    @Test
+    public void testPublishPathEventsAreRecorded() throws IOException {
+
+        Assert.assertTrue(PublishFlightRecorder.isAvailable());
+        SecurityEventTokenPayload payload = SecurityEventTokenPayload.builder().jti(JTI).build();
+        EventContext eventContext = EventContext.builder().tenantDomain(TENANT_DOMAIN).eventUri(EVENT_URI).build();
+
+        Path recordingFile = Files.createTempFile("publish-path", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.disable(EVENT_NAME_PREFIX + "HttpRequestSent");
+            recording.start();
+
+            PublishFlightRecorder.eventAccepted(payload, eventContext);
+            PublishFlightRecorder.eventSerialized(payload, eventContext, TOPIC, 128);
+            PublishFlightRecorder.responseReceived(payload, eventContext, TOPIC, 202, 5_000_000);
+            PublishFlightRecorder.publishFailed(payload, eventContext, TOPIC, new IOException("Connection reset"));
+            // Disabled in the recording, hence not recorded.
+            PublishFlightRecorder.requestSent(payload, eventContext, TOPIC);
+
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        Map<String, RecordedEvent> events = new HashMap<>();
+        try {
+            List<RecordedEvent> recordedEvents = RecordingFile.readAllEvents(recordingFile);
+            for (RecordedEvent event : recordedEvents) {
+                events.put(event.getEventType().getName().substring(EVENT_NAME_PREFIX.length()), event);
+            }
+        } finally {
+            Files.deleteIfExists(recordingFile);
+        }
+
+        Assert.assertEquals(events.size(), 4);
+        RecordedEvent accepted = events.get("EventAccepted");
+        Assert.assertEquals(accepted.getString("tenantDomain"), TENANT_DOMAIN);
+        Assert.assertEquals(accepted.getString("topic"), EVENT_URI);
+        Assert.assertEquals(accepted.getString("jti"), JTI);
+        Assert.assertEquals(events.get("EventSerialized").getLong("payloadBytes"), 128);
+        Assert.assertEquals(events.get("EventSerialized").getString("topic"), TOPIC);
+        Assert.assertEquals(events.get("HttpResponseReceived").getInt("statusCode"), 202);
+        Assert.assertEquals(events.get("HttpResponseReceived").getDuration("requestTime").toMillis(), 5);
+        Assert.assertTrue(events.get("PublishFailed").getString("error").contains("Connection reset"));
+    }
+}
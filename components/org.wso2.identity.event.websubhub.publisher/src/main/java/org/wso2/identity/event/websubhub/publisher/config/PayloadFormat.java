@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.websubhub.publisher.config;
+
+import java.util.Locale;
+
+/**
+ * Wire formats of the security event tokens published to the WebSub Hub. The binary formats encode the same
+ * document as JSON, but are smaller and cheaper to generate, and are used only if the hub accepts them.
+ */
+public enum PayloadFormat {
+
+    /**
+     * JSON text, which every hub accepts.
+     */
+    JSON("application/json"),
+
+    /**
+     * Concise Binary Object Representation, as defined in RFC 8949.
+     */
+    CBOR("application/cbor"),
+
+    /**
+     * Binary JSON format of Jackson, which shortens the repeated field names with back references.
+     */
+    SMILE("application/x-jackson-smile");
+
+    private final String mediaType;
+
+    PayloadFormat(String mediaType) {
+
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Returns the media type of the request body.
+     *
+     * @return Media type.
+     */
+    public String getMediaType() {
+
+        return mediaType;
+    }
+
+    /**
+     * Returns the name of the format used in the configuration properties.
+     *
+     * @return Configuration name of the format.
+     */
+    public String getConfigName() {
+
+        return name().toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Returns the format with the configuration name, ignoring the case.
+     *
+     * @param configName   Configuration name of the format.
+     * @param defaultValue Format returned if the name is empty or unknown.
+     * @return Payload format.
+     */
+    public static PayloadFormat fromConfigName(String configName, PayloadFormat defaultValue) {
+
+        if (configName != null) {
+            for (PayloadFormat format : values()) {
+                if (format.getConfigName().equalsIgnoreCase(configName.trim())) {
+                    return format;
+                }
+            }
+        }
+        return defaultValue;
+    }
+}
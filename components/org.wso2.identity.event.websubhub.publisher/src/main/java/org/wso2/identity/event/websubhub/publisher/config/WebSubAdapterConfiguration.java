@@ -34,12 +34,40 @@ public class WebSubAdapterConfiguration {
     private static final String HTTP_CONNECTION_REQUEST_TIMEOUT = "adapter.websubhub.httpConnectionRequestTimeout";
     private static final String DEFAULT_MAX_CONNECTIONS = "adapter.websubhub.defaultMaxConnections";
     private static final String DEFAULT_MAX_CONNECTIONS_PER_ROUTE = "adapter.websubhub.defaultMaxConnectionsPerRoute";
+    private static final String PRIORITY_MAX_CONNECTIONS = "adapter.websubhub.priorityMaxConnections";
+    private static final String PRIORITY_MAX_CONNECTIONS_PER_ROUTE = "adapter.websubhub.priorityMaxConnectionsPerRoute";
+    private static final String SHUTDOWN_TIMEOUT = "adapter.websubhub.shutdownTimeout";
+    private static final String ADAPTIVE_CONCURRENCY_ENABLED = "adapter.websubhub.adaptiveConcurrency.enabled";
+    private static final String ADAPTIVE_CONCURRENCY_INITIAL_LIMIT =
+            "adapter.websubhub.adaptiveConcurrency.initialLimit";
+    private static final String ADAPTIVE_CONCURRENCY_MIN_LIMIT = "adapter.websubhub.adaptiveConcurrency.minLimit";
+    private static final String ADAPTIVE_CONCURRENCY_MAX_LIMIT = "adapter.websubhub.adaptiveConcurrency.maxLimit";
+    private static final String ADAPTIVE_CONCURRENCY_LATENCY_TOLERANCE =
+            "adapter.websubhub.adaptiveConcurrency.latencyTolerance";
+    private static final String ADAPTIVE_CONCURRENCY_MAX_PENDING_REQUESTS =
+            "adapter.websubhub.adaptiveConcurrency.maxPendingRequests";
+    private static final String ADAPTIVE_CONCURRENCY_PENDING_TIMEOUT =
+            "adapter.websubhub.adaptiveConcurrency.pendingTimeout";
+    private static final String PAYLOAD_FORMAT = "adapter.websubhub.payloadFormat";
+    private static final String PAYLOAD_FORMAT_NEGOTIATION_ENABLED = "adapter.websubhub.payloadFormat.negotiate";
     private final boolean adapterEnabled;
     private final int httpConnectionTimeout;
     private final int httpReadTimeout;
     private final int httpConnectionRequestTimeout;
     private final int defaultMaxConnections;
     private final int defaultMaxConnectionsPerRoute;
+    private final int priorityMaxConnections;
+    private final int priorityMaxConnectionsPerRoute;
+    private final int shutdownTimeout;
+    private final boolean adaptiveConcurrencyEnabled;
+    private final int adaptiveConcurrencyInitialLimit;
+    private final int adaptiveConcurrencyMinLimit;
+    private final int adaptiveConcurrencyMaxLimit;
+    private final int adaptiveConcurrencyLatencyTolerance;
+    private final int adaptiveConcurrencyMaxPendingRequests;
+    private final int adaptiveConcurrencyPendingTimeout;
+    private final PayloadFormat payloadFormat;
+    private final boolean payloadFormatNegotiationEnabled;
     private String webSubHubBaseUrl;
 
 
@@ -79,6 +107,39 @@ public class WebSubAdapterConfiguration {
         this.defaultMaxConnectionsPerRoute = parseIntOrDefault(
                 configurationProvider.getProperty(DEFAULT_MAX_CONNECTIONS_PER_ROUTE),
                 WebSubHubAdapterConstants.Http.DEFAULT_HTTP_MAX_CONNECTIONS_PER_ROUTE);
+        this.priorityMaxConnections = parseIntOrDefault(
+                configurationProvider.getProperty(PRIORITY_MAX_CONNECTIONS),
+                WebSubHubAdapterConstants.Http.DEFAULT_HTTP_PRIORITY_MAX_CONNECTIONS);
+        this.priorityMaxConnectionsPerRoute = parseIntOrDefault(
+                configurationProvider.getProperty(PRIORITY_MAX_CONNECTIONS_PER_ROUTE),
+                WebSubHubAdapterConstants.Http.DEFAULT_HTTP_PRIORITY_MAX_CONNECTIONS_PER_ROUTE);
+        this.shutdownTimeout = parseIntOrDefault(
+                configurationProvider.getProperty(SHUTDOWN_TIMEOUT),
+                WebSubHubAdapterConstants.Http.DEFAULT_SHUTDOWN_TIMEOUT);
+        this.adaptiveConcurrencyEnabled = Boolean.parseBoolean(
+                configurationProvider.getProperty(ADAPTIVE_CONCURRENCY_ENABLED));
+        this.adaptiveConcurrencyInitialLimit = parseIntOrDefault(
+                configurationProvider.getProperty(ADAPTIVE_CONCURRENCY_INITIAL_LIMIT),
+                WebSubHubAdapterConstants.Http.DEFAULT_ADAPTIVE_CONCURRENCY_INITIAL_LIMIT);
+        this.adaptiveConcurrencyMinLimit = parseIntOrDefault(
+                configurationProvider.getProperty(ADAPTIVE_CONCURRENCY_MIN_LIMIT),
+                WebSubHubAdapterConstants.Http.DEFAULT_ADAPTIVE_CONCURRENCY_MIN_LIMIT);
+        this.adaptiveConcurrencyMaxLimit = parseIntOrDefault(
+                configurationProvider.getProperty(ADAPTIVE_CONCURRENCY_MAX_LIMIT),
+                WebSubHubAdapterConstants.Http.DEFAULT_ADAPTIVE_CONCURRENCY_MAX_LIMIT);
+        this.adaptiveConcurrencyLatencyTolerance = parseIntOrDefault(
+                configurationProvider.getProperty(ADAPTIVE_CONCURRENCY_LATENCY_TOLERANCE),
+                WebSubHubAdapterConstants.Http.DEFAULT_ADAPTIVE_CONCURRENCY_LATENCY_TOLERANCE);
+        this.adaptiveConcurrencyMaxPendingRequests = parseIntOrDefault(
+                configurationProvider.getProperty(ADAPTIVE_CONCURRENCY_MAX_PENDING_REQUESTS),
+                WebSubHubAdapterConstants.Http.DEFAULT_ADAPTIVE_CONCURRENCY_MAX_PENDING_REQUESTS);
+        this.adaptiveConcurrencyPendingTimeout = parseIntOrDefault(
+                configurationProvider.getProperty(ADAPTIVE_CONCURRENCY_PENDING_TIMEOUT),
+                WebSubHubAdapterConstants.Http.DEFAULT_ADAPTIVE_CONCURRENCY_PENDING_TIMEOUT);
+        this.payloadFormat = PayloadFormat.fromConfigName(
+                configurationProvider.getProperty(PAYLOAD_FORMAT), PayloadFormat.JSON);
+        this.payloadFormatNegotiationEnabled = Boolean.parseBoolean(
+                configurationProvider.getProperty(PAYLOAD_FORMAT_NEGOTIATION_ENABLED));
     }
 
     private int parseIntOrDefault(String value, int defaultValue) {
@@ -158,4 +219,127 @@ public class WebSubAdapterConfiguration {
 
         return defaultMaxConnectionsPerRoute;
     }
+
+    /**
+     * Returns the max connections reserved for the critical priority events.
+     *
+     * @return priority max connections.
+     */
+    public int getPriorityMaxConnections() {
+
+        return priorityMaxConnections;
+    }
+
+    /**
+     * Returns the max connections per route reserved for the critical priority events.
+     *
+     * @return priority max connections per route.
+     */
+    public int getPriorityMaxConnectionsPerRoute() {
+
+        return priorityMaxConnectionsPerRoute;
+    }
+
+    /**
+     * Returns the time in milliseconds to wait for the in-flight requests when the adapter is de-activated.
+     *
+     * @return shutdown timeout.
+     */
+    public int getShutdownTimeout() {
+
+        return shutdownTimeout;
+    }
+
+    /**
+     * Returns whether the in-flight requests towards the WebSub Hub are limited adaptively, based on the observed
+     * latency and errors, instead of the default max connections per route.
+     *
+     * @return whether adaptive concurrency is enabled.
+     */
+    public boolean isAdaptiveConcurrencyEnabled() {
+
+        return adaptiveConcurrencyEnabled;
+    }
+
+    /**
+     * Returns the initial limit of the in-flight requests towards the WebSub Hub.
+     *
+     * @return adaptive concurrency initial limit.
+     */
+    public int getAdaptiveConcurrencyInitialLimit() {
+
+        return adaptiveConcurrencyInitialLimit;
+    }
+
+    /**
+     * Returns the lower bound of the limit of the in-flight requests towards the WebSub Hub.
+     *
+     * @return adaptive concurrency min limit.
+     */
+    public int getAdaptiveConcurrencyMinLimit() {
+
+        return adaptiveConcurrencyMinLimit;
+    }
+
+    /**
+     * Returns the upper bound of the limit of the in-flight requests towards the WebSub Hub.
+     *
+     * @return adaptive concurrency max limit.
+     */
+    public int getAdaptiveConcurrencyMaxLimit() {
+
+        return adaptiveConcurrencyMaxLimit;
+    }
+
+    /**
+     * Returns the latency, as a percentage of the no-load latency, tolerated before the limit is reduced.
+     *
+     * @return adaptive concurrency latency tolerance.
+     */
+    public int getAdaptiveConcurrencyLatencyTolerance() {
+
+        return adaptiveConcurrencyLatencyTolerance;
+    }
+
+    /**
+     * Returns the max number of requests waiting for the adaptive concurrency limit. Requests beyond it fail fast.
+     *
+     * @return adaptive concurrency max pending requests.
+     */
+    public int getAdaptiveConcurrencyMaxPendingRequests() {
+
+        return adaptiveConcurrencyMaxPendingRequests;
+    }
+
+    /**
+     * Returns the time in milliseconds a request may wait for the adaptive concurrency limit before it fails.
+     *
+     * @return adaptive concurrency pending timeout.
+     */
+    public int getAdaptiveConcurrencyPendingTimeout() {
+
+        return adaptiveConcurrencyPendingTimeout;
+    }
+
+    /**
+     * Returns the wire format of the published events. Events are published as JSON if the hub does not accept
+     * the format, or if the codec of the format is not available.
+     *
+     * @return payload format.
+     */
+    public PayloadFormat getPayloadFormat() {
+
+        return payloadFormat;
+    }
+
+    /**
+     * Returns whether the hub is probed for the media types it accepts before the events are published in a binary
+     * payload format. Otherwise, the hub is expected to accept the configured format.
+     *
+     * @return whether payload format negotiation is enabled.
+     */
+    public boolean isPayloadFormatNegotiationEnabled() {
+
+        return payloadFormatNegotiationEnabled;
+    }
 }
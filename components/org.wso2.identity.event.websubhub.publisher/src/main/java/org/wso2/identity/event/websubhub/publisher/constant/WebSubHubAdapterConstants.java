@@ -28,6 +28,7 @@ public class WebSubHubAdapterConstants {
      */
     public static class Config {
         public static final String CONFIG_FILE_NAME = "identity-outbound-adapter.properties";
+        public static final String PUBLISHER_NAME = "websubhub";
         private Config() {}
     }
 
@@ -50,11 +51,23 @@ public class WebSubHubAdapterConstants {
         public static final String ERROR_TOPIC_DEREG_FAILURE_ACTIVE_SUBS = "Topic %s could not be deregistered " +
                 "as there are active subscribers";
         public static final String CORRELATION_ID_REQUEST_HEADER = "activityid";
+        public static final int SC_TOO_MANY_REQUESTS = 429;
+        public static final String CLIENT_MANAGER_OBJECT_NAME =
+                "org.wso2.identity.event.publisher:type=WebSubHubClientManager";
         public static final Integer DEFAULT_HTTP_CONNECTION_TIMEOUT = 300;
         public static final Integer DEFAULT_HTTP_READ_TIMEOUT = 300;
         public static final Integer DEFAULT_HTTP_CONNECTION_REQUEST_TIMEOUT = 300;
         public static final Integer DEFAULT_HTTP_MAX_CONNECTIONS = 20;
         public static final Integer DEFAULT_HTTP_MAX_CONNECTIONS_PER_ROUTE = 2;
+        public static final Integer DEFAULT_HTTP_PRIORITY_MAX_CONNECTIONS = 4;
+        public static final Integer DEFAULT_HTTP_PRIORITY_MAX_CONNECTIONS_PER_ROUTE = 2;
+        public static final Integer DEFAULT_SHUTDOWN_TIMEOUT = 30000;
+        public static final Integer DEFAULT_ADAPTIVE_CONCURRENCY_INITIAL_LIMIT = 20;
+        public static final Integer DEFAULT_ADAPTIVE_CONCURRENCY_MIN_LIMIT = 2;
+        public static final Integer DEFAULT_ADAPTIVE_CONCURRENCY_MAX_LIMIT = 200;
+        public static final Integer DEFAULT_ADAPTIVE_CONCURRENCY_LATENCY_TOLERANCE = 200;
+        public static final Integer DEFAULT_ADAPTIVE_CONCURRENCY_MAX_PENDING_REQUESTS = 1000;
+        public static final Integer DEFAULT_ADAPTIVE_CONCURRENCY_PENDING_TIMEOUT = 30000;
         private Http() {}
     }
 
@@ -99,7 +112,9 @@ public class WebSubHubAdapterConstants {
         ERROR_CREATING_ASYNC_HTTP_CLIENT("65008", "Error while creating the Async HTTP client.",
                 "Server error encountered while creating the Async HTTP Client of WebSub Hub Adapter."),
         TOPIC_DEREGISTRATION_FAILURE_ACTIVE_SUBS("65009", "Error occurred while de-registering topic", "Backend error" +
-                " received from WebSubHub while attempting to de-register topic: %s. Active subscribers: %s.");
+                " received from WebSubHub while attempting to de-register topic: %s. Active subscribers: %s."),
+        ERROR_PUBLISHING_EVENT_REJECTED_BY_WEBSUB_HUB("65010", "Event publishing rejected by WebSub Hub.",
+                "WebSub Hub responded with status code: %s for the event published to topic: %s.");
 
         private static final String WEB_SUB_ADAPTER_ERROR_CODE_PREFIX = "WEBSUB-";
         private final String code;
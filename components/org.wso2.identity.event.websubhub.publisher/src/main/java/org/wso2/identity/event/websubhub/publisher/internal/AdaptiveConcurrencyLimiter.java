@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.websubhub.publisher.internal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limiter which adapts the number of in-flight requests towards the WebSub Hub with additive increase
+ * and multiplicative decrease (AIMD). The limit grows by one per round trip while the requests complete within the
+ * latency tolerance of the no-load round trip time, and backs off when the latency exceeds the tolerance or the
+ * requests fail. The limit backs off at most once per round trip: every back off starts a new generation, and only
+ * the requests sent in the current generation may back off again, so that a burst of slow or failed responses to the
+ * requests sent before the back off does not collapse the limit.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final int BASELINE_RESET_INTERVAL = 1000;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private long noLoadRtt = Long.MAX_VALUE;
+    private long sampleCount;
+    private volatile long generation;
+
+    /**
+     * Creates an adaptive concurrency limiter.
+     *
+     * @param initialLimit     Initial concurrency limit.
+     * @param minLimit         Lower bound of the concurrency limit.
+     * @param maxLimit         Upper bound of the concurrency limit.
+     * @param latencyTolerance Percentage of the no-load round trip time tolerated before the limit is reduced.
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int latencyTolerance) {
+
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.latencyTolerance = Math.max(100, latencyTolerance) / 100.0;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /**
+     * Acquire a permit to send a request if the in-flight requests are below the current limit.
+     *
+     * @return True if the permit is acquired.
+     */
+    public boolean tryAcquire() {
+
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the generation of the limit, which a request records when it acquires a permit.
+     *
+     * @return Generation of the limit.
+     */
+    public long getGeneration() {
+
+        return generation;
+    }
+
+    /**
+     * Release the permit of a request which completed successfully.
+     *
+     * @param rttNanos   Round trip time of the request in nanoseconds.
+     * @param generation Generation of the limit when the request acquired its permit.
+     */
+    public synchronized void onSuccess(long rttNanos, long generation) {
+
+        int currentInFlight = inFlight.getAndDecrement();
+        // Periodically forget the baseline, so that it follows the hub if its no-load latency changes.
+        if (++sampleCount % BASELINE_RESET_INTERVAL == 0 || rttNanos < noLoadRtt) {
+            noLoadRtt = rttNanos;
+        }
+        if (rttNanos > noLoadRtt * latencyTolerance) {
+            backOff(generation);
+        } else if (currentInFlight * 2 >= limit) {
+            // Only grow the limit while it is being used, to avoid inflating it while the traffic is low.
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    /**
+     * Release the permit of a request which failed or was rejected as the hub is overloaded.
+     *
+     * @param generation Generation of the limit when the request acquired its permit.
+     */
+    public synchronized void onDropped(long generation) {
+
+        inFlight.decrementAndGet();
+        backOff(generation);
+    }
+
+    /**
+     * Release the permit of a request which was not sent, without adjusting the limit.
+     */
+    public void release() {
+
+        inFlight.decrementAndGet();
+    }
+
+    private void backOff(long requestGeneration) {
+
+        // The requests sent before the last back off were already accounted for by it.
+        if (requestGeneration != generation) {
+            return;
+        }
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        generation++;
+    }
+
+    /**
+     * Returns the current concurrency limit.
+     *
+     * @return Concurrency limit.
+     */
+    public int getLimit() {
+
+        return (int) limit;
+    }
+
+    /**
+     * Returns the number of requests holding a permit.
+     *
+     * @return In-flight request count.
+     */
+    public int getInFlight() {
+
+        return inFlight.get();
+    }
+}
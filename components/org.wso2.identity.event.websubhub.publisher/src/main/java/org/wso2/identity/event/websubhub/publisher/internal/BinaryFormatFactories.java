@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.websubhub.publisher.internal;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.wso2.identity.event.websubhub.publisher.config.PayloadFormat;
+
+/**
+ * Creates the Jackson factories of the binary payload formats. The binary codecs are optional dependencies, hence
+ * they are referenced only by this class, which is loaded when a binary format is configured.
+ */
+final class BinaryFormatFactories {
+
+    private BinaryFormatFactories() {
+
+    }
+
+    /**
+     * Creates the factory of the binary format.
+     *
+     * @param format Binary payload format.
+     * @return Jackson factory of the format.
+     */
+    static JsonFactory create(PayloadFormat format) {
+
+        switch (format) {
+            case CBOR:
+                return new CBORFactory();
+            case SMILE:
+                return new SmileFactory();
+            default:
+                throw new IllegalArgumentException("Not a binary payload format: " + format);
+        }
+    }
+}
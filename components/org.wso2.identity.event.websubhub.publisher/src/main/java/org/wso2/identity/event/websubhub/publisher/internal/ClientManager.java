@@ -18,24 +18,29 @@
 
 package org.wso2.identity.event.websubhub.publisher.internal;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.conn.ssl.DefaultHostnameVerifier;
 import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
 import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
 import org.apache.http.impl.nio.client.HttpAsyncClients;
 import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
 import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.nio.entity.NByteArrayEntity;
 import org.apache.http.nio.reactor.ConnectingIOReactor;
 import org.apache.http.ssl.SSLContexts;
 import org.wso2.carbon.identity.base.IdentityRuntimeException;
+import org.wso2.identity.event.common.publisher.model.PayloadSerializer;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+import org.wso2.identity.event.common.publisher.model.SerializedPayload;
+import org.wso2.identity.event.websubhub.publisher.config.PayloadFormat;
+import org.wso2.identity.event.websubhub.publisher.config.WebSubAdapterConfiguration;
 import org.wso2.identity.event.websubhub.publisher.constant.WebSubHubAdapterConstants;
 import org.wso2.identity.event.websubhub.publisher.exception.WebSubAdapterException;
 import org.wso2.identity.event.websubhub.publisher.util.WebSubHubAdapterUtil;
@@ -44,8 +49,12 @@ import java.io.IOException;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import javax.net.ssl.SSLContext;
 
@@ -53,14 +62,29 @@ import static org.apache.http.HttpHeaders.ACCEPT;
 import static org.apache.http.HttpHeaders.CONTENT_TYPE;
 import static org.wso2.identity.event.websubhub.publisher.constant.WebSubHubAdapterConstants.ErrorMessages.ERROR_PUBLISHING_EVENT_INVALID_PAYLOAD;
 import static org.wso2.identity.event.websubhub.publisher.constant.WebSubHubAdapterConstants.Http.CORRELATION_ID_REQUEST_HEADER;
+import static org.wso2.identity.event.websubhub.publisher.constant.WebSubHubAdapterConstants.Http.SC_TOO_MANY_REQUESTS;
 
 /**
  * Class to retrieve the HTTP Clients.
  */
-public class ClientManager {
+public class ClientManager implements ClientManagerMXBean {
 
     private static final Log LOG = LogFactory.getLog(ClientManager.class);
     private final CloseableHttpAsyncClient httpAsyncClient;
+    private final PoolingNHttpClientConnectionManager connectionManager;
+    private final Object priorityClientLock = new Object();
+    private volatile CloseableHttpAsyncClient priorityHttpAsyncClient;
+    private final AtomicInteger inFlightRequests = new AtomicInteger();
+    private final Object inFlightMonitor = new Object();
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Queue<PendingRequest> pendingRequests = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingRequestCount = new AtomicInteger();
+    private final int maxPendingRequests;
+    private final long pendingTimeout;
+    private final PayloadSerializationEngine serializationEngine = new PayloadSerializationEngine();
+    private final PayloadSerializer jsonSerializer = serializationEngine::writeValueAsBytes;
+    private final PayloadFormatNegotiator payloadFormatNegotiator;
+    private volatile boolean closed;
 
     /**
      * Creates a client manager.
@@ -69,22 +93,56 @@ public class ClientManager {
      */
     public ClientManager() throws WebSubAdapterException {
 
-        PoolingNHttpClientConnectionManager connectionManager;
+        WebSubAdapterConfiguration configuration = WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration();
+        int maxConnections = configuration.getDefaultMaxConnections();
+        int maxConnectionsPerRoute;
+        if (configuration.isAdaptiveConcurrencyEnabled()) {
+            concurrencyLimiter = new AdaptiveConcurrencyLimiter(configuration.getAdaptiveConcurrencyInitialLimit(),
+                    configuration.getAdaptiveConcurrencyMinLimit(), configuration.getAdaptiveConcurrencyMaxLimit(),
+                    configuration.getAdaptiveConcurrencyLatencyTolerance());
+            // The connection pool is sized for the upper bound, as the limiter governs the in-flight requests.
+            maxConnectionsPerRoute = Math.max(configuration.getDefaultMaxConnectionsPerRoute(),
+                    configuration.getAdaptiveConcurrencyMaxLimit());
+            maxConnections = Math.max(maxConnections, maxConnectionsPerRoute);
+            maxPendingRequests = configuration.getAdaptiveConcurrencyMaxPendingRequests();
+            pendingTimeout = TimeUnit.MILLISECONDS.toNanos(configuration.getAdaptiveConcurrencyPendingTimeout());
+        } else {
+            concurrencyLimiter = null;
+            maxPendingRequests = 0;
+            pendingTimeout = 0;
+            maxConnectionsPerRoute = configuration.getDefaultMaxConnectionsPerRoute();
+        }
+        connectionManager = createConnectionManager(maxConnections, maxConnectionsPerRoute);
+        httpAsyncClient = createClient(connectionManager);
+        httpAsyncClient.start();
+        LOG.debug("HttpAsyncClient started");
+        payloadFormatNegotiator = new PayloadFormatNegotiator(configuration.getPayloadFormat(),
+                configuration.isPayloadFormatNegotiationEnabled(), this::getClient);
+    }
+
+    private PoolingNHttpClientConnectionManager createConnectionManager(int maxConnections,
+                                                                        int maxConnectionsPerRoute)
+            throws WebSubAdapterException {
+
         try {
-            connectionManager = createPoolingConnectionManager();
+            PoolingNHttpClientConnectionManager poolingConnectionManager =
+                    createPoolingConnectionManager(maxConnections, maxConnectionsPerRoute);
             LOG.debug("Successfully created PoolingNHttpClientConnectionManager.");
+            return poolingConnectionManager;
         } catch (IOException e) {
             throw WebSubHubAdapterUtil.handleServerException
                     (WebSubHubAdapterConstants.ErrorMessages.ERROR_CREATING_ASYNC_HTTP_CLIENT, e);
         }
+    }
+
+    private CloseableHttpAsyncClient createClient(PoolingNHttpClientConnectionManager poolingConnectionManager)
+            throws WebSubAdapterException {
 
         RequestConfig config = createRequestConfig();
         HttpAsyncClientBuilder httpClientBuilder = HttpAsyncClients.custom().setDefaultRequestConfig(config);
         addSslContext(httpClientBuilder);
-        httpClientBuilder.setConnectionManager(connectionManager);
-        httpAsyncClient = httpClientBuilder.build();
-        httpAsyncClient.start();
-        LOG.debug("HttpAsyncClient started");
+        httpClientBuilder.setConnectionManager(poolingConnectionManager);
+        return httpClientBuilder.build();
     }
 
     /**
@@ -94,13 +152,53 @@ public class ClientManager {
      */
     public CloseableHttpAsyncClient getClient() {
 
-        if (!httpAsyncClient.isRunning()) {
+        if (!closed && !httpAsyncClient.isRunning()) {
             LOG.debug("HttpAsyncClient is not running, starting client");
             httpAsyncClient.start();
         }
         return httpAsyncClient;
     }
 
+    /**
+     * Get the HTTP client with the connections reserved for the critical priority events, so that they are not
+     * queued behind the other events for a connection. The client is created on the first critical priority event.
+     *
+     * @return CloseableHttpAsyncClient instance, or the shared client if the priority client cannot be created.
+     */
+    public CloseableHttpAsyncClient getPriorityClient() {
+
+        CloseableHttpAsyncClient priorityClient = priorityHttpAsyncClient;
+        if (priorityClient == null) {
+            synchronized (priorityClientLock) {
+                priorityClient = priorityHttpAsyncClient;
+                if (priorityClient == null) {
+                    if (closed) {
+                        return getClient();
+                    }
+                    WebSubAdapterConfiguration configuration =
+                            WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration();
+                    try {
+                        priorityClient = createClient(createConnectionManager(
+                                configuration.getPriorityMaxConnections(),
+                                configuration.getPriorityMaxConnectionsPerRoute()));
+                    } catch (WebSubAdapterException e) {
+                        LOG.error("Error while creating the priority HttpAsyncClient. Critical priority events " +
+                                "are published with the shared HttpAsyncClient.", e);
+                        return getClient();
+                    }
+                    priorityClient.start();
+                    priorityHttpAsyncClient = priorityClient;
+                    LOG.debug("Priority HttpAsyncClient started");
+                }
+            }
+        }
+        if (!closed && !priorityClient.isRunning()) {
+            LOG.debug("Priority HttpAsyncClient is not running, starting client");
+            priorityClient.start();
+        }
+        return priorityClient;
+    }
+
     private RequestConfig createRequestConfig() {
 
         return RequestConfig.custom()
@@ -115,12 +213,9 @@ public class ClientManager {
                 .build();
     }
 
-    private PoolingNHttpClientConnectionManager createPoolingConnectionManager() throws IOException {
-
-        int maxConnections = WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration()
-                .getDefaultMaxConnections();
-        int maxConnectionsPerRoute = WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration()
-                .getDefaultMaxConnectionsPerRoute();
+    private PoolingNHttpClientConnectionManager createPoolingConnectionManager(int maxConnections,
+                                                                               int maxConnectionsPerRoute)
+            throws IOException {
 
         ConnectingIOReactor ioReactor = new DefaultConnectingIOReactor();
         PoolingNHttpClientConnectionManager poolingHttpClientConnectionMgr = new
@@ -163,13 +258,25 @@ public class ClientManager {
         request.setHeader(CONTENT_TYPE, ContentType.APPLICATION_JSON.getMimeType());
         request.setHeader(CORRELATION_ID_REQUEST_HEADER, WebSubHubAdapterUtil.getCorrelationID());
 
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        mapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
-
         try {
-            String jsonString = mapper.writeValueAsString(payload);
-            request.setEntity(new StringEntity(jsonString));
+            if (payload instanceof SecurityEventTokenPayload) {
+                PayloadFormat format = payloadFormatNegotiator.getFormat(url);
+                // The payload is serialized once and shared by every publisher and retry which sends it.
+                if (format == PayloadFormat.JSON) {
+                    SerializedPayload serializedPayload = ((SecurityEventTokenPayload) payload).serialize(
+                            ContentType.APPLICATION_JSON.getMimeType(), jsonSerializer);
+                    request.setEntity(new SerializedPayloadEntity(serializedPayload, ContentType.APPLICATION_JSON));
+                } else {
+                    SerializedPayload serializedPayload = ((SecurityEventTokenPayload) payload).serialize(
+                            format.getMediaType(), payloadFormatNegotiator.getSerializer());
+                    request.setHeader(CONTENT_TYPE, format.getMediaType());
+                    request.setEntity(new SerializedPayloadEntity(serializedPayload,
+                            payloadFormatNegotiator.getContentType()));
+                }
+            } else {
+                request.setEntity(new NByteArrayEntity(serializationEngine.writeValueAsBytes(payload),
+                        ContentType.APPLICATION_JSON));
+            }
         } catch (IOException e) {
             throw WebSubHubAdapterUtil.handleClientException(ERROR_PUBLISHING_EVENT_INVALID_PAYLOAD);
         }
@@ -177,27 +284,386 @@ public class ClientManager {
         return request;
     }
 
+    /**
+     * Checks whether the WebSub Hub rejected the binary payload format of the request. The events are published
+     * to the hub as JSON from then on, hence a new request for the payload is sent as JSON.
+     *
+     * @param httpPost HTTP POST request.
+     * @param response HTTP response of the hub.
+     * @return Whether the request should be resent as JSON.
+     */
+    public boolean isPayloadFormatRejected(HttpPost httpPost, HttpResponse response) {
+
+        return payloadFormatNegotiator.isRejected(httpPost, response);
+    }
+
     /**
      * Execute an HTTP POST request asynchronously.
+     * With adaptive concurrency, a request which cannot be sent within the concurrency limit waits in a queue bounded
+     * by the max pending requests. A request beyond the bound fails fast, and a request which waits longer than the
+     * pending timeout fails once it is found expired, so that the requests do not pile up while the hub is slow.
      *
      * @param httpPost The HTTP POST request to execute.
      * @return A CompletableFuture containing the HTTP response.
      */
     public CompletableFuture<HttpResponse> executeAsync(HttpPost httpPost) {
 
+        if (concurrencyLimiter == null) {
+            return executeAsync(httpPost, this::getClient);
+        }
+        inFlightRequests.incrementAndGet();
+        if (closed) {
+            return rejectClosed();
+        }
+        expirePendingRequests();
+        if (pendingRequestCount.incrementAndGet() > maxPendingRequests) {
+            pendingRequestCount.decrementAndGet();
+            onRequestCompleted();
+            CompletableFuture<HttpResponse> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(new IdentityRuntimeException("Pending requests to the WebSub Hub " +
+                    "exceeded the max of " + maxPendingRequests + "."));
+            return rejected;
+        }
+        CompletableFuture<HttpResponse> response = new CompletableFuture<>();
+        response.whenComplete((httpResponse, throwable) -> onRequestCompleted());
+        pendingRequests.offer(new PendingRequest(httpPost, response, System.nanoTime() + pendingTimeout));
+        if (closed) {
+            // The client was closed while the request was queued, hence the request is not sent.
+            rejectPendingRequests();
+        }
+        sendPendingRequests();
+        return response;
+    }
+
+    /**
+     * Execute an HTTP POST request asynchronously with the connections reserved for the critical priority events.
+     *
+     * @param httpPost The HTTP POST request to execute.
+     * @return A CompletableFuture containing the HTTP response.
+     */
+    public CompletableFuture<HttpResponse> executePriorityAsync(HttpPost httpPost) {
+
+        return executeAsync(httpPost, this::getPriorityClient);
+    }
+
+    private CompletableFuture<HttpResponse> executeAsync(HttpPost httpPost,
+                                                         Supplier<CloseableHttpAsyncClient> clientSupplier) {
+
+        inFlightRequests.incrementAndGet();
+        if (closed) {
+            return rejectClosed();
+        }
+        CompletableFuture<HttpResponse> response = send(httpPost, clientSupplier);
+        response.whenComplete((httpResponse, throwable) -> onRequestCompleted());
+        return response;
+    }
+
+    private CompletableFuture<HttpResponse> send(HttpPost httpPost,
+                                                 Supplier<CloseableHttpAsyncClient> clientSupplier) {
+
         //TODO: Incorporate retry mechanism
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return getClient().execute(httpPost, null).get();
-            } catch (InterruptedException ie) {
-                // Restore interrupted status
-                Thread.currentThread().interrupt();
-                throw new IdentityRuntimeException("Thread was interrupted", ie);
-            } catch (ExecutionException ee) {
-                throw new IdentityRuntimeException("Execution exception", ee);
-            } catch (Exception ex) {
-                throw new IdentityRuntimeException("Exception occurred", ex);
+        CompletableFuture<HttpResponse> response = new CompletableFuture<>();
+        send(httpPost, clientSupplier, new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse httpResponse) {
+
+                response.complete(httpResponse);
+            }
+
+            @Override
+            public void failed(Exception e) {
+
+                response.completeExceptionally(new IdentityRuntimeException("Execution exception", e));
+            }
+
+            @Override
+            public void cancelled() {
+
+                response.completeExceptionally(new IdentityRuntimeException("Request was cancelled."));
             }
         });
+        return response;
+    }
+
+    /**
+     * Hand over the request to the HTTP client. The callback is invoked on the I/O threads of the client once the
+     * request completes, hence no thread waits for the response.
+     *
+     * @param httpPost       HTTP POST request.
+     * @param clientSupplier Supplier of the HTTP client.
+     * @param callback       Callback of the request.
+     */
+    private static void send(HttpPost httpPost, Supplier<CloseableHttpAsyncClient> clientSupplier,
+                             FutureCallback<HttpResponse> callback) {
+
+        try {
+            clientSupplier.get().execute(httpPost, callback);
+        } catch (RuntimeException e) {
+            callback.failed(e);
+        }
+    }
+
+    private CompletableFuture<HttpResponse> rejectClosed() {
+
+        onRequestCompleted();
+        CompletableFuture<HttpResponse> rejected = new CompletableFuture<>();
+        rejected.completeExceptionally(new IdentityRuntimeException("HttpAsyncClient is closed."));
+        return rejected;
+    }
+
+    /**
+     * Send the pending requests while the in-flight requests are below the adaptive concurrency limit. Invoked
+     * whenever a request is queued or a permit is released, so that no request is left behind.
+     */
+    private void sendPendingRequests() {
+
+        expirePendingRequests();
+        while (!pendingRequests.isEmpty() && concurrencyLimiter.tryAcquire()) {
+            PendingRequest pendingRequest = pollPendingRequest();
+            if (pendingRequest == null) {
+                concurrencyLimiter.release();
+                return;
+            }
+            LimitedRequestCallback callback = new LimitedRequestCallback(pendingRequest);
+            try {
+                getClient().execute(pendingRequest.httpPost, callback);
+            } catch (RuntimeException e) {
+                // The loop sends the next pending request, hence the callback is not invoked recursively.
+                callback.reject(e);
+            }
+        }
+    }
+
+    /**
+     * Fail the pending requests which waited longer than the pending timeout. The queue is in arrival order, hence
+     * only the head of the queue is checked. Pending requests are only queued while the concurrency limit is reached,
+     * so a request is either sent or expired once an in-flight request completes, or a new request is queued.
+     */
+    private void expirePendingRequests() {
+
+        long now = System.nanoTime();
+        PendingRequest pendingRequest;
+        while ((pendingRequest = pendingRequests.peek()) != null && now - pendingRequest.deadline >= 0) {
+            if (pendingRequests.remove(pendingRequest)) {
+                pendingRequestCount.decrementAndGet();
+                pendingRequest.response.completeExceptionally(new IdentityRuntimeException(
+                        "Request to the WebSub Hub was not sent within the pending timeout."));
+            }
+        }
+    }
+
+    private PendingRequest pollPendingRequest() {
+
+        PendingRequest pendingRequest = pendingRequests.poll();
+        if (pendingRequest != null) {
+            pendingRequestCount.decrementAndGet();
+        }
+        return pendingRequest;
+    }
+
+    private void rejectPendingRequests() {
+
+        PendingRequest pendingRequest;
+        while ((pendingRequest = pollPendingRequest()) != null) {
+            pendingRequest.response.completeExceptionally(new IdentityRuntimeException("HttpAsyncClient is closed."));
+        }
+    }
+
+    private static boolean isOverloaded(HttpResponse httpResponse) {
+
+        int statusCode = httpResponse.getStatusLine().getStatusCode();
+        return statusCode == SC_TOO_MANY_REQUESTS || statusCode >= HttpStatus.SC_INTERNAL_SERVER_ERROR;
+    }
+
+    /**
+     * Returns the current limit of the in-flight requests towards the WebSub Hub. This is the adaptive concurrency
+     * limit when adaptive concurrency is enabled, and the max connections per route otherwise.
+     *
+     * @return Concurrency limit.
+     */
+    @Override
+    public int getConcurrencyLimit() {
+
+        return concurrencyLimiter != null ? concurrencyLimiter.getLimit() : connectionManager.getDefaultMaxPerRoute();
+    }
+
+    @Override
+    public int getInFlightRequests() {
+
+        return inFlightRequests.get();
+    }
+
+    @Override
+    public int getLeasedConnections() {
+
+        return connectionManager.getTotalStats().getLeased();
+    }
+
+    @Override
+    public int getAvailableConnections() {
+
+        return connectionManager.getTotalStats().getAvailable();
+    }
+
+    @Override
+    public int getPendingConnections() {
+
+        return connectionManager.getTotalStats().getPending();
+    }
+
+    @Override
+    public int getMaxConnections() {
+
+        return connectionManager.getMaxTotal();
+    }
+
+    @Override
+    public void setMaxConnections(int maxConnections) {
+
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("Max connections must be positive: " + maxConnections);
+        }
+        connectionManager.setMaxTotal(maxConnections);
+        LOG.info("Resized the WebSub Hub connection pool to " + maxConnections + " max connections.");
+    }
+
+    @Override
+    public int getMaxConnectionsPerRoute() {
+
+        return connectionManager.getDefaultMaxPerRoute();
+    }
+
+    @Override
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+
+        if (maxConnectionsPerRoute <= 0) {
+            throw new IllegalArgumentException("Max connections per route must be positive: " +
+                    maxConnectionsPerRoute);
+        }
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        LOG.info("Resized the WebSub Hub connection pool to " + maxConnectionsPerRoute +
+                " max connections per route.");
+    }
+
+    /**
+     * Stop accepting new requests and close the HTTP client once the in-flight requests are completed, or the
+     * timeout elapses. The requests still waiting for the adaptive concurrency limit then are failed, and closing the
+     * HTTP client shuts down its IO reactor, which aborts the remaining requests.
+     *
+     * @param timeout Time in milliseconds to wait for the in-flight requests to complete.
+     * @return Number of in-flight requests which did not complete within the timeout.
+     */
+    public int close(long timeout) {
+
+        closed = true;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        synchronized (inFlightMonitor) {
+            long remaining = deadline - System.nanoTime();
+            while (inFlightRequests.get() > 0 && remaining > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(inFlightMonitor, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                remaining = deadline - System.nanoTime();
+            }
+        }
+        int unflushedCount = inFlightRequests.get();
+        if (concurrencyLimiter != null) {
+            rejectPendingRequests();
+        }
+        try {
+            httpAsyncClient.close();
+            LOG.debug("HttpAsyncClient closed");
+        } catch (IOException e) {
+            LOG.error("Error while closing the HttpAsyncClient.", e);
+        }
+        synchronized (priorityClientLock) {
+            if (priorityHttpAsyncClient != null) {
+                try {
+                    priorityHttpAsyncClient.close();
+                    LOG.debug("Priority HttpAsyncClient closed");
+                } catch (IOException e) {
+                    LOG.error("Error while closing the priority HttpAsyncClient.", e);
+                }
+            }
+        }
+        return unflushedCount;
+    }
+
+    private void onRequestCompleted() {
+
+        if (inFlightRequests.decrementAndGet() == 0 && closed) {
+            synchronized (inFlightMonitor) {
+                inFlightMonitor.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Callback of a request sent with a permit of the adaptive concurrency limiter. The permit is released, and the
+     * next pending request is sent, as soon as the request completes.
+     */
+    private final class LimitedRequestCallback implements FutureCallback<HttpResponse> {
+
+        private final PendingRequest pendingRequest;
+        private final long startTime = System.nanoTime();
+        private final long generation = concurrencyLimiter.getGeneration();
+
+        private LimitedRequestCallback(PendingRequest pendingRequest) {
+
+            this.pendingRequest = pendingRequest;
+        }
+
+        @Override
+        public void completed(HttpResponse httpResponse) {
+
+            if (isOverloaded(httpResponse)) {
+                concurrencyLimiter.onDropped(generation);
+            } else {
+                concurrencyLimiter.onSuccess(System.nanoTime() - startTime, generation);
+            }
+            pendingRequest.response.complete(httpResponse);
+            sendPendingRequests();
+        }
+
+        @Override
+        public void failed(Exception e) {
+
+            reject(e);
+            sendPendingRequests();
+        }
+
+        @Override
+        public void cancelled() {
+
+            concurrencyLimiter.release();
+            pendingRequest.response.completeExceptionally(new IdentityRuntimeException("Request was cancelled."));
+            sendPendingRequests();
+        }
+
+        private void reject(Exception e) {
+
+            concurrencyLimiter.onDropped(generation);
+            pendingRequest.response.completeExceptionally(new IdentityRuntimeException("Execution exception", e));
+        }
+    }
+
+    /**
+     * Request waiting for a permit of the adaptive concurrency limiter.
+     */
+    private static final class PendingRequest {
+
+        private final HttpPost httpPost;
+        private final CompletableFuture<HttpResponse> response;
+        private final long deadline;
+
+        private PendingRequest(HttpPost httpPost, CompletableFuture<HttpResponse> response, long deadline) {
+
+            this.httpPost = httpPost;
+            this.response = response;
+            this.deadline = deadline;
+        }
     }
 }
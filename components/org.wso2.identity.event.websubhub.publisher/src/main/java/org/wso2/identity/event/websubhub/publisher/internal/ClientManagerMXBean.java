@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.websubhub.publisher.internal;
+
+/**
+ * Management interface of the shared WebSub Hub HTTP client, exposed through JMX to observe and resize its
+ * connection pool at runtime.
+ */
+public interface ClientManagerMXBean {
+
+    /**
+     * Returns the number of requests accepted and not yet completed, including the requests waiting for a permit
+     * of the adaptive concurrency limiter.
+     *
+     * @return In-flight request count.
+     */
+    int getInFlightRequests();
+
+    /**
+     * Returns the current limit of the in-flight requests towards the WebSub Hub.
+     *
+     * @return Concurrency limit.
+     */
+    int getConcurrencyLimit();
+
+    /**
+     * Returns the number of connections leased from the pool.
+     *
+     * @return Leased connection count.
+     */
+    int getLeasedConnections();
+
+    /**
+     * Returns the number of idle connections kept in the pool.
+     *
+     * @return Available connection count.
+     */
+    int getAvailableConnections();
+
+    /**
+     * Returns the number of requests waiting for a connection from the pool.
+     *
+     * @return Pending connection request count.
+     */
+    int getPendingConnections();
+
+    /**
+     * Returns the max connections of the pool.
+     *
+     * @return Max connections.
+     */
+    int getMaxConnections();
+
+    /**
+     * Resize the max connections of the pool.
+     *
+     * @param maxConnections Max connections.
+     */
+    void setMaxConnections(int maxConnections);
+
+    /**
+     * Returns the max connections per route of the pool.
+     *
+     * @return Max connections per route.
+     */
+    int getMaxConnectionsPerRoute();
+
+    /**
+     * Resize the max connections per route of the pool.
+     *
+     * @param maxConnectionsPerRoute Max connections per route.
+     */
+    void setMaxConnectionsPerRoute(int maxConnectionsPerRoute);
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.websubhub.publisher.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpOptions;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.wso2.identity.event.common.publisher.model.PayloadSerializer;
+import org.wso2.identity.event.websubhub.publisher.config.PayloadFormat;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import static org.apache.http.HttpHeaders.CONTENT_TYPE;
+
+/**
+ * Decides the wire format of the security event tokens published to each WebSub Hub.
+ * Events are published in the configured binary format if its codec is available and the hub accepts it, and as
+ * JSON otherwise. If negotiation is enabled, the hub is probed once with an OPTIONS request, and the binary format
+ * is used only if the hub lists its media type in the Accept-Post response header. Events are published as JSON
+ * until the probe completes. A hub which rejects a binary payload with 415 (Unsupported Media Type) is sent JSON
+ * from then on.
+ */
+final class PayloadFormatNegotiator {
+
+    private static final Log LOG = LogFactory.getLog(PayloadFormatNegotiator.class);
+    static final String ACCEPT_POST = "Accept-Post";
+    private final PayloadFormat format;
+    private final ContentType contentType;
+    private final PayloadSerializer serializer;
+    private final boolean negotiationEnabled;
+    private final Supplier<CloseableHttpAsyncClient> clientSupplier;
+    private final ConcurrentMap<String, PayloadFormat> hubFormats = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a payload format negotiator.
+     *
+     * @param configuredFormat   Configured payload format.
+     * @param negotiationEnabled Whether the hubs are probed for the media types they accept.
+     * @param clientSupplier     Supplier of the client which sends the probes.
+     */
+    PayloadFormatNegotiator(PayloadFormat configuredFormat, boolean negotiationEnabled,
+                            Supplier<CloseableHttpAsyncClient> clientSupplier) {
+
+        PayloadSerializationEngine engine = null;
+        if (configuredFormat != null && configuredFormat != PayloadFormat.JSON) {
+            try {
+                engine = PayloadSerializationEngine.forFormat(configuredFormat);
+            } catch (IOException | LinkageError e) {
+                LOG.warn("The " + configuredFormat.getConfigName() + " codec is not available. Events are " +
+                        "published to the WebSub Hub as JSON.", e);
+            }
+        }
+        if (engine != null) {
+            format = configuredFormat;
+            contentType = ContentType.create(configuredFormat.getMediaType());
+            serializer = engine::writeValueAsBytes;
+        } else {
+            format = PayloadFormat.JSON;
+            contentType = ContentType.APPLICATION_JSON;
+            serializer = null;
+        }
+        this.negotiationEnabled = negotiationEnabled;
+        this.clientSupplier = clientSupplier;
+    }
+
+    /**
+     * Returns the format of the security event tokens published to the URL.
+     *
+     * @param url URL of the publish request.
+     * @return Payload format.
+     */
+    PayloadFormat getFormat(String url) {
+
+        if (format == PayloadFormat.JSON) {
+            return PayloadFormat.JSON;
+        }
+        String hub = getHub(url);
+        PayloadFormat hubFormat = hubFormats.get(hub);
+        if (hubFormat != null) {
+            return hubFormat;
+        }
+        if (!negotiationEnabled) {
+            return format;
+        }
+        if (hubFormats.putIfAbsent(hub, PayloadFormat.JSON) == null) {
+            probe(hub);
+        }
+        return PayloadFormat.JSON;
+    }
+
+    /**
+     * Returns the serializer of the binary format.
+     *
+     * @return Payload serializer, or null if the events are always published as JSON.
+     */
+    PayloadSerializer getSerializer() {
+
+        return serializer;
+    }
+
+    /**
+     * Returns the content type of the binary format.
+     *
+     * @return Content type.
+     */
+    ContentType getContentType() {
+
+        return contentType;
+    }
+
+    /**
+     * Checks whether the hub rejected the binary payload of the request, in which case the hub is sent JSON from
+     * then on.
+     *
+     * @param request  Publish request.
+     * @param response Response of the hub.
+     * @return Whether the request should be resent as JSON.
+     */
+    boolean isRejected(HttpRequest request, HttpResponse response) {
+
+        if (format == PayloadFormat.JSON ||
+                response.getStatusLine().getStatusCode() != HttpStatus.SC_UNSUPPORTED_MEDIA_TYPE) {
+            return false;
+        }
+        Header requestContentType = request.getFirstHeader(CONTENT_TYPE);
+        if (requestContentType == null || !format.getMediaType().equals(requestContentType.getValue())) {
+            return false;
+        }
+        String hub = getHub(request.getRequestLine().getUri());
+        if (hubFormats.put(hub, PayloadFormat.JSON) != PayloadFormat.JSON) {
+            LOG.warn("WebSub Hub: " + hub + " does not accept " + format.getMediaType() + " payloads. Events are " +
+                    "published to the hub as JSON.");
+        }
+        return true;
+    }
+
+    private void probe(String hub) {
+
+        FutureCallback<HttpResponse> callback = new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse response) {
+
+                if (acceptsFormat(response)) {
+                    hubFormats.replace(hub, PayloadFormat.JSON, format);
+                    LOG.debug("Events are published to WebSub Hub: " + hub + " as " + format.getMediaType());
+                } else {
+                    LOG.debug("WebSub Hub: " + hub + " does not accept " + format.getMediaType() +
+                            " payloads. Events are published as JSON.");
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+
+                LOG.debug("Probing the payload formats accepted by WebSub Hub: " + hub + " failed. Events are " +
+                        "published as JSON.", e);
+            }
+
+            @Override
+            public void cancelled() {
+
+                LOG.debug("Probing the payload formats accepted by WebSub Hub: " + hub + " is cancelled.");
+            }
+        };
+        try {
+            clientSupplier.get().execute(new HttpOptions(hub), callback);
+        } catch (RuntimeException e) {
+            callback.failed(e);
+        }
+    }
+
+    private boolean acceptsFormat(HttpResponse response) {
+
+        for (Header header : response.getHeaders(ACCEPT_POST)) {
+            for (HeaderElement element : header.getElements()) {
+                if (format.getMediaType().equalsIgnoreCase(element.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String getHub(String url) {
+
+        int queryIndex = url.indexOf('?');
+        return queryIndex < 0 ? url : url.substring(0, queryIndex);
+    }
+}
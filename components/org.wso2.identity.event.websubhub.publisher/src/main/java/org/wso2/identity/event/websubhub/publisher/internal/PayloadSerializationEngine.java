@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.websubhub.publisher.internal;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+import org.wso2.identity.event.websubhub.publisher.config.PayloadFormat;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shared, thread-safe engine which serializes the request payloads sent to the WebSub Hub, as JSON or in a binary
+ * {@link PayloadFormat}. The object mapper is configured once, and an {@link ObjectWriter} is cached for every
+ * payload class. Creating the writer resolves the serializer of the class, hence the serializers are introspected
+ * once per class instead of once per request, and the hot path only looks up the cached writer. The serializers of
+ * the event payloads are resolved and cached by the object mapper itself.
+ */
+final class PayloadSerializationEngine {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter nullWriter;
+    private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    PayloadSerializationEngine() {
+
+        this(new ObjectMapper());
+    }
+
+    private PayloadSerializationEngine(ObjectMapper objectMapper) {
+
+        this.objectMapper = objectMapper;
+        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
+        nullWriter = objectMapper.writer();
+    }
+
+    /**
+     * Creates an engine which serializes the payloads in the format.
+     *
+     * @param format Payload format.
+     * @return Serialization engine.
+     * @throws IOException If the codec of the format fails to serialize a payload.
+     * @throws LinkageError If the codec of the format is not available, or is of another Jackson version.
+     */
+    static PayloadSerializationEngine forFormat(PayloadFormat format) throws IOException {
+
+        if (format == PayloadFormat.JSON) {
+            return new PayloadSerializationEngine();
+        }
+        PayloadSerializationEngine engine = new PayloadSerializationEngine(
+                new ObjectMapper(BinaryFormatFactories.create(format)));
+        // A codec of another Jackson version is loaded, but fails on the first payload it serializes.
+        engine.writeValueAsBytes(SecurityEventTokenPayload.builder().iss(format.getMediaType()).build());
+        return engine;
+    }
+
+    /**
+     * Serialize the payload into UTF-8 encoded JSON, or into the binary format of the engine.
+     *
+     * @param payload Payload.
+     * @return Serialized payload.
+     * @throws JsonProcessingException If the payload cannot be serialized.
+     */
+    byte[] writeValueAsBytes(Object payload) throws JsonProcessingException {
+
+        return getWriter(payload).writeValueAsBytes(payload);
+    }
+
+    private ObjectWriter getWriter(Object payload) {
+
+        return payload != null ? getWriter(payload.getClass()) : nullWriter;
+    }
+
+    /**
+     * Returns the writer of the class, creating it on the first call.
+     *
+     * @param type Payload class.
+     * @return Object writer.
+     */
+    ObjectWriter getWriter(Class<?> type) {
+
+        ObjectWriter writer = writers.get(type);
+        if (writer == null) {
+            writer = writers.computeIfAbsent(type, objectMapper::writerFor);
+        }
+        return writer;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.websubhub.publisher.internal;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.HttpAsyncContentProducer;
+import org.wso2.identity.event.common.publisher.model.SerializedPayload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Repeatable request entity which writes a shared {@link SerializedPayload} without copying it.
+ * The entity is also an asynchronous content producer, so that the asynchronous HTTP client writes the serialized
+ * payload straight from a read-only buffer over the shared bytes into the connection, instead of reading it through
+ * an intermediate buffer.
+ */
+class SerializedPayloadEntity extends AbstractHttpEntity implements HttpAsyncContentProducer {
+
+    private final SerializedPayload serializedPayload;
+    private ByteBuffer buffer;
+
+    SerializedPayloadEntity(SerializedPayload serializedPayload, ContentType contentType) {
+
+        this.serializedPayload = serializedPayload;
+        this.buffer = serializedPayload.asByteBuffer();
+        setContentType(contentType.toString());
+    }
+
+    SerializedPayload getSerializedPayload() {
+
+        return serializedPayload;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+
+        return serializedPayload.getLength();
+    }
+
+    @Override
+    public InputStream getContent() {
+
+        return serializedPayload.getInputStream();
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+
+        serializedPayload.writeTo(outputStream);
+    }
+
+    @Override
+    public boolean isStreaming() {
+
+        return false;
+    }
+
+    @Override
+    public void produceContent(ContentEncoder encoder, IOControl ioControl) throws IOException {
+
+        encoder.write(buffer);
+        if (!buffer.hasRemaining()) {
+            encoder.complete();
+        }
+    }
+
+    @Override
+    public void close() {
+
+        // Rewind, so that the entity can be produced again when the request is resent.
+        buffer = serializedPayload.asByteBuffer();
+    }
+}
@@ -19,6 +19,7 @@
 package org.wso2.identity.event.websubhub.publisher.internal;
 
 import com.nimbusds.jose.util.DefaultResourceRetriever;
+import org.wso2.identity.event.common.publisher.config.EventPublisherConfiguration;
 import org.wso2.identity.event.websubhub.publisher.config.WebSubAdapterConfiguration;
 
 import java.security.KeyStore;
@@ -33,6 +34,7 @@ public class WebSubHubAdapterDataHolder {
     private KeyStore trustStore;
     private WebSubAdapterConfiguration adapterConfiguration;
     private DefaultResourceRetriever resourceRetriever;
+    private EventPublisherConfiguration publisherConfiguration = EventPublisherConfiguration.getDefault();
 
     private WebSubHubAdapterDataHolder() {
 
@@ -82,4 +84,14 @@ public class WebSubHubAdapterDataHolder {
 
         this.resourceRetriever = resourceRetriever;
     }
+
+    public EventPublisherConfiguration getPublisherConfiguration() {
+
+        return publisherConfiguration;
+    }
+
+    public void setPublisherConfiguration(EventPublisherConfiguration publisherConfiguration) {
+
+        this.publisherConfiguration = publisherConfiguration;
+    }
 }
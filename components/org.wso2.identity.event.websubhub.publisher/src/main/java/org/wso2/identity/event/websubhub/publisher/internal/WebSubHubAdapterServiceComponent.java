@@ -21,15 +21,26 @@ package org.wso2.identity.event.websubhub.publisher.internal;
 import com.nimbusds.jose.util.DefaultResourceRetriever;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.osgi.framework.ServiceRegistration;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
 import org.wso2.identity.event.common.publisher.EventPublisher;
+import org.wso2.identity.event.common.publisher.config.EventPublisherConfiguration;
+import org.wso2.identity.event.common.publisher.config.EventPublisherConfigurationProvider;
+import org.wso2.identity.event.common.publisher.exception.AdapterConfigurationException;
 import org.wso2.identity.event.websubhub.publisher.config.OutboundAdapterConfigurationProvider;
 import org.wso2.identity.event.websubhub.publisher.config.WebSubAdapterConfiguration;
+import org.wso2.identity.event.websubhub.publisher.constant.WebSubHubAdapterConstants;
 import org.wso2.identity.event.websubhub.publisher.service.WebSubHubAdapterServiceImpl;
 
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
 /**
  * WebSubHub Outbound Event Adapter service component.
  */
@@ -39,6 +50,7 @@ import org.wso2.identity.event.websubhub.publisher.service.WebSubHubAdapterServi
 public class WebSubHubAdapterServiceComponent {
 
     private static final Log log = LogFactory.getLog(WebSubHubAdapterServiceComponent.class);
+    private ServiceRegistration<?> serviceRegistration;
 
     @Activate
     protected void activate(ComponentContext context) {
@@ -47,10 +59,13 @@ public class WebSubHubAdapterServiceComponent {
             WebSubHubAdapterDataHolder.getInstance().setAdapterConfiguration(new WebSubAdapterConfiguration(
                     OutboundAdapterConfigurationProvider.getInstance()));
             if (WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration().isAdapterEnabled()) {
-                context.getBundleContext().registerService(EventPublisher.class.getName(),
-                        new WebSubHubAdapterServiceImpl(), null);
+                loadPublisherConfiguration();
                 WebSubHubAdapterDataHolder.getInstance().setClientManager(new ClientManager());
+                registerClientManagerMBean(WebSubHubAdapterDataHolder.getInstance().getClientManager());
                 WebSubHubAdapterDataHolder.getInstance().setResourceRetriever(new DefaultResourceRetriever());
+                // Register the publisher once it is ready, since journaled events are replayed as soon as it is bound.
+                serviceRegistration = context.getBundleContext().registerService(EventPublisher.class.getName(),
+                        new WebSubHubAdapterServiceImpl(), null);
                 log.debug("Successfully activated the WebSub Hub adapter service.");
             } else {
                 log.error("WebSub Hub Adapter is not enabled.");
@@ -60,9 +75,67 @@ public class WebSubHubAdapterServiceComponent {
         }
     }
 
+    private void loadPublisherConfiguration() {
+
+        try {
+            // The priority classes of the event URIs decide which events use the reserved priority connections.
+            WebSubHubAdapterDataHolder.getInstance().setPublisherConfiguration(
+                    new EventPublisherConfiguration(EventPublisherConfigurationProvider.load()));
+        } catch (AdapterConfigurationException e) {
+            log.warn("Error while loading the event publisher configurations. Events are published without " +
+                    "priority classes.", e);
+        }
+    }
+
+    private void registerClientManagerMBean(ClientManager clientManager) {
+
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(WebSubHubAdapterConstants.Http.CLIENT_MANAGER_OBJECT_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+            mBeanServer.registerMBean(clientManager, objectName);
+        } catch (JMException e) {
+            log.error("Error while registering the WebSub Hub client manager MBean.", e);
+        }
+    }
+
+    private void unregisterClientManagerMBean() {
+
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(WebSubHubAdapterConstants.Http.CLIENT_MANAGER_OBJECT_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            log.debug("Error while unregistering the WebSub Hub client manager MBean.", e);
+        }
+    }
+
     @Deactivate
     protected void deactivate(ComponentContext context) {
 
+        if (serviceRegistration != null) {
+            try {
+                serviceRegistration.unregister();
+            } catch (IllegalStateException e) {
+                log.debug("WebSub Hub adapter service is already unregistered.", e);
+            }
+            serviceRegistration = null;
+        }
+        unregisterClientManagerMBean();
+        ClientManager clientManager = WebSubHubAdapterDataHolder.getInstance().getClientManager();
+        if (clientManager != null) {
+            int shutdownTimeout = WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration()
+                    .getShutdownTimeout();
+            int unflushedCount = clientManager.close(shutdownTimeout);
+            if (unflushedCount > 0) {
+                log.warn(unflushedCount + " events could not be published to the WebSub Hub within " +
+                        shutdownTimeout + "ms while de-activating the WebSub Hub adapter service.");
+            }
+        }
         log.debug("Successfully de-activated the WebSub Hub adapter service.");
     }
 }
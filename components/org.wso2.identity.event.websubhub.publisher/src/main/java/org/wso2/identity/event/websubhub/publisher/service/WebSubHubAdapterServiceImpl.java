@@ -32,7 +32,12 @@ import org.apache.http.util.EntityUtils;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.identity.base.IdentityRuntimeException;
 import org.wso2.identity.event.common.publisher.EventPublisher;
+import org.wso2.identity.event.common.publisher.config.EventPriority;
+import org.wso2.identity.event.common.publisher.config.EventPublisherConfiguration;
+import org.wso2.identity.event.common.publisher.metrics.PublishFlightRecorder;
+import org.wso2.identity.event.common.publisher.metrics.PublishMetrics;
 import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.EventEnvelope;
 import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
 import org.wso2.identity.event.websubhub.publisher.constant.WebSubHubAdapterConstants;
 import org.wso2.identity.event.websubhub.publisher.exception.WebSubAdapterException;
@@ -44,13 +49,19 @@ import org.wso2.identity.event.websubhub.publisher.util.WebSubHubCorrelationLogU
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 import static org.wso2.identity.event.websubhub.publisher.constant.WebSubHubAdapterConstants.ErrorMessages.ERROR_BACKEND_ERROR_FROM_WEBSUB_HUB;
 import static org.wso2.identity.event.websubhub.publisher.constant.WebSubHubAdapterConstants.ErrorMessages.ERROR_EMPTY_RESPONSE_FROM_WEBSUB_HUB;
 import static org.wso2.identity.event.websubhub.publisher.constant.WebSubHubAdapterConstants.ErrorMessages.ERROR_INVALID_RESPONSE_FROM_WEBSUB_HUB;
 import static org.wso2.identity.event.websubhub.publisher.constant.WebSubHubAdapterConstants.ErrorMessages.ERROR_INVALID_WEB_SUB_HUB_BASE_URL;
+import static org.wso2.identity.event.websubhub.publisher.constant.WebSubHubAdapterConstants.ErrorMessages.ERROR_PUBLISHING_EVENT_REJECTED_BY_WEBSUB_HUB;
 import static org.wso2.identity.event.websubhub.publisher.constant.WebSubHubAdapterConstants.ErrorMessages.TOPIC_DEREGISTRATION_FAILURE_ACTIVE_SUBS;
 import static org.wso2.identity.event.websubhub.publisher.constant.WebSubHubAdapterConstants.Http.DEREGISTER;
 import static org.wso2.identity.event.websubhub.publisher.constant.WebSubHubAdapterConstants.Http.ERROR_TOPIC_DEREG_FAILURE_ACTIVE_SUBS;
@@ -78,6 +89,24 @@ public class WebSubHubAdapterServiceImpl implements EventPublisher {
     private static final Log log = LogFactory.getLog(WebSubHubAdapterServiceImpl.class);
     private String webSubHubBaseUrl = null;
 
+    @Override
+    public String getName() {
+
+        return WebSubHubAdapterConstants.Config.PUBLISHER_NAME;
+    }
+
+    /**
+     * The event is handed over to the asynchronous HTTP client, and the response is handled by the completion
+     * callback of the request on the I/O threads of the client, hence publishing does not block the calling thread.
+     *
+     * @return True.
+     */
+    @Override
+    public boolean isNonBlocking() {
+
+        return true;
+    }
+
     @Override
     public void publish(SecurityEventTokenPayload eventPayload, EventContext eventContext)
             throws WebSubAdapterException {
@@ -87,6 +116,82 @@ public class WebSubHubAdapterServiceImpl implements EventPublisher {
         log.debug("Event published successfully to the WebSub Hub.");
     }
 
+    @Override
+    public CompletionStage<Void> publishAsync(SecurityEventTokenPayload eventPayload, EventContext eventContext) {
+
+        try {
+            return makeAsyncAPICall(eventPayload, eventContext,
+                    constructHubTopic(eventContext.getEventUri(), eventContext.getTenantDomain()), getWebSubBaseURL());
+        } catch (WebSubAdapterException e) {
+            CompletableFuture<Void> failedFuture = new CompletableFuture<>();
+            failedFuture.completeExceptionally(e);
+            return failedFuture;
+        }
+    }
+
+    /**
+     * Every event of the batch is handed over to the asynchronous HTTP client before any of the hub responses is
+     * received, hence the hub calls of the batch are pipelined and the batch pays roughly one round trip instead of
+     * one round trip per event. The returned stage is combined from the hub responses, so that the calling thread is
+     * not blocked until the hub has responded.
+     *
+     * @param events Events to be published.
+     * @return Stage which completes exceptionally with the first failure, with the other failures suppressed, if
+     * publishing any of the events failed. The remaining events are still published.
+     */
+    @Override
+    public CompletionStage<Void> publishBatchAsync(List<EventEnvelope> events) {
+
+        List<CompletableFuture<Void>> results = new ArrayList<>(events.size());
+        for (EventEnvelope event : events) {
+            results.add(publishAsync(event.getPayload(), event.getEventContext()).toCompletableFuture());
+        }
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).handle((ignored, error) -> {
+            if (error == null) {
+                return null;
+            }
+            Throwable failure = null;
+            for (CompletableFuture<Void> result : results) {
+                if (!result.isCompletedExceptionally()) {
+                    continue;
+                }
+                try {
+                    // The result has already completed, hence joining it does not block.
+                    result.join();
+                } catch (CompletionException | CancellationException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    if (failure == null) {
+                        failure = cause;
+                    } else if (failure != cause) {
+                        failure.addSuppressed(cause);
+                    }
+                }
+            }
+            throw new CompletionException(failure);
+        });
+    }
+
+    /**
+     * Publishes the batch with {@link #publishBatchAsync(List)} and waits until the hub has responded to every event
+     * of the batch. The event publisher service publishes batches with {@link #publishBatchAsync(List)} instead, so
+     * that the dispatch threads are not blocked.
+     *
+     * @param events Events to be published.
+     * @throws Exception If publishing any of the events failed. The remaining events are still published.
+     */
+    @Override
+    public void publishBatch(List<EventEnvelope> events) throws Exception {
+
+        try {
+            publishBatchAsync(events).toCompletableFuture().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     /**
      * Register a topic in the WebSub Hub.
      *
@@ -136,31 +241,81 @@ public class WebSubHubAdapterServiceImpl implements EventPublisher {
         return tenantDomain + WebSubHubAdapterConstants.Http.TOPIC_SEPARATOR + topicSuffix;
     }
 
-    private void makeAsyncAPICall(SecurityEventTokenPayload eventPayload, EventContext eventContext,
-                                        String topic, String webSubHubBaseUrl) throws WebSubAdapterException {
+    private CompletableFuture<Void> makeAsyncAPICall(SecurityEventTokenPayload eventPayload,
+                                                     EventContext eventContext, String topic,
+                                                     String webSubHubBaseUrl) throws WebSubAdapterException {
 
         String url = buildURL(topic, webSubHubBaseUrl, PUBLISH);
 
         ClientManager clientManager = WebSubHubAdapterDataHolder.getInstance().getClientManager();
         HttpPost request = clientManager.createHttpPost(url, eventPayload);
+        HttpEntity requestEntity = request.getEntity();
+        PublishFlightRecorder.eventSerialized(eventPayload, eventContext, topic,
+                requestEntity != null ? requestEntity.getContentLength() : -1);
 
         logPublishingEvent(url, eventContext, topic);
 
         final long requestStartTime = System.currentTimeMillis();
-
-        CompletableFuture<HttpResponse> future = clientManager.executeAsync(request);
-
-        future.thenAccept(response -> handleAsyncResponse
-                        (response, request, requestStartTime, eventContext, url, topic))
+        final long requestStartNanos = System.nanoTime();
+
+        PublishFlightRecorder.requestSent(eventPayload, eventContext, topic);
+        CompletableFuture<HttpResponse> future = execute(clientManager, request, eventContext)
+                .thenCompose(response -> clientManager.isPayloadFormatRejected(request, response) ?
+                        resendAsJson(clientManager, url, eventPayload, eventContext) :
+                        CompletableFuture.completedFuture(response));
+
+        return future.thenApply(response -> {
+                    PublishFlightRecorder.responseReceived(eventPayload, eventContext, topic,
+                            response.getStatusLine().getStatusCode(), System.nanoTime() - requestStartNanos);
+                    return handleAsyncResponse(response, request, requestStartTime, eventContext, url, topic);
+                })
                 .exceptionally(ex -> {
+                    PublishMetrics.getInstance().recordHubFailure();
+                    PublishFlightRecorder.publishFailed(eventPayload, eventContext, topic, ex);
                     handleResponseCorrelationLog(request, requestStartTime,
                             WebSubHubCorrelationLogUtils.RequestStatus.FAILED.getStatus(),
                             ex.getMessage());
                     log.error("Publishing event data to WebSubHub failed. ", ex);
                     throw new IdentityRuntimeException("Error occurred while publishing event data to WebSubHub. ", ex);
+                })
+                .thenAccept(responseCode -> {
+                    if (!isSuccessfulResponse(responseCode)) {
+                        throw new CompletionException(handleServerException(
+                                ERROR_PUBLISHING_EVENT_REJECTED_BY_WEBSUB_HUB, null, String.valueOf(responseCode),
+                                topic));
+                    }
                 });
     }
 
+    private CompletableFuture<HttpResponse> execute(ClientManager clientManager, HttpPost request,
+                                                    EventContext eventContext) {
+
+        return isCriticalEvent(eventContext) ?
+                clientManager.executePriorityAsync(request) : clientManager.executeAsync(request);
+    }
+
+    private CompletableFuture<HttpResponse> resendAsJson(ClientManager clientManager, String url,
+                                                         SecurityEventTokenPayload eventPayload,
+                                                         EventContext eventContext) {
+
+        log.debug("WebSub Hub rejected the payload format of the event. Resending the event as JSON.");
+        try {
+            return execute(clientManager, clientManager.createHttpPost(url, eventPayload), eventContext);
+        } catch (WebSubAdapterException e) {
+            CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    private boolean isCriticalEvent(EventContext eventContext) {
+
+        EventPublisherConfiguration publisherConfiguration =
+                WebSubHubAdapterDataHolder.getInstance().getPublisherConfiguration();
+        return publisherConfiguration != null &&
+                publisherConfiguration.getEventPriority(eventContext.getEventUri()) == EventPriority.CRITICAL;
+    }
+
     private static String buildURL(String topic, String webSubHubBaseUrl, String operation)
             throws WebSubAdapterServerException {
 
@@ -233,7 +388,7 @@ public class WebSubHubAdapterServiceImpl implements EventPublisher {
         }
     }
 
-    private static void handleAsyncResponse(HttpResponse response, HttpPost request, long requestStartTime,
+    private static int handleAsyncResponse(HttpResponse response, HttpPost request, long requestStartTime,
                                              EventContext eventContext, String url, String topic) {
 
         PrivilegedCarbonContext.startTenantFlow();
@@ -243,13 +398,13 @@ public class WebSubHubAdapterServiceImpl implements EventPublisher {
             int responseCode = response.getStatusLine().getStatusCode();
             String responsePhrase = response.getStatusLine().getReasonPhrase();
             log.debug("WebSubHub request completed. Response code: " + responseCode);
+            PublishMetrics.getInstance().recordHubResponse(responseCode);
 
             handleResponseCorrelationLog(request, requestStartTime,
                     WebSubHubCorrelationLogUtils.RequestStatus.COMPLETED.getStatus(),
                     String.valueOf(responseCode), responsePhrase);
 
-            if (responseCode == HttpStatus.SC_OK || responseCode == HttpStatus.SC_CREATED ||
-                    responseCode == HttpStatus.SC_ACCEPTED || responseCode == HttpStatus.SC_NO_CONTENT) {
+            if (isSuccessfulResponse(responseCode)) {
                 logDiagnosticSuccess(eventContext, url, topic);
                 try {
                     if (response.getEntity() != null) {
@@ -275,11 +430,18 @@ public class WebSubHubAdapterServiceImpl implements EventPublisher {
                     log.error("Error while reading WebSubHub event publisher response. ", e);
                 }
             }
+            return responseCode;
         } finally {
             PrivilegedCarbonContext.endTenantFlow();
         }
     }
 
+    private static boolean isSuccessfulResponse(int responseCode) {
+
+        return responseCode == HttpStatus.SC_OK || responseCode == HttpStatus.SC_CREATED ||
+                responseCode == HttpStatus.SC_ACCEPTED || responseCode == HttpStatus.SC_NO_CONTENT;
+    }
+
     private static void handleSuccessfulTopicMgt(HttpEntity entity, String topic, String operation)
             throws WebSubAdapterException, IOException {
 
@@ -40,5 +40,25 @@ public class WebSubAdapterConfigurationTest {
         WebSubAdapterConfiguration config = new WebSubAdapterConfiguration(provider);
         Assert.assertFalse(config.isAdapterEnabled());
         Assert.assertEquals(config.getHTTPConnectionTimeout(), 300);
+        Assert.assertEquals(config.getShutdownTimeout(), 30000);
+        Assert.assertEquals(config.getPriorityMaxConnections(), 4);
+        Assert.assertEquals(config.getPriorityMaxConnectionsPerRoute(), 2);
+        Assert.assertFalse(config.isAdaptiveConcurrencyEnabled());
+        Assert.assertEquals(config.getAdaptiveConcurrencyMaxLimit(), 200);
+        Assert.assertEquals(config.getPayloadFormat(), PayloadFormat.JSON);
+        Assert.assertFalse(config.isPayloadFormatNegotiationEnabled());
+    }
+
+    @Test
+    public void testPayloadFormatConfiguration() throws WebSubAdapterException {
+
+        OutboundAdapterConfigurationProvider provider = mock(OutboundAdapterConfigurationProvider.class);
+        when(provider.getProperty("adapter.websubhub.payloadFormat")).thenReturn(" CBOR ");
+        when(provider.getProperty("adapter.websubhub.payloadFormat.negotiate")).thenReturn("true");
+
+        WebSubAdapterConfiguration config = new WebSubAdapterConfiguration(provider);
+        Assert.assertEquals(config.getPayloadFormat(), PayloadFormat.CBOR);
+        Assert.assertTrue(config.isPayloadFormatNegotiationEnabled());
+        Assert.assertEquals(PayloadFormat.fromConfigName("xml", PayloadFormat.JSON), PayloadFormat.JSON);
     }
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.websubhub.publisher.internal;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test class for AdaptiveConcurrencyLimiter.
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void testAcquireIsBoundedByLimit() {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 200);
+
+        Assert.assertTrue(limiter.tryAcquire());
+        Assert.assertTrue(limiter.tryAcquire());
+        Assert.assertFalse(limiter.tryAcquire());
+        limiter.release();
+        Assert.assertTrue(limiter.tryAcquire());
+        Assert.assertEquals(limiter.getInFlight(), 2);
+    }
+
+    @Test
+    public void testLimitGrowsWhileLatencyIsWithinTolerance() {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 6, 200);
+
+        for (int i = 0; i < 100; i++) {
+            fillLimit(limiter);
+            for (int j = limiter.getInFlight(); j > 0; j--) {
+                limiter.onSuccess(RTT, limiter.getGeneration());
+            }
+        }
+
+        Assert.assertEquals(limiter.getLimit(), 6, "Limit should grow up to the upper bound.");
+    }
+
+    @Test
+    public void testLimitBacksOffOnErrorsAndLatency() {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 50, 200);
+        limiter.tryAcquire();
+        limiter.onSuccess(RTT, limiter.getGeneration());
+
+        limiter.tryAcquire();
+        limiter.onDropped(limiter.getGeneration());
+        Assert.assertEquals(limiter.getLimit(), 18);
+
+        limiter.tryAcquire();
+        limiter.onSuccess(RTT * 3, limiter.getGeneration());
+        Assert.assertEquals(limiter.getLimit(), 16);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.onDropped(limiter.getGeneration());
+        }
+        Assert.assertEquals(limiter.getLimit(), 2, "Limit should not drop below the lower bound.");
+        Assert.assertEquals(limiter.getInFlight(), 0);
+    }
+
+    @Test
+    public void testLimitBacksOffOncePerRoundTrip() {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 50, 200);
+        fillLimit(limiter);
+        long generation = limiter.getGeneration();
+
+        // Every request of the round trip fails, yet the limit backs off once.
+        for (int i = limiter.getInFlight(); i > 0; i--) {
+            limiter.onDropped(generation);
+        }
+        Assert.assertEquals(limiter.getLimit(), 18);
+        Assert.assertEquals(limiter.getInFlight(), 0);
+
+        // The requests sent after the back off may back off again.
+        limiter.tryAcquire();
+        limiter.onDropped(limiter.getGeneration());
+        Assert.assertEquals(limiter.getLimit(), 16);
+    }
+
+    @Test
+    public void testLimitDoesNotGrowWhileUnderUsed() {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 200);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.onSuccess(RTT, limiter.getGeneration());
+        }
+
+        Assert.assertEquals(limiter.getLimit(), 10);
+    }
+
+    private static void fillLimit(AdaptiveConcurrencyLimiter limiter) {
+
+        while (limiter.tryAcquire()) {
+            // Acquire every permit available under the current limit.
+        }
+    }
+}
@@ -18,15 +18,43 @@
 
 package org.wso2.identity.event.websubhub.publisher.internal;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.entity.HttpAsyncContentProducer;
+import org.apache.http.util.EntityUtils;
 import org.mockito.MockedStatic;
 import org.testng.Assert;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+import org.wso2.identity.event.websubhub.publisher.config.PayloadFormat;
 import org.wso2.identity.event.websubhub.publisher.config.WebSubAdapterConfiguration;
 import org.wso2.identity.event.websubhub.publisher.exception.WebSubAdapterException;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.when;
@@ -38,19 +66,22 @@ public class ClientManagerTest {
 
     private ClientManager clientManager;
     MockedStatic<WebSubHubAdapterDataHolder> mockedStaticDataHolder;
+    private WebSubAdapterConfiguration mockConfiguration;
 
     @BeforeClass
     public void setUp() throws WebSubAdapterException {
 
         mockedStaticDataHolder = mockStatic(WebSubHubAdapterDataHolder.class);
         WebSubHubAdapterDataHolder mockDataHolder = mock(WebSubHubAdapterDataHolder.class);
-        WebSubAdapterConfiguration mockConfiguration = mock(WebSubAdapterConfiguration.class);
+        mockConfiguration = mock(WebSubAdapterConfiguration.class);
 
         mockedStaticDataHolder.when(WebSubHubAdapterDataHolder::getInstance).thenReturn(mockDataHolder);
 
         when(mockDataHolder.getAdapterConfiguration()).thenReturn(mockConfiguration);
         when(mockConfiguration.getDefaultMaxConnections()).thenReturn(10);
         when(mockConfiguration.getDefaultMaxConnectionsPerRoute()).thenReturn(5);
+        when(mockConfiguration.getPriorityMaxConnections()).thenReturn(2);
+        when(mockConfiguration.getPriorityMaxConnectionsPerRoute()).thenReturn(2);
         when(mockConfiguration.getHTTPConnectionTimeout()).thenReturn(3000);
         when(mockConfiguration.getHttpConnectionRequestTimeout()).thenReturn(3000);
         when(mockConfiguration.getHttpReadTimeout()).thenReturn(3000);
@@ -67,6 +98,79 @@ public class ClientManagerTest {
         Assert.assertEquals(post.getMethod(), "POST");
     }
 
+    @Test
+    public void testCreateHttpPostSharesSerializedPayload() throws Exception {
+
+        SecurityEventTokenPayload payload = SecurityEventTokenPayload.builder().iss("https://ex\u00e4mple.com")
+                .jti("jti-1").build();
+
+        HttpPost firstPost = clientManager.createHttpPost("http://mock-url.com", payload);
+        HttpPost secondPost = clientManager.createHttpPost("http://mock-url.com", payload);
+
+        byte[] firstBody = EntityUtils.toByteArray(firstPost.getEntity());
+        Assert.assertEquals(EntityUtils.toByteArray(secondPost.getEntity()), firstBody);
+        Assert.assertTrue(firstPost.getEntity().isRepeatable());
+        Assert.assertEquals(EntityUtils.toByteArray(firstPost.getEntity()), firstBody);
+        Assert.assertEquals(firstPost.getEntity().getContentLength(), firstBody.length);
+        Assert.assertTrue(new String(firstBody, StandardCharsets.UTF_8).contains("https://ex\u00e4mple.com"));
+        Assert.assertSame(((SerializedPayloadEntity) secondPost.getEntity()).getSerializedPayload(),
+                ((SerializedPayloadEntity) firstPost.getEntity()).getSerializedPayload(),
+                "Payload should not be serialized again.");
+    }
+
+    @Test
+    public void testCreateHttpPostWritesUtf8Bytes() throws Exception {
+
+        HttpPost post = clientManager.createHttpPost("http://mock-url.com", new TestPayload("ex\u00e4mple"));
+
+        Assert.assertEquals(ContentType.get(post.getEntity()).getCharset(), StandardCharsets.UTF_8);
+        Assert.assertTrue(post.getEntity() instanceof HttpAsyncContentProducer);
+        Assert.assertTrue(new String(EntityUtils.toByteArray(post.getEntity()), StandardCharsets.UTF_8)
+                .contains("ex\u00e4mple"));
+        Assert.assertEquals(EntityUtils.toString(clientManager.createHttpPost("http://mock-url.com", null)
+                .getEntity()), "null");
+    }
+
+    @Test
+    public void testSerializedPayloadEntityProducesContentRepeatedly() throws Exception {
+
+        SecurityEventTokenPayload payload = SecurityEventTokenPayload.builder().iss("https://example.com")
+                .jti("jti-2").build();
+        HttpPost post = clientManager.createHttpPost("http://mock-url.com", payload);
+        HttpAsyncContentProducer producer = (HttpAsyncContentProducer) post.getEntity();
+        byte[] expected = EntityUtils.toByteArray(post.getEntity());
+
+        Assert.assertEquals(produce(producer), expected);
+        // Closing the producer rewinds it, as the client does before a request is resent.
+        producer.close();
+        Assert.assertEquals(produce(producer), expected);
+    }
+
+    @Test
+    public void testCreateHttpPostUsesConfiguredPayloadFormat() throws Exception {
+
+        WebSubAdapterConfiguration configuration =
+                WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration();
+        when(configuration.getPayloadFormat()).thenReturn(PayloadFormat.CBOR);
+        ClientManager cborClientManager = new ClientManager();
+        when(configuration.getPayloadFormat()).thenReturn(PayloadFormat.JSON);
+        try {
+            SecurityEventTokenPayload payload = SecurityEventTokenPayload.builder().iss("https://example.com")
+                    .jti("jti-3").build();
+            HttpPost post = cborClientManager.createHttpPost("http://mock-url.com?hub.mode=publish", payload);
+
+            Assert.assertEquals(post.getFirstHeader(HttpHeaders.CONTENT_TYPE).getValue(), "application/cbor");
+            Assert.assertEquals(ContentType.get(post.getEntity()).getMimeType(), "application/cbor");
+            Assert.assertEquals(new ObjectMapper(new CBORFactory()).readTree(EntityUtils.toByteArray(
+                    post.getEntity())).get("jti").asText(), "jti-3");
+            // Topic management requests are always sent as JSON.
+            Assert.assertEquals(ContentType.get(cborClientManager.createHttpPost("http://mock-url.com", null)
+                    .getEntity()).getMimeType(), ContentType.APPLICATION_JSON.getMimeType());
+        } finally {
+            cborClientManager.close(100);
+        }
+    }
+
     @Test(expectedExceptions = WebSubAdapterException.class)
     public void testCreateHttpPostException() throws WebSubAdapterException {
 
@@ -81,6 +185,187 @@ public class ClientManagerTest {
         clientManager.createHttpPost("http://mock-url.com", payload);
     }
 
+    @Test
+    public void testCloseReportsInFlightRequests() throws Exception {
+
+        ClientManager closingClientManager = new ClientManager();
+        // The server accepts connections but never responds, hence the request remains in flight.
+        try (ServerSocket server = new ServerSocket(0)) {
+            CompletableFuture<HttpResponse> response = closingClientManager.executeAsync(
+                    new HttpPost("http://localhost:" + server.getLocalPort() + "/hub"));
+
+            Assert.assertEquals(closingClientManager.close(100), 1);
+            try {
+                response.get(5, TimeUnit.SECONDS);
+                Assert.fail("In-flight request should be aborted when the client is closed.");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(response.isCompletedExceptionally());
+            }
+        }
+    }
+
+    @Test
+    public void testInFlightRequestsDoNotHoldThreads() throws Exception {
+
+        int requestCount = 32;
+        CountDownLatch arrived = new CountDownLatch(requestCount);
+        CountDownLatch release = new CountDownLatch(1);
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        ExecutorService serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/hub", exchange -> {
+            arrived.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(HttpStatus.SC_OK, -1);
+            exchange.close();
+        });
+        server.start();
+        ClientManager concurrentClientManager = new ClientManager();
+        concurrentClientManager.setMaxConnections(requestCount);
+        concurrentClientManager.setMaxConnectionsPerRoute(requestCount);
+        try {
+            List<CompletableFuture<HttpResponse>> responses = new ArrayList<>();
+            List<CompletableFuture<String>> completingThreads = new ArrayList<>();
+            for (int i = 0; i < requestCount; i++) {
+                CompletableFuture<HttpResponse> response = concurrentClientManager.executeAsync(
+                        new HttpPost("http://localhost:" + server.getAddress().getPort() + "/hub"));
+                responses.add(response);
+                completingThreads.add(response.thenApply(httpResponse -> Thread.currentThread().getName()));
+            }
+            // Every request reaches the hub at once, whatever the number of threads of the common pool.
+            Assert.assertTrue(arrived.await(10, TimeUnit.SECONDS));
+            Assert.assertEquals(concurrentClientManager.getInFlightRequests(), requestCount);
+            release.countDown();
+            // The responses are completed by the I/O threads of the client, instead of threads waiting for them.
+            for (CompletableFuture<String> completingThread : completingThreads) {
+                Assert.assertTrue(completingThread.get(10, TimeUnit.SECONDS).startsWith("I/O dispatcher"));
+            }
+            for (CompletableFuture<HttpResponse> response : responses) {
+                Assert.assertEquals(response.get(10, TimeUnit.SECONDS).getStatusLine().getStatusCode(),
+                        HttpStatus.SC_OK);
+            }
+        } finally {
+            release.countDown();
+            concurrentClientManager.close(100);
+            server.stop(0);
+            serverExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testPendingRequestsAreBoundedAndExpired() throws Exception {
+
+        when(mockConfiguration.isAdaptiveConcurrencyEnabled()).thenReturn(true);
+        when(mockConfiguration.getAdaptiveConcurrencyInitialLimit()).thenReturn(1);
+        when(mockConfiguration.getAdaptiveConcurrencyMinLimit()).thenReturn(1);
+        when(mockConfiguration.getAdaptiveConcurrencyMaxLimit()).thenReturn(1);
+        when(mockConfiguration.getAdaptiveConcurrencyLatencyTolerance()).thenReturn(200);
+        when(mockConfiguration.getAdaptiveConcurrencyMaxPendingRequests()).thenReturn(1);
+        when(mockConfiguration.getAdaptiveConcurrencyPendingTimeout()).thenReturn(200);
+        ClientManager limitedClientManager;
+        try {
+            limitedClientManager = new ClientManager();
+        } finally {
+            when(mockConfiguration.isAdaptiveConcurrencyEnabled()).thenReturn(false);
+        }
+        // The server accepts connections but never responds, hence the only permit of the limiter remains taken.
+        try (ServerSocket server = new ServerSocket(0)) {
+            String url = "http://localhost:" + server.getLocalPort() + "/hub";
+            CompletableFuture<HttpResponse> inFlightResponse = limitedClientManager.executeAsync(new HttpPost(url));
+            CompletableFuture<HttpResponse> pendingResponse = limitedClientManager.executeAsync(new HttpPost(url));
+            CompletableFuture<HttpResponse> rejectedResponse = limitedClientManager.executeAsync(new HttpPost(url));
+
+            Assert.assertFalse(pendingResponse.isDone());
+            Assert.assertTrue(rejectedResponse.isCompletedExceptionally(), "Requests beyond the bound should fail.");
+
+            Thread.sleep(300);
+            CompletableFuture<HttpResponse> nextResponse = limitedClientManager.executeAsync(new HttpPost(url));
+            Assert.assertTrue(pendingResponse.isCompletedExceptionally(), "Expired requests should fail.");
+            Assert.assertFalse(nextResponse.isDone());
+
+            limitedClientManager.close(100);
+            Assert.assertTrue(nextResponse.isCompletedExceptionally(), "Pending requests should fail on close.");
+            try {
+                inFlightResponse.get(5, TimeUnit.SECONDS);
+                Assert.fail("In-flight request should be aborted when the client is closed.");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(inFlightResponse.isCompletedExceptionally());
+            }
+        } finally {
+            limitedClientManager.close(0);
+        }
+    }
+
+    @Test
+    public void testClosedClientRejectsNewRequests() throws Exception {
+
+        ClientManager closedClientManager = new ClientManager();
+        Assert.assertEquals(closedClientManager.close(100), 0);
+
+        CompletableFuture<HttpResponse> response = closedClientManager.executeAsync(
+                new HttpPost("http://mock-url.com"));
+        Assert.assertTrue(response.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testPriorityClientReservesSeparateConnections() throws Exception {
+
+        ClientManager priorityClientManager = new ClientManager();
+        CloseableHttpAsyncClient priorityClient = priorityClientManager.getPriorityClient();
+
+        Assert.assertNotSame(priorityClient, priorityClientManager.getClient());
+        Assert.assertSame(priorityClientManager.getPriorityClient(), priorityClient);
+        Assert.assertTrue(priorityClient.isRunning());
+
+        Assert.assertEquals(priorityClientManager.close(100), 0);
+        Assert.assertFalse(priorityClient.isRunning());
+        Assert.assertTrue(priorityClientManager.executePriorityAsync(new HttpPost("http://mock-url.com"))
+                .isCompletedExceptionally());
+    }
+
+    @Test
+    public void testResizeConnectionPool() throws Exception {
+
+        ClientManager resizedClientManager = new ClientManager();
+        Assert.assertEquals(resizedClientManager.getMaxConnections(), 10);
+        Assert.assertEquals(resizedClientManager.getMaxConnectionsPerRoute(), 5);
+
+        resizedClientManager.setMaxConnections(20);
+        resizedClientManager.setMaxConnectionsPerRoute(8);
+
+        Assert.assertEquals(resizedClientManager.getMaxConnections(), 20);
+        Assert.assertEquals(resizedClientManager.getMaxConnectionsPerRoute(), 8);
+        Assert.assertEquals(resizedClientManager.getConcurrencyLimit(), 8);
+        Assert.assertEquals(resizedClientManager.getLeasedConnections(), 0);
+        Assert.assertEquals(resizedClientManager.getPendingConnections(), 0);
+        Assert.assertEquals(resizedClientManager.getInFlightRequests(), 0);
+        resizedClientManager.close(100);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testResizeConnectionPoolRejectsNonPositiveSize() throws Exception {
+
+        ClientManager resizedClientManager = new ClientManager();
+        try {
+            resizedClientManager.setMaxConnections(0);
+        } finally {
+            resizedClientManager.close(100);
+        }
+    }
+
+    private static byte[] produce(HttpAsyncContentProducer producer) throws IOException {
+
+        ChunkedContentEncoder encoder = new ChunkedContentEncoder();
+        while (!encoder.isCompleted()) {
+            producer.produceContent(encoder, null);
+        }
+        return encoder.content.toByteArray();
+    }
+
     @AfterClass
     public void tearDown() {
 
@@ -88,4 +373,35 @@ public class ClientManagerTest {
             mockedStaticDataHolder.close();
         }
     }
+
+    /**
+     * Content encoder which accepts a few bytes at a time, as a congested connection does.
+     */
+    private static class ChunkedContentEncoder implements ContentEncoder {
+
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        private boolean completed;
+
+        @Override
+        public int write(ByteBuffer src) {
+
+            int length = Math.min(src.remaining(), 7);
+            for (int i = 0; i < length; i++) {
+                content.write(src.get());
+            }
+            return length;
+        }
+
+        @Override
+        public void complete() {
+
+            completed = true;
+        }
+
+        @Override
+        public boolean isCompleted() {
+
+            return completed;
+        }
+    }
 }
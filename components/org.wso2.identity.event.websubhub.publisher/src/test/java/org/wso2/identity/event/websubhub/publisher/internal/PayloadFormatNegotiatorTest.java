@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.websubhub.publisher.internal;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.message.BasicHttpResponse;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.identity.event.websubhub.publisher.config.PayloadFormat;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+import static org.apache.http.HttpHeaders.CONTENT_TYPE;
+
+/**
+ * Test class for PayloadFormatNegotiator.
+ */
+public class PayloadFormatNegotiatorTest {
+
+    private static final String HUB_URL = "http://mock-url.com/hub?hub.mode=publish&hub.topic=topic";
+    private CloseableHttpAsyncClient client;
+    private HttpServer server;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+
+        client = HttpAsyncClients.createDefault();
+        client.start();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/cbor", exchange -> {
+            exchange.getResponseHeaders().add(PayloadFormatNegotiator.ACCEPT_POST,
+                    "application/json, application/cbor");
+            exchange.sendResponseHeaders(HttpStatus.SC_NO_CONTENT, -1);
+            exchange.close();
+        });
+        server.createContext("/json", exchange -> {
+            exchange.getResponseHeaders().add(PayloadFormatNegotiator.ACCEPT_POST, "application/json");
+            exchange.sendResponseHeaders(HttpStatus.SC_NO_CONTENT, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @Test
+    public void testJsonIsUsedByDefault() {
+
+        PayloadFormatNegotiator negotiator = new PayloadFormatNegotiator(null, false, () -> client);
+
+        Assert.assertEquals(negotiator.getFormat(HUB_URL), PayloadFormat.JSON);
+        Assert.assertNull(negotiator.getSerializer());
+    }
+
+    @Test
+    public void testConfiguredFormatIsUsedWithoutNegotiation() {
+
+        PayloadFormatNegotiator negotiator = new PayloadFormatNegotiator(PayloadFormat.SMILE, false, () -> client);
+
+        Assert.assertEquals(negotiator.getFormat(HUB_URL), PayloadFormat.SMILE);
+        Assert.assertNotNull(negotiator.getSerializer());
+        Assert.assertEquals(negotiator.getContentType().getMimeType(), PayloadFormat.SMILE.getMediaType());
+    }
+
+    @Test
+    public void testRejectedFormatFallsBackToJson() {
+
+        PayloadFormatNegotiator negotiator = new PayloadFormatNegotiator(PayloadFormat.CBOR, false, () -> client);
+        HttpResponse rejectedResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1,
+                HttpStatus.SC_UNSUPPORTED_MEDIA_TYPE, "Unsupported Media Type");
+        HttpPost jsonRequest = new HttpPost(HUB_URL);
+        jsonRequest.setHeader(CONTENT_TYPE, PayloadFormat.JSON.getMediaType());
+        HttpPost cborRequest = new HttpPost(HUB_URL);
+        cborRequest.setHeader(CONTENT_TYPE, PayloadFormat.CBOR.getMediaType());
+
+        Assert.assertFalse(negotiator.isRejected(jsonRequest, rejectedResponse));
+        Assert.assertFalse(negotiator.isRejected(cborRequest,
+                new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_BAD_REQUEST, "Bad Request")));
+        Assert.assertEquals(negotiator.getFormat(HUB_URL), PayloadFormat.CBOR);
+
+        Assert.assertTrue(negotiator.isRejected(cborRequest, rejectedResponse));
+        Assert.assertEquals(negotiator.getFormat(HUB_URL), PayloadFormat.JSON);
+        Assert.assertEquals(negotiator.getFormat("http://other-url.com/hub"), PayloadFormat.CBOR);
+    }
+
+    @Test
+    public void testNegotiatedFormatIsUsedOnceAccepted() throws Exception {
+
+        PayloadFormatNegotiator negotiator = new PayloadFormatNegotiator(PayloadFormat.CBOR, true, () -> client);
+        String cborHubUrl = "http://localhost:" + server.getAddress().getPort() + "/cbor?hub.mode=publish";
+        String jsonHubUrl = "http://localhost:" + server.getAddress().getPort() + "/json?hub.mode=publish";
+
+        // Events are published as JSON until the probe completes.
+        Assert.assertEquals(negotiator.getFormat(cborHubUrl), PayloadFormat.JSON);
+        Assert.assertEquals(negotiator.getFormat(jsonHubUrl), PayloadFormat.JSON);
+        Assert.assertEquals(awaitFormat(negotiator, cborHubUrl, PayloadFormat.CBOR), PayloadFormat.CBOR);
+        Assert.assertEquals(negotiator.getFormat(jsonHubUrl), PayloadFormat.JSON);
+    }
+
+    private static PayloadFormat awaitFormat(PayloadFormatNegotiator negotiator, String url, PayloadFormat expected)
+            throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (negotiator.getFormat(url) != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return negotiator.getFormat(url);
+    }
+
+    @AfterClass
+    public void tearDown() throws IOException {
+
+        server.stop(0);
+        client.close();
+    }
+}
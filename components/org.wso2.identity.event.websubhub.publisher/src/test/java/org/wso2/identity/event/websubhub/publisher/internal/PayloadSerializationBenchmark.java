@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.websubhub.publisher.internal;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.nio.entity.NByteArrayEntity;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+import org.wso2.identity.event.websubhub.publisher.config.PayloadFormat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Manual benchmark comparing a new object mapper per event, as the request payloads used to be serialized, with
+ * the shared {@link PayloadSerializationEngine}, both through a string entity and straight to a byte array entity,
+ * and with the engines of the binary {@link PayloadFormat}s. The benchmark is not part of the test suite. Run the
+ * main method with the test classpath. For every round, the benchmark reports the CPU time and the bytes allocated
+ * by the serializing thread per event.
+ */
+public class PayloadSerializationBenchmark {
+
+    private static final int EVENT_COUNT = 20000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+
+        SecurityEventTokenPayload[] payloads = new SecurityEventTokenPayload[EVENT_COUNT];
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            payloads[i] = PayloadSerializationEngineTest.createPayload(i);
+        }
+        PayloadSerializationEngine engine = new PayloadSerializationEngine();
+        PayloadSerializationEngine cborEngine = PayloadSerializationEngine.forFormat(PayloadFormat.CBOR);
+        PayloadSerializationEngine smileEngine = PayloadSerializationEngine.forFormat(PayloadFormat.SMILE);
+        ContentType cborContentType = ContentType.create(PayloadFormat.CBOR.getMediaType());
+        ContentType smileContentType = ContentType.create(PayloadFormat.SMILE.getMediaType());
+        for (int round = 0; round < ROUNDS; round++) {
+            run("mapper-per-event", payloads, payload -> {
+                ObjectMapper mapper = new ObjectMapper();
+                mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+                mapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
+                return new StringEntity(mapper.writeValueAsString(payload)).getContentLength();
+            });
+            run("engine-string", payloads, payload -> new StringEntity(
+                    engine.getWriter(payload.getClass()).writeValueAsString(payload)).getContentLength());
+            run("engine-bytes", payloads, payload -> new NByteArrayEntity(engine.writeValueAsBytes(payload),
+                    ContentType.APPLICATION_JSON).getContentLength());
+            run("cbor-bytes", payloads, payload -> new NByteArrayEntity(cborEngine.writeValueAsBytes(payload),
+                    cborContentType).getContentLength());
+            run("smile-bytes", payloads, payload -> new NByteArrayEntity(smileEngine.writeValueAsBytes(payload),
+                    smileContentType).getContentLength());
+            System.out.println();
+        }
+    }
+
+    private static void run(String name, SecurityEventTokenPayload[] payloads, Serializer serializer)
+            throws Exception {
+
+        long serializedBytes = 0;
+        long cpuBefore = cpuTime();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (SecurityEventTokenPayload payload : payloads) {
+            serializedBytes += serializer.serialize(payload);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        long cpuNanos = cpuTime() - cpuBefore;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        System.out.printf("%-18s throughput=%10.0f/s cpu=%8.2fus/event allocation=%9.0fB/event " +
+                        "payload=%5dB/event%n", name, payloads.length / (elapsedNanos / 1e9),
+                cpuNanos / 1e3 / payloads.length, (double) allocated / payloads.length,
+                serializedBytes / payloads.length);
+    }
+
+    private static long cpuTime() {
+
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        return threadMXBean.isCurrentThreadCpuTimeSupported() ? threadMXBean.getCurrentThreadCpuTime() : 0;
+    }
+
+    private static long allocatedBytes() {
+
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    /**
+     * Serialization of a single payload, returning the serialized size.
+     */
+    private interface Serializer {
+
+        long serialize(SecurityEventTokenPayload payload) throws Exception;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.event.websubhub.publisher.internal;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.identity.event.common.publisher.model.EventPayload;
+import org.wso2.identity.event.common.publisher.model.JsonEventPayload;
+import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
+import org.wso2.identity.event.websubhub.publisher.config.PayloadFormat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test class for PayloadSerializationEngine.
+ */
+public class PayloadSerializationEngineTest {
+
+    private final PayloadSerializationEngine engine = new PayloadSerializationEngine();
+
+    @Test
+    public void testOutputMatchesObjectMapper() throws Exception {
+
+        SecurityEventTokenPayload payload = createPayload(1);
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
+
+        Assert.assertEquals(engine.writeValueAsBytes(payload), objectMapper.writeValueAsBytes(payload));
+        Assert.assertEquals(engine.writeValueAsBytes(new TestPayload("value")),
+                objectMapper.writeValueAsBytes(new TestPayload("value")));
+        Assert.assertEquals(engine.writeValueAsBytes(null), objectMapper.writeValueAsBytes(null));
+    }
+
+    @Test
+    public void testBinaryFormatsEncodeTheSameDocument() throws Exception {
+
+        SecurityEventTokenPayload payload = createPayload(1);
+        byte[] json = engine.writeValueAsBytes(payload);
+        Map<?, ?> document = new ObjectMapper().readValue(json, Map.class);
+
+        byte[] cbor = PayloadSerializationEngine.forFormat(PayloadFormat.CBOR).writeValueAsBytes(payload);
+        Assert.assertEquals(new ObjectMapper(new CBORFactory()).readValue(cbor, Map.class), document);
+        Assert.assertTrue(cbor.length < json.length);
+
+        byte[] smile = PayloadSerializationEngine.forFormat(PayloadFormat.SMILE).writeValueAsBytes(payload);
+        Assert.assertEquals(new ObjectMapper(new SmileFactory()).readValue(smile, Map.class), document);
+        Assert.assertTrue(smile.length < json.length);
+    }
+
+    @Test
+    public void testWritersAreCachedPerClass() throws Exception {
+
+        engine.writeValueAsBytes(createPayload(1));
+
+        Assert.assertSame(engine.getWriter(SecurityEventTokenPayload.class),
+                engine.getWriter(SecurityEventTokenPayload.class));
+        Assert.assertSame(engine.getWriter(JsonEventPayload.class), engine.getWriter(JsonEventPayload.class));
+        Assert.assertSame(engine.getWriter(SessionEventPayload.class), engine.getWriter(SessionEventPayload.class));
+    }
+
+    @Test
+    public void testConcurrentSerialization() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                int index = i;
+                tasks.add(() -> new String(engine.writeValueAsBytes(createPayload(index)), "UTF-8")
+                        .contains("\"jti\":\"jti-" + index + "\""));
+            }
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    static SecurityEventTokenPayload createPayload(int index) {
+
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("userId", "user-" + index);
+        properties.put("roles", Collections.singletonList("admin"));
+        Map<String, EventPayload> events = new LinkedHashMap<>();
+        events.put("https://schemas.identity.wso2.org/events/user/updated", new JsonEventPayload(properties));
+        events.put("https://schemas.identity.wso2.org/events/session/revoked",
+                new SessionEventPayload("session-" + index));
+        return SecurityEventTokenPayload.builder()
+                .iss("https://localhost:9443/oauth2/token")
+                .jti("jti-" + index)
+                .iat(1700000000000L + index)
+                .aud("https://hub.example.com")
+                .txn("txn-" + index)
+                .events(events)
+                .build();
+    }
+
+    /**
+     * Event payload with bean properties.
+     */
+    public static class SessionEventPayload extends EventPayload {
+
+        private final String sessionId;
+
+        SessionEventPayload(String sessionId) {
+
+            this.sessionId = sessionId;
+        }
+
+        public String getSessionId() {
+
+            return sessionId;
+        }
+
+        public String getReason() {
+
+            return null;
+        }
+    }
+}
@@ -19,22 +19,34 @@
 package org.wso2.identity.event.websubhub.publisher.service;
 
 import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.StatusLine;
+import org.apache.http.client.methods.HttpPost;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.MockitoAnnotations;
+import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 import org.wso2.carbon.identity.central.log.mgt.utils.LoggerUtils;
 import org.wso2.identity.event.common.publisher.model.EventContext;
+import org.wso2.identity.event.common.publisher.model.EventEnvelope;
 import org.wso2.identity.event.common.publisher.model.SecurityEventTokenPayload;
 import org.wso2.identity.event.websubhub.publisher.config.WebSubAdapterConfiguration;
+import org.wso2.identity.event.websubhub.publisher.constant.WebSubHubAdapterConstants;
 import org.wso2.identity.event.websubhub.publisher.exception.WebSubAdapterException;
+import org.wso2.identity.event.websubhub.publisher.exception.WebSubAdapterServerException;
 import org.wso2.identity.event.websubhub.publisher.internal.ClientManager;
 import org.wso2.identity.event.websubhub.publisher.internal.WebSubHubAdapterDataHolder;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -105,6 +117,173 @@ public class WebSubHubAdapterServiceImplTest {
         }
     }
 
+    @Test
+    public void testPublishAsyncFailsOnRejectedEvent() throws Exception {
+
+        try (MockedStatic<LoggerUtils> mockedLoggerUtils = mockStatic(LoggerUtils.class)) {
+            mockedLoggerUtils.when(LoggerUtils::isDiagnosticLogsEnabled).thenReturn(false);
+
+            EventContext eventContext = EventContext.builder()
+                    .tenantDomain("test-tenant")
+                    .eventUri("test-uri")
+                    .build();
+            SecurityEventTokenPayload payload = SecurityEventTokenPayload.builder()
+                    .iss("issuer")
+                    .jti("jti-token")
+                    .iat(System.currentTimeMillis())
+                    .aud("audience")
+                    .build();
+
+            HttpResponse rejectedResponse = mock(HttpResponse.class);
+            StatusLine statusLine = mock(StatusLine.class);
+            when(statusLine.getStatusCode()).thenReturn(HttpStatus.SC_SERVICE_UNAVAILABLE);
+            when(rejectedResponse.getStatusLine()).thenReturn(statusLine);
+            HttpPost request = new HttpPost("http://mock-websub-hub.com");
+            request.setHeader(WebSubHubAdapterConstants.Http.CORRELATION_ID_REQUEST_HEADER, "correlation-id");
+            when(mockClientManager.createHttpPost(any(), any())).thenReturn(request);
+            when(mockClientManager.executeAsync(any())).thenReturn(CompletableFuture.completedFuture(rejectedResponse));
+
+            CompletableFuture<Void> result = adapterService.publishAsync(payload, eventContext).toCompletableFuture();
+
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                Assert.fail("Publishing should fail when the WebSub Hub rejects the event.");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof WebSubAdapterServerException);
+            } finally {
+                clearInvocations(mockClientManager);
+            }
+        }
+    }
+
+    @Test
+    public void testPublishAsyncResendsRejectedPayloadFormatAsJson() throws Exception {
+
+        try (MockedStatic<LoggerUtils> mockedLoggerUtils = mockStatic(LoggerUtils.class)) {
+            mockedLoggerUtils.when(LoggerUtils::isDiagnosticLogsEnabled).thenReturn(false);
+
+            EventContext eventContext = EventContext.builder()
+                    .tenantDomain("test-tenant")
+                    .eventUri("test-uri")
+                    .build();
+            SecurityEventTokenPayload payload = SecurityEventTokenPayload.builder()
+                    .iss("issuer")
+                    .jti("jti-token")
+                    .build();
+
+            HttpResponse rejectedResponse = mock(HttpResponse.class);
+            StatusLine rejectedStatusLine = mock(StatusLine.class);
+            when(rejectedStatusLine.getStatusCode()).thenReturn(HttpStatus.SC_UNSUPPORTED_MEDIA_TYPE);
+            when(rejectedResponse.getStatusLine()).thenReturn(rejectedStatusLine);
+            HttpResponse acceptedResponse = mock(HttpResponse.class);
+            StatusLine acceptedStatusLine = mock(StatusLine.class);
+            when(acceptedStatusLine.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+            when(acceptedResponse.getStatusLine()).thenReturn(acceptedStatusLine);
+
+            HttpPost binaryRequest = new HttpPost("http://mock-websub-hub.com");
+            HttpPost jsonRequest = new HttpPost("http://mock-websub-hub.com");
+            binaryRequest.setHeader(WebSubHubAdapterConstants.Http.CORRELATION_ID_REQUEST_HEADER, "correlation-id");
+            jsonRequest.setHeader(WebSubHubAdapterConstants.Http.CORRELATION_ID_REQUEST_HEADER, "correlation-id");
+            when(mockClientManager.createHttpPost(any(), any())).thenReturn(binaryRequest, jsonRequest);
+            when(mockClientManager.executeAsync(binaryRequest))
+                    .thenReturn(CompletableFuture.completedFuture(rejectedResponse));
+            when(mockClientManager.executeAsync(jsonRequest))
+                    .thenReturn(CompletableFuture.completedFuture(acceptedResponse));
+            when(mockClientManager.isPayloadFormatRejected(binaryRequest, rejectedResponse)).thenReturn(true);
+
+            try {
+                adapterService.publishAsync(payload, eventContext).toCompletableFuture().get(5, TimeUnit.SECONDS);
+                verify(mockClientManager, times(1)).executeAsync(jsonRequest);
+            } finally {
+                clearInvocations(mockClientManager);
+            }
+        }
+    }
+
+    @Test
+    public void testPublishBatchPipelinesHubCalls() throws Exception {
+
+        try (MockedStatic<LoggerUtils> mockedLoggerUtils = mockStatic(LoggerUtils.class)) {
+            mockedLoggerUtils.when(LoggerUtils::isDiagnosticLogsEnabled).thenReturn(false);
+
+            HttpResponse acceptedResponse = mock(HttpResponse.class);
+            StatusLine acceptedStatusLine = mock(StatusLine.class);
+            when(acceptedStatusLine.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+            when(acceptedResponse.getStatusLine()).thenReturn(acceptedStatusLine);
+            HttpResponse rejectedResponse = mock(HttpResponse.class);
+            StatusLine rejectedStatusLine = mock(StatusLine.class);
+            when(rejectedStatusLine.getStatusCode()).thenReturn(HttpStatus.SC_SERVICE_UNAVAILABLE);
+            when(rejectedResponse.getStatusLine()).thenReturn(rejectedStatusLine);
+
+            HttpPost firstRequest = new HttpPost("http://mock-websub-hub.com");
+            HttpPost secondRequest = new HttpPost("http://mock-websub-hub.com");
+            firstRequest.setHeader(WebSubHubAdapterConstants.Http.CORRELATION_ID_REQUEST_HEADER, "correlation-id-1");
+            secondRequest.setHeader(WebSubHubAdapterConstants.Http.CORRELATION_ID_REQUEST_HEADER, "correlation-id-2");
+            CompletableFuture<HttpResponse> firstResponse = new CompletableFuture<>();
+            when(mockClientManager.createHttpPost(any(), any())).thenReturn(firstRequest, secondRequest);
+            when(mockClientManager.executeAsync(firstRequest)).thenReturn(firstResponse);
+            // The second hub call is issued while the hub has not yet responded to the first one.
+            when(mockClientManager.executeAsync(secondRequest)).thenAnswer(invocation -> {
+                firstResponse.complete(rejectedResponse);
+                return CompletableFuture.completedFuture(acceptedResponse);
+            });
+
+            List<EventEnvelope> events = Arrays.asList(createEvent("jti-1"), createEvent("jti-2"));
+            try {
+                adapterService.publishBatch(events);
+                Assert.fail("Publishing the batch should fail when the WebSub Hub rejects an event.");
+            } catch (WebSubAdapterServerException e) {
+                verify(mockClientManager, times(1)).executeAsync(firstRequest);
+                verify(mockClientManager, times(1)).executeAsync(secondRequest);
+            } finally {
+                clearInvocations(mockClientManager);
+            }
+        }
+    }
+
+    @Test
+    public void testPublishBatchAsyncDoesNotWaitForHubResponses() throws Exception {
+
+        try (MockedStatic<LoggerUtils> mockedLoggerUtils = mockStatic(LoggerUtils.class)) {
+            mockedLoggerUtils.when(LoggerUtils::isDiagnosticLogsEnabled).thenReturn(false);
+
+            HttpResponse acceptedResponse = mock(HttpResponse.class);
+            StatusLine acceptedStatusLine = mock(StatusLine.class);
+            when(acceptedStatusLine.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+            when(acceptedResponse.getStatusLine()).thenReturn(acceptedStatusLine);
+
+            HttpPost firstRequest = new HttpPost("http://mock-websub-hub.com");
+            HttpPost secondRequest = new HttpPost("http://mock-websub-hub.com");
+            firstRequest.setHeader(WebSubHubAdapterConstants.Http.CORRELATION_ID_REQUEST_HEADER, "correlation-id-1");
+            secondRequest.setHeader(WebSubHubAdapterConstants.Http.CORRELATION_ID_REQUEST_HEADER, "correlation-id-2");
+            CompletableFuture<HttpResponse> firstResponse = new CompletableFuture<>();
+            CompletableFuture<HttpResponse> secondResponse = new CompletableFuture<>();
+            when(mockClientManager.createHttpPost(any(), any())).thenReturn(firstRequest, secondRequest);
+            when(mockClientManager.executeAsync(firstRequest)).thenReturn(firstResponse);
+            when(mockClientManager.executeAsync(secondRequest)).thenReturn(secondResponse);
+
+            try {
+                CompletableFuture<Void> result = adapterService.publishBatchAsync(
+                        Arrays.asList(createEvent("jti-1"), createEvent("jti-2"))).toCompletableFuture();
+                Assert.assertFalse(result.isDone(), "The batch should not wait for the hub responses.");
+
+                firstResponse.complete(acceptedResponse);
+                Assert.assertFalse(result.isDone());
+                secondResponse.complete(acceptedResponse);
+                Assert.assertTrue(result.isDone());
+                Assert.assertFalse(result.isCompletedExceptionally());
+            } finally {
+                clearInvocations(mockClientManager);
+            }
+        }
+    }
+
+    @Test
+    public void testPublisherIsNonBlocking() {
+
+        Assert.assertTrue(adapterService.isNonBlocking());
+    }
+
     @Test
     public void testRegisterTopic() throws WebSubAdapterException {
 
@@ -144,4 +323,12 @@ public class WebSubHubAdapterServiceImplTest {
 
         adapterService.deregisterTopic("test-uri", "test-tenant");
     }
+
+    private static EventEnvelope createEvent(String jti) {
+
+        return EventEnvelope.builder()
+                .payload(SecurityEventTokenPayload.builder().iss("issuer").jti(jti).build())
+                .eventContext(EventContext.builder().tenantDomain("test-tenant").eventUri("test-uri").build())
+                .build();
+    }
 }